@@ -20,6 +20,7 @@ package org.apache.maven.index;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.apache.lucene.search.Query;
 import org.apache.maven.index.context.IndexingContext;
@@ -63,6 +64,21 @@ public class AbstractSearchRequest {
      */
     private boolean luceneExplain = false;
 
+    /**
+     * The time in milliseconds the search may take, after which contexts not searched yet (including the ones being
+     * searched, that stop at the deadline) are left out of the response. Defaults to {@link #UNDEFINED}, no timeout.
+     */
+    private long timeout = UNDEFINED;
+
+    /**
+     * The IDs of index creators whose stored fields should be loaded into resulting ArtifactInfo's (along with the
+     * creators they depend on), or {@code null} to load all of them. Loading only the fields needed (ie. just those of
+     * {@link org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator} for GAV listings) saves decoding of large
+     * stored fields, like class names. The fields of {@code MinimalArtifactInfoIndexCreator} are always loaded, as
+     * they make up the ArtifactInfo of a hit.
+     */
+    private Set<String> projection;
+
     public AbstractSearchRequest(Query query) {
         this(query, null);
     }
@@ -190,4 +206,49 @@ public class AbstractSearchRequest {
     public void setLuceneExplain(boolean luceneExplain) {
         this.luceneExplain = luceneExplain;
     }
+
+    /**
+     * Returns the timeout of the search in milliseconds, see {@link #timeout}.
+     *
+     * @since 7.1.7
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the timeout of the search in milliseconds, see {@link #timeout}. Contexts not searched in time are reported
+     * by {@link AbstractSearchResponse#getTimedOutContexts()}.
+     *
+     * @since 7.1.7
+     */
+    public void setTimeout(long timeout) {
+        if (UNDEFINED != timeout && timeout < 1) {
+            throw new IllegalArgumentException("Timeout cannot be less than 1!");
+        }
+
+        this.timeout = timeout;
+    }
+
+    /**
+     * Returns the IDs of index creators whose fields are loaded, see {@link #projection}.
+     *
+     * @since 7.1.7
+     */
+    public Set<String> getProjection() {
+        return projection;
+    }
+
+    /**
+     * Sets the IDs of index creators whose fields are loaded, see {@link #projection}.
+     *
+     * @throws IllegalArgumentException if the projection is empty, use {@code null} to load all fields.
+     * @since 7.1.7
+     */
+    public void setProjection(Set<String> projection) {
+        if (projection != null && projection.isEmpty()) {
+            throw new IllegalArgumentException("Projection cannot be empty, use null to load all fields");
+        }
+        this.projection = projection;
+    }
 }
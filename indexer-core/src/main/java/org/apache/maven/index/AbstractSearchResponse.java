@@ -20,6 +20,8 @@ package org.apache.maven.index;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.lucene.search.Query;
 
@@ -30,12 +32,27 @@ public class AbstractSearchResponse implements Closeable {
 
     private final int returnedHitsCount;
 
+    private final List<String> timedOutContexts;
+
     public AbstractSearchResponse(final Query query, final int totalHitsCount, final int returnedHitsCount) {
+        this(query, totalHitsCount, returnedHitsCount, Collections.emptyList());
+    }
+
+    /**
+     * @since 7.1.7
+     */
+    public AbstractSearchResponse(
+            final Query query,
+            final int totalHitsCount,
+            final int returnedHitsCount,
+            final List<String> timedOutContexts) {
         this.query = query;
 
         this.totalHitsCount = totalHitsCount;
 
         this.returnedHitsCount = returnedHitsCount;
+
+        this.timedOutContexts = Collections.unmodifiableList(timedOutContexts);
     }
 
     public Query getQuery() {
@@ -76,6 +93,16 @@ public class AbstractSearchResponse implements Closeable {
         return returnedHitsCount;
     }
 
+    /**
+     * Returns the IDs of the contexts left out of this response, as they were not searched within the timeout of the
+     * request. Empty if all the contexts were searched.
+     *
+     * @since 7.1.7
+     */
+    public List<String> getTimedOutContexts() {
+        return timedOutContexts;
+    }
+
     /**
      * Returns true if hit limit exceeded.
      *
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * A lazily opened view of the artifact file, scoped to one {@link ArtifactContext}, and shared by all the
+ * {@link org.apache.maven.index.context.IndexCreator}s processing that artifact. The archive central directory is read
+ * once, entry names, entry contents and the manifest are cached, and all the digests registered with
+ * {@link #requireDigest(String)} are computed in one sequential read of the file, and only those.
+ *
+ * @since 7.1.7
+ */
+public class ArtifactArchive implements Closeable {
+    public static final String MANIFEST_ENTRY = JarFile.MANIFEST_NAME;
+
+    private static final int BUFFER_SIZE = 128 * 1024;
+
+    /**
+     * Per-thread read buffers for digesting, of fixed size, so scanning threads reuse them across artifacts.
+     */
+    private static final ThreadLocal<ByteBuffer> BUFFERS =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(BUFFER_SIZE));
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final File file;
+
+    private final Set<String> requiredDigests = new LinkedHashSet<>();
+
+    private final Map<String, String> digests = new HashMap<>();
+
+    private final Map<String, byte[]> entries = new HashMap<>();
+
+    private ZipFile zipFile;
+
+    private ZipException notZip;
+
+    private boolean opened;
+
+    private Set<String> entryNames;
+
+    private Manifest manifest;
+
+    private boolean manifestRead;
+
+    public ArtifactArchive(final File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Registers a digest (by {@link MessageDigest} algorithm name) to be computed in the same pass over the file as
+     * the other registered digests. Digests that are registered after the first one was computed need another pass.
+     */
+    public void requireDigest(final String algorithm) {
+        try {
+            MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported digest algorithm: " + algorithm, e);
+        }
+        requiredDigests.add(algorithm);
+    }
+
+    /**
+     * Returns the hex encoded digest of the artifact file, computing it (and all other registered, not yet computed
+     * digests) if needed.
+     */
+    public String getDigest(final String algorithm) throws IOException {
+        String digest = digests.get(algorithm);
+        if (digest == null) {
+            requireDigest(algorithm);
+            computeDigests();
+            digest = digests.get(algorithm);
+        }
+        return digest;
+    }
+
+    /**
+     * Returns {@code true} if given digest was registered or is already computed, hence is available without any
+     * extra read of the artifact file but the one shared with the other registered digests.
+     *
+     * @see #requireDigest(String)
+     */
+    public boolean isDigestRequired(final String algorithm) {
+        return requiredDigests.contains(algorithm) || digests.containsKey(algorithm);
+    }
+
+    /**
+     * Returns the digests computed so far, keyed by algorithm.
+     */
+    public Map<String, String> getComputedDigests() {
+        return Collections.unmodifiableMap(digests);
+    }
+
+    /**
+     * Sets an already known (ie. cached) digest of the artifact file, that is then not computed.
+     */
+    void setDigest(final String algorithm, final String digest) {
+        digests.put(algorithm, digest);
+    }
+
+    /**
+     * Returns {@code true} if the artifact file is a ZIP archive (JAR, WAR, etc.). The methods accessing entries throw
+     * {@link ZipException} if it is not.
+     */
+    public boolean isZip() throws IOException {
+        open();
+        return notZip == null;
+    }
+
+    /**
+     * Returns the entry names, in central directory order.
+     */
+    public Set<String> getEntryNames() throws IOException {
+        if (entryNames == null) {
+            Set<String> names = new LinkedHashSet<>();
+            Enumeration<? extends ZipEntry> zipEntries = zipFile().entries();
+            while (zipEntries.hasMoreElements()) {
+                names.add(zipEntries.nextElement().getName());
+            }
+            entryNames = Collections.unmodifiableSet(names);
+        }
+        return entryNames;
+    }
+
+    public boolean hasEntry(final String name) throws IOException {
+        return entryNames != null ? entryNames.contains(name) : zipFile().getEntry(name) != null;
+    }
+
+    /**
+     * Returns the (cached) contents of the entry, or {@code null} if there is no such entry.
+     */
+    public byte[] getEntry(final String name) throws IOException {
+        byte[] content = entries.get(name);
+        if (content == null) {
+            ZipFile zipFile = zipFile();
+            ZipEntry zipEntry = zipFile.getEntry(name);
+            if (zipEntry != null) {
+                try (InputStream is = zipFile.getInputStream(zipEntry)) {
+                    content = is.readAllBytes();
+                }
+                entries.put(name, content);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Returns a stream over the (cached) contents of the entry, or {@code null} if there is no such entry.
+     */
+    public InputStream getEntryInputStream(final String name) throws IOException {
+        byte[] content = getEntry(name);
+        return content != null ? new ByteArrayInputStream(content) : null;
+    }
+
+    /**
+     * Returns the (cached) manifest, or {@code null} if there is none.
+     */
+    public Manifest getManifest() throws IOException {
+        if (!manifestRead) {
+            manifestRead = true;
+            try (InputStream is = getEntryInputStream(MANIFEST_ENTRY)) {
+                if (is != null) {
+                    manifest = new Manifest(is);
+                }
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Closes the underlying file, if open. The cached entries and digests are kept, and the file is reopened if needed.
+     */
+    @Override
+    public void close() throws IOException {
+        opened = false;
+        notZip = null;
+        if (zipFile != null) {
+            zipFile.close();
+            zipFile = null;
+        }
+    }
+
+    /**
+     * Opens the artifact file as ZIP archive, invoked at most once until {@link #close()}.
+     */
+    protected ZipFile openZipFile(final File file) throws IOException {
+        return new ZipFile(file);
+    }
+
+    /**
+     * Opens the artifact file for one sequential read computing all the registered, not yet computed digests.
+     */
+    protected FileChannel openChannel(final File file) throws IOException {
+        return FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    }
+
+    // ==
+
+    private void open() throws IOException {
+        if (!opened) {
+            try {
+                zipFile = openZipFile(file);
+            } catch (ZipException e) {
+                // not a zip file
+                notZip = e;
+            }
+            opened = true;
+        }
+    }
+
+    private ZipFile zipFile() throws IOException {
+        open();
+        if (notZip != null) {
+            throw notZip;
+        }
+        return zipFile;
+    }
+
+    private void computeDigests() throws IOException {
+        List<String> algorithms = new ArrayList<>(requiredDigests);
+        algorithms.removeAll(digests.keySet());
+        if (algorithms.isEmpty()) {
+            return;
+        }
+        List<MessageDigest> messageDigests = new ArrayList<>(algorithms.size());
+        for (String algorithm : algorithms) {
+            try {
+                messageDigests.add(MessageDigest.getInstance(algorithm));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e); // checked in requireDigest
+            }
+        }
+
+        final ByteBuffer buffer = BUFFERS.get();
+        buffer.clear();
+        try (FileChannel channel = openChannel(file)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                for (MessageDigest messageDigest : messageDigests) {
+                    messageDigest.update(buffer.array(), 0, buffer.limit());
+                }
+                buffer.clear();
+            }
+        }
+
+        for (int i = 0; i < algorithms.size(); i++) {
+            digests.put(algorithms.get(i), toHex(messageDigests.get(i).digest()));
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+        return new String(chars);
+    }
+}
@@ -24,16 +24,14 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipException;
-import java.util.zip.ZipFile;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
-import org.apache.lucene.document.StoredField;
 import org.apache.maven.index.artifact.Gav;
 import org.apache.maven.index.context.IndexCreator;
+import org.apache.maven.index.context.IndexUtils;
 import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.ArtifactArchiveAware;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
@@ -64,6 +62,10 @@ public class ArtifactContext {
 
     private final List<Exception> errors = new ArrayList<>();
 
+    private ArtifactArchive archive;
+
+    private boolean archiveShared;
+
     public ArtifactContext(File pom, File artifact, File metadata, ArtifactInfo artifactInfo, Gav gav)
             throws IllegalArgumentException {
         if (artifactInfo == null) {
@@ -93,25 +95,22 @@ public class ArtifactContext {
         }
         // Otherwise, check for pom contained in maven generated artifact
         else if (getArtifact() != null && getArtifact().isFile()) {
-            boolean isZip = false;
-            try (ZipFile zipFile = new ZipFile(artifact)) {
-                isZip = true;
-                final String embeddedPomPath =
-                        "META-INF/maven/" + getGav().getGroupId() + "/" + getGav().getArtifactId() + "/pom.xml";
-
-                ZipEntry zipEntry = zipFile.getEntry(embeddedPomPath);
-
-                if (zipEntry != null) {
-                    try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
-                        return new MavenXpp3Reader().read(inputStream, false);
+            try {
+                // no zip file -> ignore
+                if (getArchive().isZip()) {
+                    final String embeddedPomPath =
+                            "META-INF/maven/" + getGav().getGroupId() + "/" + getGav().getArtifactId() + "/pom.xml";
+
+                    try (InputStream inputStream = getArchive().getEntryInputStream(embeddedPomPath)) {
+                        if (inputStream != null) {
+                            return new MavenXpp3Reader().read(inputStream, false);
+                        }
                     }
                 }
             } catch (IOException | XmlPullParserException e) {
-                if (e instanceof ZipException && !isZip) {
-                    // ZipFile constructor threw ZipException which means this is no zip file -> ignore
-                } else {
-                    LOGGER.warn("skip error reading pom within artifact:" + artifact, e);
-                }
+                LOGGER.warn("skip error reading pom within artifact:" + artifact, e);
+            } finally {
+                releaseArchive();
             }
         }
 
@@ -122,6 +121,51 @@ public class ArtifactContext {
         return artifact;
     }
 
+    /**
+     * Returns the lazily opened view of the artifact file, shared by all index creators while creating the document,
+     * or {@code null} if there is no artifact file. Users must invoke {@link #releaseArchive()} when done.
+     *
+     * @since 7.1.7
+     */
+    public ArtifactArchive getArchive() {
+        if (archive == null && artifact != null) {
+            archive = createArchive(artifact);
+        }
+        return archive;
+    }
+
+    /**
+     * Creates the view of the artifact file returned by {@link #getArchive()}.
+     *
+     * @since 7.1.7
+     */
+    protected ArtifactArchive createArchive(final File artifact) {
+        return new ArtifactArchive(artifact);
+    }
+
+    /**
+     * Releases the archive returned by {@link #getArchive()}: it is closed, unless it is shared by the index creators
+     * while creating the document, in which case it is closed once the document is created. A closed archive keeps its
+     * cached contents and digests, and is reopened on demand.
+     *
+     * @since 7.1.7
+     */
+    public void releaseArchive() {
+        if (!archiveShared) {
+            closeArchive();
+        }
+    }
+
+    private void closeArchive() {
+        if (archive != null) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                LOGGER.debug("Failed to close artifact {}", artifact, e);
+            }
+        }
+    }
+
     public File getMetadata() {
         return metadata;
     }
@@ -151,16 +195,28 @@ public class ArtifactContext {
         // unique key
         doc.add(new Field(ArtifactInfo.UINFO, getArtifactInfo().getUinfo(), IndexerField.KEYWORD_STORED));
 
-        doc.add(new StoredField(
-                ArtifactInfo.LAST_MODIFIED, //
-                Long.toString(System.currentTimeMillis())));
+        IndexUtils.addLastModified(doc, System.currentTimeMillis());
 
-        for (IndexCreator indexCreator : context.getIndexCreators()) {
-            try {
-                indexCreator.populateArtifactInfo(this);
-            } catch (IOException ex) {
-                addError(ex);
+        archiveShared = true;
+        try {
+            if (getArchive() != null) {
+                for (IndexCreator indexCreator : context.getIndexCreators()) {
+                    if (indexCreator instanceof ArtifactArchiveAware) {
+                        ((ArtifactArchiveAware) indexCreator).prepareArchive(getArchive());
+                    }
+                }
+            }
+
+            for (IndexCreator indexCreator : context.getIndexCreators()) {
+                try {
+                    indexCreator.populateArtifactInfo(this);
+                } catch (IOException ex) {
+                    addError(ex);
+                }
             }
+        } finally {
+            archiveShared = false;
+            closeArchive();
         }
 
         // need a second pass in case index creators updated document attributes
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent cache of artifact file digests, keyed by file path and validated by file size and last modification
+ * time, so repository rescans do not need to rehash unchanged files. It is thread safe.
+ *
+ * @since 7.1.7
+ */
+public class ArtifactDigestCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactDigestCache.class);
+
+    private static final int VERSION = 1;
+
+    private final File file;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ArtifactDigestCache(final File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Loads the cache file, if exists. An unreadable cache file is ignored, and will be overwritten on next store.
+     */
+    public void load() {
+        entries.clear();
+        if (!file.isFile()) {
+            return;
+        }
+        try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != VERSION) {
+                return;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+                int digestCount = in.readUnsignedByte();
+                Map<String, String> digests = new HashMap<>(digestCount * 2);
+                for (int j = 0; j < digestCount; j++) {
+                    digests.put(in.readUTF(), in.readUTF());
+                }
+                entries.put(path, new Entry(size, lastModified, digests));
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Ignoring unreadable digest cache {}", file, e);
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the cached digests of given file, or {@code null} if the file changed since, or not all the asked
+     * digests are cached.
+     */
+    public Map<String, String> get(final File artifact, final Collection<String> algorithms) {
+        Entry entry = entries.get(artifact.getAbsolutePath());
+        if (entry == null || entry.size != artifact.length() || entry.lastModified != artifact.lastModified()) {
+            return null;
+        }
+        entry.seen = true;
+        if (!entry.digests.keySet().containsAll(algorithms)) {
+            return null;
+        }
+        return Collections.unmodifiableMap(entry.digests);
+    }
+
+    /**
+     * Keeps the cached digests of given file, that was not looked up, but is known to be unchanged.
+     */
+    public void keep(final File artifact) {
+        Entry entry = entries.get(artifact.getAbsolutePath());
+        if (entry != null) {
+            entry.seen = true;
+        }
+    }
+
+    /**
+     * Caches the digests of given file, along with the ones already cached, unless the file changed since.
+     */
+    public void put(final File artifact, final Map<String, String> digests) {
+        if (digests.isEmpty()) {
+            return;
+        }
+        long size = artifact.length();
+        long lastModified = artifact.lastModified();
+        entries.compute(artifact.getAbsolutePath(), (path, entry) -> {
+            Map<String, String> merged = new HashMap<>(digests);
+            if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+                entry.digests.forEach(merged::putIfAbsent);
+            }
+            Entry result = new Entry(size, lastModified, merged);
+            result.seen = true;
+            return result;
+        });
+    }
+
+    /**
+     * Stores the cache file. Entries of files within given directory that were not looked up nor added since loading
+     * (ie. the files are gone) are dropped.
+     */
+    public void store(final File scannedDirectory) throws IOException {
+        String prefix = scannedDirectory != null ? scannedDirectory.getAbsolutePath() + File.separator : null;
+        for (Iterator<Map.Entry<String, Entry>> i = entries.entrySet().iterator(); i.hasNext(); ) {
+            Map.Entry<String, Entry> entry = i.next();
+            if (!entry.getValue().seen && prefix != null && entry.getKey().startsWith(prefix)) {
+                i.remove();
+            }
+        }
+
+        Path target = file.toPath();
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            Map<String, Entry> snapshot = new HashMap<>(entries);
+            out.writeInt(VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Entry> entry : snapshot.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().size);
+                out.writeLong(entry.getValue().lastModified);
+                out.writeByte(entry.getValue().digests.size());
+                for (Map.Entry<String, String> digest : entry.getValue().digests.entrySet()) {
+                    out.writeUTF(digest.getKey());
+                    out.writeUTF(digest.getValue());
+                }
+            }
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Returns the count of cached files.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final long size;
+
+        private final long lastModified;
+
+        private final Map<String, String> digests;
+
+        private volatile boolean seen;
+
+        private Entry(final long size, final long lastModified, final Map<String, String> digests) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digests = digests;
+        }
+    }
+}
@@ -25,12 +25,15 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.index.artifact.Gav;
 import org.apache.maven.index.creator.JarFileContentsIndexCreator;
 import org.apache.maven.index.creator.MavenPluginArtifactInfoIndexCreator;
 import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
 import org.apache.maven.index.creator.OsgiArtifactIndexCreator;
+import org.apache.maven.index.util.VersionKeys;
 import org.eclipse.aether.util.version.GenericVersionScheme;
 import org.eclipse.aether.version.InvalidVersionSpecificationException;
 import org.eclipse.aether.version.Version;
@@ -43,7 +46,7 @@ import org.eclipse.aether.version.VersionScheme;
  * @author Jason van Zyl
  * @author Eugene Kuleshov
  */
-public class ArtifactInfo extends ArtifactInfoRecord {
+public class ArtifactInfo extends ArtifactInfoRecord implements ArtifactView {
     private static final long serialVersionUID = 6028843453477511105L;
 
     // --
@@ -117,6 +120,71 @@ public class ArtifactInfo extends ArtifactInfoRecord {
      */
     public static final String LAST_MODIFIED = MinimalArtifactInfoIndexCreator.FLD_LAST_MODIFIED.getKey();
 
+    /**
+     * Last modified as a number. Indexed as point and doc values, not stored (and hence not transferred)
+     *
+     * @since 7.1.7
+     */
+    public static final String LAST_MODIFIED_POINT = "mp";
+
+    /**
+     * The {@link #DELETED} value of deletion markers, indexed as keyword, not stored (and hence not transferred), so a
+     * marker re-applied from an incremental chunk replaces the one already present.
+     *
+     * @since 7.1.7
+     */
+    public static final String DELETED_KEY = "dk";
+
+    /**
+     * GroupId as sorted doc values, not stored (and hence not transferred)
+     *
+     * @since 7.1.7
+     */
+    public static final String GROUP_ID_DV = "gdv";
+
+    /**
+     * ArtifactId as sorted doc values, not stored (and hence not transferred)
+     *
+     * @since 7.1.7
+     */
+    public static final String ARTIFACT_ID_DV = "adv";
+
+    /**
+     * Version as sorted doc values, not stored (and hence not transferred)
+     *
+     * @since 7.1.7
+     */
+    public static final String VERSION_DV = "vdv";
+
+    /**
+     * Version key (see {@link VersionKeys}) as sorted doc values, for versions having one. Not stored (and hence not
+     * transferred)
+     *
+     * @since 7.1.7
+     */
+    public static final String VERSION_KEY_DV = "vkdv";
+
+    /**
+     * Classifier as sorted doc values, not stored (and hence not transferred)
+     *
+     * @since 7.1.7
+     */
+    public static final String CLASSIFIER_DV = "ldv";
+
+    /**
+     * Extension as sorted doc values, not stored (and hence not transferred)
+     *
+     * @since 7.1.7
+     */
+    public static final String EXTENSION_DV = "edv";
+
+    /**
+     * Packaging as sorted doc values, not stored (and hence not transferred)
+     *
+     * @since 7.1.7
+     */
+    public static final String PACKAGING_DV = "pdv";
+
     /**
      * SHA1. Stored, indexed untokenized
      */
@@ -184,6 +252,12 @@ public class ArtifactInfo extends ArtifactInfoRecord {
 
     private transient Version artifactVersion;
 
+    /**
+     * The {@link VersionKeys key} of the version, {@link #NO_VERSION_KEY} if it has none, or {@code null} if not
+     * computed yet.
+     */
+    private transient byte[] versionKey;
+
     private transient float luceneScore;
 
     private String classifier;
@@ -329,8 +403,23 @@ public class ArtifactInfo extends ArtifactInfoRecord {
 
     private final transient VersionScheme versionScheme;
 
+    /**
+     * The version scheme shared by all instances, as it is stateless.
+     */
+    private static final VersionScheme VERSION_SCHEME = new GenericVersionScheme();
+
+    private static final int VERSION_CACHE_SIZE = 4096;
+
+    /**
+     * The recently parsed versions, as many artifacts share their version. Lookups take no lock; when the cache grows
+     * past {@link #VERSION_CACHE_SIZE} it is cleared, instead of tracking which entries were used last.
+     */
+    private static final ConcurrentMap<String, Version> VERSION_CACHE = new ConcurrentHashMap<>();
+
+    private static final byte[] NO_VERSION_KEY = new byte[0];
+
     public ArtifactInfo() {
-        versionScheme = new GenericVersionScheme();
+        versionScheme = VERSION_SCHEME;
     }
 
     public ArtifactInfo(
@@ -344,10 +433,62 @@ public class ArtifactInfo extends ArtifactInfoRecord {
         this.fileExtension = extension;
     }
 
+    /**
+     * Returns a copy of this ArtifactInfo, sharing no mutable state with it.
+     */
+    ArtifactInfo copy() {
+        ArtifactInfo result = new ArtifactInfo();
+        result.fileName = fileName;
+        result.fileExtension = fileExtension;
+        result.groupId = groupId;
+        result.artifactId = artifactId;
+        result.version = version;
+        result.artifactVersion = artifactVersion;
+        result.versionKey = versionKey;
+        result.luceneScore = luceneScore;
+        result.classifier = classifier;
+        result.packaging = packaging;
+        result.name = name;
+        result.description = description;
+        result.lastModified = lastModified;
+        result.size = size;
+        result.md5 = md5;
+        result.sha1 = sha1;
+        result.sourcesExists = sourcesExists;
+        result.javadocExists = javadocExists;
+        result.signatureExists = signatureExists;
+        result.classNames = classNames;
+        result.repository = repository;
+        result.path = path;
+        result.remoteUrl = remoteUrl;
+        result.context = context;
+        result.prefix = prefix;
+        result.goals = goals != null ? new ArrayList<>(goals) : null;
+        result.bundleVersion = bundleVersion;
+        result.bundleSymbolicName = bundleSymbolicName;
+        result.bundleExportPackage = bundleExportPackage;
+        result.bundleExportService = bundleExportService;
+        result.bundleDescription = bundleDescription;
+        result.bundleName = bundleName;
+        result.bundleLicense = bundleLicense;
+        result.bundleDocUrl = bundleDocUrl;
+        result.bundleImportPackage = bundleImportPackage;
+        result.bundleRequireBundle = bundleRequireBundle;
+        result.bundleProvideCapability = bundleProvideCapability;
+        result.bundleRequireCapability = bundleRequireCapability;
+        result.sha256 = sha256;
+        result.bundleFragmentHost = bundleFragmentHost;
+        result.bundleRequiredExecutionEnvironment = bundleRequiredExecutionEnvironment;
+        result.attributes.putAll(attributes);
+        result.matchHighlights.addAll(matchHighlights);
+        result.fields = fields != null ? new ArrayList<>(fields) : null;
+        return result;
+    }
+
     public Version getArtifactVersion() {
         if (artifactVersion == null) {
             try {
-                artifactVersion = versionScheme.parseVersion(version);
+                artifactVersion = parseVersion(version);
             } catch (InvalidVersionSpecificationException e) {
                 // will not happen, only with version ranges but we should not have those
                 // we handle POM versions here, not dependency versions
@@ -357,6 +498,52 @@ public class ArtifactInfo extends ArtifactInfoRecord {
         return artifactVersion;
     }
 
+    private Version parseVersion(final String version) throws InvalidVersionSpecificationException {
+        if (version == null || versionScheme != VERSION_SCHEME) {
+            return versionScheme.parseVersion(version);
+        }
+
+        Version result = VERSION_CACHE.get(version);
+        if (result == null) {
+            result = VERSION_SCHEME.parseVersion(version);
+            if (VERSION_CACHE.size() >= VERSION_CACHE_SIZE) {
+                VERSION_CACHE.clear();
+            }
+            VERSION_CACHE.putIfAbsent(version, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the key of the version, or {@code null} if it has none (or the version was set as parsed).
+     */
+    byte[] getVersionKey() {
+        if (versionKey == null) {
+            byte[] key = VersionKeys.encode(version);
+            versionKey = key != null ? key : NO_VERSION_KEY;
+        }
+        return versionKey == NO_VERSION_KEY ? null : versionKey;
+    }
+
+    /**
+     * Sets the key of the version, as read from the index.
+     */
+    void setVersionKey(byte[] versionKey) {
+        this.versionKey = versionKey;
+    }
+
+    /**
+     * Compares the versions of artifacts, by their keys if both have one, parsing them otherwise.
+     */
+    static int compareVersions(final ArtifactInfo f1, final ArtifactInfo f2) {
+        final byte[] k1 = f1.getVersionKey();
+        final byte[] k2 = f2.getVersionKey();
+        if (k1 != null && k2 != null) {
+            return VersionKeys.compare(k1, k2);
+        }
+        return f1.getArtifactVersion().compareTo(f2.getArtifactVersion());
+    }
+
     public float getLuceneScore() {
         return luceneScore;
     }
@@ -365,6 +552,16 @@ public class ArtifactInfo extends ArtifactInfoRecord {
         this.luceneScore = score;
     }
 
+    /**
+     * Returns this instance.
+     *
+     * @since 7.1.7
+     */
+    @Override
+    public ArtifactInfo toArtifactInfo() {
+        return this;
+    }
+
     public String getUinfo() {
         return groupId + FS + artifactId + FS + version + FS + nvl(classifier) + FS + fileExtension;
         // extension is stored in the packaging field when classifier is not used
@@ -539,7 +736,7 @@ public class ArtifactInfo extends ArtifactInfoRecord {
                 return n;
             }
 
-            n = -f1.getArtifactVersion().compareTo(f2.getArtifactVersion());
+            n = -compareVersions(f1, f2);
             if (n != 0) {
                 return n;
             }
@@ -655,10 +852,13 @@ public class ArtifactInfo extends ArtifactInfoRecord {
 
     public void setVersion(String version) {
         this.version = version;
+        this.versionKey = null;
     }
 
     public void setArtifactVersion(Version artifactVersion) {
         this.artifactVersion = artifactVersion;
+        // compare by the version as set
+        this.versionKey = NO_VERSION_KEY;
     }
 
     public String getClassifier() {
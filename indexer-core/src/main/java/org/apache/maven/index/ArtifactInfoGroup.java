@@ -30,7 +30,9 @@ import java.util.TreeSet;
 public class ArtifactInfoGroup {
     private String groupKey;
 
-    private final Set<ArtifactInfo> artifactInfos;
+    private final TreeSet<ArtifactInfo> artifactInfos;
+
+    private int count;
 
     public ArtifactInfoGroup(String groupKey) {
         this(groupKey, ArtifactInfo.VERSION_COMPARATOR);
@@ -42,18 +44,56 @@ public class ArtifactInfoGroup {
         this.artifactInfos = new TreeSet<>(comparator);
     }
 
+    private ArtifactInfoGroup(String groupKey, TreeSet<ArtifactInfo> artifactInfos, int count) {
+        this.groupKey = groupKey;
+
+        this.artifactInfos = artifactInfos;
+
+        this.count = count;
+    }
+
     public String getGroupKey() {
         return groupKey;
     }
 
     public boolean addArtifactInfo(ArtifactInfo artifactInfo) {
-        return artifactInfos.add(artifactInfo);
+        if (artifactInfos.add(artifactInfo)) {
+            count++;
+            return true;
+        }
+        return false;
     }
 
     public Set<ArtifactInfo> getArtifactInfos() {
         return artifactInfos;
     }
 
+    /**
+     * Returns the count of ArtifactInfo's added to this group. It is the size of {@link #getArtifactInfos()}, unless
+     * the group is the result of a {@link GroupedSearchRequest#isCollapsed() collapsed} search, and holds only the top
+     * ArtifactInfo of those.
+     *
+     * @since 7.1.7
+     */
+    public int getCount() {
+        return count;
+    }
+
+    void addCount(int count) {
+        this.count += count;
+    }
+
+    /**
+     * Returns a copy of this group, holding copies of its ArtifactInfo's.
+     */
+    ArtifactInfoGroup copy() {
+        TreeSet<ArtifactInfo> copies = new TreeSet<>(artifactInfos.comparator());
+        for (ArtifactInfo artifactInfo : artifactInfos) {
+            copies.add(artifactInfo.copy());
+        }
+        return new ArtifactInfoGroup(groupKey, copies, count);
+    }
+
     @Override
     public String toString() {
         return groupKey + "=" + artifactInfos;
@@ -18,6 +18,8 @@
  */
 package org.apache.maven.index;
 
+import java.util.Collection;
+
 import org.apache.maven.index.context.IndexingContext;
 
 /**
@@ -28,6 +30,25 @@ import org.apache.maven.index.context.IndexingContext;
 public interface ArtifactScanningListener extends ArtifactDiscoveryListener {
     void scanningStarted(IndexingContext ctx);
 
+    /**
+     * Invoked instead of {@link #scanningStarted(IndexingContext)} when an incremental scan starts, see
+     * {@link ScanningRequest#setIncremental(boolean)}. Only artifacts of changed directories are discovered, some of
+     * them possibly already indexed, and the artifacts that are gone are reported with
+     * {@link #artifactsRemoved(IndexingContext, Collection)}.
+     *
+     * @since 7.1.7
+     */
+    default void incrementalScanningStarted(IndexingContext ctx) {
+        scanningStarted(ctx);
+    }
+
+    /**
+     * Invoked by incremental scans with the UINFOs of the indexed artifacts whose files are gone.
+     *
+     * @since 7.1.7
+     */
+    default void artifactsRemoved(IndexingContext ctx, Collection<String> uinfos) {}
+
     void scanningFinished(IndexingContext ctx, ScanningResult result);
 
     void artifactError(ArtifactContext ac, Exception e);
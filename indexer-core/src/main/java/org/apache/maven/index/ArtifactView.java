@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+/**
+ * A read-only view of the values known about a repository artifact, as found by a search. Views returned by
+ * {@link IteratorResultSet#views()} may be reused for each step of the iteration, and are valid only until the next
+ * one: use {@link #toArtifactInfo()} to keep the artifact.
+ *
+ * @since 7.1.7
+ */
+public interface ArtifactView {
+    String getUinfo();
+
+    String getGroupId();
+
+    String getArtifactId();
+
+    String getVersion();
+
+    String getClassifier();
+
+    String getFileExtension();
+
+    String getPackaging();
+
+    long getLastModified();
+
+    long getSize();
+
+    String getName();
+
+    String getDescription();
+
+    String getSha1();
+
+    String getRepository();
+
+    String getContext();
+
+    float getLuceneScore();
+
+    /**
+     * Returns the artifact as a full ArtifactInfo, loading all fields of it, if this view was not one already. Like
+     * its values, a reused view can be loaded only until {@code hasNext()} is called again on the iterator that
+     * returned it: once the iteration ended (or the result set was closed) this method throws
+     * {@link IllegalStateException}.
+     */
+    ArtifactInfo toArtifactInfo();
+}
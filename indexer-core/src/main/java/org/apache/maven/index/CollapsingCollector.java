@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.util.BytesRef;
+import org.apache.maven.index.context.IndexingContext;
+
+/**
+ * Groups the hits of a single context by their coordinates read from doc values, and then loads the stored fields of
+ * the top hit of each group only, see {@link GroupedSearchRequest#isCollapsed()}. Documents lacking coordinate doc
+ * values (ie. added by an older version) are loaded in full as collected. Documents must be collected in increasing
+ * document ID order.
+ *
+ * @since 7.1.7
+ */
+final class CollapsingCollector extends SimpleCollector {
+    private final Grouping grouping;
+
+    private final IndexingContext context;
+
+    private final IndexSearcher indexSearcher;
+
+    private final FieldProjection projection;
+
+    private final Map<String, ArtifactInfoGroup> groups = new HashMap<>();
+
+    /**
+     * The (top level) document IDs of grouped ArtifactInfo's that hold coordinates only, to be loaded if top.
+     */
+    private final Map<ArtifactInfo, Integer> docs = new IdentityHashMap<>();
+
+    /**
+     * The UINFOs of the ArtifactInfo's of each group, kept once collapsed to merge the groups of several contexts.
+     */
+    private final Map<String, Set<String>> uinfos = new HashMap<>();
+
+    private final Column groupId = new Column(ArtifactInfo.GROUP_ID_DV);
+
+    private final Column artifactId = new Column(ArtifactInfo.ARTIFACT_ID_DV);
+
+    private final Column version = new Column(ArtifactInfo.VERSION_DV);
+
+    private final Column classifier = new Column(ArtifactInfo.CLASSIFIER_DV);
+
+    private final Column extension = new Column(ArtifactInfo.EXTENSION_DV);
+
+    private final Column packaging = new Column(ArtifactInfo.PACKAGING_DV);
+
+    private final Column versionKey = new Column(ArtifactInfo.VERSION_KEY_DV);
+
+    private int docBase;
+
+    private int count;
+
+    CollapsingCollector(
+            final Grouping grouping,
+            final IndexingContext context,
+            final IndexSearcher indexSearcher,
+            final FieldProjection projection) {
+        this.grouping = grouping;
+        this.context = context;
+        this.indexSearcher = indexSearcher;
+        this.projection = projection;
+    }
+
+    @Override
+    protected void doSetNextReader(LeafReaderContext leaf) throws IOException {
+        this.docBase = leaf.docBase;
+        groupId.reset(leaf.reader());
+        artifactId.reset(leaf.reader());
+        version.reset(leaf.reader());
+        classifier.reset(leaf.reader());
+        extension.reset(leaf.reader());
+        packaging.reset(leaf.reader());
+        versionKey.reset(leaf.reader());
+    }
+
+    @Override
+    public void collect(int doc) throws IOException {
+        ArtifactInfo artifactInfo;
+        boolean loaded;
+
+        if (groupId.advanceExact(doc)) {
+            artifactInfo = new ArtifactInfo();
+            artifactInfo.setGroupId(groupId.value());
+            artifactInfo.setArtifactId(artifactId.advanceExact(doc) ? artifactId.value() : null);
+            artifactInfo.setVersion(version.advanceExact(doc) ? version.value() : null);
+            artifactInfo.setClassifier(classifier.advanceExact(doc) ? classifier.value() : null);
+            artifactInfo.setFileExtension(extension.advanceExact(doc) ? extension.value() : null);
+            artifactInfo.setPackaging(packaging.advanceExact(doc) ? packaging.value() : null);
+            if (versionKey.advanceExact(doc)) {
+                // spares encoding it again when the grouping compares versions
+                artifactInfo.setVersionKey(versionKey.bytes());
+            }
+            loaded = false;
+        } else {
+            artifactInfo = load(docBase + doc);
+            if (artifactInfo == null) {
+                // not an artifact document
+                return;
+            }
+            loaded = true;
+        }
+
+        artifactInfo.setRepository(context.getRepositoryId());
+        artifactInfo.setContext(context.getId());
+
+        if (grouping.addArtifactInfo(groups, artifactInfo)) {
+            count++;
+            if (!loaded) {
+                docs.put(artifactInfo, docBase + doc);
+            }
+        }
+    }
+
+    @Override
+    public ScoreMode scoreMode() {
+        return ScoreMode.COMPLETE_NO_SCORES;
+    }
+
+    /**
+     * Returns the count of ArtifactInfo's grouped, not counting those the grouping rejected as duplicates.
+     */
+    int getCount() {
+        return count;
+    }
+
+    /**
+     * Replaces the ArtifactInfo's of each group with its top one, loaded in full, and returns the groups.
+     */
+    Map<String, ArtifactInfoGroup> collapse() throws IOException {
+        Iterator<Map.Entry<String, ArtifactInfoGroup>> groupIterator = groups.entrySet().iterator();
+        while (groupIterator.hasNext()) {
+            Map.Entry<String, ArtifactInfoGroup> entry = groupIterator.next();
+            ArtifactInfoGroup group = entry.getValue();
+
+            ArtifactInfo top = group.getArtifactInfos().iterator().next();
+            Integer doc = docs.get(top);
+            if (doc != null) {
+                top = load(doc);
+                if (top == null) {
+                    groupIterator.remove();
+                    continue;
+                }
+                top.setRepository(context.getRepositoryId());
+                top.setContext(context.getId());
+            }
+
+            Set<String> groupUinfos = new HashSet<>();
+            for (ArtifactInfo artifactInfo : group.getArtifactInfos()) {
+                groupUinfos.add(artifactInfo.getUinfo());
+            }
+            uinfos.put(entry.getKey(), groupUinfos);
+
+            group.getArtifactInfos().clear();
+            group.getArtifactInfos().add(top);
+        }
+
+        docs.clear();
+
+        return groups;
+    }
+
+    /**
+     * Returns the UINFOs of the ArtifactInfo's of each group returned by {@link #collapse()}, by group key.
+     */
+    Map<String, Set<String>> getUinfos() {
+        return uinfos;
+    }
+
+    private ArtifactInfo load(final int doc) throws IOException {
+        Document document = projection.document(indexSearcher, doc, context);
+        return projection.artifactInfo(document, context);
+    }
+
+    /**
+     * Sorted doc values of a coordinate in the current segment, remembering the last value looked up, as hits of the
+     * same group tend to be next to each other.
+     */
+    private static final class Column {
+        private final String field;
+
+        private SortedDocValues values;
+
+        private int lastOrd;
+
+        private String lastValue;
+
+        private byte[] lastBytes;
+
+        private Column(String field) {
+            this.field = field;
+        }
+
+        private void reset(LeafReader reader) throws IOException {
+            values = reader.getSortedDocValues(field);
+            lastOrd = -1;
+            lastValue = null;
+            lastBytes = null;
+        }
+
+        private boolean advanceExact(int doc) throws IOException {
+            return values != null && values.advanceExact(doc);
+        }
+
+        private String value() throws IOException {
+            int ord = values.ordValue();
+            if (ord != lastOrd || lastValue == null) {
+                lastValue = values.lookupOrd(ord).utf8ToString();
+                lastBytes = null;
+                lastOrd = ord;
+            }
+            return lastValue;
+        }
+
+        private byte[] bytes() throws IOException {
+            int ord = values.ordValue();
+            if (ord != lastOrd || lastBytes == null) {
+                lastBytes = BytesRef.deepCopyOf(values.lookupOrd(ord)).bytes;
+                lastValue = null;
+                lastOrd = ord;
+            }
+            return lastBytes;
+        }
+    }
+}
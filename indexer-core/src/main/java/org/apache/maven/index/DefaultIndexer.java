@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.search.Query;
@@ -67,6 +68,16 @@ public class DefaultIndexer implements Indexer {
         this.queryCreator = queryCreator;
     }
 
+    /**
+     * Creates an indexer with a {@link DefaultSearchEngine} searching the participating contexts concurrently with the
+     * executor, or one after the other on the calling thread if {@code null}.
+     *
+     * @since 7.1.7
+     */
+    public DefaultIndexer(IndexerEngine indexerEngine, QueryCreator queryCreator, Executor searchExecutor) {
+        this(new DefaultSearchEngine(searchExecutor), indexerEngine, queryCreator);
+    }
+
     // ----------------------------------------------------------------------------
     // Contexts
     // ----------------------------------------------------------------------------
@@ -126,9 +137,7 @@ public class DefaultIndexer implements Indexer {
 
     public void addArtifactsToIndex(Collection<ArtifactContext> ac, IndexingContext context) throws IOException {
         if (ac != null && !ac.isEmpty()) {
-            for (ArtifactContext actx : ac) {
-                indexerEngine.update(context, actx);
-            }
+            indexerEngine.update(context, ac);
 
             context.commit();
         }
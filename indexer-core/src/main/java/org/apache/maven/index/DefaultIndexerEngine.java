@@ -22,18 +22,35 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.MultiTerms;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.StoredFieldVisitor;
+import org.apache.lucene.index.StoredFields;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
-import org.apache.lucene.search.TermQuery;
-import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.maven.index.context.IndexUtils;
 import org.apache.maven.index.context.IndexingContext;
 import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
 
@@ -64,15 +81,12 @@ public class DefaultIndexerEngine implements IndexerEngine {
             Document d = ac.createDocument(context);
 
             if (d != null) {
-                Document old = getOldDocument(context, ac);
+                String uinfo = ac.getArtifactInfo().getUinfo();
 
-                if (!equals(d, old)) {
-                    IndexWriter w = context.getIndexWriter();
+                if (!getChanged(context, Collections.singletonMap(uinfo, d)).isEmpty()) {
+                    context.getIndexWriter().updateDocument(new Term(ArtifactInfo.UINFO, uinfo), d);
 
-                    w.updateDocument(
-                            new Term(ArtifactInfo.UINFO, ac.getArtifactInfo().getUinfo()), d);
-
-                    updateGroups(context, ac);
+                    updateGroups(context, Collections.singletonList(ac));
 
                     context.updateTimestamp();
                 }
@@ -80,91 +94,203 @@ public class DefaultIndexerEngine implements IndexerEngine {
         }
     }
 
-    public void remove(IndexingContext context, ArtifactContext ac) throws IOException {
-        if (ac != null) {
-            final String uinfo = ac.getArtifactInfo().getUinfo();
+    @Override
+    public void update(IndexingContext context, Collection<ArtifactContext> acs) throws IOException {
+        // sorted by UINFO, so the existing documents are looked up in terms order; the last one wins as in sequence
+        final TreeMap<String, Document> docs = new TreeMap<>();
+        final Map<String, ArtifactContext> artifacts = new HashMap<>();
+        for (ArtifactContext ac : acs) {
+            if (ac != null && ac.getGav() != null) {
+                Document d = ac.createDocument(context);
 
-            // add artifact deletion marker
-            final Document doc = new Document();
+                if (d != null) {
+                    String uinfo = ac.getArtifactInfo().getUinfo();
+                    docs.put(uinfo, d);
+                    artifacts.put(uinfo, ac);
+                }
+            }
+        }
+        if (docs.isEmpty()) {
+            return;
+        }
 
-            doc.add(new StoredField(ArtifactInfo.DELETED, uinfo));
-            doc.add(new StoredField(
-                    ArtifactInfo.LAST_MODIFIED, //
-                    Long.toString(System.currentTimeMillis())));
+        final List<String> changed = getChanged(context, docs);
 
+        if (!changed.isEmpty()) {
             IndexWriter w = context.getIndexWriter();
-            w.addDocument(doc);
-            w.deleteDocuments(new Term(ArtifactInfo.UINFO, uinfo));
+            for (String uinfo : changed) {
+                w.updateDocument(new Term(ArtifactInfo.UINFO, uinfo), docs.get(uinfo));
+            }
+
+            updateGroups(context, changed.stream().map(artifacts::get).collect(Collectors.toList()));
+
             context.updateTimestamp();
         }
     }
 
-    // ==
+    public void remove(IndexingContext context, ArtifactContext ac) throws IOException {
+        remove(context, Collections.singletonList(ac));
+    }
 
-    private boolean equals(final Document d1, final Document d2) {
-        if (d1 == null && d2 == null) {
-            return true;
-        }
-        if (d1 == null || d2 == null) {
-            return false;
-        }
+    @Override
+    public void remove(IndexingContext context, Collection<ArtifactContext> acs) throws IOException {
+        final IndexWriter w = context.getIndexWriter();
+        final List<Term> uinfoTerms = new ArrayList<>(acs.size());
+        for (ArtifactContext ac : acs) {
+            if (ac != null) {
+                final String uinfo = ac.getArtifactInfo().getUinfo();
 
-        final Map<String, String> m1 = toMap(d1);
-        final Map<String, String> m2 = toMap(d2);
+                // add artifact deletion marker
+                final Document doc = new Document();
 
-        m1.remove(MinimalArtifactInfoIndexCreator.FLD_LAST_MODIFIED.getKey());
-        m2.remove(MinimalArtifactInfoIndexCreator.FLD_LAST_MODIFIED.getKey());
+                doc.add(new StoredField(ArtifactInfo.DELETED, uinfo));
+                IndexUtils.addLastModified(doc, System.currentTimeMillis());
 
-        return m1.equals(m2);
+                w.updateDocument(IndexUtils.indexDeleted(doc), doc);
+                uinfoTerms.add(new Term(ArtifactInfo.UINFO, uinfo));
+            }
+        }
+
+        if (!uinfoTerms.isEmpty()) {
+            w.deleteDocuments(uinfoTerms.toArray(new Term[0]));
+            context.updateTimestamp();
+        }
     }
 
-    private Map<String, String> toMap(Document d) {
-        final HashMap<String, String> result = new HashMap<>();
+    // ==
 
-        for (Object o : d.getFields()) {
-            IndexableField f = (IndexableField) o;
-            if (f.fieldType().stored()) {
-                result.put(f.name(), f.stringValue());
+    /**
+     * Returns the UINFOs of the documents that are new, or whose stored fields (ignoring last modified) differ from
+     * the indexed ones, in the iteration order of the passed in documents.
+     */
+    private static List<String> getChanged(final IndexingContext context, final Map<String, Document> docs)
+            throws IOException {
+        final List<String> changed = new ArrayList<>(docs.size());
+        IndexUtils.waitForOwnWrites(context);
+        final IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try {
+            final IndexReader reader = indexSearcher.getIndexReader();
+            final Terms terms = MultiTerms.getTerms(reader, ArtifactInfo.UINFO);
+            final TermsEnum termsEnum = terms != null ? terms.iterator() : null;
+            final Bits liveDocs = MultiBits.getLiveDocs(reader);
+            final StoredFields storedFields = reader.storedFields();
+            PostingsEnum postings = null;
+            for (Map.Entry<String, Document> entry : docs.entrySet()) {
+                int oldDoc = -1;
+                if (termsEnum != null && termsEnum.seekExact(new BytesRef(entry.getKey()))) {
+                    postings = termsEnum.postings(postings, PostingsEnum.NONE);
+                    oldDoc = singleLiveDoc(postings, liveDocs);
+                }
+                boolean unchanged = false;
+                if (oldDoc != -1) {
+                    StoredFieldMap old = new StoredFieldMap();
+                    storedFields.document(oldDoc, old);
+                    unchanged = old.fields.equals(StoredFieldMap.of(entry.getValue()).fields);
+                }
+                if (!unchanged) {
+                    changed.add(entry.getKey());
+                }
             }
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
         }
-
-        return result;
+        return changed;
     }
 
-    private Document getOldDocument(IndexingContext context, ArtifactContext ac) {
-        try {
-            final IndexSearcher indexSearcher = context.acquireIndexSearcher();
-            try {
-                TopDocs result = indexSearcher.search(
-                        new TermQuery(new Term(
-                                ArtifactInfo.UINFO, ac.getArtifactInfo().getUinfo())),
-                        2);
-
-                if (result.totalHits.value == 1) {
-                    return indexSearcher.doc(result.scoreDocs[0].doc);
+    /**
+     * Returns the only live document in postings, or -1 if there is none or more than one (as the single document
+     * search did).
+     */
+    private static int singleLiveDoc(final PostingsEnum postings, final Bits liveDocs) throws IOException {
+        int result = -1;
+        for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+            if (liveDocs == null || liveDocs.get(doc)) {
+                if (result != -1) {
+                    return -1;
                 }
-            } finally {
-                context.releaseIndexSearcher(indexSearcher);
+                result = doc;
             }
-        } catch (IOException e) {
-            // huh?
-            throw new IllegalStateException(e);
         }
-        return null;
+        return result;
     }
 
-    private void updateGroups(IndexingContext context, ArtifactContext ac) throws IOException {
-        String rootGroup = ac.getArtifactInfo().getRootGroup();
+    private void updateGroups(IndexingContext context, Collection<ArtifactContext> acs) throws IOException {
         Set<String> rootGroups = context.getRootGroups();
-        if (!rootGroups.contains(rootGroup)) {
-            rootGroups.add(rootGroup);
+        Set<String> allGroups = context.getAllGroups();
+        boolean rootGroupsChanged = false;
+        boolean allGroupsChanged = false;
+        for (ArtifactContext ac : acs) {
+            rootGroupsChanged |= rootGroups.add(ac.getArtifactInfo().getRootGroup());
+            allGroupsChanged |= allGroups.add(ac.getArtifactInfo().getGroupId());
+        }
+        if (rootGroupsChanged) {
             context.setRootGroups(rootGroups);
         }
-
-        Set<String> allGroups = context.getAllGroups();
-        if (!allGroups.contains(ac.getArtifactInfo().getGroupId())) {
-            allGroups.add(ac.getArtifactInfo().getGroupId());
+        if (allGroupsChanged) {
             context.setAllGroups(allGroups);
         }
     }
+
+    /**
+     * The stored field names and values of a document, ignoring the last modified field, used to find out whether a
+     * document changed. Can be collected directly from the stored fields of the index.
+     */
+    private static final class StoredFieldMap extends StoredFieldVisitor {
+        private static final String LAST_MODIFIED = MinimalArtifactInfoIndexCreator.FLD_LAST_MODIFIED.getKey();
+
+        private final Map<String, String> fields = new HashMap<>();
+
+        static StoredFieldMap of(final Document d) {
+            StoredFieldMap result = new StoredFieldMap();
+            for (IndexableField f : d.getFields()) {
+                if (f.fieldType().stored()) {
+                    result.put(f.name(), f.stringValue());
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Status needsField(final FieldInfo fieldInfo) {
+            return Status.YES;
+        }
+
+        @Override
+        public void stringField(final FieldInfo fieldInfo, final String value) {
+            put(fieldInfo.name, value);
+        }
+
+        // non string values have no string value in documents either
+
+        @Override
+        public void binaryField(final FieldInfo fieldInfo, final byte[] value) {
+            put(fieldInfo.name, null);
+        }
+
+        @Override
+        public void intField(final FieldInfo fieldInfo, final int value) {
+            put(fieldInfo.name, null);
+        }
+
+        @Override
+        public void longField(final FieldInfo fieldInfo, final long value) {
+            put(fieldInfo.name, null);
+        }
+
+        @Override
+        public void floatField(final FieldInfo fieldInfo, final float value) {
+            put(fieldInfo.name, null);
+        }
+
+        @Override
+        public void doubleField(final FieldInfo fieldInfo, final double value) {
+            put(fieldInfo.name, null);
+        }
+
+        private void put(final String name, final String value) {
+            if (!LAST_MODIFIED.equals(name)) {
+                fields.put(name, value);
+            }
+        }
+    }
 }
@@ -23,6 +23,7 @@ import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.CachingTokenFilter;
@@ -38,7 +39,6 @@ import org.apache.lucene.search.highlight.InvalidTokenOffsetsException;
 import org.apache.lucene.search.highlight.QueryScorer;
 import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
 import org.apache.lucene.search.highlight.TextFragment;
-import org.apache.maven.index.context.IndexUtils;
 import org.apache.maven.index.context.IndexingContext;
 import org.apache.maven.index.context.NexusIndexMultiSearcher;
 import org.apache.maven.index.creator.JarFileContentsIndexCreator;
@@ -63,11 +63,11 @@ public class DefaultIteratorResultSet implements IteratorResultSet {
 
     private final List<MatchHighlightRequest> matchHighlightRequests;
 
-    private final TopDocs hits;
+    private final FieldProjection projection;
 
-    private final int from;
+    private final HitCursor hits;
 
-    private final int count;
+    private final int from;
 
     private final int maxRecPointer;
 
@@ -83,6 +83,15 @@ public class DefaultIteratorResultSet implements IteratorResultSet {
             final List<IndexingContext> contexts,
             final TopDocs hits)
             throws IOException {
+        this(request, indexSearcher, contexts, HitCursor.of(hits));
+    }
+
+    DefaultIteratorResultSet(
+            final IteratorSearchRequest request,
+            final NexusIndexMultiSearcher indexSearcher,
+            final List<IndexingContext> contexts,
+            final HitCursor hits)
+            throws IOException {
         this.searchRequest = request;
 
         this.indexSearcher = indexSearcher;
@@ -107,6 +116,8 @@ public class DefaultIteratorResultSet implements IteratorResultSet {
 
         this.postprocessor = request.getArtifactInfoPostprocessor();
 
+        this.projection = new FieldProjection(request);
+
         this.matchHighlightRequests = request.getMatchHighlightRequests();
 
         List<MatchHighlightRequest> matchHighlightRequests = new ArrayList<>();
@@ -119,15 +130,18 @@ public class DefaultIteratorResultSet implements IteratorResultSet {
 
         this.from = request.getStart();
 
-        this.count = (request.getCount() == AbstractSearchRequest.UNDEFINED
-                ? hits.scoreDocs.length
-                : Math.min(request.getCount(), hits.scoreDocs.length));
+        this.maxRecPointer = (request.getCount() == AbstractSearchRequest.UNDEFINED
+                ? Integer.MAX_VALUE
+                : from + request.getCount());
 
-        this.pointer = from;
+        // skip the hits before the requested page
+        this.pointer = 0;
 
-        this.processedArtifactInfoCount = 0;
+        while (pointer < from && hits.next()) {
+            pointer++;
+        }
 
-        this.maxRecPointer = from + count;
+        this.processedArtifactInfoCount = 0;
 
         ai = createNextAi();
 
@@ -175,6 +189,42 @@ public class DefaultIteratorResultSet implements IteratorResultSet {
         return processedArtifactInfoCount;
     }
 
+    /**
+     * Returns the count of all hits of a streamed search, see {@link HitCursor.StreamingCursor#count()}. Unless all of
+     * them were iterated, they cannot be counted once this result set is released.
+     */
+    synchronized int countStreamedHits() {
+        HitCursor.StreamingCursor cursor = (HitCursor.StreamingCursor) hits;
+        if (cleanedUp && !cursor.isCounted()) {
+            throw new IllegalStateException("Cannot count hits, the result set was already released!");
+        }
+        try {
+            return cursor.count();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot count hits!", e);
+        }
+    }
+
+    /**
+     * Returns the remaining results as a single reused view, loading only the stored fields of the minimal creator,
+     * unless the request has filtering, postprocessing, highlighting or explanations, that need full ArtifactInfo's.
+     *
+     * @since 7.1.7
+     */
+    @Override
+    public Iterator<ArtifactView> views() {
+        if (filter != null
+                || postprocessor != null
+                || !matchHighlightRequests.isEmpty()
+                || searchRequest.isLuceneExplain()) {
+            return IteratorResultSet.super.views();
+        }
+
+        ViewIterator result = new ViewIterator(ai);
+        ai = null;
+        return result;
+    }
+
     @Override
     public void finalize() throws Throwable {
         super.finalize();
@@ -197,12 +247,14 @@ public class DefaultIteratorResultSet implements IteratorResultSet {
         // b) pointer advanced over more documents that user requested
         // c) pointer advanced over more documents that hits has
         // or we found what we need
-        while ((result == null) && (pointer < maxRecPointer) && (pointer < hits.scoreDocs.length)) {
-            Document doc = indexSearcher.doc(hits.scoreDocs[pointer].doc);
+        while ((result == null) && (pointer < maxRecPointer) && hits.next()) {
+            // the projection depends on the index creators of the context the document is in
+            Document doc = projection.document(
+                    indexSearcher, hits.doc(), contexts.get(readerIndex(hits.doc(), starts, contexts.size())));
 
-            IndexingContext context = getIndexingContextForPointer(doc, hits.scoreDocs[pointer].doc);
+            IndexingContext context = getIndexingContextForPointer(doc, hits.doc());
 
-            result = IndexUtils.constructArtifactInfo(doc, context);
+            result = projection.artifactInfo(doc, context);
 
             if (result != null) {
                 // WARNING: NOT FOR PRODUCTION SYSTEMS, THIS IS VERY COSTLY OPERATION
@@ -212,11 +264,13 @@ public class DefaultIteratorResultSet implements IteratorResultSet {
                             .put(
                                     Explanation.class.getName(),
                                     indexSearcher
-                                            .explain(searchRequest.getQuery(), hits.scoreDocs[pointer].doc)
+                                            .explain(searchRequest.getQuery(), hits.doc())
                                             .toString());
                 }
 
-                result.setLuceneScore(hits.scoreDocs[pointer].score);
+                if (!Float.isNaN(hits.score())) {
+                    result.setLuceneScore(hits.score());
+                }
 
                 result.setRepository(context.getRepositoryId());
 
@@ -244,6 +298,98 @@ public class DefaultIteratorResultSet implements IteratorResultSet {
         return result;
     }
 
+    /**
+     * Returns the next artifact into the view, or {@code null} if there are no more.
+     */
+    private ArtifactView nextView(final View view) throws IOException {
+        while ((pointer < maxRecPointer) && hits.next()) {
+            view.reset(contexts.get(readerIndex(hits.doc(), starts, contexts.size())), hits.score(), hits.doc());
+
+            indexSearcher.doc(hits.doc(), view);
+
+            pointer++;
+            processedArtifactInfoCount++;
+
+            if (view.isArtifact()) {
+                return view;
+            }
+        }
+
+        return null;
+    }
+
+    private final class ViewIterator implements Iterator<ArtifactView> {
+        private final View view = new View();
+
+        private ArtifactView next;
+
+        private ViewIterator(ArtifactView first) {
+            this.next = first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !cleanedUp) {
+                try {
+                    next = nextView(view);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot fetch next ArtifactInfo!", e);
+                } finally {
+                    if (next == null) {
+                        cleanUp();
+                    }
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public ArtifactView next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ArtifactView result = next;
+            next = null;
+            return result;
+        }
+    }
+
+    private final class View extends DocumentArtifactView {
+        private int doc;
+
+        private void reset(IndexingContext context, float score, int doc) {
+            reset(context, Float.isNaN(score) ? 0f : score);
+            this.doc = doc;
+        }
+
+        @Override
+        public ArtifactInfo toArtifactInfo() {
+            // holds off the release of the searcher meanwhile
+            synchronized (DefaultIteratorResultSet.this) {
+                if (cleanedUp) {
+                    throw new IllegalStateException("Cannot fetch ArtifactInfo, the result set was already released!");
+                }
+                return load();
+            }
+        }
+
+        private ArtifactInfo load() {
+            try {
+                IndexingContext context = getIndexingContext();
+                Document document = projection.document(indexSearcher, doc, context);
+                ArtifactInfo result = projection.artifactInfo(document, context);
+                if (result != null) {
+                    result.setLuceneScore(getLuceneScore());
+                    result.setRepository(context.getRepositoryId());
+                    result.setContext(context.getId());
+                }
+                return result;
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot fetch ArtifactInfo!", e);
+            }
+        }
+    }
+
     private volatile boolean cleanedUp = false;
 
     protected synchronized void cleanUp() {
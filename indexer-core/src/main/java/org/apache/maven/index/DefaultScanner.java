@@ -23,10 +23,27 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.maven.index.context.IndexingContext;
 
@@ -48,18 +65,68 @@ public class DefaultScanner implements Scanner {
     }
 
     public ScanningResult scan(ScanningRequest request) {
-        request.getArtifactScanningListener().scanningStarted(request.getIndexingContext());
+        IndexingContext context = request.getIndexingContext();
+
+        ScanManifest previousManifest = null;
+        if (request.isIncremental()) {
+            previousManifest = ScanManifest.read(context.getIndexDirectory());
+            if (previousManifest != null && !previousManifest.isValid(context)) {
+                // the index changed since, start over
+                previousManifest = null;
+            }
+        }
+
+        if (previousManifest != null) {
+            request.getArtifactScanningListener().incrementalScanningStarted(context);
+        } else {
+            request.getArtifactScanningListener().scanningStarted(context);
+        }
 
         ScanningResult result = new ScanningResult(request);
 
-        scanDirectory(request.getStartingDirectory(), request);
+        ArtifactDigestCache digestCache = null;
+        if (request.isDigesting() && request.getDigestCacheFile() != null) {
+            digestCache = new ArtifactDigestCache(request.getDigestCacheFile());
+            digestCache.load();
+        }
+
+        Scan scan = new Scan(request, digestCache, previousManifest);
 
-        request.getArtifactScanningListener().scanningFinished(request.getIndexingContext(), result);
+        if (request.isParallel()) {
+            scanDirectoryParallel(request.getStartingDirectory(), scan);
+        } else {
+            scanDirectory(request.getStartingDirectory(), scan);
+        }
+
+        if (previousManifest != null) {
+            Collection<String> removedUinfos = scan.removedUinfos();
+            if (!removedUinfos.isEmpty()) {
+                request.getArtifactScanningListener().artifactsRemoved(context, removedUinfos);
+            }
+        }
+
+        if (digestCache != null) {
+            try {
+                digestCache.store(request.getStartingDirectory());
+            } catch (IOException e) {
+                result.addException(e);
+            }
+        }
+
+        request.getArtifactScanningListener().scanningFinished(context, result);
+
+        if (request.isIncremental()) {
+            try {
+                scan.manifest.write(context);
+            } catch (IOException e) {
+                result.addException(e);
+            }
+        }
 
         return result;
     }
 
-    private void scanDirectory(File dir, ScanningRequest request) {
+    private void scanDirectory(File dir, Scan scan) {
         if (dir == null) {
             return;
         }
@@ -67,41 +134,314 @@ public class DefaultScanner implements Scanner {
         File[] fileArray = dir.listFiles();
 
         if (fileArray != null) {
-            Set<File> files = new TreeSet<>(new ScannerFileComparator());
+            Set<File> entries = new TreeSet<>(new ScannerFileComparator());
+
+            entries.addAll(Arrays.asList(fileArray));
+
+            List<File> files = new ArrayList<>();
+            for (File f : entries) {
+                if (!f.getName().startsWith(".") && !f.isDirectory()) {
+                    files.add(f);
+                }
+            }
 
-            files.addAll(Arrays.asList(fileArray));
+            boolean changed = scan.isChanged(dir, files);
+            List<String> uinfos = new ArrayList<>();
 
-            for (File f : files) {
+            for (File f : entries) {
                 if (f.getName().startsWith(".")) {
                     continue; // skip all hidden files and directories
                 }
 
                 if (f.isDirectory()) {
-                    scanDirectory(f, request);
+                    scanDirectory(f, scan);
                 }
                 // else if ( !AbstractIndexCreator.isIndexable( f ) )
                 // {
                 // continue; // skip non-indexable files
                 // }
-                else {
-                    processFile(f, request);
+                else if (changed) {
+                    processFile(f, scan, uinfos);
                 }
             }
+
+            scan.scanned(dir, files, changed, uinfos);
+        } else {
+            scan.unreadable(dir);
         }
     }
 
-    private void processFile(File file, ScanningRequest request) {
+    private void scanDirectoryParallel(File dir, Scan scan) {
+        if (dir == null) {
+            return;
+        }
+
+        ExecutorService executorService = scan.request.getExecutorService();
+        final boolean ownExecutor = executorService == null;
+        if (ownExecutor) {
+            executorService = new ForkJoinPool(scan.request.getThreads());
+        }
+        try {
+            new ParallelWalker(executorService, scan).walk(dir.toPath());
+        } finally {
+            if (ownExecutor) {
+                executorService.shutdown();
+            }
+        }
+    }
+
+    private void processFile(File file, Scan scan, List<String> uinfos) {
+        ScanningRequest request = scan.request;
+
         IndexingContext context = request.getIndexingContext();
 
         ArtifactContext ac = artifactContextProducer.getArtifactContext(context, file);
 
         if (ac != null) {
+            ArtifactArchive archive = request.isDigesting() ? prepareDigests(ac, request, scan.digestCache) : null;
+
             request.getArtifactScanningListener().artifactDiscovered(ac);
+
+            if (archive != null && scan.digestCache != null) {
+                scan.digestCache.put(archive.getFile(), archive.getComputedDigests());
+            }
+
+            uinfos.add(ac.getArtifactInfo().getUinfo());
+        }
+    }
+
+    /**
+     * Registers the requested digests with the artifact archive, to be computed in one pass when an index creator
+     * needs one, or sets them from the cache if the artifact file did not change.
+     */
+    private ArtifactArchive prepareDigests(
+            ArtifactContext ac, ScanningRequest request, ArtifactDigestCache digestCache) {
+        ArtifactArchive archive = ac.getArchive();
+        if (archive == null || !archive.getFile().isFile()) {
+            return null;
         }
+
+        Map<String, String> cached =
+                digestCache != null ? digestCache.get(archive.getFile(), request.getDigestAlgorithms()) : null;
+        for (String algorithm : request.getDigestAlgorithms()) {
+            if (cached != null) {
+                archive.setDigest(algorithm, cached.get(algorithm));
+            } else {
+                archive.requireDigest(algorithm);
+            }
+        }
+        return archive;
     }
 
     // ==
 
+    /**
+     * The state of one scan: the digest cache, and for incremental scans, the manifest of the previous scan (if valid)
+     * and the one being built. Thread safe.
+     */
+    private static final class Scan {
+        private final ScanningRequest request;
+
+        private final ArtifactDigestCache digestCache;
+
+        private final ScanManifest previousManifest;
+
+        private final ScanManifest manifest;
+
+        private final String repositoryPath;
+
+        private final Set<String> removedUinfos = ConcurrentHashMap.newKeySet();
+
+        private Scan(
+                final ScanningRequest request,
+                final ArtifactDigestCache digestCache,
+                final ScanManifest previousManifest) {
+            this.request = request;
+            this.digestCache = digestCache;
+            this.previousManifest = previousManifest;
+            this.manifest = request.isIncremental() ? new ScanManifest() : null;
+            this.repositoryPath = request.getIndexingContext().getRepository().getAbsolutePath();
+        }
+
+        /**
+         * Returns {@code true} if the files of the directory are to be processed, as they changed since the previous
+         * scan, or this is not an incremental scan.
+         */
+        private boolean isChanged(final File dir, final List<File> files) {
+            if (previousManifest == null) {
+                return true;
+            }
+            ScanManifest.Entry entry = previousManifest.get(path(dir));
+            return entry == null || !entry.matches(files.size(), ScanManifest.fingerprint(files));
+        }
+
+        private void scanned(final File dir, final List<File> files, final boolean changed, final List<String> uinfos) {
+            if (manifest == null) {
+                return;
+            }
+            String path = path(dir);
+            ScanManifest.Entry previous = previousManifest != null ? previousManifest.get(path) : null;
+            if (changed) {
+                manifest.put(path, new ScanManifest.Entry(files.size(), ScanManifest.fingerprint(files), uinfos));
+                if (previous != null) {
+                    Set<String> gone = new HashSet<>(previous.getUinfos());
+                    gone.removeAll(uinfos);
+                    removedUinfos.addAll(gone);
+                }
+            } else {
+                manifest.put(path, previous);
+                if (digestCache != null) {
+                    for (File file : files) {
+                        digestCache.keep(file);
+                    }
+                }
+            }
+        }
+
+        /**
+         * An unreadable directory is kept as it was, with its subdirectories.
+         */
+        private void unreadable(final File dir) {
+            if (previousManifest != null) {
+                String path = path(dir);
+                for (String previousPath : previousManifest.getPaths()) {
+                    if (isWithin(previousPath, path)) {
+                        manifest.put(previousPath, previousManifest.get(previousPath));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the UINFOs of the artifacts gone since the previous scan: the ones of removed files and directories.
+         * Must be invoked once the scan is done, as it completes the manifest with the directories not scanned.
+         */
+        private Collection<String> removedUinfos() {
+            String startingPath = path(request.getStartingDirectory());
+            for (String previousPath : previousManifest.getPaths()) {
+                if (manifest.get(previousPath) == null) {
+                    if (isWithin(previousPath, startingPath)) {
+                        // removed directory
+                        removedUinfos.addAll(previousManifest.get(previousPath).getUinfos());
+                    } else {
+                        // not scanned this time
+                        manifest.put(previousPath, previousManifest.get(previousPath));
+                    }
+                }
+            }
+            return removedUinfos;
+        }
+
+        private String path(final File dir) {
+            String path = dir.getAbsolutePath();
+            if (path.startsWith(repositoryPath)) {
+                path = path.substring(repositoryPath.length());
+            }
+            return path.replace(File.separatorChar, '/');
+        }
+
+        private static boolean isWithin(final String path, final String parent) {
+            return parent.isEmpty() || path.equals(parent) || path.startsWith(parent + "/");
+        }
+    }
+
+    /**
+     * Walks the directory tree concurrently: every directory is a task submitted to the executor, that submits its
+     * subdirectories as new tasks, and then processes its own files in {@link ScannerFileComparator} order.
+     */
+    private final class ParallelWalker {
+        private final Executor executor;
+
+        private final Scan scan;
+
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private ParallelWalker(final Executor executor, final Scan scan) {
+            this.executor = executor;
+            this.scan = scan;
+        }
+
+        private void walk(final Path root) {
+            submit(root);
+            done.join();
+
+            Throwable t = failure.get();
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            } else if (t instanceof Error) {
+                throw (Error) t;
+            } else if (t != null) {
+                throw new IllegalStateException("Scanning of " + root + " failed", t);
+            }
+        }
+
+        private void submit(final Path dir) {
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        scan(dir);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        finished();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                failure.compareAndSet(null, e);
+                finished();
+            }
+        }
+
+        private void finished() {
+            if (pending.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+        }
+
+        private void scan(final Path dir) {
+            if (failure.get() != null) {
+                return; // stop early
+            }
+
+            List<File> files = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+                for (Path path : stream) {
+                    if (path.getFileName().toString().startsWith(".")) {
+                        continue; // skip all hidden files and directories
+                    }
+
+                    if (Files.isDirectory(path)) {
+                        submit(path);
+                    } else {
+                        files.add(path.toFile());
+                    }
+                }
+            } catch (IOException e) {
+                // unreadable directory, skipped as File.listFiles() does
+                scan.unreadable(dir.toFile());
+                return;
+            }
+
+            files.sort(new ScannerFileComparator());
+
+            boolean changed = scan.isChanged(dir.toFile(), files);
+            List<String> uinfos = new ArrayList<>();
+
+            if (changed) {
+                for (File f : files) {
+                    processFile(f, scan, uinfos);
+                }
+            }
+
+            scan.scanned(dir.toFile(), files, changed, uinfos);
+        }
+    }
+
     /**
      * A special comparator to overcome some very bad limitations of nexus-indexer during scanning: using this
      * comparator, we force to "discover" POMs last, before the actual artifact file. The reason for this, is to
@@ -19,28 +19,53 @@
 package org.apache.maven.index;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.lucene.document.Document;
-import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.MultiTerms;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.StoredFields;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.TermQuery;
-import org.apache.lucene.search.TopScoreDocCollector;
 import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.maven.index.context.IndexUtils;
 import org.apache.maven.index.context.IndexingContext;
 
 /**
- * A default scanning listener
+ * A default scanning listener. It is thread safe, so it can be used with parallel scanning, as long as the wrapped
+ * listener is thread safe as well.
+ * <p>
+ * On update scans, the already indexed artifacts are tracked by a bitset over the documents of the index as it was when
+ * scanning started, so the heap used for deletion detection does not depend on the count of indexed UINFOs. The
+ * documents of artifacts not discovered are removed in batches when scanning finishes. The artifacts discovered more
+ * than once (ie. timestamped snapshots) are skipped using the same bitset if they were indexed already, and otherwise
+ * using a bounded window of the recently discovered UINFOs, as the files of one artifact share their directory and are
+ * discovered one after the other.
  *
  * @author Eugene Kuleshov
  */
 public class DefaultScannerListener implements ArtifactScanningListener {
+    private static final int REMOVE_BATCH_SIZE = 1000;
+
+    private static final int RECENT_UINFOS_SIZE = 10000;
+
     private final IndexingContext context;
 
     private final IndexerEngine indexerEngine;
@@ -49,17 +74,36 @@ public class DefaultScannerListener implements ArtifactScanningListener {
 
     private final ArtifactScanningListener listener;
 
-    private final Set<String> uinfos = new HashSet<>();
+    /**
+     * The UINFOs of the recently discovered artifacts, that were not indexed when scanning started.
+     */
+    private final RecentUinfos recentUinfos = new RecentUinfos(RECENT_UINFOS_SIZE);
+
+    private final Set<String> allGroups = ConcurrentHashMap.newKeySet();
+
+    private final Set<String> groups = ConcurrentHashMap.newKeySet();
+
+    private final List<Exception> exceptions = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final AtomicInteger removed = new AtomicInteger();
 
-    private final Set<String> processedUinfos = new HashSet<>();
+    private volatile boolean incremental;
 
-    private final Set<String> allGroups = new HashSet<>();
+    /**
+     * The index as it was when an update scan started, to detect deleted artifacts.
+     */
+    private IndexSearcher snapshot;
 
-    private final Set<String> groups = new HashSet<>();
+    private Terms snapshotUinfos;
 
-    private final List<Exception> exceptions = new ArrayList<>();
+    private Bits snapshotLiveDocs;
 
-    private int count = 0;
+    /**
+     * The live documents of the snapshot having an UINFO, whose artifact was not discovered (yet).
+     */
+    private FixedBitSet leftovers;
 
     public DefaultScannerListener(
             IndexingContext context, //
@@ -86,34 +130,77 @@ public class DefaultScannerListener implements ArtifactScanningListener {
         }
     }
 
+    @Override
+    public void incrementalScanningStarted(IndexingContext ctx) {
+        incremental = true;
+
+        // existing groups, as artifacts of unchanged directories are not discovered
+        try {
+            groups.addAll(ctx.getRootGroups());
+            allGroups.addAll(ctx.getAllGroups());
+        } catch (IOException ex) {
+            exceptions.add(ex);
+        }
+
+        if (listener != null) {
+            listener.scanningStarted(ctx);
+        }
+    }
+
+    @Override
+    public void artifactsRemoved(IndexingContext ctx, Collection<String> uinfos) {
+        try {
+            final List<ArtifactContext> acs = new ArrayList<>();
+            IndexUtils.waitForOwnWrites(context);
+            final IndexSearcher indexSearcher = context.acquireIndexSearcher();
+            try {
+                for (String uinfo : uinfos) {
+                    int hits = indexSearcher.count(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo)));
+                    if (hits > 0) {
+                        acs.add(removalContext(uinfo));
+                        removed.addAndGet(hits);
+                    }
+                }
+            } finally {
+                context.releaseIndexSearcher(indexSearcher);
+            }
+            indexerEngine.remove(context, acs);
+        } catch (IOException ex) {
+            exceptions.add(ex);
+        }
+    }
+
     public void artifactDiscovered(ArtifactContext ac) {
         String uinfo = ac.getArtifactInfo().getUinfo();
 
+        try {
+            if (isIndexed(uinfo)) {
+                // already indexed
+                return;
+            }
+        } catch (IOException ex) {
+            artifactError(ac, ex);
+            return;
+        }
+
         // TODO: scattered across commented out changes while I was fixing NEXUS-2712, cstamas
         // These changes should be applied by borks too much the fragile indexer
 
         // if ( VersionUtils.isSnapshot( ac.getArtifactInfo().version ) && processedUinfos.contains( uinfo ) )
-        if (processedUinfos.contains(uinfo)) {
+        if (!recentUinfos.add(uinfo)) {
             return; // skip individual snapshots
         }
 
-        boolean adding = processedUinfos.add(uinfo);
-
-        if (uinfos.contains(uinfo)) {
-            // already indexed
-            uinfos.remove(uinfo);
-            return;
-        }
-
         try {
             if (listener != null) {
                 listener.artifactDiscovered(ac);
             }
 
-            if (adding) {
-                indexerEngine.index(context, ac);
-            } else {
+            if (incremental) {
+                // artifacts of changed directories may be indexed already
                 indexerEngine.update(context, ac);
+            } else {
+                indexerEngine.index(context, ac);
             }
 
             for (Exception e : ac.getErrors()) {
@@ -123,14 +210,14 @@ public class DefaultScannerListener implements ArtifactScanningListener {
             groups.add(ac.getArtifactInfo().getRootGroup());
             allGroups.add(ac.getArtifactInfo().getGroupId());
 
-            count++;
+            count.incrementAndGet();
         } catch (IOException ex) {
             artifactError(ac, ex);
         }
     }
 
     public void scanningFinished(IndexingContext ctx, ScanningResult result) {
-        result.setTotalFiles(count);
+        result.setTotalFiles(count.get());
 
         for (Exception ex : exceptions) {
             result.addException(ex);
@@ -143,11 +230,18 @@ public class DefaultScannerListener implements ArtifactScanningListener {
 
             context.setAllGroups(allGroups);
 
-            if (update && !context.isReceivingUpdates()) {
+            if (incremental) {
+                if (removed.get() > 0) {
+                    context.commit();
+                }
+                result.setDeletedFiles(removed.get());
+            } else if (leftovers != null) {
                 removeDeletedArtifacts(context, result, result.getRequest().getStartingPath());
             }
         } catch (IOException ex) {
             result.addException(ex);
+        } finally {
+            releaseSnapshot(ctx);
         }
 
         if (listener != null) {
@@ -173,98 +267,217 @@ public class DefaultScannerListener implements ArtifactScanningListener {
         }
     }
 
-    private void initialize(IndexingContext ctx) throws IOException, CorruptIndexException {
+    private void initialize(IndexingContext ctx) throws IOException {
+        IndexUtils.waitForOwnWrites(ctx);
         final IndexSearcher indexSearcher = ctx.acquireIndexSearcher();
+        boolean keepSnapshot = false;
         try {
             final IndexReader r = indexSearcher.getIndexReader();
-            Bits liveDocs = MultiBits.getLiveDocs(r);
-
-            for (int i = 0; i < r.maxDoc(); i++) {
-                if (liveDocs == null || liveDocs.get(i)) {
-                    Document d = r.document(i);
-
-                    String uinfo = d.get(ArtifactInfo.UINFO);
-
-                    if (uinfo != null) {
-                        // if ctx is receiving updates (in other words, is a proxy),
-                        // there is no need to build a huge Set of strings with all uinfo's
-                        // as deletion detection in those cases have no effect. Also, the
-                        // removeDeletedArtifacts() method, that uses info gathered in this set
-                        // is invoked with same condition. As indexes of Central are getting huge,
-                        // the set grows enormously too, but is actually not used
-                        if (!ctx.isReceivingUpdates()) {
-                            uinfos.add(uinfo);
+            final Bits liveDocs = MultiBits.getLiveDocs(r);
+            final Terms uinfoTerms = MultiTerms.getTerms(r, ArtifactInfo.UINFO);
+
+            // if ctx is receiving updates (in other words, is a proxy),
+            // there is no need to track the indexed artifacts
+            // as deletion detection in those cases have no effect. Also, the
+            // removeDeletedArtifacts() method, that uses info gathered in this bitset
+            // is invoked with same condition.
+            final FixedBitSet indexed = ctx.isReceivingUpdates() ? null : new FixedBitSet(r.maxDoc());
+
+            if (uinfoTerms != null) {
+                final TermsEnum termsEnum = uinfoTerms.iterator();
+                PostingsEnum postings = null;
+                String lastGroupId = null;
+                BytesRef term;
+                while ((term = termsEnum.next()) != null) {
+                    postings = termsEnum.postings(postings, PostingsEnum.NONE);
+                    boolean live = false;
+                    for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                        if (liveDocs == null || liveDocs.get(doc)) {
+                            live = true;
+                            if (indexed == null) {
+                                break;
+                            }
+                            indexed.set(doc);
                         }
+                    }
 
+                    if (live) {
                         // add all existing groupIds to the lists, as they will
                         // not be "discovered" and would be missing from the new list..
-                        String groupId = uinfo.substring(0, uinfo.indexOf('|'));
-                        int n = groupId.indexOf('.');
-                        groups.add(n == -1 ? groupId : groupId.substring(0, n));
-                        allGroups.add(groupId);
+                        String groupId = groupId(term);
+                        if (!groupId.equals(lastGroupId)) {
+                            int n = groupId.indexOf('.');
+                            groups.add(n == -1 ? groupId : groupId.substring(0, n));
+                            allGroups.add(groupId);
+                            lastGroupId = groupId;
+                        }
                     }
                 }
             }
+
+            if (indexed != null) {
+                snapshot = indexSearcher;
+                snapshotUinfos = uinfoTerms;
+                snapshotLiveDocs = liveDocs;
+                leftovers = indexed;
+                keepSnapshot = true;
+            }
         } finally {
-            ctx.releaseIndexSearcher(indexSearcher);
+            if (!keepSnapshot) {
+                ctx.releaseIndexSearcher(indexSearcher);
+            }
         }
     }
 
+    private void releaseSnapshot(IndexingContext ctx) {
+        if (snapshot != null) {
+            try {
+                ctx.releaseIndexSearcher(snapshot);
+            } catch (IOException ex) {
+                exceptions.add(ex);
+            }
+            snapshot = null;
+            snapshotUinfos = null;
+            snapshotLiveDocs = null;
+            leftovers = null;
+        }
+    }
+
+    /**
+     * Returns {@code true} if the artifact was indexed when scanning started, and marks it as discovered, by clearing
+     * the bits of its documents in {@link #leftovers}. Discovering it again finds its bits cleared already, and also
+     * returns {@code true}, so these UINFOs need no tracking elsewhere.
+     */
+    private boolean isIndexed(String uinfo) throws IOException {
+        if (snapshotUinfos == null) {
+            return false;
+        }
+
+        final TermsEnum termsEnum = snapshotUinfos.iterator();
+        if (!termsEnum.seekExact(new BytesRef(uinfo))) {
+            return false;
+        }
+
+        boolean indexed = false;
+        final PostingsEnum postings = termsEnum.postings(null, PostingsEnum.NONE);
+        for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+            if (snapshotLiveDocs == null || snapshotLiveDocs.get(doc)) {
+                indexed = true;
+                synchronized (leftovers) {
+                    leftovers.clear(doc);
+                }
+            }
+        }
+        return indexed;
+    }
+
+    private static String groupId(BytesRef uinfo) {
+        final byte fs = (byte) ArtifactInfo.FS.charAt(0);
+        int end = uinfo.offset;
+        while (end < uinfo.offset + uinfo.length && uinfo.bytes[end] != fs) {
+            end++;
+        }
+        return new String(uinfo.bytes, uinfo.offset, end - uinfo.offset, StandardCharsets.UTF_8);
+    }
+
     private void removeDeletedArtifacts(IndexingContext context, ScanningResult result, String contextPath)
             throws IOException {
         int deleted = 0;
 
-        final IndexSearcher indexSearcher = context.acquireIndexSearcher();
-        try {
-            for (String uinfo : uinfos) {
-                TopScoreDocCollector collector = TopScoreDocCollector.create(1, Integer.MAX_VALUE);
+        final StoredFields storedFields = snapshot.getIndexReader().storedFields();
+        final Set<String> fieldsToLoad = Collections.singleton(ArtifactInfo.UINFO);
+        final Map<String, ArtifactContext> batch = new LinkedHashMap<>();
 
-                indexSearcher.search(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo)), collector);
+        for (int doc = nextLeftover(0); doc != DocIdSetIterator.NO_MORE_DOCS; doc = nextLeftover(doc + 1)) {
+            String uinfo = storedFields.document(doc, fieldsToLoad).get(ArtifactInfo.UINFO);
 
-                if (collector.getTotalHits() > 0) {
-                    String[] ra = ArtifactInfo.FS_PATTERN.split(uinfo);
+            ArtifactContext ac = removalContext(uinfo);
 
-                    ArtifactInfo ai = new ArtifactInfo();
+            if (contextPath == null
+                    || context.getGavCalculator().gavToPath(ac.getGav()).startsWith(contextPath)) {
+                batch.putIfAbsent(uinfo, ac);
 
-                    ai.setRepository(context.getRepositoryId());
+                deleted++;
+            }
 
-                    ai.setGroupId(ra[0]);
+            if (batch.size() >= REMOVE_BATCH_SIZE) {
+                indexerEngine.remove(context, batch.values());
+                batch.clear();
+            }
+        }
 
-                    ai.setArtifactId(ra[1]);
+        if (!batch.isEmpty()) {
+            indexerEngine.remove(context, batch.values());
+        }
 
-                    ai.setVersion(ra[2]);
+        if (deleted > 0) {
+            context.commit();
+        }
 
-                    if (ra.length > 3) {
-                        ai.setClassifier(ArtifactInfo.renvl(ra[3]));
-                    }
+        result.setDeletedFiles(deleted);
+    }
 
-                    if (ra.length > 4) {
-                        ai.setPackaging(ArtifactInfo.renvl(ra[4]));
-                    }
+    private int nextLeftover(int from) {
+        return from < leftovers.length() ? leftovers.nextSetBit(from) : DocIdSetIterator.NO_MORE_DOCS;
+    }
 
-                    // minimal ArtifactContext for removal
-                    ArtifactContext ac = new ArtifactContext(null, null, null, ai, ai.calculateGav());
+    /**
+     * Returns the minimal ArtifactContext for removal of the artifact with given UINFO.
+     */
+    private ArtifactContext removalContext(String uinfo) {
+        String[] ra = ArtifactInfo.FS_PATTERN.split(uinfo);
 
-                    for (int i = 0; i < collector.getTotalHits(); i++) {
-                        if (contextPath == null
-                                || context.getGavCalculator()
-                                        .gavToPath(ac.getGav())
-                                        .startsWith(contextPath)) {
-                            indexerEngine.remove(context, ac);
-                        }
+        ArtifactInfo ai = new ArtifactInfo();
 
-                        deleted++;
-                    }
-                }
-            }
-        } finally {
-            context.releaseIndexSearcher(indexSearcher);
+        ai.setRepository(context.getRepositoryId());
+
+        ai.setGroupId(ra[0]);
+
+        ai.setArtifactId(ra[1]);
+
+        ai.setVersion(ra[2]);
+
+        if (ra.length > 3) {
+            ai.setClassifier(ArtifactInfo.renvl(ra[3]));
         }
 
-        if (deleted > 0) {
-            context.commit();
+        if (ra.length > 4) {
+            ai.setPackaging(ArtifactInfo.renvl(ra[4]));
+
+            // the UINFO of the removal marker
+            ai.setFileExtension(ra[4]);
         }
 
-        result.setDeletedFiles(deleted);
+        return new ArtifactContext(null, null, null, ai, ai.calculateGav());
+    }
+
+    /**
+     * Bounded set of the recently added UINFOs, keeping at least the last {@code size} ones: once the current
+     * generation is full, it becomes the previous one and the one before is dropped.
+     */
+    private static final class RecentUinfos {
+        private final int size;
+
+        private Set<String> current = new HashSet<>();
+
+        private Set<String> previous = Collections.emptySet();
+
+        private RecentUinfos(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Adds the UINFO, returning {@code false} if it was added recently.
+         */
+        private synchronized boolean add(String uinfo) {
+            if (previous.contains(uinfo) || !current.add(uinfo)) {
+                return false;
+            }
+            if (current.size() >= size) {
+                previous = current;
+                current = new HashSet<>();
+            }
+            return true;
+        }
     }
 }
@@ -18,29 +18,46 @@
  */
 package org.apache.maven.index;
 
+import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.QueryTimeoutImpl;
+import org.apache.lucene.index.ReaderUtil;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.LeafCollector;
 import org.apache.lucene.search.Query;
-import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.TopScoreDocCollector;
-import org.apache.maven.index.context.IndexUtils;
 import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.context.MergedIndexingContext;
 import org.apache.maven.index.context.NexusIndexMultiReader;
 import org.apache.maven.index.context.NexusIndexMultiSearcher;
+import org.apache.maven.index.context.NexusIndexSearcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,6 +77,63 @@ public class DefaultSearchEngine implements SearchEngine {
         return logger;
     }
 
+    private final Executor executor;
+
+    /**
+     * Creates a search engine searching the participating contexts one after the other, on the calling thread.
+     */
+    @Inject
+    public DefaultSearchEngine() {
+        this(null);
+    }
+
+    /**
+     * Creates a search engine using the executor for flat and grouped searches to search the participating contexts
+     * concurrently, or one after the other on the calling thread if {@code null}. Results are filtered, postprocessed
+     * and merged on the calling thread, in context order, so they are the same as with sequential search, and
+     * {@link ArtifactInfoFilter}s and {@link ArtifactInfoPostprocessor}s of requests need not be thread safe.
+     *
+     * @since 7.1.7
+     */
+    public DefaultSearchEngine(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the executor used to search the participating contexts concurrently, or {@code null} if they are
+     * searched one after the other on the calling thread.
+     *
+     * @since 7.1.7
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    private volatile SearchResultCache resultCache;
+
+    /**
+     * Returns the cache of flat and grouped search responses, or {@code null} if responses are not cached.
+     *
+     * @since 7.1.7
+     */
+    public SearchResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Sets the cache of flat and grouped search responses. Responses are cached per request and per readers of the
+     * participating contexts, so any change of a context made visible to searches bypasses (and eventually evicts) the
+     * responses found before it. Filters, postprocessors, comparators and groupings of requests are compared by their
+     * {@code equals}, so requests should reuse their instances to be served from the cache. Requests with match
+     * highlighting or Lucene explanations, and responses with timed out contexts, are not cached. Defaults to
+     * {@code null}, no caching.
+     *
+     * @since 7.1.7
+     */
+    public void setResultCache(SearchResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
     @Deprecated
     public Set<ArtifactInfo> searchFlat(
             Comparator<ArtifactInfo> artifactInfoComparator, IndexingContext indexingContext, Query query)
@@ -94,9 +168,39 @@ public class DefaultSearchEngine implements SearchEngine {
             throws IOException {
         List<IndexingContext> contexts = getParticipatingContexts(indexingContexts, ignoreContext);
 
+        final SearchResultCache resultCache = this.resultCache;
+        final List<IndexReader.CacheHelper> readers =
+                resultCache != null ? getCacheableReaders(request, contexts) : null;
+        List<Object> cacheKey = null;
+        if (readers != null) {
+            cacheKey = getCacheKey(request, readers, request.getArtifactInfoComparator());
+            FlatSearchResponse cached = (FlatSearchResponse) resultCache.get(cacheKey);
+            if (cached != null) {
+                return new FlatSearchResponse(
+                        request.getQuery(),
+                        cached.getTotalHitsCount(),
+                        copyOf((SortedSet<ArtifactInfo>) cached.getResults()));
+            }
+        }
+
         final TreeSet<ArtifactInfo> result = new TreeSet<>(request.getArtifactInfoComparator());
-        return new FlatSearchResponse(
-                request.getQuery(), searchFlat(request, result, contexts, request.getQuery()), result);
+        final SearchState state = new SearchState(new ArrayList<>(), cacheKey != null ? new ArrayList<>() : null);
+        final FlatSearchResponse response = new FlatSearchResponse(
+                request.getQuery(),
+                searchFlat(request, result, contexts, request.getQuery(), state),
+                result,
+                state.getTimedOutContexts());
+
+        if (cacheKey != null && state.isCacheable()) {
+            // keyed by the readers actually searched, that may have been refreshed since the lookup
+            resultCache.put(
+                    getCacheKey(request, state.getSearchedReaders(), request.getArtifactInfoComparator()),
+                    state.getSearchedReaders(),
+                    new FlatSearchResponse(response.getQuery(), response.getTotalHitsCount(), copyOf(result)),
+                    result.size());
+        }
+
+        return response;
     }
 
     // ==
@@ -116,66 +220,175 @@ public class DefaultSearchEngine implements SearchEngine {
             throws IOException {
         List<IndexingContext> contexts = getParticipatingContexts(indexingContexts, ignoreContext);
 
+        final SearchResultCache resultCache = this.resultCache;
+        final List<IndexReader.CacheHelper> readers =
+                resultCache != null ? getCacheableReaders(request, contexts) : null;
+        List<Object> cacheKey = null;
+        if (readers != null) {
+            cacheKey = getCacheKey(
+                    request,
+                    readers,
+                    request.getGrouping(),
+                    request.getGroupKeyComparator(),
+                    request.isCollapsed());
+            GroupedSearchResponse cached = (GroupedSearchResponse) resultCache.get(cacheKey);
+            if (cached != null) {
+                return new GroupedSearchResponse(
+                        request.getQuery(),
+                        cached.getTotalHitsCount(),
+                        copyOf((SortedMap<String, ArtifactInfoGroup>) cached.getResults()));
+            }
+        }
+
         final TreeMap<String, ArtifactInfoGroup> result = new TreeMap<>(request.getGroupKeyComparator());
+        final SearchState state = new SearchState(new ArrayList<>(), cacheKey != null ? new ArrayList<>() : null);
 
-        return new GroupedSearchResponse(
+        final GroupedSearchResponse response = new GroupedSearchResponse(
                 request.getQuery(),
-                searchGrouped(request, result, request.getGrouping(), contexts, request.getQuery()),
-                result);
+                searchGrouped(request, result, request.getGrouping(), contexts, request.getQuery(), state),
+                result,
+                state.getTimedOutContexts());
+
+        if (cacheKey != null && state.isCacheable()) {
+            int weight = 0;
+            for (ArtifactInfoGroup group : result.values()) {
+                weight += group.getArtifactInfos().size();
+            }
+            // keyed by the readers actually searched, that may have been refreshed since the lookup
+            resultCache.put(
+                    getCacheKey(
+                            request,
+                            state.getSearchedReaders(),
+                            request.getGrouping(),
+                            request.getGroupKeyComparator(),
+                            request.isCollapsed()),
+                    state.getSearchedReaders(),
+                    new GroupedSearchResponse(response.getQuery(), response.getTotalHitsCount(), copyOf(result)),
+                    weight);
+        }
+
+        return response;
     }
 
-    // ===
+    /**
+     * Returns the readers currently searched by the contexts, to look up the response to the request, or {@code null}
+     * if it cannot be cached.
+     */
+    private List<IndexReader.CacheHelper> getCacheableReaders(
+            final AbstractSearchRequest req, final List<IndexingContext> participatingContexts) throws IOException {
+        if (!req.getMatchHighlightRequests().isEmpty() || req.isLuceneExplain()) {
+            // responses carry request specific attributes
+            return null;
+        }
 
-    protected int searchFlat(
-            FlatSearchRequest req,
-            Collection<ArtifactInfo> result,
-            List<IndexingContext> participatingContexts,
-            Query query)
-            throws IOException {
-        int hitCount = 0;
+        final List<IndexReader.CacheHelper> readers = new ArrayList<>(participatingContexts.size());
         for (IndexingContext context : participatingContexts) {
+            if (context instanceof MergedIndexingContext) {
+                // searches a new reader each time, responses would never be served
+                return null;
+            }
+
             final IndexSearcher indexSearcher = context.acquireIndexSearcher();
             try {
-                final TopScoreDocCollector collector = doSearchWithCeiling(req, indexSearcher, query);
-
-                if (collector.getTotalHits() == 0) {
-                    // context has no hits, just continue to next one
-                    continue;
+                IndexReader.CacheHelper reader = indexSearcher.getIndexReader().getReaderCacheHelper();
+                if (reader == null) {
+                    return null;
                 }
+                readers.add(reader);
+            } finally {
+                context.releaseIndexSearcher(indexSearcher);
+            }
+        }
+        return readers;
+    }
 
-                ScoreDoc[] scoreDocs = collector.topDocs().scoreDocs;
+    private static List<Object> getCacheKey(
+            final AbstractSearchRequest req, final List<IndexReader.CacheHelper> readers, final Object... extras) {
+        final List<Object> key = new ArrayList<>();
+        key.add(req.getClass());
+        key.add(req.getQuery());
+        key.add(req.getCount());
+        key.add(req.getArtifactInfoFilter());
+        key.add(req.getArtifactInfoPostprocessor());
+        // copied, as the key must not change once cached
+        key.add(req.getProjection() != null ? Collections.unmodifiableSet(new HashSet<>(req.getProjection())) : null);
+        key.addAll(Arrays.asList(extras));
+        for (IndexReader.CacheHelper reader : readers) {
+            key.add(reader.getKey());
+        }
+        return key;
+    }
 
-                // uhm btw hitCount contains dups
+    /**
+     * Returns a copy of the ArtifactInfo's, as cached ones are never handed out.
+     */
+    private static TreeSet<ArtifactInfo> copyOf(final SortedSet<ArtifactInfo> artifactInfos) {
+        final TreeSet<ArtifactInfo> result = new TreeSet<>(artifactInfos.comparator());
+        for (ArtifactInfo artifactInfo : artifactInfos) {
+            result.add(artifactInfo.copy());
+        }
+        return result;
+    }
 
-                hitCount += collector.getTotalHits();
+    /**
+     * Returns a copy of the groups, as cached ones are never handed out.
+     */
+    private static TreeMap<String, ArtifactInfoGroup> copyOf(final SortedMap<String, ArtifactInfoGroup> groups) {
+        final TreeMap<String, ArtifactInfoGroup> result = new TreeMap<>(groups.comparator());
+        for (Map.Entry<String, ArtifactInfoGroup> entry : groups.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().copy());
+        }
+        return result;
+    }
 
-                int start = 0; // from == FlatSearchRequest.UNDEFINED ? 0 : from;
+    // ===
 
-                // we have to pack the results as long: a) we have found aiCount ones b) we depleted hits
-                for (int i = start; i < scoreDocs.length; i++) {
-                    Document doc = indexSearcher.doc(scoreDocs[i].doc);
+    protected int searchFlat(
+            FlatSearchRequest req,
+            Collection<ArtifactInfo> result,
+            List<IndexingContext> participatingContexts,
+            Query query)
+            throws IOException {
+        return searchFlat(req, result, participatingContexts, query, new SearchState(new ArrayList<>(), null));
+    }
 
-                    ArtifactInfo artifactInfo = IndexUtils.constructArtifactInfo(doc, context);
+    /**
+     * Searches the contexts, and collects the results, leaving out (and listing the IDs of) the contexts not searched
+     * within the timeout of the request.
+     *
+     * @since 7.1.7
+     */
+    protected int searchFlat(
+            FlatSearchRequest req,
+            Collection<ArtifactInfo> result,
+            List<IndexingContext> participatingContexts,
+            Query query,
+            List<String> timedOutContexts)
+            throws IOException {
+        return searchFlat(req, result, participatingContexts, query, new SearchState(timedOutContexts, null));
+    }
 
-                    if (artifactInfo != null) {
-                        artifactInfo.setRepository(context.getRepositoryId());
-                        artifactInfo.setContext(context.getId());
+    /**
+     * Searches the contexts, and collects the results, recording the contexts timed out and the readers searched in the
+     * state of this search. The public search methods and the other overloads end up here.
+     *
+     * @since 7.1.7
+     */
+    protected int searchFlat(
+            final FlatSearchRequest req,
+            final Collection<ArtifactInfo> result,
+            final List<IndexingContext> participatingContexts,
+            final Query query,
+            final SearchState state)
+            throws IOException {
+        int hitCount = 0;
+        for (ContextHits hits : searchContexts(req, participatingContexts, query, state.getTimedOutContexts())) {
+            // uhm btw hitCount contains dups
+            hitCount += hits.totalHits;
 
-                        if (req.getArtifactInfoFilter() != null) {
-                            if (!req.getArtifactInfoFilter().accepts(context, artifactInfo)) {
-                                continue;
-                            }
-                        }
-                        if (req.getArtifactInfoPostprocessor() != null) {
-                            req.getArtifactInfoPostprocessor().postprocess(context, artifactInfo);
-                        }
+            state.searched(hits.reader);
 
-                        result.add(artifactInfo);
-                    }
-                }
-            } finally {
-                context.releaseIndexSearcher(indexSearcher);
-            }
+            result.addAll(hits.artifactInfos);
         }
 
         return hitCount;
@@ -188,49 +401,415 @@ public class DefaultSearchEngine implements SearchEngine {
             List<IndexingContext> participatingContexts,
             Query query)
             throws IOException {
+        return searchGrouped(
+                req, result, grouping, participatingContexts, query, new SearchState(new ArrayList<>(), null));
+    }
+
+    /**
+     * Searches the contexts, and groups the results, leaving out (and listing the IDs of) the contexts not searched
+     * within the timeout of the request.
+     *
+     * @since 7.1.7
+     */
+    protected int searchGrouped(
+            GroupedSearchRequest req,
+            Map<String, ArtifactInfoGroup> result,
+            Grouping grouping,
+            List<IndexingContext> participatingContexts,
+            Query query,
+            List<String> timedOutContexts)
+            throws IOException {
+        return searchGrouped(
+                req, result, grouping, participatingContexts, query, new SearchState(timedOutContexts, null));
+    }
+
+    /**
+     * Searches the contexts, and groups the results, recording the contexts timed out and the readers searched in the
+     * state of this search. The public search methods and the other overloads end up here.
+     *
+     * @since 7.1.7
+     */
+    protected int searchGrouped(
+            final GroupedSearchRequest req,
+            final Map<String, ArtifactInfoGroup> result,
+            final Grouping grouping,
+            final List<IndexingContext> participatingContexts,
+            final Query query,
+            final SearchState state)
+            throws IOException {
         int hitCount = 0;
 
-        for (IndexingContext context : participatingContexts) {
-            final IndexSearcher indexSearcher = context.acquireIndexSearcher();
-            try {
-                final TopScoreDocCollector collector = doSearchWithCeiling(req, indexSearcher, query);
+        // the UINFOs of the merged collapsed groups, by group key
+        final Map<String, Set<String>> mergedUinfos = new HashMap<>();
+
+        for (ContextHits hits : searchContexts(req, participatingContexts, query, state.getTimedOutContexts())) {
+            hitCount += hits.totalHits;
+
+            state.searched(hits.reader);
+
+            if (hits.groups != null) {
+                // collapsed, groups of contexts are merged, counting artifacts present in several contexts once
+                for (Map.Entry<String, ArtifactInfoGroup> entry : hits.groups.entrySet()) {
+                    Set<String> uinfos = hits.groupUinfos.get(entry.getKey());
+                    ArtifactInfoGroup group = result.get(entry.getKey());
+                    if (group == null) {
+                        result.put(entry.getKey(), entry.getValue());
+                        mergedUinfos.put(entry.getKey(), uinfos);
+                    } else {
+                        Set<String> merged = mergedUinfos.computeIfAbsent(entry.getKey(), k -> new HashSet<>());
+                        int added = 0;
+                        for (String uinfo : uinfos) {
+                            if (merged.add(uinfo)) {
+                                added++;
+                            }
+                        }
+                        // fix the hitCount accordingly
+                        hitCount -= uinfos.size() - added;
+                        group.addCount(added);
+
+                        // keep the top of the tops only
+                        group.getArtifactInfos().addAll(entry.getValue().getArtifactInfos());
+                        ArtifactInfo top = group.getArtifactInfos().iterator().next();
+                        group.getArtifactInfos().clear();
+                        group.getArtifactInfos().add(top);
+                    }
+                }
+            }
 
-                if (collector.getTotalHits() > 0) {
-                    ScoreDoc[] scoreDocs = collector.topDocs().scoreDocs;
+            for (ArtifactInfo artifactInfo : hits.artifactInfos) {
+                if (!grouping.addArtifactInfo(result, artifactInfo)) {
+                    // fix the hitCount accordingly
+                    hitCount--;
+                }
+            }
+        }
 
-                    hitCount += collector.getTotalHits();
+        return hitCount;
+    }
 
-                    for (ScoreDoc scoreDoc : scoreDocs) {
-                        Document doc = indexSearcher.doc(scoreDoc.doc);
+    /**
+     * Searches the contexts, concurrently if there is an executor, and returns their hits in context order, filtered
+     * and postprocessed on the calling thread. Contexts not searched within the timeout of the request are left out and
+     * their IDs are added to the passed in list. Each context search stops at the deadline on its own, as late searches
+     * are not interrupted (that could close the files of the index).
+     */
+    private List<ContextHits> searchContexts(
+            final AbstractSearchRequest req,
+            final List<IndexingContext> participatingContexts,
+            final Query query,
+            final List<String> timedOutContexts)
+            throws IOException {
+        final long deadline = req.getTimeout() == AbstractSearchRequest.UNDEFINED
+                ? 0L
+                : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(req.getTimeout());
+        final List<ContextHits> result = new ArrayList<>(participatingContexts.size());
 
-                        ArtifactInfo artifactInfo = IndexUtils.constructArtifactInfo(doc, context);
+        final List<FutureTask<ContextHits>> tasks = new ArrayList<>(participatingContexts.size());
+        try {
+            if (executor == null || participatingContexts.size() < 2) {
+                for (IndexingContext context : participatingContexts) {
+                    ContextHits hits = isExpired(deadline) ? null : searchContext(req, context, query, deadline);
+                    addContextHits(req, context, hits, result, timedOutContexts);
+                }
+                return result;
+            }
 
-                        if (artifactInfo != null) {
-                            artifactInfo.setRepository(context.getRepositoryId());
-                            artifactInfo.setContext(context.getId());
+            for (IndexingContext context : participatingContexts) {
+                FutureTask<ContextHits> task = new FutureTask<>(() -> searchContext(req, context, query, deadline));
+                tasks.add(task);
+                executor.execute(task);
+            }
+            for (int i = 0; i < tasks.size(); i++) {
+                ContextHits hits;
+                try {
+                    if (deadline == 0L) {
+                        hits = tasks.get(i).get();
+                    } else {
+                        hits = tasks.get(i).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    }
+                } catch (TimeoutException e) {
+                    tasks.get(i).cancel(false);
+                    hits = null;
+                }
+                addContextHits(req, participatingContexts.get(i), hits, result, timedOutContexts);
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while searching contexts");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to search context", e.getCause());
+        } finally {
+            for (FutureTask<ContextHits> task : tasks) {
+                task.cancel(false);
+            }
+            if (!timedOutContexts.isEmpty() && getLogger().isWarnEnabled()) {
+                getLogger().warn("Contexts not searched within " + req.getTimeout() + "ms: " + timedOutContexts);
+            }
+        }
+    }
 
-                            if (req.getArtifactInfoFilter() != null) {
-                                if (!req.getArtifactInfoFilter().accepts(context, artifactInfo)) {
-                                    continue;
-                                }
-                            }
-                            if (req.getArtifactInfoPostprocessor() != null) {
-                                req.getArtifactInfoPostprocessor().postprocess(context, artifactInfo);
-                            }
+    /**
+     * Adds the hits of a context, filtered and postprocessed, to the results, or the context to the timed out ones if
+     * it has none.
+     */
+    private static void addContextHits(
+            final AbstractSearchRequest req,
+            final IndexingContext context,
+            final ContextHits hits,
+            final List<ContextHits> result,
+            final List<String> timedOutContexts) {
+        if (hits == null) {
+            timedOutContexts.add(context.getId());
+            return;
+        }
 
-                            if (!grouping.addArtifactInfo(result, artifactInfo)) {
-                                // fix the hitCount accordingly
-                                hitCount--;
-                            }
-                        }
+        final ArtifactInfoFilter filter = req.getArtifactInfoFilter();
+        final ArtifactInfoPostprocessor postprocessor = req.getArtifactInfoPostprocessor();
+        if (filter != null) {
+            hits.artifactInfos.removeIf(artifactInfo -> !filter.accepts(context, artifactInfo));
+        }
+        if (postprocessor != null) {
+            for (ArtifactInfo artifactInfo : hits.artifactInfos) {
+                postprocessor.postprocess(context, artifactInfo);
+            }
+            if (hits.groups != null) {
+                for (ArtifactInfoGroup group : hits.groups.values()) {
+                    for (ArtifactInfo artifactInfo : group.getArtifactInfos()) {
+                        postprocessor.postprocess(context, artifactInfo);
                     }
                 }
-            } finally {
-                context.releaseIndexSearcher(indexSearcher);
             }
         }
+        result.add(hits);
+    }
 
-        return hitCount;
+    private static boolean isExpired(final long deadline) {
+        return deadline != 0L && System.nanoTime() - deadline >= 0L;
+    }
+
+    /**
+     * Searches a single context, and returns its total hit count and the artifacts of its hits (not filtered nor
+     * postprocessed yet), or {@code null} if the deadline (if not 0) passed before the search completed.
+     */
+    private ContextHits searchContext(
+            final AbstractSearchRequest req, final IndexingContext context, final Query query, final long deadline)
+            throws IOException {
+        final IndexSearcher acquired = context.acquireIndexSearcher();
+        try {
+            final ContextHits hits = searchContext(req, context, acquired, query, deadline);
+            if (hits != null) {
+                hits.reader = acquired.getIndexReader().getReaderCacheHelper();
+            }
+            return hits;
+        } finally {
+            context.releaseIndexSearcher(acquired);
+        }
+    }
+
+    /**
+     * Searches a single context with the searcher acquired from it.
+     */
+    private ContextHits searchContext(
+            final AbstractSearchRequest req,
+            final IndexingContext context,
+            final IndexSearcher acquired,
+            final Query query,
+            final long deadline)
+            throws IOException {
+        // the acquired searcher is shared, so the timeout is set on a searcher of its own over the same reader
+        final IndexSearcher indexSearcher;
+        if (deadline == 0L) {
+            indexSearcher = acquired;
+        } else {
+            indexSearcher = new NexusIndexSearcher(context, acquired.getIndexReader());
+            indexSearcher.setSimilarity(acquired.getSimilarity());
+            indexSearcher.setQueryCache(acquired.getQueryCache());
+            indexSearcher.setQueryCachingPolicy(acquired.getQueryCachingPolicy());
+            indexSearcher.setTimeout(new QueryTimeoutImpl(
+                    Math.max(0L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()))));
+        }
+
+        if (req instanceof GroupedSearchRequest
+                && ((GroupedSearchRequest) req).isCollapsed()
+                && req.getArtifactInfoFilter() == null) {
+            return collapseContext((GroupedSearchRequest) req, indexSearcher, context, query, deadline);
+        }
+
+        final boolean unbounded =
+                AbstractSearchRequest.UNDEFINED == getTopDocsCollectorHitNum(req, AbstractSearchRequest.UNDEFINED);
+
+        int totalHits = 0;
+        final HitCursor hits;
+
+        if (unbounded) {
+            // all hits are wanted, and results are ordered by the request, so no need to score them
+            hits = HitCursor.stream(indexSearcher, query);
+        } else {
+            final TopScoreDocCollector collector = doSearchWithCeiling(req, indexSearcher, query);
+
+            if (indexSearcher.timedOut()) {
+                return null;
+            }
+
+            if (collector.getTotalHits() == 0) {
+                // context has no hits
+                return new ContextHits(0, new ArrayList<>());
+            }
+
+            totalHits = collector.getTotalHits();
+            hits = HitCursor.of(collector.topDocs());
+        }
+
+        final FieldProjection projection = new FieldProjection(req);
+
+        List<ArtifactInfo> artifactInfos = new ArrayList<>();
+
+        while (hits.next()) {
+            if (isExpired(deadline)) {
+                return null;
+            }
+
+            if (unbounded) {
+                totalHits++;
+            }
+
+            Document doc = projection.document(indexSearcher, hits.doc(), context);
+
+            ArtifactInfo artifactInfo = projection.artifactInfo(doc, context);
+
+            if (artifactInfo != null) {
+                artifactInfo.setRepository(context.getRepositoryId());
+                artifactInfo.setContext(context.getId());
+
+                artifactInfos.add(artifactInfo);
+            }
+        }
+
+        return new ContextHits(totalHits, artifactInfos);
+    }
+
+    /**
+     * Searches a single context, grouping its hits by the coordinates in doc values, and returns the groups holding
+     * their top artifact only (not postprocessed yet), or {@code null} if the deadline (if not 0) passed.
+     */
+    private ContextHits collapseContext(
+            final GroupedSearchRequest req,
+            final IndexSearcher indexSearcher,
+            final IndexingContext context,
+            final Query query,
+            final long deadline)
+            throws IOException {
+        final CollapsingCollector collector =
+                new CollapsingCollector(req.getGrouping(), context, indexSearcher, new FieldProjection(req));
+
+        if (AbstractSearchRequest.UNDEFINED == getTopDocsCollectorHitNum(req, AbstractSearchRequest.UNDEFINED)) {
+            indexSearcher.search(query, collector);
+        } else {
+            // group the top hits, in document order
+            final int[] docs = Arrays.stream(doSearchWithCeiling(req, indexSearcher, query).topDocs().scoreDocs)
+                    .mapToInt(scoreDoc -> scoreDoc.doc)
+                    .sorted()
+                    .toArray();
+            final List<LeafReaderContext> leaves = indexSearcher.getIndexReader().leaves();
+
+            LeafCollector leafCollector = null;
+            int leaf = -1;
+            for (int doc : docs) {
+                int i = ReaderUtil.subIndex(doc, leaves);
+                if (i != leaf) {
+                    leaf = i;
+                    leafCollector = collector.getLeafCollector(leaves.get(i));
+                }
+                leafCollector.collect(doc - leaves.get(i).docBase);
+            }
+        }
+
+        if (indexSearcher.timedOut() || isExpired(deadline)) {
+            return null;
+        }
+
+        return new ContextHits(collector.getCount(), collector.collapse(), collector.getUinfos());
+    }
+
+    /**
+     * The state of a single search across contexts: the IDs of the contexts not searched within the timeout of the
+     * request, and the readers searched, if tracked to cache the response.
+     *
+     * @since 7.1.7
+     */
+    protected static final class SearchState {
+        private final List<String> timedOutContexts;
+
+        private final List<IndexReader.CacheHelper> searchedReaders;
+
+        private SearchState(
+                final List<String> timedOutContexts, final List<IndexReader.CacheHelper> searchedReaders) {
+            this.timedOutContexts = timedOutContexts;
+            this.searchedReaders = searchedReaders;
+        }
+
+        /**
+         * Returns the IDs of the contexts not searched within the timeout of the request, to be added to.
+         */
+        public List<String> getTimedOutContexts() {
+            return timedOutContexts;
+        }
+
+        private List<IndexReader.CacheHelper> getSearchedReaders() {
+            return searchedReaders;
+        }
+
+        private void searched(final IndexReader.CacheHelper reader) {
+            if (searchedReaders != null) {
+                searchedReaders.add(reader);
+            }
+        }
+
+        /**
+         * Returns {@code true} if every context was searched, through a reader that can be cached.
+         */
+        private boolean isCacheable() {
+            return timedOutContexts.isEmpty() && searchedReaders != null && !searchedReaders.contains(null);
+        }
+    }
+
+    /**
+     * The hits of a single context, either as artifacts, or as groups of a collapsed search.
+     */
+    private static final class ContextHits {
+        private final int totalHits;
+
+        private final List<ArtifactInfo> artifactInfos;
+
+        private final Map<String, ArtifactInfoGroup> groups;
+
+        private final Map<String, Set<String>> groupUinfos;
+
+        /**
+         * The reader searched, to key cached responses by, or {@code null} if it cannot be.
+         */
+        private IndexReader.CacheHelper reader;
+
+        private ContextHits(int totalHits, List<ArtifactInfo> artifactInfos) {
+            this.totalHits = totalHits;
+            this.artifactInfos = artifactInfos;
+            this.groups = null;
+            this.groupUinfos = null;
+        }
+
+        private ContextHits(
+                int totalHits, Map<String, ArtifactInfoGroup> groups, Map<String, Set<String>> groupUinfos) {
+            this.totalHits = totalHits;
+            this.artifactInfos = new ArrayList<>();
+            this.groups = groups;
+            this.groupUinfos = groupUinfos;
+        }
     }
 
     // == NG Search
@@ -255,12 +834,30 @@ public class DefaultSearchEngine implements SearchEngine {
         NexusIndexMultiSearcher indexSearcher = new NexusIndexMultiSearcher(multiReader);
 
         try {
-            TopScoreDocCollector hits = doSearchWithCeiling(request, indexSearcher, request.getQuery());
+            final int totalHits;
+            final HitCursor hits;
+            final int topHitCount = getTopDocsCollectorHitNum(request, AbstractSearchRequest.UNDEFINED);
+
+            if (AbstractSearchRequest.UNDEFINED != topHitCount) {
+                // count is set, keep only the top hits
+                TopScoreDocCollector collector = doSearchWithCeiling(request, indexSearcher, request.getQuery());
+                totalHits = collector.getTotalHits();
+                hits = HitCursor.of(collector.topDocs());
+            } else if (request.isStreamed()) {
+                // the hits are counted as they are streamed, the total is only computed upfront when asked for early
+                final DefaultIteratorResultSet results = new DefaultIteratorResultSet(
+                        request, indexSearcher, contexts, HitCursor.stream(indexSearcher, request.getQuery()));
+                return new IteratorSearchResponse(request.getQuery(), results::countStreamedHits, results);
+            } else {
+                HitCursor.CollectedCursor collected = HitCursor.collect(indexSearcher, request.getQuery());
+                totalHits = collected.size();
+                hits = collected;
+            }
 
             return new IteratorSearchResponse(
                     request.getQuery(),
-                    hits.getTotalHits(),
-                    new DefaultIteratorResultSet(request, indexSearcher, contexts, hits.topDocs()));
+                    totalHits,
+                    new DefaultIteratorResultSet(request, indexSearcher, contexts, hits));
         } catch (IOException | RuntimeException e) {
             try {
                 indexSearcher.release();
@@ -273,46 +870,35 @@ public class DefaultSearchEngine implements SearchEngine {
 
     // ==
 
+    /**
+     * Searches for the top hits of the query. Requests without count set get all hits, in a collector sized to their
+     * count, so the query is executed twice and a priority queue of all hits is allocated: the searches of this engine
+     * collect or stream such hits in a single pass instead, and use this method for requests with count set only.
+     */
     protected TopScoreDocCollector doSearchWithCeiling(
             final AbstractSearchRequest request, final IndexSearcher indexSearcher, final Query query)
             throws IOException {
         int topHitCount = getTopDocsCollectorHitNum(request, AbstractSearchRequest.UNDEFINED);
 
-        if (AbstractSearchRequest.UNDEFINED != topHitCount) {
-            // count is set, simply just execute it as-is
-            final TopScoreDocCollector hits = TopScoreDocCollector.create(topHitCount, Integer.MAX_VALUE);
-
-            indexSearcher.search(query, hits);
+        if (AbstractSearchRequest.UNDEFINED == topHitCount) {
+            // counting does not score, and is often answered from index statistics
+            topHitCount = Math.max(1, indexSearcher.count(query));
+
+            if (getLogger().isDebugEnabled() && topHitCount > 1000) {
+                // warn the user and leave trace just before OOM might happen
+                // the total hits might be HUUGE
+                getLogger()
+                        .debug("Executing unbounded search, and fitting topHitCounts to " + topHitCount
+                                + ", an OOMEx might follow. To avoid OOM use narrower queries or limit your expectancy with "
+                                + "request.setCount() method where appropriate. See MINDEXER-14 for details.");
+            }
+        }
 
-            return hits;
-        } else {
-            // set something reasonable as 1k
-            topHitCount = 1000;
-
-            // perform search
-            TopScoreDocCollector hits = TopScoreDocCollector.create(topHitCount, Integer.MAX_VALUE);
-            indexSearcher.search(query, hits);
-
-            // check total hits against, does it fit?
-            if (topHitCount < hits.getTotalHits()) {
-                topHitCount = hits.getTotalHits();
-
-                if (getLogger().isDebugEnabled()) {
-                    // warn the user and leave trace just before OOM might happen
-                    // the hits.getTotalHits() might be HUUGE
-                    getLogger()
-                            .debug("Executing unbounded search, and fitting topHitCounts to " + topHitCount
-                                    + ", an OOMEx might follow. To avoid OOM use narrower queries or limit your expectancy with "
-                                    + "request.setCount() method where appropriate. See MINDEXER-14 for details.");
-                }
+        final TopScoreDocCollector hits = TopScoreDocCollector.create(topHitCount, Integer.MAX_VALUE);
 
-                // redo all, but this time with correct numbers
-                hits = TopScoreDocCollector.create(topHitCount, Integer.MAX_VALUE);
-                indexSearcher.search(query, hits);
-            }
+        indexSearcher.search(query, hits);
 
-            return hits;
-        }
+        return hits;
     }
 
     /**
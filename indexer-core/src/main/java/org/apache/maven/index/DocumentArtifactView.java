@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import org.apache.lucene.index.FieldInfo;
+import org.apache.lucene.index.StoredFieldVisitor;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+
+/**
+ * A reusable {@link ArtifactView} over the stored fields of the minimal creator, that loads only those, and parses
+ * them only when accessed, with
+ * {@link MinimalArtifactInfoIndexCreator#parseArtifactInfo(String, String, ArtifactInfo)}.
+ *
+ * @since 7.1.7
+ */
+abstract class DocumentArtifactView extends StoredFieldVisitor implements ArtifactView {
+    private String uinfo;
+
+    private String info;
+
+    private String name;
+
+    private String description;
+
+    private String sha1;
+
+    private IndexingContext context;
+
+    private float luceneScore;
+
+    private boolean parsed;
+
+    /**
+     * The parsed UINFO and INFO, reused across documents.
+     */
+    private final ArtifactInfo artifactInfo = new ArtifactInfo();
+
+    /**
+     * Clears the view, for the stored fields of the next document to be visited.
+     */
+    void reset(final IndexingContext context, final float luceneScore) {
+        this.context = context;
+        this.luceneScore = luceneScore;
+        uinfo = null;
+        info = null;
+        name = null;
+        description = null;
+        sha1 = null;
+        parsed = false;
+    }
+
+    IndexingContext getIndexingContext() {
+        return context;
+    }
+
+    /**
+     * Returns {@code true} if the visited document is an artifact.
+     */
+    boolean isArtifact() {
+        return uinfo != null;
+    }
+
+    @Override
+    public Status needsField(FieldInfo fieldInfo) {
+        final String field = fieldInfo.name;
+        if (ArtifactInfo.UINFO.equals(field)
+                || ArtifactInfo.INFO.equals(field)
+                || ArtifactInfo.NAME.equals(field)
+                || ArtifactInfo.DESCRIPTION.equals(field)
+                || ArtifactInfo.SHA1.equals(field)) {
+            return Status.YES;
+        }
+        return Status.NO;
+    }
+
+    @Override
+    public void stringField(FieldInfo fieldInfo, String value) {
+        final String field = fieldInfo.name;
+        if (ArtifactInfo.UINFO.equals(field)) {
+            uinfo = value;
+        } else if (ArtifactInfo.INFO.equals(field)) {
+            info = value;
+        } else if (ArtifactInfo.NAME.equals(field)) {
+            name = value;
+        } else if (ArtifactInfo.DESCRIPTION.equals(field)) {
+            description = value;
+        } else if (ArtifactInfo.SHA1.equals(field)) {
+            sha1 = value;
+        }
+    }
+
+    private void parse() {
+        if (parsed) {
+            return;
+        }
+        parsed = true;
+
+        // not set from a missing INFO
+        artifactInfo.setPackaging(null);
+        artifactInfo.setLastModified(-1);
+        artifactInfo.setSize(-1);
+        MinimalArtifactInfoIndexCreator.parseArtifactInfo(uinfo, info, artifactInfo);
+    }
+
+    @Override
+    public String getUinfo() {
+        return uinfo;
+    }
+
+    @Override
+    public String getGroupId() {
+        parse();
+        return artifactInfo.getGroupId();
+    }
+
+    @Override
+    public String getArtifactId() {
+        parse();
+        return artifactInfo.getArtifactId();
+    }
+
+    @Override
+    public String getVersion() {
+        parse();
+        return artifactInfo.getVersion();
+    }
+
+    @Override
+    public String getClassifier() {
+        parse();
+        return artifactInfo.getClassifier();
+    }
+
+    @Override
+    public String getFileExtension() {
+        parse();
+        return artifactInfo.getFileExtension();
+    }
+
+    @Override
+    public String getPackaging() {
+        parse();
+        return artifactInfo.getPackaging();
+    }
+
+    @Override
+    public long getLastModified() {
+        parse();
+        return artifactInfo.getLastModified();
+    }
+
+    @Override
+    public long getSize() {
+        parse();
+        return artifactInfo.getSize();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public String getSha1() {
+        return sha1;
+    }
+
+    @Override
+    public String getRepository() {
+        return context.getRepositoryId();
+    }
+
+    @Override
+    public String getContext() {
+        return context.getId();
+    }
+
+    @Override
+    public float getLuceneScore() {
+        return luceneScore;
+    }
+
+    @Override
+    public String toString() {
+        return uinfo;
+    }
+}
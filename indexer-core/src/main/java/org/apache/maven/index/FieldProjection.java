@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DocumentStoredFieldVisitor;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.maven.index.context.IndexCreator;
+import org.apache.maven.index.context.IndexUtils;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+
+/**
+ * Loads documents of hits and constructs their ArtifactInfo's, limited to the stored fields and index creators of the
+ * {@link AbstractSearchRequest#getProjection() projection} of a request. Safe for concurrent use.
+ *
+ * @since 7.1.7
+ */
+final class FieldProjection {
+    private final Set<String> projection;
+
+    private final Map<IndexingContext, Selection> selections = new ConcurrentHashMap<>();
+
+    FieldProjection(final AbstractSearchRequest request) {
+        this.projection = request.getProjection();
+    }
+
+    /**
+     * Loads the document, with the stored fields of the projection only, if there is one.
+     */
+    Document document(final IndexSearcher indexSearcher, final int doc, final IndexingContext context)
+            throws IOException {
+        if (projection == null) {
+            return indexSearcher.doc(doc);
+        }
+
+        DocumentStoredFieldVisitor visitor = new DocumentStoredFieldVisitor(selection(context).storedFields);
+        indexSearcher.doc(doc, visitor);
+        return visitor.getDocument();
+    }
+
+    /**
+     * Constructs the ArtifactInfo of a document loaded by {@link #document(IndexSearcher, int, IndexingContext)},
+     * running the index creators of the projection only, if there is one.
+     */
+    ArtifactInfo artifactInfo(final Document doc, final IndexingContext context) {
+        if (projection == null) {
+            return IndexUtils.constructArtifactInfo(doc, context);
+        }
+
+        return IndexUtils.constructArtifactInfo(doc, context, selection(context).indexCreators);
+    }
+
+    private Selection selection(final IndexingContext context) {
+        return selections.computeIfAbsent(context, c -> new Selection(c.getIndexCreators(), projection));
+    }
+
+    /**
+     * The index creators of a context selected by the projection, with the ones they depend on and the minimal one
+     * constructing the ArtifactInfo, in context order, and the stored fields they read.
+     */
+    private static final class Selection {
+        private final List<IndexCreator> indexCreators;
+
+        private final Set<String> storedFields;
+
+        private Selection(final List<IndexCreator> contextIndexCreators, final Set<String> projection) {
+            Map<String, IndexCreator> byId = new HashMap<>();
+            for (IndexCreator ic : contextIndexCreators) {
+                byId.put(ic.getId(), ic);
+            }
+
+            Set<String> ids = new HashSet<>();
+            Deque<String> pending = new ArrayDeque<>(projection);
+            // without it, no ArtifactInfo is constructed, and searches would silently have no results
+            pending.add(MinimalArtifactInfoIndexCreator.ID);
+            while (!pending.isEmpty()) {
+                String id = pending.pop();
+                IndexCreator ic = byId.get(id);
+                if (ic != null && ids.add(id)) {
+                    pending.addAll(ic.getCreatorDependencies());
+                }
+            }
+
+            List<IndexCreator> indexCreators = new ArrayList<>();
+            Set<String> storedFields = new HashSet<>();
+            // the record key, and the last modified that all records have
+            storedFields.add(ArtifactInfo.UINFO);
+            storedFields.add(ArtifactInfo.LAST_MODIFIED);
+            for (IndexCreator ic : contextIndexCreators) {
+                if (ids.contains(ic.getId())) {
+                    indexCreators.add(ic);
+                    for (IndexerField field : ic.getIndexerFields()) {
+                        if (field.isStored()) {
+                            storedFields.add(field.getKey());
+                        }
+                    }
+                }
+            }
+
+            this.indexCreators = Collections.unmodifiableList(indexCreators);
+            this.storedFields = Collections.unmodifiableSet(storedFields);
+        }
+    }
+}
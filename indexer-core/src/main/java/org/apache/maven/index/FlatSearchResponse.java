@@ -18,6 +18,7 @@
  */
 package org.apache.maven.index;
 
+import java.util.List;
 import java.util.Set;
 
 import org.apache.lucene.search.Query;
@@ -36,6 +37,15 @@ public class FlatSearchResponse extends AbstractSearchResponse {
         this.results = results;
     }
 
+    /**
+     * @since 7.1.7
+     */
+    public FlatSearchResponse(Query query, int totalHits, Set<ArtifactInfo> results, List<String> timedOutContexts) {
+        super(query, totalHits, results.size(), timedOutContexts);
+
+        this.results = results;
+    }
+
     public Set<ArtifactInfo> getResults() {
         return results;
     }
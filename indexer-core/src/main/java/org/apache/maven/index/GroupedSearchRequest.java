@@ -35,6 +35,15 @@ public class GroupedSearchRequest extends AbstractSearchRequest {
 
     private Comparator<String> groupKeyComparator;
 
+    /**
+     * Should groups hold only their top ArtifactInfo (as ordered by the grouping)? Collapsed searches group hits by the
+     * coordinates kept as doc values, and load stored fields for the top hit of each group only. Groupings must then
+     * group by coordinates (groupId, artifactId, version, classifier, extension, packaging, repository) only, as all
+     * the provided ones do. Ignored for requests with an {@link ArtifactInfoFilter}, as filters need all fields. When
+     * searching several contexts, an artifact (by UINFO) present in more than one of them is counted once.
+     */
+    private boolean collapsed = false;
+
     public GroupedSearchRequest(Query query, Grouping grouping) {
         this(query, grouping, String.CASE_INSENSITIVE_ORDER);
     }
@@ -71,4 +80,21 @@ public class GroupedSearchRequest extends AbstractSearchRequest {
     public void setGroupKeyComparator(Comparator<String> groupKeyComparator) {
         this.groupKeyComparator = groupKeyComparator;
     }
+
+    /**
+     * @since 7.1.7
+     */
+    public boolean isCollapsed() {
+        return collapsed;
+    }
+
+    /**
+     * Sets whether groups should hold only their top ArtifactInfo, see {@link #collapsed}. The count of ArtifactInfo's
+     * in a group is still given by {@link ArtifactInfoGroup#getCount()}.
+     *
+     * @since 7.1.7
+     */
+    public void setCollapsed(boolean collapsed) {
+        this.collapsed = collapsed;
+    }
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.maven.index;
 
+import java.util.List;
 import java.util.Map;
 
 import org.apache.lucene.search.Query;
@@ -36,6 +37,15 @@ public class GroupedSearchResponse extends AbstractSearchResponse {
         this.results = results;
     }
 
+    /**
+     * @since 7.1.7
+     */
+    public GroupedSearchResponse(Query query, int totalHits, Map<String, ArtifactInfoGroup> results, List<String> timedOutContexts) {
+        super(query, totalHits, results.size(), timedOutContexts);
+
+        this.results = results;
+    }
+
     public Map<String, ArtifactInfoGroup> getResults() {
         return results;
     }
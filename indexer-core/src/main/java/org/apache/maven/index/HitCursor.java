@@ -0,0 +1,300 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Scorable;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.Weight;
+import org.apache.lucene.util.ArrayUtil;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.NumericUtils;
+
+/**
+ * A forward only cursor over the hits of a query, positioned before the first hit. Hits are either taken from
+ * {@link TopDocs}, collected in a single pass over the index, or streamed lazily in index order.
+ *
+ * @since 7.1.7
+ */
+abstract class HitCursor {
+    /**
+     * Advances to the next hit, returns {@code false} if there are no more hits.
+     */
+    abstract boolean next() throws IOException;
+
+    /**
+     * The (top level) document ID of the current hit.
+     */
+    abstract int doc();
+
+    /**
+     * The score of the current hit, or {@link Float#NaN} if hits are not scored.
+     */
+    abstract float score();
+
+    /**
+     * Returns a cursor over the score docs of passed in top docs, in their order.
+     */
+    static HitCursor of(final TopDocs topDocs) {
+        return new TopDocsCursor(topDocs.scoreDocs);
+    }
+
+    /**
+     * Executes the query once, and returns a cursor over all of its hits, ordered as {@link TopDocs} would be: by
+     * descending score, then by ascending document ID. Unlike a top docs collector sized to the total hit count, this
+     * keeps a single {@code long} per hit.
+     */
+    static CollectedCursor collect(final IndexSearcher indexSearcher, final Query query) throws IOException {
+        AllHitsCollector collector = new AllHitsCollector();
+        indexSearcher.search(query, collector);
+        long[] hits = ArrayUtil.copyOfSubArray(collector.hits, 0, collector.size);
+        Arrays.sort(hits);
+        return new CollectedCursor(hits);
+    }
+
+    /**
+     * Returns a cursor that lazily walks the hits of the query in index (document ID) order, without scoring them. The
+     * query is executed as the cursor advances, so nothing is retained per hit.
+     */
+    static StreamingCursor stream(final IndexSearcher indexSearcher, final Query query) throws IOException {
+        Weight weight = indexSearcher.createWeight(indexSearcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+        return new StreamingCursor(weight, indexSearcher.getIndexReader().leaves());
+    }
+
+    // ==
+
+    private static final class TopDocsCursor extends HitCursor {
+        private final ScoreDoc[] scoreDocs;
+
+        private int pointer = -1;
+
+        private TopDocsCursor(ScoreDoc[] scoreDocs) {
+            this.scoreDocs = scoreDocs;
+        }
+
+        @Override
+        boolean next() {
+            if (pointer < scoreDocs.length) {
+                pointer++;
+            }
+            return pointer < scoreDocs.length;
+        }
+
+        @Override
+        int doc() {
+            return scoreDocs[pointer].doc;
+        }
+
+        @Override
+        float score() {
+            return scoreDocs[pointer].score;
+        }
+    }
+
+    /**
+     * Hits are encoded as longs: the inverted sortable bits of the score in the upper half, the document ID in the lower
+     * one, so natural ordering of the longs is the ordering of the hits.
+     */
+    static final class CollectedCursor extends HitCursor {
+        private final long[] hits;
+
+        private int pointer = -1;
+
+        private CollectedCursor(long[] hits) {
+            this.hits = hits;
+        }
+
+        int size() {
+            return hits.length;
+        }
+
+        @Override
+        boolean next() {
+            if (pointer < hits.length) {
+                pointer++;
+            }
+            return pointer < hits.length;
+        }
+
+        @Override
+        int doc() {
+            return (int) hits[pointer];
+        }
+
+        @Override
+        float score() {
+            return NumericUtils.sortableIntToFloat(~(int) (hits[pointer] >>> 32));
+        }
+    }
+
+    private static final class AllHitsCollector extends SimpleCollector {
+        private long[] hits = new long[64];
+
+        private int size;
+
+        private int docBase;
+
+        private Scorable scorer;
+
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) {
+            this.docBase = context.docBase;
+        }
+
+        @Override
+        public void setScorer(Scorable scorer) {
+            this.scorer = scorer;
+        }
+
+        @Override
+        public void collect(int doc) throws IOException {
+            if (size == hits.length) {
+                hits = ArrayUtil.grow(hits, size + 1);
+            }
+            long score = ~NumericUtils.floatToSortableInt(scorer.score());
+            hits[size++] = (score << 32) | ((docBase + doc) & 0xFFFFFFFFL);
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE;
+        }
+    }
+
+    /**
+     * Hits are counted as they are streamed, so the total is known once the cursor is exhausted, without executing the
+     * query again.
+     */
+    static final class StreamingCursor extends HitCursor {
+        private final Weight weight;
+
+        private final List<LeafReaderContext> leaves;
+
+        private int leaf;
+
+        private DocIdSetIterator iterator;
+
+        private Bits liveDocs;
+
+        private int docBase;
+
+        private int doc = -1;
+
+        private int streamed;
+
+        private int count = -1;
+
+        private StreamingCursor(Weight weight, List<LeafReaderContext> leaves) {
+            this.weight = weight;
+            this.leaves = leaves;
+        }
+
+        /**
+         * Returns {@code true} if the count of hits is known, without reading the index.
+         */
+        boolean isCounted() {
+            return count != -1 || doc == DocIdSetIterator.NO_MORE_DOCS;
+        }
+
+        /**
+         * Returns the count of all hits, regardless of the position of this cursor. Unless the cursor is exhausted, they
+         * are counted per segment from index statistics where the query allows it, and otherwise by a separate pass.
+         */
+        int count() throws IOException {
+            if (count == -1) {
+                if (doc == DocIdSetIterator.NO_MORE_DOCS) {
+                    count = streamed;
+                } else {
+                    int total = 0;
+                    for (LeafReaderContext context : leaves) {
+                        int leafCount = weight.count(context);
+                        total += leafCount != -1 ? leafCount : countHits(context);
+                    }
+                    count = total;
+                }
+            }
+            return count;
+        }
+
+        private int countHits(LeafReaderContext context) throws IOException {
+            Scorer scorer = weight.scorer(context);
+            if (scorer == null) {
+                return 0;
+            }
+            Bits leafLiveDocs = context.reader().getLiveDocs();
+            DocIdSetIterator it = scorer.iterator();
+            int result = 0;
+            for (int d = it.nextDoc(); d != DocIdSetIterator.NO_MORE_DOCS; d = it.nextDoc()) {
+                if (leafLiveDocs == null || leafLiveDocs.get(d)) {
+                    result++;
+                }
+            }
+            return result;
+        }
+
+        @Override
+        boolean next() throws IOException {
+            while (true) {
+                if (iterator != null) {
+                    for (int d = iterator.nextDoc(); d != DocIdSetIterator.NO_MORE_DOCS; d = iterator.nextDoc()) {
+                        // scorers do not skip deleted documents, the searcher does that for collectors
+                        if (liveDocs == null || liveDocs.get(d)) {
+                            doc = docBase + d;
+                            streamed++;
+                            return true;
+                        }
+                    }
+                    iterator = null;
+                }
+                if (leaf >= leaves.size()) {
+                    doc = DocIdSetIterator.NO_MORE_DOCS;
+                    return false;
+                }
+                LeafReaderContext context = leaves.get(leaf++);
+                Scorer scorer = weight.scorer(context);
+                if (scorer != null) {
+                    iterator = scorer.iterator();
+                    liveDocs = context.reader().getLiveDocs();
+                    docBase = context.docBase;
+                }
+            }
+        }
+
+        @Override
+        int doc() {
+            return doc;
+        }
+
+        @Override
+        float score() {
+            return Float.NaN;
+        }
+    }
+}
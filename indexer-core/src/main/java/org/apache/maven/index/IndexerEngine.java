@@ -19,6 +19,7 @@
 package org.apache.maven.index;
 
 import java.io.IOException;
+import java.util.Collection;
 
 import org.apache.maven.index.context.IndexingContext;
 
@@ -36,8 +37,34 @@ public interface IndexerEngine {
      */
     void update(IndexingContext context, ArtifactContext ac) throws IOException;
 
+    /**
+     * Replace data for a batch of previously indexed artifacts. Equivalent to invoking
+     * {@link #update(IndexingContext, ArtifactContext)} for each of them, but implementations may resolve the existing
+     * documents of the whole batch at once.
+     *
+     * @since 7.1.7
+     */
+    default void update(IndexingContext context, Collection<ArtifactContext> acs) throws IOException {
+        for (ArtifactContext ac : acs) {
+            update(context, ac);
+        }
+    }
+
     /**
      * Remove artifact to the index
      */
     void remove(IndexingContext context, ArtifactContext ac) throws IOException;
+
+    /**
+     * Remove a batch of artifacts from the index. Equivalent to invoking
+     * {@link #remove(IndexingContext, ArtifactContext)} for each of them, but implementations may delete the documents
+     * of the whole batch at once.
+     *
+     * @since 7.1.7
+     */
+    default void remove(IndexingContext context, Collection<ArtifactContext> acs) throws IOException {
+        for (ArtifactContext ac : acs) {
+            remove(context, ac);
+        }
+    }
 }
@@ -39,4 +39,27 @@ public interface IteratorResultSet extends Iterator<ArtifactInfo>, Iterable<Arti
      * @return total number of processed ArtifactInfos so far
      */
     int getTotalProcessedArtifactInfoCount();
+
+    /**
+     * Returns an iterator over the remaining results as {@link ArtifactView}s. Implementations may reuse a single
+     * view instance, decoding only the fields accessed, instead of creating an ArtifactInfo for each result. Consumes
+     * this result set, that must not be iterated otherwise then. This implementation returns the ArtifactInfo's as
+     * views.
+     *
+     * @since 7.1.7
+     */
+    default Iterator<ArtifactView> views() {
+        final Iterator<ArtifactInfo> artifactInfos = this;
+        return new Iterator<ArtifactView>() {
+            @Override
+            public boolean hasNext() {
+                return artifactInfos.hasNext();
+            }
+
+            @Override
+            public ArtifactView next() {
+                return artifactInfos.next();
+            }
+        };
+    }
 }
@@ -31,6 +31,12 @@ import org.apache.maven.index.context.IndexingContext;
  * @author cstamas
  */
 public class IteratorSearchRequest extends AbstractSearchPageableRequest {
+    /**
+     * Should hits of a request without count be streamed in index order? Such hits are not scored (nor ordered by
+     * score), but are read lazily as the result is iterated, instead of all being collected upfront.
+     */
+    private boolean streamed = false;
+
     public IteratorSearchRequest(Query query) {
         this(query, null, null);
     }
@@ -52,4 +58,22 @@ public class IteratorSearchRequest extends AbstractSearchPageableRequest {
 
         setArtifactInfoFilter(filter);
     }
+
+    /**
+     * @since 7.1.7
+     */
+    public boolean isStreamed() {
+        return streamed;
+    }
+
+    /**
+     * Sets whether hits of this request, if it has no count, should be streamed lazily in index order, unscored. The
+     * total hit count of the response is counted while streaming: asking for it before all hits are iterated counts
+     * them upfront, and fails once the response is closed.
+     *
+     * @since 7.1.7
+     */
+    public void setStreamed(boolean streamed) {
+        this.streamed = streamed;
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.maven.index;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.function.IntSupplier;
 
 import org.apache.lucene.search.Query;
 
@@ -34,10 +35,33 @@ import org.apache.lucene.search.Query;
 public class IteratorSearchResponse extends AbstractSearchResponse implements Iterable<ArtifactInfo>, Closeable {
     private final IteratorResultSet results;
 
+    private final IntSupplier totalHits;
+
     public IteratorSearchResponse(Query query, int totalHits, IteratorResultSet results) {
         super(query, totalHits, -1);
 
         this.results = results;
+
+        this.totalHits = null;
+    }
+
+    /**
+     * Creates a response whose total hit count is computed by the supplier when requested, as it may cost another pass
+     * over the hits.
+     *
+     * @since 7.1.7
+     */
+    public IteratorSearchResponse(Query query, IntSupplier totalHits, IteratorResultSet results) {
+        super(query, -1, -1);
+
+        this.results = results;
+
+        this.totalHits = totalHits;
+    }
+
+    @Override
+    public int getTotalHitsCount() {
+        return totalHits != null ? totalHits.getAsInt() : super.getTotalHitsCount();
     }
 
     public IteratorResultSet getResults() {
@@ -48,6 +72,16 @@ public class IteratorSearchResponse extends AbstractSearchResponse implements It
         return getResults();
     }
 
+    /**
+     * Returns the results as {@link ArtifactView}s, see {@link IteratorResultSet#views()}. The results can be iterated
+     * only once, either as ArtifactInfo's or as views.
+     *
+     * @since 7.1.7
+     */
+    public Iterable<ArtifactView> views() {
+        return () -> getResults().views();
+    }
+
     @Override
     public void close() throws IOException {
         getResults().close();
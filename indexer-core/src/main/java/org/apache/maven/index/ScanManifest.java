@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.lucene.codecs.CodecUtil;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.store.ChecksumIndexInput;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.IOContext;
+import org.apache.lucene.store.IndexOutput;
+import org.apache.maven.index.context.IndexingContext;
+
+/**
+ * The manifest of the last incremental repository scan, persisted in the index directory of the context. It maps each
+ * scanned directory (relative to the repository root) to the count and fingerprint (names, sizes and modification
+ * times) of the files it contains, and to the UINFOs of the artifacts discovered among them. A rescan processes only
+ * the files of directories that changed, and removes the artifacts of the files that are gone.
+ * <p>
+ * Each written manifest gets a new id, that is committed into the user data of the index together with the
+ * manifest. The manifest is valid as long as the index carries its id: ordinary index writes (ie. deployments, or
+ * artifacts added through the indexer API) keep it, while purging or replacing the index drops it, so the next scan
+ * is a full one.
+ *
+ * @since 7.1.7
+ */
+public class ScanManifest {
+    public static final String SCAN_MANIFEST_FILE = "scan-manifest";
+
+    private static final String CODEC = "ScanManifest";
+
+    /**
+     * The key of the index commit user data entry holding the id of the valid manifest.
+     */
+    public static final String COMMIT_DATA_KEY = "scanManifestId";
+
+    private static final int VERSION = 2;
+
+    private final String id;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public ScanManifest() {
+        this(null);
+    }
+
+    private ScanManifest(final String id) {
+        this.id = id;
+    }
+
+    /**
+     * Returns the id this manifest was written with, or {@code null} if it was not written yet.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns {@code true} if the last commit of the index of the context carries the id of this manifest, ie. the
+     * index was not purged or replaced since this manifest was written.
+     */
+    public boolean isValid(final IndexingContext context) {
+        if (id == null) {
+            return false;
+        }
+        try {
+            return id.equals(SegmentInfos.readLatestCommit(context.getIndexDirectory())
+                    .getUserData()
+                    .get(COMMIT_DATA_KEY));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public Entry get(final String path) {
+        return entries.get(path);
+    }
+
+    public void put(final String path, final Entry entry) {
+        entries.put(path, entry);
+    }
+
+    /**
+     * Returns the paths of all the directories in this manifest.
+     */
+    public Collection<String> getPaths() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Reads the manifest from the directory, returns {@code null} if there is none, or it is unreadable.
+     */
+    public static ScanManifest read(final Directory directory) {
+        try (ChecksumIndexInput in = directory.openChecksumInput(SCAN_MANIFEST_FILE, IOContext.READONCE)) {
+            CodecUtil.checkHeader(in, CODEC, VERSION, VERSION);
+            ScanManifest manifest = new ScanManifest(in.readString());
+            int count = in.readVInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readString();
+                int fileCount = in.readVInt();
+                long fingerprint = in.readLong();
+                int uinfoCount = in.readVInt();
+                List<String> uinfos = new ArrayList<>(uinfoCount);
+                for (int j = 0; j < uinfoCount; j++) {
+                    uinfos.add(in.readString());
+                }
+                manifest.put(path, new Entry(fileCount, fingerprint, uinfos));
+            }
+            CodecUtil.checkFooter(in);
+            return manifest;
+        } catch (IOException e) {
+            // missing, corrupt or of other version: the scan starts over
+            return null;
+        }
+    }
+
+    /**
+     * Writes this manifest, under a new id, into the index directory of the context, and commits the index with the
+     * new id in its user data, that makes the written manifest valid.
+     *
+     * @return the manifest as written, with its new id
+     */
+    public ScanManifest write(final IndexingContext context) throws IOException {
+        ScanManifest written = new ScanManifest(UUID.randomUUID().toString());
+        written.entries.putAll(entries);
+        written.write(context.getIndexDirectory());
+
+        IndexWriter w = context.getIndexWriter();
+        Map<String, String> commitData = new HashMap<>();
+        Iterable<Map.Entry<String, String>> liveCommitData = w.getLiveCommitData();
+        if (liveCommitData != null) {
+            for (Map.Entry<String, String> entry : liveCommitData) {
+                commitData.put(entry.getKey(), entry.getValue());
+            }
+        }
+        commitData.put(COMMIT_DATA_KEY, written.id);
+        w.setLiveCommitData(commitData.entrySet());
+        context.commit();
+        return written;
+    }
+
+    private void write(final Directory directory) throws IOException {
+        delete(directory);
+        try (IndexOutput out = directory.createOutput(SCAN_MANIFEST_FILE, IOContext.DEFAULT)) {
+            CodecUtil.writeHeader(out, CODEC, VERSION);
+            out.writeString(id);
+            Map<String, Entry> snapshot = new TreeMap<>(entries);
+            out.writeVInt(snapshot.size());
+            for (Map.Entry<String, Entry> entry : snapshot.entrySet()) {
+                out.writeString(entry.getKey());
+                out.writeVInt(entry.getValue().fileCount);
+                out.writeLong(entry.getValue().fingerprint);
+                out.writeVInt(entry.getValue().uinfos.size());
+                for (String uinfo : entry.getValue().uinfos) {
+                    out.writeString(uinfo);
+                }
+            }
+            CodecUtil.writeFooter(out);
+        }
+    }
+
+    public static void delete(final Directory directory) throws IOException {
+        try {
+            directory.deleteFile(SCAN_MANIFEST_FILE);
+        } catch (FileNotFoundException | NoSuchFileException e) {
+            // Does not exist
+        }
+    }
+
+    /**
+     * Returns the fingerprint of the files, that changes if any file is added, removed, resized or touched.
+     */
+    public static long fingerprint(final List<File> files) {
+        long hash = 0xcbf29ce484222325L;
+        for (File file : files) {
+            hash = mix(hash, file.getName().hashCode());
+            hash = mix(hash, file.length());
+            hash = mix(hash, file.lastModified());
+        }
+        return hash;
+    }
+
+    private static long mix(final long hash, final long value) {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+
+    /**
+     * The state of one scanned directory.
+     */
+    public static final class Entry {
+        private final int fileCount;
+
+        private final long fingerprint;
+
+        private final List<String> uinfos;
+
+        public Entry(final int fileCount, final long fingerprint, final Collection<String> uinfos) {
+            this.fileCount = fileCount;
+            this.fingerprint = fingerprint;
+            this.uinfos = Collections.unmodifiableList(new ArrayList<>(uinfos));
+        }
+
+        public int getFileCount() {
+            return fileCount;
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Returns the UINFOs of the artifacts discovered in the directory.
+         */
+        public List<String> getUinfos() {
+            return uinfos;
+        }
+
+        /**
+         * Returns {@code true} if the files described by this entry are the same as given files.
+         */
+        public boolean matches(final int fileCount, final long fingerprint) {
+            return this.fileCount == fileCount && this.fingerprint == fingerprint;
+        }
+    }
+}
@@ -19,6 +19,13 @@
 package org.apache.maven.index;
 
 import java.io.File;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.maven.index.context.IndexingContext;
 import org.codehaus.plexus.util.StringUtils;
@@ -35,6 +42,16 @@ public class ScanningRequest {
 
     private final String startingPath;
 
+    private int threads = 1;
+
+    private ExecutorService executorService;
+
+    private List<String> digestAlgorithms = Collections.emptyList();
+
+    private File digestCacheFile;
+
+    private boolean incremental;
+
     public ScanningRequest(final IndexingContext context, final ArtifactScanningListener artifactScanningListener) {
         this(context, artifactScanningListener, null);
     }
@@ -60,6 +77,123 @@ public class ScanningRequest {
         return startingPath;
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the count of threads used to scan the repository. With more than one thread, directories are walked and
+     * artifacts are processed concurrently, hence the {@link ArtifactScanningListener} must be thread safe. Files of one
+     * directory are still processed in order, by one thread.
+     *
+     * @since 7.1.7
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Scanning threads must be greater than zero: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Sets the executor used to scan the repository concurrently, instead of a pool created for the scan. The executor
+     * is not shut down after the scan. The same rules as for {@link #setThreads(int)} apply.
+     *
+     * @since 7.1.7
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * Returns {@code true} if the repository is to be scanned concurrently.
+     *
+     * @since 7.1.7
+     */
+    public boolean isParallel() {
+        return threads > 1 || executorService != null;
+    }
+
+    public List<String> getDigestAlgorithms() {
+        return digestAlgorithms;
+    }
+
+    /**
+     * Sets the digests (by {@link java.security.MessageDigest} algorithm name, ie. "SHA-1" or "SHA-256") computed
+     * from the bytes of scanned artifacts, in one pass shared with the index creators (see {@link ArtifactArchive}).
+     * Only the digests set here, or registered by the index creators, are computed, and only for artifacts an index
+     * creator needs one of them for. The "SHA-1" digest is indexed for artifacts lacking a ".sha1" file, others are
+     * kept in the digest cache only. Digesting is off by default.
+     *
+     * @since 7.1.7
+     */
+    public void setDigestAlgorithms(Collection<String> digestAlgorithms) {
+        if (digestAlgorithms != null) {
+            for (String digestAlgorithm : digestAlgorithms) {
+                try {
+                    MessageDigest.getInstance(digestAlgorithm);
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalArgumentException("Unsupported digest algorithm: " + digestAlgorithm, e);
+                }
+            }
+        }
+        this.digestAlgorithms = digestAlgorithms == null
+                ? Collections.emptyList()
+                : Collections.unmodifiableList(new ArrayList<>(digestAlgorithms));
+    }
+
+    /**
+     * Returns {@code true} if scanned artifacts are to be digested.
+     *
+     * @since 7.1.7
+     */
+    public boolean isDigesting() {
+        return !digestAlgorithms.isEmpty();
+    }
+
+    /**
+     * Returns the file of the persistent digest cache used while digesting: the one set, or by default a file next to
+     * the index directory of the context, if it has one.
+     *
+     * @since 7.1.7
+     */
+    public File getDigestCacheFile() {
+        if (digestCacheFile == null && context.getIndexDirectoryFile() != null) {
+            File indexDirectory = context.getIndexDirectoryFile();
+            return new File(indexDirectory.getParentFile(), indexDirectory.getName() + ".digests");
+        }
+        return digestCacheFile;
+    }
+
+    /**
+     * Sets the file of the persistent {@link ArtifactDigestCache} used while digesting.
+     *
+     * @since 7.1.7
+     */
+    public void setDigestCacheFile(File digestCacheFile) {
+        this.digestCacheFile = digestCacheFile;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Sets incremental scanning: the {@link ScanManifest} of the previous incremental scan is used to process only the
+     * files of the directories that changed since, and to detect removed artifacts without loading all the indexed
+     * ones. If there is no valid manifest (ie. the index was purged or replaced since), the scan is a full update
+     * scan, that writes the manifest for the next one.
+     *
+     * @since 7.1.7
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
     public File getStartingDirectory() {
         if (StringUtils.isBlank(startingPath)) {
             return getIndexingContext().getRepository();
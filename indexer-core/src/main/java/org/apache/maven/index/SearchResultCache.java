@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.store.AlreadyClosedException;
+
+/**
+ * A cache of flat and grouped search responses for {@link DefaultSearchEngine#setResultCache(SearchResultCache)}.
+ * Responses are keyed by the request (query, paging, comparators, filter and postprocessor identity, etc.) and by the
+ * readers of the participating contexts, so a refresh of any context searcher invalidates them, and they are evicted
+ * as soon as the readers they were found with are closed. The cache is bounded by weight, being the count of
+ * ArtifactInfo's in the cached responses, and evicts least recently used responses first.
+ * <p>
+ * Responses hold copies of the cached ArtifactInfo's (and groups), so callers may modify them. Responses of searches
+ * involving a {@link org.apache.maven.index.context.MergedIndexingContext} are not cached, as those search new readers
+ * each time.
+ *
+ * @since 7.1.7
+ */
+public class SearchResultCache {
+    private final long maxWeight;
+
+    private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Set<IndexReader.CacheKey> listenedReaders = new HashSet<>();
+
+    private long weight;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Creates a cache holding responses with up to {@code maxWeight} ArtifactInfo's in total.
+     */
+    public SearchResultCache(long maxWeight) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Max weight cannot be less than 1!");
+        }
+        this.maxWeight = maxWeight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Returns the count of ArtifactInfo's (plus one for each response) currently cached.
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    /**
+     * Returns the count of responses currently cached.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the count of searches served from the cache.
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns the count of searches not found in the cache.
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    // ==
+
+    synchronized AbstractSearchResponse get(final List<Object> key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.response;
+    }
+
+    synchronized void put(
+            final List<Object> key,
+            final List<IndexReader.CacheHelper> readers,
+            final AbstractSearchResponse response,
+            final int responseWeight) {
+        final long entryWeight = responseWeight + 1L;
+        if (entryWeight > maxWeight) {
+            return;
+        }
+
+        final List<IndexReader.CacheKey> readerKeys = new ArrayList<>(readers.size());
+        try {
+            for (IndexReader.CacheHelper reader : readers) {
+                if (listenedReaders.add(reader.getKey())) {
+                    reader.addClosedListener(this::invalidate);
+                }
+                readerKeys.add(reader.getKey());
+            }
+        } catch (AlreadyClosedException e) {
+            // the response was found with a reader closed since, it would never be served
+            return;
+        }
+
+        Entry previous = entries.put(key, new Entry(readerKeys, response, entryWeight));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entryWeight;
+
+        for (Iterator<Entry> iterator = entries.values().iterator(); weight > maxWeight && iterator.hasNext(); ) {
+            weight -= iterator.next().weight;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Evicts the responses found with the closed reader.
+     */
+    private synchronized void invalidate(final IndexReader.CacheKey reader) {
+        listenedReaders.remove(reader);
+
+        for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            Entry entry = iterator.next();
+            if (entry.readers.contains(reader)) {
+                weight -= entry.weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final List<IndexReader.CacheKey> readers;
+
+        private final AbstractSearchResponse response;
+
+        private final long weight;
+
+        private Entry(List<IndexReader.CacheKey> readers, AbstractSearchResponse response, long weight) {
+            this.readers = readers;
+            this.response = response;
+            this.weight = weight;
+        }
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.maven.index.context;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.file.Files;
@@ -31,6 +32,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -44,8 +46,14 @@ import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
 import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.MultiTerms;
+import org.apache.lucene.index.PostingsEnum;
 import org.apache.lucene.index.StoredFields;
 import org.apache.lucene.index.Term;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TermQuery;
@@ -56,6 +64,8 @@ import org.apache.lucene.store.FSLockFactory;
 import org.apache.lucene.store.Lock;
 import org.apache.lucene.store.LockObtainFailedException;
 import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.IndexerField;
 import org.apache.maven.index.artifact.GavCalculator;
@@ -84,6 +94,11 @@ public class DefaultIndexingContext extends AbstractIndexingContext {
 
     private static final Term DESCRIPTOR_TERM = new Term(FLD_DESCRIPTOR, FLD_DESCRIPTOR_CONTENTS);
 
+    /**
+     * Maximum number of deletions collected during merge before they are handed to the writer.
+     */
+    private static final int MERGE_DELETE_BATCH_SIZE = 1000;
+
     private Directory indexDirectory;
 
     private TrackingLockFactory lockFactory;
@@ -106,6 +121,10 @@ public class DefaultIndexingContext extends AbstractIndexingContext {
 
     private SearcherManager searcherManager;
 
+    private SearcherRefreshPolicy searcherRefreshPolicy = SearcherRefreshPolicy.ON_ACQUIRE;
+
+    private volatile ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+
     private Date timestamp;
 
     private List<? extends IndexCreator> indexCreators;
@@ -443,6 +462,9 @@ public class DefaultIndexingContext extends AbstractIndexingContext {
     }
 
     public int getSize() throws IOException {
+        if (reopenThread != null) {
+            refreshIndexSearcher();
+        }
         final IndexSearcher is = acquireIndexSearcher();
         try {
             return is.getIndexReader().numDocs();
@@ -477,6 +499,7 @@ public class DefaultIndexingContext extends AbstractIndexingContext {
     }
 
     protected void openAndWarmup() throws IOException {
+        stopReopenThread();
         // IndexWriter (close)
         if (indexWriter != null) {
             indexWriter.close();
@@ -492,6 +515,36 @@ public class DefaultIndexingContext extends AbstractIndexingContext {
         this.indexWriter = new NexusIndexWriter(getIndexDirectory(), getWriterConfig());
         this.indexWriter.commit(); // LUCENE-2386
         this.searcherManager = new SearcherManager(indexWriter, false, false, new NexusIndexSearcherFactory(this));
+        startReopenThread();
+    }
+
+    private void startReopenThread() {
+        if (searcherRefreshPolicy.isBackground() && searcherManager != null) {
+            ControlledRealTimeReopenThread<IndexSearcher> thread = new ControlledRealTimeReopenThread<>(
+                    indexWriter,
+                    searcherManager,
+                    searcherRefreshPolicy.getTargetMaxStale().toNanos() / 1_000_000_000.0,
+                    searcherRefreshPolicy.getTargetMinStale().toNanos() / 1_000_000_000.0);
+            thread.setName("mindexer-refresh-" + id);
+            thread.setDaemon(true);
+            thread.start();
+            reopenThread = thread;
+        }
+    }
+
+    private void stopReopenThread() {
+        ControlledRealTimeReopenThread<IndexSearcher> thread = reopenThread;
+        reopenThread = null;
+        if (thread != null) {
+            thread.close();
+        }
+    }
+
+    /**
+     * Makes sure that searchers acquired next see all the changes done so far, used when reading own writes.
+     */
+    private void refreshIndexSearcher() throws IOException {
+        searcherManager.maybeRefreshBlocking();
     }
 
     /**
@@ -508,11 +561,39 @@ public class DefaultIndexingContext extends AbstractIndexingContext {
     }
 
     public IndexSearcher acquireIndexSearcher() throws IOException {
-        // TODO: move this to separate thread to not penalty next incoming searcher
-        searcherManager.maybeRefresh();
+        if (reopenThread == null) {
+            searcherManager.maybeRefresh();
+        }
         return searcherManager.acquire();
     }
 
+    @Override
+    public SearcherRefreshPolicy getSearcherRefreshPolicy() {
+        return searcherRefreshPolicy;
+    }
+
+    @Override
+    public synchronized void setSearcherRefreshPolicy(SearcherRefreshPolicy policy) throws IOException {
+        stopReopenThread();
+        this.searcherRefreshPolicy = Objects.requireNonNull(policy, "policy");
+        startReopenThread();
+    }
+
+    @Override
+    public void waitForGeneration(long generation) throws IOException {
+        ControlledRealTimeReopenThread<IndexSearcher> thread = reopenThread;
+        if (thread != null) {
+            try {
+                thread.waitForGeneration(generation);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for generation " + generation);
+            }
+        } else {
+            refreshIndexSearcher();
+        }
+    }
+
     public void releaseIndexSearcher(final IndexSearcher is) throws IOException {
         if (is == null) {
             return;
@@ -524,8 +605,21 @@ public class DefaultIndexingContext extends AbstractIndexingContext {
         getIndexWriter().commit();
     }
 
-    public void rollback() throws IOException {
-        getIndexWriter().rollback();
+    /**
+     * Discards the uncommitted changes of the index writer, that is closed by rolling back, hence it is reopened along
+     * with the searchers, that then no longer see the discarded changes.
+     */
+    public synchronized void rollback() throws IOException {
+        stopReopenThread();
+        if (searcherManager != null) {
+            searcherManager.close();
+            searcherManager = null;
+        }
+        if (indexWriter != null) {
+            indexWriter.rollback();
+            indexWriter = null;
+        }
+        openAndWarmup();
     }
 
     public synchronized void optimize() throws CorruptIndexException, IOException {
@@ -594,72 +688,201 @@ public class DefaultIndexingContext extends AbstractIndexingContext {
     public synchronized void merge(
             Directory directory, DocumentFilter filter, Set<String> allGroups, Set<String> rootGroups)
             throws IOException {
-        final IndexSearcher s = acquireIndexSearcher();
-        try {
-            final IndexWriter w = getIndexWriter();
-            try (IndexReader directoryReader = DirectoryReader.open(directory)) {
-                int numDocs = directoryReader.maxDoc();
-
-                Bits liveDocs = MultiBits.getLiveDocs(directoryReader);
-                StoredFields storedFields = directoryReader.storedFields();
-                for (int i = 0; i < numDocs; i++) {
-                    if (liveDocs != null && !liveDocs.get(i)) {
-                        continue;
-                    }
+        merge(Collections.singletonList(directory), filter, allGroups, rootGroups);
+    }
 
-                    Document d = storedFields.document(i);
-                    if (filter != null && !filter.accept(d)) {
-                        continue;
-                    }
+    @Override
+    public synchronized void merge(
+            List<Directory> directories, DocumentFilter filter, Set<String> allGroups, Set<String> rootGroups)
+            throws IOException {
+        final IndexWriter w = getIndexWriter();
+        Date mergedTimestamp = null;
+        try (IndexReader target = DirectoryReader.open(w, true, false)) {
+            MergeState state = new MergeState(target);
+            for (int i = 0; i < directories.size(); i++) {
+                Directory directory = directories.get(i);
+                try (IndexReader directoryReader = DirectoryReader.open(directory)) {
+                    // no directory follows the last one, that would need to know what it added
+                    state.tracking = i < directories.size() - 1;
+                    merge(w, directoryReader, state, filter);
+                }
 
-                    String uinfo = d.get(ArtifactInfo.UINFO);
-                    if (uinfo != null) {
-                        TopScoreDocCollector collector = TopScoreDocCollector.create(1, 1);
-                        s.search(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo)), collector);
-                        if (collector.getTotalHits() == 0) {
-                            w.addDocument(IndexUtils.updateDocument(d, this, false));
-                        }
-                    } else {
-                        String deleted = d.get(ArtifactInfo.DELETED);
-
-                        if (deleted != null) {
-                            // Deleting the document loses history that it was delete,
-                            // so incrementals wont work. Therefore, put the delete
-                            // document in as well
-                            w.deleteDocuments(new Term(ArtifactInfo.UINFO, deleted));
-                            w.addDocument(d);
-                        }
-                    }
+                Date timestamp = IndexUtils.getTimestamp(directory);
+                if (timestamp != null && (mergedTimestamp == null || timestamp.after(mergedTimestamp))) {
+                    mergedTimestamp = timestamp;
                 }
+            }
+            deleteUinfos(w, state.pendingDeletes);
+        } finally {
+            commit();
+        }
+        if (allGroups == null && rootGroups == null) {
+            rebuildGroups();
+        } else {
+            if (rootGroups != null) {
+                this.rootGroups.get().addAll(rootGroups);
+            }
+            if (allGroups != null) {
+                this.allGroups.get().addAll(allGroups);
+            }
+        }
 
-            } finally {
-                commit();
+        if (getTimestamp() != null && mergedTimestamp != null && mergedTimestamp.after(getTimestamp())) {
+            // we have both, keep the newest
+            updateTimestamp(true, mergedTimestamp);
+        } else {
+            updateTimestamp(true);
+        }
+        optimize();
+    }
+
+    /**
+     * The state of one merge of one or more directories: the target reader is opened once, before merging the first
+     * directory, and the UINFOs deleted so far, and the UINFOs added by all but the last directory, are tracked
+     * instead.
+     */
+    private static final class MergeState {
+        private final IndexReader target;
+
+        // deletions are batched, but must be applied before re-adding a deleted UINFO
+        private final Set<String> pendingDeletes = new LinkedHashSet<>();
+
+        private final Set<String> added = new HashSet<>();
+
+        private final Set<String> deleted = new HashSet<>();
+
+        private boolean tracking;
+
+        private MergeState(final IndexReader target) {
+            this.target = target;
+        }
+
+        private boolean isPresent(final String uinfo, final boolean inTarget) {
+            return added.contains(uinfo) || (inTarget && !deleted.contains(uinfo));
+        }
+
+        private void added(final String uinfo) {
+            deleted.remove(uinfo);
+            if (tracking) {
+                added.add(uinfo);
             }
-            if (allGroups == null && rootGroups == null) {
-                rebuildGroups();
-            } else {
-                if (rootGroups != null) {
-                    this.rootGroups.get().addAll(rootGroups);
+        }
+
+        private void deleted(final String uinfo) {
+            added.remove(uinfo);
+            deleted.add(uinfo);
+        }
+    }
+
+    private void merge(
+            final IndexWriter w, final IndexReader directoryReader, final MergeState state, final DocumentFilter filter)
+            throws IOException {
+        int numDocs = directoryReader.maxDoc();
+
+        Bits liveDocs = MultiBits.getLiveDocs(directoryReader);
+        Bits existing = existingUinfos(directoryReader, state.target);
+        StoredFields storedFields = directoryReader.storedFields();
+        Set<String> pendingDeletes = state.pendingDeletes;
+        for (int i = 0; i < numDocs; i++) {
+            if (liveDocs != null && !liveDocs.get(i)) {
+                continue;
+            }
+
+            Document d = storedFields.document(i);
+            if (filter != null && !filter.accept(d)) {
+                continue;
+            }
+
+            String uinfo = d.get(ArtifactInfo.UINFO);
+            if (uinfo != null) {
+                if (!state.isPresent(uinfo, existing.get(i))) {
+                    if (pendingDeletes.contains(uinfo)) {
+                        deleteUinfos(w, pendingDeletes);
+                    }
+                    w.addDocument(IndexUtils.updateDocument(d, this, false));
+                    state.added(uinfo);
                 }
-                if (allGroups != null) {
-                    this.allGroups.get().addAll(allGroups);
+            } else {
+                String deleted = d.get(ArtifactInfo.DELETED);
+
+                if (deleted != null) {
+                    // Deleting the document loses history that it was delete,
+                    // so incrementals wont work. Therefore, put the delete
+                    // document in as well
+                    pendingDeletes.add(deleted);
+                    state.deleted(deleted);
+                    if (pendingDeletes.size() >= MERGE_DELETE_BATCH_SIZE) {
+                        deleteUinfos(w, pendingDeletes);
+                    }
+                    w.addDocument(d);
                 }
             }
-            Date mergedTimestamp = IndexUtils.getTimestamp(directory);
+        }
+    }
+
+    /**
+     * Marks the documents of the incoming reader having UINFO that is already present (and live) in the target reader,
+     * by doing a sorted merge-join of the UINFO terms of both readers, in one sequential pass.
+     */
+    private static Bits existingUinfos(final IndexReader incoming, final IndexReader target) throws IOException {
+        final FixedBitSet existing = new FixedBitSet(incoming.maxDoc());
+        final Terms incomingTerms = MultiTerms.getTerms(incoming, ArtifactInfo.UINFO);
+        final Terms targetTerms = MultiTerms.getTerms(target, ArtifactInfo.UINFO);
+        if (incomingTerms == null || targetTerms == null) {
+            return existing;
+        }
 
-            if (getTimestamp() != null && mergedTimestamp != null && mergedTimestamp.after(getTimestamp())) {
-                // we have both, keep the newest
-                updateTimestamp(true, mergedTimestamp);
+        final Bits targetLiveDocs = MultiBits.getLiveDocs(target);
+        final TermsEnum incomingEnum = incomingTerms.iterator();
+        final TermsEnum targetEnum = targetTerms.iterator();
+        PostingsEnum incomingPostings = null;
+        PostingsEnum targetPostings = null;
+
+        BytesRef term = incomingEnum.next();
+        while (term != null) {
+            TermsEnum.SeekStatus status = targetEnum.seekCeil(term);
+            if (status == TermsEnum.SeekStatus.END) {
+                break;
+            } else if (status == TermsEnum.SeekStatus.FOUND) {
+                targetPostings = targetEnum.postings(targetPostings, PostingsEnum.NONE);
+                if (hasLiveDoc(targetPostings, targetLiveDocs)) {
+                    incomingPostings = incomingEnum.postings(incomingPostings, PostingsEnum.NONE);
+                    for (int doc = incomingPostings.nextDoc();
+                            doc != DocIdSetIterator.NO_MORE_DOCS;
+                            doc = incomingPostings.nextDoc()) {
+                        existing.set(doc);
+                    }
+                }
+                term = incomingEnum.next();
             } else {
-                updateTimestamp(true);
+                // target is positioned on the next bigger term, leapfrog incoming to it
+                status = incomingEnum.seekCeil(targetEnum.term());
+                term = status == TermsEnum.SeekStatus.END ? null : incomingEnum.term();
             }
-            optimize();
-        } finally {
-            releaseIndexSearcher(s);
+        }
+        return existing;
+    }
+
+    private static boolean hasLiveDoc(final PostingsEnum postings, final Bits liveDocs) throws IOException {
+        for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+            if (liveDocs == null || liveDocs.get(doc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void deleteUinfos(final IndexWriter w, final Set<String> uinfos) throws IOException {
+        if (!uinfos.isEmpty()) {
+            w.deleteDocuments(uinfos.stream()
+                    .map(uinfo -> new Term(ArtifactInfo.UINFO, uinfo))
+                    .toArray(Term[]::new));
+            uinfos.clear();
         }
     }
 
     private void closeReaders() throws CorruptIndexException, IOException {
+        stopReopenThread();
         if (searcherManager != null) {
             searcherManager.close();
             searcherManager = null;
@@ -681,6 +904,7 @@ public class DefaultIndexingContext extends AbstractIndexingContext {
     // groups
 
     public synchronized void rebuildGroups() throws IOException {
+        refreshIndexSearcher();
         final IndexSearcher is = acquireIndexSearcher();
         try {
             final IndexReader r = is.getIndexReader();
@@ -24,13 +24,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.NoSuchFileException;
+import java.util.Collection;
 import java.util.Date;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.IOContext;
 import org.apache.lucene.store.IndexInput;
@@ -77,6 +82,16 @@ public class IndexUtils {
     // timestamp
 
     public static ArtifactInfo constructArtifactInfo(Document doc, IndexingContext context) {
+        return constructArtifactInfo(doc, context, context.getIndexCreators());
+    }
+
+    /**
+     * Constructs the ArtifactInfo of a document, using only the passed in index creators of the context.
+     *
+     * @since 7.1.7
+     */
+    public static ArtifactInfo constructArtifactInfo(
+            Document doc, IndexingContext context, Collection<? extends IndexCreator> indexCreators) {
         // if no UINFO can't create, must be a different type of record
         if (doc.get(ArtifactInfo.UINFO) == null) {
             return null;
@@ -98,7 +113,7 @@ public class IndexUtils {
             // we ignore that as PartialImplementation can generate this UnsupportedOperationException
         }
 
-        for (IndexCreator ic : context.getIndexCreators()) {
+        for (IndexCreator ic : indexCreators) {
             res |= ic.updateArtifactInfo(doc, artifactInfo);
         }
 
@@ -127,11 +142,10 @@ public class IndexUtils {
         document.add(new Field(ArtifactInfo.UINFO, ai.getUinfo(), IndexerField.KEYWORD_STORED));
 
         if (updateLastModified || doc.getField(ArtifactInfo.LAST_MODIFIED) == null) {
-            document.add(new StoredField(
-                    ArtifactInfo.LAST_MODIFIED, //
-                    Long.toString(System.currentTimeMillis())));
+            addLastModified(document, System.currentTimeMillis());
         } else {
             document.add(doc.getField(ArtifactInfo.LAST_MODIFIED));
+            indexLastModified(document);
         }
 
         for (IndexCreator ic : context.getIndexCreators()) {
@@ -141,6 +155,69 @@ public class IndexUtils {
         return document;
     }
 
+    // last modified
+
+    /**
+     * Adds the last modified field to the document, stored as string (as transferred) and indexed as number, so
+     * incremental chunks can be selected with a range query.
+     *
+     * @since 7.1.7
+     */
+    public static void addLastModified(Document doc, long lastModified) {
+        doc.add(new StoredField(ArtifactInfo.LAST_MODIFIED, Long.toString(lastModified)));
+        addLastModifiedPoint(doc, lastModified);
+    }
+
+    /**
+     * Indexes the stored last modified value of a document as number, if it has one and it is not indexed yet. Used
+     * for documents read back from stored fields or from transferred index data, that carry stored fields only.
+     *
+     * @since 7.1.7
+     */
+    public static Document indexLastModified(Document doc) {
+        String lastModified = doc.get(ArtifactInfo.LAST_MODIFIED);
+        if (lastModified != null && doc.getField(ArtifactInfo.LAST_MODIFIED_POINT) == null) {
+            try {
+                addLastModifiedPoint(doc, Long.parseLong(lastModified));
+            } catch (NumberFormatException e) {
+                // leave it stored only, incremental packing falls back to reading it
+            }
+        }
+        return doc;
+    }
+
+    /**
+     * Indexes the deleted UINFO of a deletion marker as keyword, if it is not indexed yet, and returns the term the
+     * marker is to be added with by {@link IndexWriter#updateDocument}, so there is one marker per deleted artifact.
+     *
+     * @since 7.1.7
+     */
+    public static Term indexDeleted(Document marker) {
+        String deleted = marker.get(ArtifactInfo.DELETED);
+        if (marker.getField(ArtifactInfo.DELETED_KEY) == null) {
+            marker.add(new StringField(ArtifactInfo.DELETED_KEY, deleted, Field.Store.NO));
+        }
+        return new Term(ArtifactInfo.DELETED_KEY, deleted);
+    }
+
+    private static void addLastModifiedPoint(Document doc, long lastModified) {
+        doc.add(new LongPoint(ArtifactInfo.LAST_MODIFIED_POINT, lastModified));
+        doc.add(new NumericDocValuesField(ArtifactInfo.LAST_MODIFIED_POINT, lastModified));
+    }
+
+    /**
+     * Blocks until searchers acquired from the context see all the changes done so far through its index writer. To be
+     * called before reading own writes, as under a background {@link SearcherRefreshPolicy} acquired searchers may be
+     * stale.
+     *
+     * @since 7.1.7
+     */
+    public static void waitForOwnWrites(IndexingContext context) throws IOException {
+        if (context.getSearcherRefreshPolicy().isBackground()) {
+            context.waitForGeneration(context.getIndexWriter().getMaxCompletedSequenceNumber());
+        }
+    }
+
     public static void deleteTimestamp(Directory directory) throws IOException {
         try {
             directory.deleteFile(TIMESTAMP_FILE);
@@ -174,6 +174,39 @@ public interface IndexingContext {
      */
     void releaseIndexSearcher(IndexSearcher s) throws IOException;
 
+    /**
+     * Returns the searcher refresh policy of this context.
+     *
+     * @since 7.1.7
+     */
+    default SearcherRefreshPolicy getSearcherRefreshPolicy() {
+        return SearcherRefreshPolicy.ON_ACQUIRE;
+    }
+
+    /**
+     * Sets the searcher refresh policy of this context. Contexts not supporting other policies than
+     * {@link SearcherRefreshPolicy#ON_ACQUIRE} throw {@link UnsupportedOperationException}.
+     *
+     * @since 7.1.7
+     */
+    default void setSearcherRefreshPolicy(SearcherRefreshPolicy policy) throws IOException {
+        if (policy.isBackground()) {
+            throw new UnsupportedOperationException("Context " + getId() + " does not support " + policy);
+        }
+    }
+
+    /**
+     * Blocks until the searchers acquired from this context see all the index changes up to given generation, that is
+     * a sequence number returned by one of the {@link IndexWriter} update methods, or
+     * {@link IndexWriter#getMaxCompletedSequenceNumber()} to wait for all the changes done so far.
+     *
+     * @param generation the index writer sequence number to wait for
+     * @since 7.1.7
+     */
+    default void waitForGeneration(long generation) throws IOException {
+        // searchers are refreshed on acquire
+    }
+
     /**
      * Returns the Lucene IndexWriter (thread safe, shared instance) of this context.
      *
@@ -251,6 +284,21 @@ public interface IndexingContext {
     void merge(Directory directory, DocumentFilter filter, Set<String> allGroups, Set<String> rootGroups)
             throws IOException;
 
+    /**
+     * Merges content of given Lucene directories with this context in the given order, with the same outcome as
+     * merging them one by one, but filters out the unwanted ones and adds the groups to the context.
+     *
+     * @param directories - the directories to merge, in order
+     * @since 7.1.7
+     */
+    default void merge(
+            List<Directory> directories, DocumentFilter filter, Set<String> allGroups, Set<String> rootGroups)
+            throws IOException {
+        for (Directory directory : directories) {
+            merge(directory, filter, allGroups, rootGroups);
+        }
+    }
+
     /**
      * Replaces the Lucene index with the one from supplied directory.
      *
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.context;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Policy of how an {@link IndexingContext} refreshes its searchers after the index was changed.
+ * <p>
+ * The default {@link #ON_ACQUIRE} policy refreshes (if needed) on every {@link IndexingContext#acquireIndexSearcher()}
+ * call, hence the first searcher acquired after a change pays for reopening the reader. The {@link #background(Duration,
+ * Duration)} policy refreshes from a dedicated thread instead, within given staleness bounds, and acquiring a searcher
+ * does no refresh at all. Callers needing to see their own changes should use
+ * {@link IndexingContext#waitForGeneration(long)}.
+ *
+ * @since 7.1.7
+ */
+public final class SearcherRefreshPolicy {
+    /**
+     * Refreshes searchers, if needed, on every acquire.
+     */
+    public static final SearcherRefreshPolicy ON_ACQUIRE = new SearcherRefreshPolicy(null, null);
+
+    private final Duration targetMaxStale;
+
+    private final Duration targetMinStale;
+
+    private SearcherRefreshPolicy(final Duration targetMaxStale, final Duration targetMinStale) {
+        this.targetMaxStale = targetMaxStale;
+        this.targetMinStale = targetMinStale;
+    }
+
+    /**
+     * Refreshes searchers from a background thread.
+     *
+     * @param targetMaxStale the maximum time until a change becomes visible to searchers when nobody waits for it
+     * @param targetMinStale the minimum time between refreshes when some caller waits for a generation
+     */
+    public static SearcherRefreshPolicy background(final Duration targetMaxStale, final Duration targetMinStale) {
+        Objects.requireNonNull(targetMaxStale, "targetMaxStale");
+        Objects.requireNonNull(targetMinStale, "targetMinStale");
+        if (targetMaxStale.compareTo(targetMinStale) < 0) {
+            throw new IllegalArgumentException(
+                    "targetMaxStale (" + targetMaxStale + ") must be >= targetMinStale (" + targetMinStale + ")");
+        }
+        return new SearcherRefreshPolicy(targetMaxStale, targetMinStale);
+    }
+
+    public boolean isBackground() {
+        return targetMaxStale != null;
+    }
+
+    public Duration getTargetMaxStale() {
+        return targetMaxStale;
+    }
+
+    public Duration getTargetMinStale() {
+        return targetMinStale;
+    }
+
+    @Override
+    public String toString() {
+        return isBackground()
+                ? "background(maxStale=" + targetMaxStale + ", minStale=" + targetMinStale + ")"
+                : "onAcquire";
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.creator;
+
+import org.apache.maven.index.ArtifactArchive;
+
+/**
+ * An index creator that needs more from the shared {@link ArtifactArchive} than its (cached) entries. Before any creator
+ * populates the artifact info, these are asked to register their interest (ie. digests they will need), so the artifact
+ * file is read only once. Creators only reading entries use {@link org.apache.maven.index.ArtifactContext#getArchive()}
+ * and need not implement this.
+ *
+ * @since 7.1.7
+ */
+public interface ArtifactArchiveAware {
+
+    /**
+     * Registers interest in the contents of given artifact archive.
+     */
+    void prepareArchive(ArtifactArchive archive);
+}
@@ -25,11 +25,9 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Enumeration;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 import org.apache.lucene.document.Document;
+import org.apache.maven.index.ArtifactArchive;
 import org.apache.maven.index.ArtifactContext;
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.IndexerField;
@@ -79,7 +77,11 @@ public class JarFileContentsIndexCreator extends AbstractIndexCreator implements
                 && (artifactFile.getName().endsWith(".jar")
                         || artifactFile.getName().endsWith(".war")
                         || artifactFile.getName().endsWith(".zip"))) {
-            updateArtifactInfo(ai, artifactFile);
+            try {
+                updateArtifactInfo(ai, artifactContext.getArchive());
+            } finally {
+                artifactContext.releaseArchive();
+            }
         }
     }
 
@@ -132,54 +134,49 @@ public class JarFileContentsIndexCreator extends AbstractIndexCreator implements
         return false;
     }
 
-    private void updateArtifactInfo(final ArtifactInfo ai, final File f) throws IOException {
-        if (f.getName().endsWith(".jar") || f.getName().endsWith(".zip")) {
-            updateArtifactInfo(ai, f, null);
-        } else if (f.getName().endsWith(".war")) {
-            updateArtifactInfo(ai, f, "WEB-INF/classes/");
+    private void updateArtifactInfo(final ArtifactInfo ai, final ArtifactArchive archive) throws IOException {
+        final String name = archive.getFile().getName();
+        if (name.endsWith(".jar") || name.endsWith(".zip")) {
+            updateArtifactInfo(ai, archive, null);
+        } else if (name.endsWith(".war")) {
+            updateArtifactInfo(ai, archive, "WEB-INF/classes/");
         }
     }
 
-    private void updateArtifactInfo(final ArtifactInfo ai, final File f, final String strippedPrefix)
+    private void updateArtifactInfo(final ArtifactInfo ai, final ArtifactArchive archive, final String strippedPrefix)
             throws IOException {
+        final StringBuilder sb = new StringBuilder();
 
-        try (ZipFile zipFile = new ZipFile(f)) {
-            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
-
-            final StringBuilder sb = new StringBuilder();
+        for (String name : archive.getEntryNames()) {
+            if (name.endsWith(".class")) {
+                // TODO verify if class is public or protected
+                // TODO skip all inner classes for now
 
-            while (entries.hasMoreElements()) {
-                String name = entries.nextElement().getName();
-                if (name.endsWith(".class")) {
-                    // TODO verify if class is public or protected
-                    // TODO skip all inner classes for now
+                int i = name.indexOf("$");
 
-                    int i = name.indexOf("$");
-
-                    if (i == -1) {
-                        if (name.charAt(0) != '/') {
-                            sb.append('/');
-                        }
+                if (i == -1) {
+                    if (name.charAt(0) != '/') {
+                        sb.append('/');
+                    }
 
-                        if (StringUtils.isBlank(strippedPrefix)) {
-                            // class name without ".class"
-                            sb.append(name, 0, name.length() - 6).append('\n');
-                        } else if (name.startsWith(strippedPrefix) && (name.length() > (strippedPrefix.length() + 6))) {
-                            // class name without ".class" and stripped prefix
-                            sb.append(name, strippedPrefix.length(), name.length() - 6)
-                                    .append('\n');
-                        }
+                    if (StringUtils.isBlank(strippedPrefix)) {
+                        // class name without ".class"
+                        sb.append(name, 0, name.length() - 6).append('\n');
+                    } else if (name.startsWith(strippedPrefix) && (name.length() > (strippedPrefix.length() + 6))) {
+                        // class name without ".class" and stripped prefix
+                        sb.append(name, strippedPrefix.length(), name.length() - 6)
+                                .append('\n');
                     }
                 }
             }
+        }
 
-            final String fieldValue = sb.toString().trim();
+        final String fieldValue = sb.toString().trim();
 
-            if (fieldValue.length() != 0) {
-                ai.setClassNames(fieldValue);
-            } else {
-                ai.setClassNames(null);
-            }
+        if (fieldValue.length() != 0) {
+            ai.setClassNames(fieldValue);
+        } else {
+            ai.setClassNames(null);
         }
     }
 
@@ -25,9 +25,9 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.zip.ZipFile;
 
 import org.apache.lucene.document.Document;
+import org.apache.maven.index.ArtifactArchive;
 import org.apache.maven.index.ArtifactContext;
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.IndexerField;
@@ -69,7 +69,7 @@ public class MavenArchetypeArtifactInfoIndexCreator extends AbstractIndexCreator
 
             // check for maven archetype, since Archetypes seems to not have consistent packaging,
             // and depending on the contents of the JAR, this call will override the packaging to "maven-archetype"!
-            checkMavenArchetype(ai, artifact);
+            checkMavenArchetype(ai, ac);
         }
     }
 
@@ -77,12 +77,14 @@ public class MavenArchetypeArtifactInfoIndexCreator extends AbstractIndexCreator
      * Archetypes that are added will have their packaging types set correctly (to maven-archetype)
      *
      * @param ai
-     * @param artifact
+     * @param ac
      */
-    private void checkMavenArchetype(ArtifactInfo ai, File artifact) {
-        try (ZipFile zipFile = new ZipFile(artifact)) {
+    private void checkMavenArchetype(ArtifactInfo ai, ArtifactContext ac) {
+        File artifact = ac.getArtifact();
+        try {
+            ArtifactArchive archive = ac.getArchive();
             for (String path : ARCHETYPE_XML_LOCATIONS) {
-                if (zipFile.getEntry(path) != null) {
+                if (archive.hasEntry(path)) {
                     ai.setPackaging(MAVEN_ARCHETYPE_PACKAGING);
 
                     return;
@@ -97,6 +99,8 @@ public class MavenArchetypeArtifactInfoIndexCreator extends AbstractIndexCreator
                         .info("Failed to parse Maven artifact " + artifact.getAbsolutePath() + " due to "
                                 + e.getMessage());
             }
+        } finally {
+            ac.releaseArchive();
         }
     }
 
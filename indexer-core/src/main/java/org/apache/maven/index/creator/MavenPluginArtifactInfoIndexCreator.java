@@ -21,15 +21,12 @@ package org.apache.maven.index.creator;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 import org.apache.lucene.document.Document;
 import org.apache.maven.index.ArtifactContext;
@@ -84,16 +81,17 @@ public class MavenPluginArtifactInfoIndexCreator extends AbstractIndexCreator {
             // TODO: recheck, is the following true? "Maven plugins and Maven Archetypes can be only JARs?"
 
             // 1st, check for maven plugin
-            checkMavenPlugin(ai, artifact);
+            checkMavenPlugin(ai, ac);
         }
     }
 
-    private void checkMavenPlugin(ArtifactInfo ai, File artifact) {
-        try (ZipFile zipFile = new ZipFile(artifact)) {
+    private void checkMavenPlugin(ArtifactInfo ai, ArtifactContext ac) {
+        File artifact = ac.getArtifact();
+        try {
             final String pluginDescriptorPath = "META-INF/maven/plugin.xml";
-            ZipEntry zipEntry = zipFile.getEntry(pluginDescriptorPath);
-            if (zipEntry != null) {
-                try (InputStream is = new BufferedInputStream(zipFile.getInputStream(zipEntry))) {
+            InputStream descriptor = ac.getArchive().getEntryInputStream(pluginDescriptorPath);
+            if (descriptor != null) {
+                try (InputStream is = descriptor) {
                     // here the reader is closed
                     Xpp3Dom plexusConfig = Xpp3DomBuilder.build(new InputStreamReader(is));
 
@@ -117,6 +115,8 @@ public class MavenPluginArtifactInfoIndexCreator extends AbstractIndexCreator {
                         .info("Failed to parse Maven artifact " + artifact.getAbsolutePath() + " due to "
                                 + e.getMessage());
             }
+        } finally {
+            ac.releaseArchive();
         }
     }
 
@@ -28,7 +28,10 @@ import java.util.Collection;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
 import org.apache.lucene.document.StoredField;
+import org.apache.lucene.util.BytesRef;
+import org.apache.maven.index.ArtifactArchive;
 import org.apache.maven.index.ArtifactAvailability;
 import org.apache.maven.index.ArtifactContext;
 import org.apache.maven.index.ArtifactInfo;
@@ -42,6 +45,7 @@ import org.apache.maven.index.locator.Locator;
 import org.apache.maven.index.locator.Sha1Locator;
 import org.apache.maven.index.locator.SignatureLocator;
 import org.apache.maven.index.locator.SourcesLocator;
+import org.apache.maven.index.util.VersionKeys;
 import org.apache.maven.model.Model;
 import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.StringUtils;
@@ -60,6 +64,8 @@ public class MinimalArtifactInfoIndexCreator extends AbstractIndexCreator implem
 
     private static final char FS = ArtifactInfo.FS.charAt(0);
 
+    private static final String SHA1 = "SHA-1";
+
     static {
         if (ArtifactInfo.FS.length() != 1) {
             throw new IllegalStateException("field format changed");
@@ -250,6 +256,18 @@ public class MinimalArtifactInfoIndexCreator extends AbstractIndexCreator implem
                 } catch (IOException e) {
                     ac.addError(e);
                 }
+            } else {
+                // no .sha1 file, use the digest if the scanner asked for it
+                ArtifactArchive archive = ac.getArchive();
+                if (archive != null && artifact.equals(archive.getFile()) && archive.isDigestRequired(SHA1)) {
+                    try {
+                        ai.setSha1(archive.getDigest(SHA1));
+                    } catch (IOException e) {
+                        ac.addError(e);
+                    } finally {
+                        ac.releaseArchive();
+                    }
+                }
             }
 
             ai.setLastModified(artifact.lastModified());
@@ -326,6 +344,25 @@ public class MinimalArtifactInfoIndexCreator extends AbstractIndexCreator implem
         if (ai.getSha1() != null) {
             doc.add(FLD_SHA1.toField(ai.getSha1()));
         }
+
+        // coordinates as doc values, to group and sort hits without loading stored fields
+        addDocValues(doc, ArtifactInfo.GROUP_ID_DV, ai.getGroupId());
+        addDocValues(doc, ArtifactInfo.ARTIFACT_ID_DV, ai.getArtifactId());
+        addDocValues(doc, ArtifactInfo.VERSION_DV, ai.getVersion());
+        addDocValues(doc, ArtifactInfo.CLASSIFIER_DV, ai.getClassifier());
+        addDocValues(doc, ArtifactInfo.EXTENSION_DV, ai.getFileExtension());
+        addDocValues(doc, ArtifactInfo.PACKAGING_DV, ai.getPackaging());
+
+        byte[] versionKey = VersionKeys.encode(ai.getVersion());
+        if (versionKey != null) {
+            doc.add(new SortedDocValuesField(ArtifactInfo.VERSION_KEY_DV, new BytesRef(versionKey)));
+        }
+    }
+
+    private static void addDocValues(Document doc, String name, String value) {
+        if (value != null) {
+            doc.add(new SortedDocValuesField(name, new BytesRef(value)));
+        }
     }
 
     @Override
@@ -347,9 +384,44 @@ public class MinimalArtifactInfoIndexCreator extends AbstractIndexCreator implem
 
     @Override
     public boolean updateArtifactInfo(Document doc, ArtifactInfo ai) {
-        boolean res = false;
+        boolean res = parseArtifactInfo(doc.get(ArtifactInfo.UINFO), doc.get(ArtifactInfo.INFO), ai);
 
-        String uinfo = doc.get(ArtifactInfo.UINFO);
+        String name = doc.get(ArtifactInfo.NAME);
+
+        if (name != null) {
+            ai.setName(name);
+
+            res = true;
+        }
+
+        String description = doc.get(ArtifactInfo.DESCRIPTION);
+
+        if (description != null) {
+            ai.setDescription(description);
+
+            res = true;
+        }
+
+        String sha1 = doc.get(ArtifactInfo.SHA1);
+
+        if (sha1 != null) {
+            ai.setSha1(sha1);
+        }
+
+        return res;
+
+        // artifactInfo.fname = ???
+    }
+
+    /**
+     * Sets the coordinates encoded in the UINFO, and the packaging, last modified, size, availabilities and file
+     * extension encoded in the INFO on the ArtifactInfo, if present, and returns {@code true} if either was. The file
+     * extension of the INFO takes precedence, and is guessed from the packaging and classifier if the INFO lacks it.
+     *
+     * @since 7.1.7
+     */
+    public static boolean parseArtifactInfo(String uinfo, String info, ArtifactInfo ai) {
+        boolean res = false;
 
         if (uinfo != null) {
 
@@ -372,17 +444,11 @@ public class MinimalArtifactInfoIndexCreator extends AbstractIndexCreator implem
             }
             ai.setClassifier(ArtifactInfo.renvl(uinfo.substring(start, end)));
 
-            if (end != uinfo.length()) {
-                start = end + 1;
-                end = uinfo.length();
-                ai.setFileExtension(uinfo.substring(start, end));
-            }
+            ai.setFileExtension(end != uinfo.length() ? uinfo.substring(end + 1) : null);
 
             res = true;
         }
 
-        String info = doc.get(ArtifactInfo.INFO);
-
         if (info != null) {
 
             int start = 0;
@@ -427,40 +493,16 @@ public class MinimalArtifactInfoIndexCreator extends AbstractIndexCreator implem
                 }
             }
 
-            res = true;
-        }
-
-        String name = doc.get(ArtifactInfo.NAME);
-
-        if (name != null) {
-            ai.setName(name);
-
-            res = true;
-        }
-
-        String description = doc.get(ArtifactInfo.DESCRIPTION);
-
-        if (description != null) {
-            ai.setDescription(description);
+            // sometimes there's a pom without packaging(default to jar), but no artifact, then the value will be a
+            // "null" String
+            if ("null".equals(ai.getPackaging())) {
+                ai.setPackaging(null);
+            }
 
             res = true;
         }
 
-        // sometimes there's a pom without packaging(default to jar), but no artifact, then the value will be a "null"
-        // String
-        if ("null".equals(ai.getPackaging())) {
-            ai.setPackaging(null);
-        }
-
-        String sha1 = doc.get(ArtifactInfo.SHA1);
-
-        if (sha1 != null) {
-            ai.setSha1(sha1);
-        }
-
         return res;
-
-        // artifactInfo.fname = ???
     }
 
     // ==
@@ -22,20 +22,14 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.security.DigestInputStream;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Enumeration;
 import java.util.jar.Attributes;
 import java.util.jar.Manifest;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
 import org.apache.lucene.document.Document;
+import org.apache.maven.index.ArtifactArchive;
 import org.apache.maven.index.ArtifactContext;
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.IndexerField;
@@ -63,7 +57,7 @@ import org.codehaus.plexus.util.StringUtils;
  */
 @Singleton
 @Named(OsgiArtifactIndexCreator.ID)
-public class OsgiArtifactIndexCreator extends AbstractIndexCreator {
+public class OsgiArtifactIndexCreator extends AbstractIndexCreator implements ArtifactArchiveAware {
     public static final String ID = "osgi-metadatas";
 
     public static final IndexerField FLD_SHA256 = new IndexerField(
@@ -218,7 +212,28 @@ public class OsgiArtifactIndexCreator extends AbstractIndexCreator {
         if (artifactFile != null
                 && artifactFile.isFile()
                 && artifactFile.getName().endsWith(".jar")) {
-            updateArtifactInfo(ai, artifactFile);
+            try {
+                updateArtifactInfo(ai, artifactContext.getArchive());
+            } finally {
+                artifactContext.releaseArchive();
+            }
+        }
+    }
+
+    /**
+     * Bundles are indexed with their SHA-256 digest, so it is computed in the same pass as the other digests.
+     */
+    @Override
+    public void prepareArchive(ArtifactArchive archive) {
+        if (archive.getFile().getName().endsWith(".jar")) {
+            try {
+                Manifest manifest = archive.getManifest();
+                if (manifest != null && StringUtils.isNotBlank(manifest.getMainAttributes().getValue(BSN))) {
+                    archive.requireDigest("SHA-256");
+                }
+            } catch (IOException e) {
+                // not a readable jar, populateArtifactInfo reports it
+            }
         }
     }
 
@@ -412,140 +427,132 @@ public class OsgiArtifactIndexCreator extends AbstractIndexCreator {
         return updated;
     }
 
-    private boolean updateArtifactInfo(ArtifactInfo ai, File f) throws IOException {
+    private boolean updateArtifactInfo(ArtifactInfo ai, ArtifactArchive archive) throws IOException {
         boolean updated = false;
 
-        try (ZipFile zipFile = new ZipFile(f)) {
-            final Enumeration<? extends ZipEntry> entries = zipFile.entries();
-
-            while (entries.hasMoreElements()) {
-                ZipEntry zipEntry = entries.nextElement();
-
-                if (zipEntry.getName().equals("META-INF/MANIFEST.MF")) {
-                    Manifest manifest = new Manifest(zipFile.getInputStream(zipEntry));
-
-                    Attributes mainAttributes = manifest.getMainAttributes();
-
-                    if (mainAttributes != null) {
-                        String attValue = mainAttributes.getValue(BSN);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleSymbolicName(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleSymbolicName(null);
-                        }
-
-                        attValue = mainAttributes.getValue(BV);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleVersion(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleVersion(null);
-                        }
-
-                        attValue = mainAttributes.getValue(BEP);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleExportPackage(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleExportPackage(null);
-                        }
-
-                        attValue = mainAttributes.getValue(BES);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleExportService(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleExportService(null);
-                        }
-
-                        attValue = mainAttributes.getValue(BD);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleDescription(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleDescription(null);
-                        }
-
-                        attValue = mainAttributes.getValue(BN);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleName(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleName(null);
-                        }
-
-                        attValue = mainAttributes.getValue(BL);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleLicense(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleLicense(null);
-                        }
-
-                        attValue = mainAttributes.getValue(BDU);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleDocUrl(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleDocUrl(null);
-                        }
-
-                        attValue = mainAttributes.getValue(BIP);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleImportPackage(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleImportPackage(null);
-                        }
-
-                        attValue = mainAttributes.getValue(BRB);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleRequireBundle(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleRequireBundle(null);
-                        }
-
-                        attValue = mainAttributes.getValue(PROVIDE_CAPABILITY);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleProvideCapability(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleProvideCapability(null);
-                        }
-
-                        attValue = mainAttributes.getValue(REQUIRE_CAPABILITY);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleRequireCapability(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleRequireCapability(null);
-                        }
-
-                        attValue = mainAttributes.getValue(FRAGMENT_HOST);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleFragmentHost(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleFragmentHost(null);
-                        }
-
-                        attValue = mainAttributes.getValue(BUNDLE_REQUIRED_EXECUTION_ENVIRONMENT);
-                        if (StringUtils.isNotBlank(attValue)) {
-                            ai.setBundleRequiredExecutionEnvironment(attValue);
-                            updated = true;
-                        } else {
-                            ai.setBundleRequiredExecutionEnvironment(null);
-                        }
-                    }
+        Manifest manifest = archive.getManifest();
+
+        if (manifest != null) {
+            Attributes mainAttributes = manifest.getMainAttributes();
+
+            if (mainAttributes != null) {
+                String attValue = mainAttributes.getValue(BSN);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleSymbolicName(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleSymbolicName(null);
+                }
+
+                attValue = mainAttributes.getValue(BV);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleVersion(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleVersion(null);
+                }
+
+                attValue = mainAttributes.getValue(BEP);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleExportPackage(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleExportPackage(null);
+                }
+
+                attValue = mainAttributes.getValue(BES);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleExportService(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleExportService(null);
+                }
+
+                attValue = mainAttributes.getValue(BD);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleDescription(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleDescription(null);
+                }
+
+                attValue = mainAttributes.getValue(BN);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleName(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleName(null);
+                }
+
+                attValue = mainAttributes.getValue(BL);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleLicense(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleLicense(null);
+                }
+
+                attValue = mainAttributes.getValue(BDU);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleDocUrl(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleDocUrl(null);
+                }
+
+                attValue = mainAttributes.getValue(BIP);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleImportPackage(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleImportPackage(null);
+                }
+
+                attValue = mainAttributes.getValue(BRB);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleRequireBundle(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleRequireBundle(null);
+                }
+
+                attValue = mainAttributes.getValue(PROVIDE_CAPABILITY);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleProvideCapability(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleProvideCapability(null);
+                }
+
+                attValue = mainAttributes.getValue(REQUIRE_CAPABILITY);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleRequireCapability(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleRequireCapability(null);
+                }
+
+                attValue = mainAttributes.getValue(FRAGMENT_HOST);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleFragmentHost(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleFragmentHost(null);
+                }
+
+                attValue = mainAttributes.getValue(BUNDLE_REQUIRED_EXECUTION_ENVIRONMENT);
+                if (StringUtils.isNotBlank(attValue)) {
+                    ai.setBundleRequiredExecutionEnvironment(attValue);
+                    updated = true;
+                } else {
+                    ai.setBundleRequiredExecutionEnvironment(null);
                 }
             }
         }
 
         // only calculate sha256 digest for if we are indexing a bundle.
         if (ai.getBundleSymbolicName() != null) {
-            String sha256 = computeSha256(f);
+            String sha256 = archive.getDigest("SHA-256");
             if (sha256 != null) {
                 ai.setSha256(sha256);
                 updated = true;
@@ -557,30 +564,6 @@ public class OsgiArtifactIndexCreator extends AbstractIndexCreator {
         return updated;
     }
 
-    private String computeSha256(File f) throws IOException {
-        String sha256 = null;
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-
-            try (DigestInputStream in = new DigestInputStream(new FileInputStream(f), digest)) {
-                byte[] buf = new byte[8192];
-                while (in.read(buf) >= 0) {
-                    // nop
-                }
-                byte[] digestBytes = digest.digest();
-                StringBuilder builder = new StringBuilder(64);
-                for (int b : digestBytes) {
-                    b &= 0xff;
-                    builder.append(String.format("%02x", b));
-                    sha256 = builder.toString();
-                }
-            }
-
-        } catch (NoSuchAlgorithmException e) {
-        }
-        return sha256;
-    }
-
     @Override
     public String toString() {
         return ID;
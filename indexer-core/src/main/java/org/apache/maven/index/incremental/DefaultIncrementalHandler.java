@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -36,10 +37,21 @@ import java.util.Set;
 import java.util.TimeZone;
 import java.util.TreeMap;
 
-import org.apache.lucene.document.Document;
+import org.apache.lucene.document.LongPoint;
 import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.PointValues;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.Scorer;
+import org.apache.lucene.search.Weight;
 import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.context.IndexingContext;
 import org.apache.maven.index.packer.IndexPackingRequest;
@@ -52,6 +64,8 @@ import org.slf4j.LoggerFactory;
 @Named
 public class DefaultIncrementalHandler implements IncrementalHandler {
 
+    private static final Set<String> LAST_MODIFIED_FIELDS = Collections.singleton(ArtifactInfo.LAST_MODIFIED);
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     protected Logger getLogger() {
@@ -59,6 +73,21 @@ public class DefaultIncrementalHandler implements IncrementalHandler {
     }
 
     public List<Integer> getIncrementalUpdates(IndexPackingRequest request, Properties properties) throws IOException {
+        FixedBitSet chunk = getIncrementalUpdateDocs(request, properties);
+        if (chunk == null) {
+            return null;
+        }
+
+        List<Integer> result = new ArrayList<>(chunk.cardinality());
+        for (int doc = nextDoc(chunk, 0); doc != DocIdSetIterator.NO_MORE_DOCS; doc = nextDoc(chunk, doc + 1)) {
+            result.add(doc);
+        }
+        return result;
+    }
+
+    @Override
+    public FixedBitSet getIncrementalUpdateDocs(IndexPackingRequest request, Properties properties)
+            throws IOException {
         getLogger().debug("Handling Incremental Updates");
 
         if (!validateProperties(properties)) {
@@ -68,12 +97,15 @@ public class DefaultIncrementalHandler implements IncrementalHandler {
 
         // Get the list of document ids that have been added since the last time
         // the index ran
-        List<Integer> chunk = getIndexChunk(request, parse(properties.getProperty(IndexingContext.INDEX_TIMESTAMP)));
+        FixedBitSet chunk =
+                getIndexChunk(request, parse(properties.getProperty(IndexingContext.INDEX_TIMESTAMP)));
 
-        getLogger().debug("Found " + chunk.size() + " differences to put in incremental index.");
+        int size = chunk.cardinality();
+
+        getLogger().debug("Found " + size + " differences to put in incremental index.");
 
         // if no documents, then we don't need to do anything, no changes
-        if (chunk.size() > 0) {
+        if (size > 0) {
             updateProperties(properties, request);
         }
 
@@ -132,28 +164,73 @@ public class DefaultIncrementalHandler implements IncrementalHandler {
         }
     }
 
-    private List<Integer> getIndexChunk(IndexPackingRequest request, Date timestamp) throws IOException {
-        final List<Integer> chunk = new ArrayList<>();
+    private FixedBitSet getIndexChunk(IndexPackingRequest request, Date timestamp) throws IOException {
         final IndexReader r = request.getIndexReader();
-        Bits liveDocs = MultiBits.getLiveDocs(r);
-        for (int i = 0; i < r.maxDoc(); i++) {
-            if (liveDocs == null || liveDocs.get(i)) {
-                Document d = r.document(i);
+        final FixedBitSet chunk = new FixedBitSet(r.maxDoc());
+        final long after = timestamp.getTime();
+
+        // Only add documents that were added after the last time we indexed
+        final IndexSearcher searcher = new IndexSearcher(r);
+        searcher.setQueryCache(null);
+        final Query query = LongPoint.newRangeQuery(ArtifactInfo.LAST_MODIFIED_POINT, after + 1, Long.MAX_VALUE);
+        final Weight weight = searcher.createWeight(searcher.rewrite(query), ScoreMode.COMPLETE_NO_SCORES, 1f);
+
+        for (LeafReaderContext leaf : r.leaves()) {
+            Bits liveDocs = leaf.reader().getLiveDocs();
+            Scorer scorer = weight.scorer(leaf);
+            if (scorer != null) {
+                DocIdSetIterator docs = scorer.iterator();
+                for (int doc = docs.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = docs.nextDoc()) {
+                    if (liveDocs == null || liveDocs.get(doc)) {
+                        chunk.set(leaf.docBase + doc);
+                    }
+                }
+            }
+
+            addUnindexedDocs(leaf, after, chunk);
+        }
 
-                String lastModified = d.get(ArtifactInfo.LAST_MODIFIED);
+        return chunk;
+    }
 
-                if (lastModified != null) {
-                    Date t = new Date(Long.parseLong(lastModified));
+    /**
+     * Documents written before the last modified was indexed as number carry it as stored field only, these are the
+     * only ones whose stored fields are read.
+     */
+    private void addUnindexedDocs(LeafReaderContext leaf, long after, FixedBitSet chunk) throws IOException {
+        final LeafReader reader = leaf.reader();
+        final PointValues points = reader.getPointValues(ArtifactInfo.LAST_MODIFIED_POINT);
+        if (points != null && points.getDocCount() == reader.maxDoc()) {
+            return;
+        }
 
-                    // Only add documents that were added after the last time we indexed
-                    if (t.after(timestamp)) {
-                        chunk.add(i);
-                    }
+        final NumericDocValues indexed = reader.getNumericDocValues(ArtifactInfo.LAST_MODIFIED_POINT);
+        final Bits liveDocs = reader.getLiveDocs();
+        StoredFields storedFields = null;
+        int nextIndexed = indexed == null ? DocIdSetIterator.NO_MORE_DOCS : indexed.nextDoc();
+        for (int i = 0; i < reader.maxDoc(); i++) {
+            if (i == nextIndexed) {
+                nextIndexed = indexed.nextDoc();
+                continue;
+            }
+
+            if (liveDocs == null || liveDocs.get(i)) {
+                if (storedFields == null) {
+                    storedFields = reader.storedFields();
+                }
+
+                String lastModified =
+                        storedFields.document(i, LAST_MODIFIED_FIELDS).get(ArtifactInfo.LAST_MODIFIED);
+
+                if (lastModified != null && Long.parseLong(lastModified) > after) {
+                    chunk.set(leaf.docBase + i);
                 }
             }
         }
+    }
 
-        return chunk;
+    private static int nextDoc(FixedBitSet bits, int from) {
+        return from < bits.length() ? bits.nextSetBit(from) : DocIdSetIterator.NO_MORE_DOCS;
     }
 
     private void updateProperties(Properties properties, IndexPackingRequest request) throws IOException {
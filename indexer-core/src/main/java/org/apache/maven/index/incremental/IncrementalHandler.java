@@ -22,12 +22,32 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Properties;
 
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.maven.index.packer.IndexPackingRequest;
 import org.apache.maven.index.updater.IndexUpdateRequest;
 
 public interface IncrementalHandler {
     List<Integer> getIncrementalUpdates(IndexPackingRequest request, Properties properties) throws IOException;
 
+    /**
+     * Same as {@link #getIncrementalUpdates(IndexPackingRequest, Properties)}, but returns the documents of the next
+     * incremental chunk as a bitset of document ids of the request index reader.
+     *
+     * @since 7.1.7
+     */
+    default FixedBitSet getIncrementalUpdateDocs(IndexPackingRequest request, Properties properties)
+            throws IOException {
+        List<Integer> updates = getIncrementalUpdates(request, properties);
+        if (updates == null) {
+            return null;
+        }
+        FixedBitSet docs = new FixedBitSet(request.getIndexReader().maxDoc());
+        for (int doc : updates) {
+            docs.set(doc);
+        }
+        return docs;
+    }
+
     List<String> loadRemoteIncrementalUpdates(
             IndexUpdateRequest request, Properties localProperties, Properties remoteProperties) throws IOException;
 
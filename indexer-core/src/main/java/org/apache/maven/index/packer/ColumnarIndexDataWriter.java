@@ -0,0 +1,436 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.packer;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.MultiTerms;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.StringHelper;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+
+/**
+ * Writer of the columnar index format, a compact and sorted side-car of the transfer format, that can be memory mapped
+ * by consumers to look up artifacts by coordinates or SHA-1 without parsing the whole index. The file is not
+ * compressed, all numbers are big endian, and strings are UTF-8 encoded. Layout:
+ *
+ * <pre>
+ * header:     int magic, int version, long timestamp, int rows, int blockSize,
+ *             int groups, int artifacts, int tokens, int sha1s,
+ *             long offsets of: groups, artifacts, tokens, blocks, rows, sha1s
+ * groups:     string table of sorted groupIds, int[groups + 1] first artifact of each group
+ * artifacts:  string table of artifactIds (sorted within group), int[artifacts + 1] first row of each artifact
+ * tokens:     string table of classifiers and extensions, in order of first use
+ * blocks:     long[ceil(rows / blockSize)] offset of each block of rows, relative to rows offset
+ * rows:       per row, sorted by version order, classifier and extension within artifact:
+ *             varint shared version prefix length with previous row (0 at block start),
+ *             varint version suffix length, version suffix bytes,
+ *             varint classifier token + 1 (0 when none), varint extension token + 1 (0 when none),
+ *             zig-zag varint last modified delta with previous row (previous is 0 at block start)
+ * sha1s:      per artifact having SHA-1, sorted by SHA-1: 20 bytes SHA-1, int row
+ * </pre>
+ *
+ * A string table is {@code int[count + 1]} offsets of the strings relative to the end of offsets, followed by the
+ * string bytes. Sorted strings are in unsigned byte order. Versions are in the order of
+ * {@link ArtifactInfo#getArtifactVersion()}, ties broken by the version bytes, hence front coding shares the prefixes
+ * of consecutive versions in that order. The format is read by
+ * {@code org.apache.maven.index.reader.ColumnarIndexReader}.
+ * <p>
+ * The artifacts are read group by group, walking the {@link ArtifactInfo#UINFO} terms, and only the fields of the
+ * {@link MinimalArtifactInfoIndexCreator} are read from their documents. Encoded rows are spooled to a temporary file,
+ * so only the documents of a single group, the string tables and the SHA-1s are held in memory.
+ *
+ * @since 7.1.7
+ */
+public class ColumnarIndexDataWriter {
+    public static final String FILE_EXTENSION = ".columnar";
+
+    static final int MAGIC = 0x4D494458; // MIDX
+
+    static final int VERSION = 1;
+
+    static final int BLOCK_SIZE = 128;
+
+    private static final int SHA1_LENGTH = 20;
+
+    private static final byte FS = (byte) ArtifactInfo.FS.charAt(0);
+
+    private static final Comparator<byte[]> BYTES_ORDER = Arrays::compareUnsigned;
+
+    private static final Comparator<Row> ROW_ORDER = Comparator.<Row, byte[]>comparing(r -> r.artifactId, BYTES_ORDER)
+            .thenComparing(r -> r.artifactInfo.getArtifactVersion())
+            .thenComparing(r -> r.version, BYTES_ORDER)
+            .thenComparing(r -> r.classifier, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(r -> r.extension, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
+    private final OutputStream os;
+
+    private final Path tempDirectory;
+
+    private final MinimalArtifactInfoIndexCreator minimalCreator = new MinimalArtifactInfoIndexCreator();
+
+    public ColumnarIndexDataWriter(OutputStream os) {
+        this(os, null);
+    }
+
+    /**
+     * Creates a writer that spools the encoded rows to a temporary file in given directory, or in the default
+     * temporary directory if {@code null}.
+     */
+    public ColumnarIndexDataWriter(OutputStream os, Path tempDirectory) {
+        this.os = os;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Writes the artifacts of the index reader, and returns the count of written rows.
+     */
+    public int write(IndexingContext context, IndexReader indexReader) throws IOException {
+        Path rowsFile = tempDirectory != null
+                ? Files.createTempFile(tempDirectory, "columnar-rows", ".tmp")
+                : Files.createTempFile("columnar-rows", ".tmp");
+        try {
+            return write(context, indexReader, rowsFile);
+        } finally {
+            Files.deleteIfExists(rowsFile);
+        }
+    }
+
+    private int write(IndexingContext context, IndexReader indexReader, Path rowsFile) throws IOException {
+        Map<String, Integer> tokenIds = new HashMap<>();
+        List<byte[]> tokens = new ArrayList<>();
+        List<byte[]> groups = new ArrayList<>();
+        List<Integer> groupFirstArtifacts = new ArrayList<>();
+        List<byte[]> artifacts = new ArrayList<>();
+        List<Integer> artifactFirstRows = new ArrayList<>();
+        List<Long> blocks = new ArrayList<>();
+        List<Sha1Row> sha1s = new ArrayList<>();
+        int rowCount = 0;
+        long rowsSize;
+
+        try (CountingOutputStream rowBytes = new CountingOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(rowsFile), 64 * 1024))) {
+            Terms terms = MultiTerms.getTerms(indexReader, ArtifactInfo.UINFO);
+            if (terms != null) {
+                Bits liveDocs = MultiBits.getLiveDocs(indexReader);
+                StoredFields storedFields = indexReader.storedFields();
+                TermsEnum termsEnum = terms.iterator();
+                Row previous = null;
+                for (byte[] groupId : readGroupIds(terms)) {
+                    List<Row> rows = readGroupRows(termsEnum, liveDocs, storedFields, groupId);
+                    if (rows.isEmpty()) {
+                        continue;
+                    }
+                    groups.add(groupId);
+                    groupFirstArtifacts.add(artifacts.size());
+                    for (int i = 0; i < rows.size(); i++) {
+                        Row row = rows.get(i);
+                        if (i == 0 || !Arrays.equals(rows.get(i - 1).artifactId, row.artifactId)) {
+                            artifacts.add(row.artifactId);
+                            artifactFirstRows.add(rowCount);
+                        }
+                        if (rowCount % BLOCK_SIZE == 0) {
+                            blocks.add(rowBytes.count);
+                            previous = null;
+                        }
+
+                        int shared = previous == null ? 0 : Arrays.mismatch(previous.version, row.version);
+                        if (shared < 0) {
+                            shared = row.version.length; // equal versions
+                        }
+                        writeVarInt(rowBytes, shared);
+                        writeVarInt(rowBytes, row.version.length - shared);
+                        rowBytes.write(row.version, shared, row.version.length - shared);
+                        writeVarInt(rowBytes, tokenId(tokenIds, tokens, row.classifier));
+                        writeVarInt(rowBytes, tokenId(tokenIds, tokens, row.extension));
+                        long delta = row.lastModified - (previous == null ? 0L : previous.lastModified);
+                        writeVarLong(rowBytes, (delta << 1) ^ (delta >> 63));
+
+                        if (row.sha1 != null) {
+                            sha1s.add(new Sha1Row(row.sha1, rowCount));
+                        }
+                        previous = row;
+                        rowCount++;
+                    }
+                }
+            }
+            rowsSize = rowBytes.count;
+        }
+        groupFirstArtifacts.add(artifacts.size());
+        artifactFirstRows.add(rowCount);
+        sha1s.sort((a, b) -> Arrays.compareUnsigned(a.sha1, b.sha1));
+
+        long headerSize = 4 + 4 + 8 + 4 * 6 + 8 * 6;
+        long groupsOffset = headerSize;
+        long artifactsOffset = groupsOffset + stringTableSize(groups) + 4L * groupFirstArtifacts.size();
+        long tokensOffset = artifactsOffset + stringTableSize(artifacts) + 4L * artifactFirstRows.size();
+        long blocksOffset = tokensOffset + stringTableSize(tokens);
+        long rowsOffset = blocksOffset + 8L * blocks.size();
+        long sha1sOffset = rowsOffset + rowsSize;
+
+        DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(os, 64 * 1024));
+        Date timestamp = context.getTimestamp();
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeLong(timestamp == null ? 0L : timestamp.getTime());
+        dos.writeInt(rowCount);
+        dos.writeInt(BLOCK_SIZE);
+        dos.writeInt(groups.size());
+        dos.writeInt(artifacts.size());
+        dos.writeInt(tokens.size());
+        dos.writeInt(sha1s.size());
+        dos.writeLong(groupsOffset);
+        dos.writeLong(artifactsOffset);
+        dos.writeLong(tokensOffset);
+        dos.writeLong(blocksOffset);
+        dos.writeLong(rowsOffset);
+        dos.writeLong(sha1sOffset);
+
+        writeStringTable(dos, groups);
+        for (int firstArtifact : groupFirstArtifacts) {
+            dos.writeInt(firstArtifact);
+        }
+        writeStringTable(dos, artifacts);
+        for (int firstRow : artifactFirstRows) {
+            dos.writeInt(firstRow);
+        }
+        writeStringTable(dos, tokens);
+        for (long block : blocks) {
+            dos.writeLong(block);
+        }
+        Files.copy(rowsFile, dos);
+        for (Sha1Row sha1 : sha1s) {
+            dos.write(sha1.sha1);
+            dos.writeInt(sha1.row);
+        }
+        dos.flush();
+
+        return rowCount;
+    }
+
+    /**
+     * Returns the sorted groupIds of the UINFO terms, reading only the terms dictionary.
+     */
+    private static List<byte[]> readGroupIds(Terms terms) throws IOException {
+        TreeSet<byte[]> groupIds = new TreeSet<>(BYTES_ORDER);
+        TermsEnum termsEnum = terms.iterator();
+        byte[] last = null;
+        BytesRef term;
+        while ((term = termsEnum.next()) != null) {
+            int end = term.offset;
+            while (end < term.offset + term.length && term.bytes[end] != FS) {
+                end++;
+            }
+            // terms of a groupId are adjacent, as they share the "groupId|" prefix
+            if (last == null || !Arrays.equals(last, 0, last.length, term.bytes, term.offset, end)) {
+                last = Arrays.copyOfRange(term.bytes, term.offset, end);
+                groupIds.add(last);
+            }
+        }
+        return new ArrayList<>(groupIds);
+    }
+
+    /**
+     * Returns the sorted rows of the live artifacts of the groupId.
+     */
+    private List<Row> readGroupRows(TermsEnum termsEnum, Bits liveDocs, StoredFields storedFields, byte[] groupId)
+            throws IOException {
+        byte[] prefixBytes = Arrays.copyOf(groupId, groupId.length + 1);
+        prefixBytes[groupId.length] = FS;
+        BytesRef prefix = new BytesRef(prefixBytes);
+
+        List<Row> rows = new ArrayList<>();
+        if (termsEnum.seekCeil(prefix) == TermsEnum.SeekStatus.END) {
+            return rows;
+        }
+        PostingsEnum postings = null;
+        BytesRef term = termsEnum.term();
+        while (term != null && StringHelper.startsWith(term, prefix)) {
+            postings = termsEnum.postings(postings, PostingsEnum.NONE);
+            for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+                if (liveDocs != null && !liveDocs.get(doc)) {
+                    continue;
+                }
+                Document document = storedFields.document(doc);
+                if (document.get(ArtifactInfo.DELETED) != null) {
+                    continue;
+                }
+                ArtifactInfo ai = new ArtifactInfo();
+                if (minimalCreator.updateArtifactInfo(document, ai)
+                        && ai.getGroupId() != null && ai.getArtifactId() != null && ai.getVersion() != null) {
+                    rows.add(new Row(ai));
+                }
+            }
+            term = termsEnum.next();
+        }
+        rows.sort(ROW_ORDER);
+        return rows;
+    }
+
+    /**
+     * Returns the token of the value + 1, adding it to the tokens on first use, or 0 if the value is {@code null}.
+     */
+    private static int tokenId(Map<String, Integer> tokenIds, List<byte[]> tokens, String value) {
+        if (value == null) {
+            return 0;
+        }
+        return tokenIds.computeIfAbsent(value, v -> {
+            tokens.add(v.getBytes(StandardCharsets.UTF_8));
+            return tokens.size();
+        });
+    }
+
+    private static long stringTableSize(List<byte[]> strings) {
+        long size = 4L * (strings.size() + 1);
+        for (byte[] string : strings) {
+            size += string.length;
+        }
+        return size;
+    }
+
+    private static void writeStringTable(DataOutputStream dos, List<byte[]> strings) throws IOException {
+        int offset = 0;
+        dos.writeInt(offset);
+        for (byte[] string : strings) {
+            offset += string.length;
+            dos.writeInt(offset);
+        }
+        for (byte[] string : strings) {
+            dos.write(string);
+        }
+    }
+
+    private static void writeVarInt(OutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0L) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static byte[] sha1(String value) {
+        if (value == null || value.length() != SHA1_LENGTH * 2) {
+            return null;
+        }
+        byte[] result = new byte[SHA1_LENGTH];
+        for (int i = 0; i < SHA1_LENGTH; i++) {
+            int hi = Character.digit(value.charAt(i * 2), 16);
+            int lo = Character.digit(value.charAt(i * 2 + 1), 16);
+            if (hi < 0 || lo < 0) {
+                return null;
+            }
+            result[i] = (byte) ((hi << 4) | lo);
+        }
+        return result;
+    }
+
+    private static final class Row {
+        private final ArtifactInfo artifactInfo;
+
+        private final byte[] artifactId;
+
+        private final byte[] version;
+
+        private final String classifier;
+
+        private final String extension;
+
+        private final long lastModified;
+
+        private final byte[] sha1;
+
+        private Row(ArtifactInfo ai) {
+            this.artifactInfo = ai;
+            this.artifactId = ai.getArtifactId().getBytes(StandardCharsets.UTF_8);
+            this.version = ai.getVersion().getBytes(StandardCharsets.UTF_8);
+            this.classifier = emptyToNull(ai.getClassifier());
+            this.extension = emptyToNull(ai.getFileExtension());
+            this.lastModified = ai.getLastModified();
+            this.sha1 = sha1(ai.getSha1());
+        }
+    }
+
+    /**
+     * Output stream counting the written bytes, as offsets of the rows may exceed an int.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    private static final class Sha1Row {
+        private final byte[] sha1;
+
+        private final int row;
+
+        private Sha1Row(byte[] sha1, int row) {
+            this.sha1 = sha1;
+            this.row = row;
+        }
+    }
+}
@@ -27,15 +27,20 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.List;
 import java.util.Properties;
 import java.util.TimeZone;
 
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.maven.index.context.IndexingContext;
 import org.apache.maven.index.incremental.IncrementalHandler;
 import org.apache.maven.index.updater.IndexDataWriter;
+import org.apache.maven.index.updater.ParallelIndexDataWriter;
 import org.codehaus.plexus.util.FileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -98,12 +103,12 @@ public class DefaultIndexPacker implements IndexPacker {
             info = readIndexProperties(request);
 
             if (request.isCreateIncrementalChunks()) {
-                List<Integer> chunk = incrementalHandler.getIncrementalUpdates(request, info);
+                FixedBitSet chunk = incrementalHandler.getIncrementalUpdateDocs(request, info);
 
                 if (chunk == null) {
                     getLogger().debug("Problem with Chunks, forcing regeneration of whole index");
                     incrementalHandler.initializeProperties(info);
-                } else if (chunk.isEmpty()) {
+                } else if (chunk.cardinality() == 0) {
                     getLogger().debug("No incremental changes, not writing new incremental chunk");
                 } else {
                     File file = new File(
@@ -112,16 +117,6 @@ public class DefaultIndexPacker implements IndexPacker {
                                     + info.getProperty(IndexingContext.INDEX_CHUNK_COUNTER) + ".gz");
 
                     writeIndexData(request, chunk, file);
-
-                    if (request.isCreateChecksumFiles()) {
-                        FileUtils.fileWrite(
-                                new File(file.getParentFile(), file.getName() + ".sha1").getAbsolutePath(),
-                                DigesterUtils.getSha1Digest(file));
-
-                        FileUtils.fileWrite(
-                                new File(file.getParentFile(), file.getName() + ".md5").getAbsolutePath(),
-                                DigesterUtils.getMd5Digest(file));
-                    }
                 }
             }
         } catch (IOException e) {
@@ -140,16 +135,14 @@ public class DefaultIndexPacker implements IndexPacker {
             info.setProperty(IndexingContext.INDEX_TIMESTAMP, format(timestamp));
 
             writeIndexData(request, null, v1File);
+        }
 
-            if (request.isCreateChecksumFiles()) {
-                FileUtils.fileWrite(
-                        new File(v1File.getParentFile(), v1File.getName() + ".sha1").getAbsolutePath(),
-                        DigesterUtils.getSha1Digest(v1File));
-
-                FileUtils.fileWrite(
-                        new File(v1File.getParentFile(), v1File.getName() + ".md5").getAbsolutePath(),
-                        DigesterUtils.getMd5Digest(v1File));
-            }
+        if (request.getFormats().contains(IndexPackingRequest.IndexFormat.FORMAT_COLUMNAR)) {
+            writeColumnarIndexData(
+                    request,
+                    new File(
+                            request.getTargetDir(),
+                            IndexingContext.INDEX_FILE_PREFIX + ColumnarIndexDataWriter.FILE_EXTENSION));
         }
 
         writeIndexProperties(request, info);
@@ -173,17 +166,70 @@ public class DefaultIndexPacker implements IndexPacker {
         return properties;
     }
 
-    void writeIndexData(IndexPackingRequest request, List<Integer> docIndexes, File targetArchive) throws IOException {
-        if (targetArchive.exists()) {
-            targetArchive.delete();
+    void writeIndexData(IndexPackingRequest request, FixedBitSet docs, File targetArchive) throws IOException {
+        writeWithChecksums(request, targetArchive, os -> {
+            if (request.getThreads() > 1) {
+                ParallelIndexDataWriter dw = new ParallelIndexDataWriter(os, request.getThreads());
+                dw.write(request.getContext(), request.getIndexReader(), docs);
+            } else {
+                IndexDataWriter dw = new IndexDataWriter(os);
+                dw.writeChunk(request.getContext(), request.getIndexReader(), docs);
+            }
+        });
+    }
+
+    void writeColumnarIndexData(IndexPackingRequest request, File targetFile) throws IOException {
+        // rows are spooled next to the target, instead of the default temporary directory
+        Path tempDirectory = targetFile.getAbsoluteFile().getParentFile().toPath();
+        writeWithChecksums(request, targetFile, os -> new ColumnarIndexDataWriter(os, tempDirectory)
+                .write(request.getContext(), request.getIndexReader()));
+    }
+
+    /**
+     * Writes the target file with the writer, and its checksum files if requested, computing the checksums while
+     * writing instead of reading the file again.
+     */
+    private static void writeWithChecksums(IndexPackingRequest request, File targetFile, DataWriter writer)
+            throws IOException {
+        if (targetFile.exists()) {
+            targetFile.delete();
         }
 
-        try (OutputStream os = new FileOutputStream(targetArchive)) {
-            IndexDataWriter dw = new IndexDataWriter(os);
-            dw.write(request.getContext(), request.getIndexReader(), docIndexes);
+        MessageDigest sha1 = null;
+        MessageDigest md5 = null;
+
+        try (OutputStream fos = new FileOutputStream(targetFile)) {
+            OutputStream os = fos;
+
+            if (request.isCreateChecksumFiles()) {
+                sha1 = newDigest("SHA-1");
+                md5 = newDigest("MD5");
+                os = new DigestOutputStream(new DigestOutputStream(os, sha1), md5);
+            }
+
+            writer.write(os);
 
             os.flush();
         }
+
+        if (request.isCreateChecksumFiles()) {
+            writeChecksumFile(targetFile, ".sha1", sha1);
+            writeChecksumFile(targetFile, ".md5", md5);
+        }
+    }
+
+    private static MessageDigest newDigest(String alg) throws IOException {
+        try {
+            return MessageDigest.getInstance(alg);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Digest algorithm " + alg + " is not available", e);
+        }
+    }
+
+    private static void writeChecksumFile(File file, String extension, MessageDigest digest) throws IOException {
+        FileUtils.fileWrite(
+                new File(file.getParentFile(), file.getName() + extension).getAbsolutePath(),
+                new String(DigesterUtils.encodeHex(digest.digest())));
     }
 
     void writeIndexProperties(IndexPackingRequest request, Properties info) throws IOException {
@@ -219,4 +265,9 @@ public class DefaultIndexPacker implements IndexPacker {
         df.setTimeZone(TimeZone.getTimeZone("GMT"));
         return df.format(d);
     }
+
+    @FunctionalInterface
+    private interface DataWriter {
+        void write(OutputStream os) throws IOException;
+    }
 }
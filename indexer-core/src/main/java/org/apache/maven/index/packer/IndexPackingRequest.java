@@ -49,6 +49,8 @@ public class IndexPackingRequest {
 
     private Collection<IndexFormat> formats;
 
+    private int threads;
+
     public IndexPackingRequest(final IndexingContext context, final IndexReader indexReader, final File targetDir) {
         this.context = requireNonNull(context);
 
@@ -65,6 +67,8 @@ public class IndexPackingRequest {
         this.useTargetProperties = false;
 
         this.formats = Arrays.asList(IndexFormat.FORMAT_V1);
+
+        this.threads = 1;
     }
 
     public IndexingContext getContext() {
@@ -125,10 +129,39 @@ public class IndexPackingRequest {
         this.useTargetProperties = useTargetProperties;
     }
 
+    /**
+     * Returns the count of threads used to serialize and compress index data.
+     *
+     * @since 7.1.7
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the count of threads used to serialize and compress index data. With more than one thread, document ranges
+     * are compressed as independent blocks in parallel. Defaults to 1.
+     *
+     * @since 7.1.7
+     */
+    public void setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be greater than zero: " + threads);
+        }
+        this.threads = threads;
+    }
+
     /**
      * Index format enumeration.
      */
     public enum IndexFormat {
-        FORMAT_V1
+        FORMAT_V1,
+
+        /**
+         * The memory mappable columnar side-car, written by {@link ColumnarIndexDataWriter}.
+         *
+         * @since 7.1.7
+         */
+        FORMAT_COLUMNAR
     }
 }
@@ -32,6 +32,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
@@ -41,10 +42,17 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.DirectoryReader;
@@ -79,6 +87,11 @@ import org.slf4j.LoggerFactory;
 @Named
 public class DefaultIndexUpdater implements IndexUpdater {
 
+    /**
+     * The count of unpacked incremental chunks merged into the context in one pass, when fetching chunks concurrently.
+     */
+    private static final int CHUNK_MERGE_WINDOW = 8;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     protected Logger getLogger() {
@@ -120,7 +133,8 @@ public class DefaultIndexUpdater implements IndexUpdater {
         Lock lock = locker != null && cacheDir != null ? locker.lock(cacheDir) : null;
         try {
             if (cacheDir != null) {
-                LocalCacheIndexAdaptor cache = new LocalCacheIndexAdaptor(cacheDir, result);
+                LocalCacheIndexAdaptor cache =
+                        new LocalCacheIndexAdaptor(cacheDir, result, updateRequest.getChunkThreads());
 
                 if (!updateRequest.isOffline()) {
                     cacheDir.mkdirs();
@@ -166,6 +180,184 @@ public class DefaultIndexUpdater implements IndexUpdater {
             final boolean merge,
             final String remoteIndexFile)
             throws IOException {
+        UnpackedIndex index = unpackIndex(updateRequest, fetcher, remoteIndexFile);
+        try {
+            if (merge) {
+                updateRequest.getIndexingContext().merge(index.directory, null, index.allGroups, index.rootGroups);
+            } else {
+                updateRequest.getIndexingContext().replace(index.directory, index.allGroups, index.rootGroups);
+            }
+            applySideEffects(updateRequest, index.directory, merge);
+
+            return index.timestamp;
+        } finally {
+            index.discard();
+        }
+    }
+
+    /**
+     * Fetches and unpacks the incremental chunks, up to {@link IndexUpdateRequest#getChunkThreads()} of them ahead of
+     * the ones being merged, and merges them into the context in order, deleting them once merged. When fetching
+     * concurrently, up to {@link #CHUNK_MERGE_WINDOW} of them are merged in one pass; otherwise each chunk is merged,
+     * and its side effects applied, before the next one is unpacked.
+     */
+    private void loadIndexChunks(
+            final IndexUpdateRequest updateRequest, final ResourceFetcher fetcher, final List<String> filenames)
+            throws IOException {
+        forEachChunk(
+                updateRequest.getChunkThreads(),
+                updateRequest.getChunkThreads() > 1 ? CHUNK_MERGE_WINDOW : 1,
+                filenames,
+                filename -> unpackIndex(updateRequest, fetcher, filename),
+                UnpackedIndex::discard,
+                chunks -> {
+                    if (chunks.size() == 1) {
+                        UnpackedIndex chunk = chunks.get(0);
+                        updateRequest
+                                .getIndexingContext()
+                                .merge(chunk.directory, null, chunk.allGroups, chunk.rootGroups);
+                        applySideEffects(updateRequest, chunk.directory, true);
+                        return;
+                    }
+
+                    List<Directory> directories = new ArrayList<>(chunks.size());
+                    Set<String> allGroups = new LinkedHashSet<>();
+                    Set<String> rootGroups = new LinkedHashSet<>();
+                    boolean rebuildGroups = false;
+                    for (UnpackedIndex chunk : chunks) {
+                        directories.add(chunk.directory);
+                        if (chunk.allGroups == null && chunk.rootGroups == null) {
+                            rebuildGroups = true;
+                        }
+                        if (chunk.allGroups != null) {
+                            allGroups.addAll(chunk.allGroups);
+                        }
+                        if (chunk.rootGroups != null) {
+                            rootGroups.addAll(chunk.rootGroups);
+                        }
+                    }
+                    updateRequest
+                            .getIndexingContext()
+                            .merge(
+                                    directories,
+                                    null,
+                                    rebuildGroups ? null : allGroups,
+                                    rebuildGroups ? null : rootGroups);
+
+                    for (UnpackedIndex chunk : chunks) {
+                        applySideEffects(updateRequest, chunk.directory, true);
+                    }
+                });
+    }
+
+    /**
+     * Applies the incremental chunks in order, decoding each of them directly into the index of the context. When
+     * fetching more of them concurrently, up to {@link IndexUpdateRequest#getChunkThreads()} of them are fetched into
+     * temporary files ahead of the one being applied.
+     */
+    private void applyIndexChunks(
+            final IndexUpdateRequest updateRequest, final ResourceFetcher fetcher, final List<String> filenames)
+            throws IOException {
+        if (filenames.isEmpty()) {
+            return;
+        }
+
+        final IndexingContext context = updateRequest.getIndexingContext();
+        final IndexWriter w = context.getIndexWriter();
+
+        final Set<String> allGroups = new LinkedHashSet<>();
+        final Set<String> rootGroups = new LinkedHashSet<>();
+        final Date[] chunksTimestamp = new Date[1];
+        final ChunkConsumer<InputStream> apply = chunk -> {
+            try (BufferedInputStream is = new BufferedInputStream(chunk)) {
+                IndexDataReadResult result = new IndexDataReader(is, updateRequest)
+                        .applyIndex(w, context, updateRequest.getDocumentFilter());
+
+                allGroups.addAll(result.getAllGroups());
+                rootGroups.addAll(result.getRootGroups());
+                if (result.getTimestamp() != null
+                        && (chunksTimestamp[0] == null || result.getTimestamp().after(chunksTimestamp[0]))) {
+                    chunksTimestamp[0] = result.getTimestamp();
+                }
+            }
+        };
+
+        // committed only once all chunks are applied, along with the timestamp; a failed update rolls back the
+        // records applied so far, that are applied again next time
+        try {
+            if (updateRequest.getChunkThreads() > 1 && filenames.size() > 1) {
+                forEachChunk(
+                        updateRequest.getChunkThreads(),
+                        1,
+                        filenames,
+                        filename -> downloadToTempFile(updateRequest, fetcher, filename),
+                        File::delete,
+                        files -> apply.accept(new FileInputStream(files.get(0))));
+            } else {
+                for (String filename : filenames) {
+                    apply.accept(fetcher.retrieve(filename));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                context.rollback();
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
+
+        Set<String> contextAllGroups = context.getAllGroups();
+        if (contextAllGroups.addAll(allGroups)) {
+            context.setAllGroups(contextAllGroups);
+        }
+        Set<String> contextRootGroups = context.getRootGroups();
+        if (contextRootGroups.addAll(rootGroups)) {
+            context.setRootGroups(contextRootGroups);
+        }
+
+        Date timestamp = context.getTimestamp();
+        if (timestamp != null && chunksTimestamp[0] != null && chunksTimestamp[0].after(timestamp)) {
+            // we have both, keep the newest
+            context.updateTimestamp(true, chunksTimestamp[0]);
+        } else {
+            context.updateTimestamp(true);
+        }
+        context.commit();
+    }
+
+    private static File downloadToTempFile(
+            final IndexUpdateRequest updateRequest, final ResourceFetcher fetcher, final String filename)
+            throws IOException {
+        File file;
+        if (updateRequest.getIndexTempDir() != null) {
+            updateRequest.getIndexTempDir().mkdirs();
+            file = Files.createTempFile(updateRequest.getIndexTempDir().toPath(), filename, ".tmp").toFile();
+        } else {
+            file = Files.createTempFile(filename, ".tmp").toFile();
+        }
+        try {
+            FileUtils.copyStreamToFile(new RawInputStreamFacade(fetcher.retrieve(filename)), file);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            file.delete();
+            throw e;
+        }
+    }
+
+    private void applySideEffects(
+            final IndexUpdateRequest updateRequest, final Directory directory, final boolean merge) {
+        if (sideEffects != null && sideEffects.size() > 0) {
+            getLogger().info(IndexUpdateSideEffect.class.getName() + " extensions found: " + sideEffects.size());
+            for (IndexUpdateSideEffect sideeffect : sideEffects) {
+                sideeffect.updateIndex(directory, updateRequest.getIndexingContext(), merge);
+            }
+        }
+    }
+
+    private static UnpackedIndex unpackIndex(
+            final IndexUpdateRequest updateRequest, final ResourceFetcher fetcher, final String remoteIndexFile)
+            throws IOException {
         File indexDir;
         if (updateRequest.getIndexTempDir() != null) {
             updateRequest.getIndexTempDir().mkdirs();
@@ -174,47 +366,204 @@ public class DefaultIndexUpdater implements IndexUpdater {
         } else {
             indexDir = Files.createTempDirectory(remoteIndexFile + ".dir").toFile();
         }
-        try (BufferedInputStream is = new BufferedInputStream(fetcher.retrieve(remoteIndexFile)); //
-                Directory directory = updateRequest.getFSDirectoryFactory().open(indexDir)) {
-            Date timestamp;
+        Directory directory = null;
+        try (BufferedInputStream is = new BufferedInputStream(fetcher.retrieve(remoteIndexFile))) {
+            directory = updateRequest.getFSDirectoryFactory().open(indexDir);
 
-            Set<String> rootGroups;
-            Set<String> allGroups;
-            if (remoteIndexFile.endsWith(".gz")) {
-                IndexDataReadResult result =
-                        unpackIndexData(is, updateRequest, directory, updateRequest.getIndexingContext());
-                timestamp = result.getTimestamp();
-                rootGroups = result.getRootGroups();
-                allGroups = result.getAllGroups();
-            } else {
+            if (!remoteIndexFile.endsWith(".gz")) {
                 // legacy transfer format
                 throw new IllegalArgumentException(
                         "The legacy format is no longer supported " + "by this version of maven-indexer.");
             }
 
+            IndexDataReadResult result =
+                    unpackIndexData(is, updateRequest, directory, updateRequest.getIndexingContext());
+
             if (updateRequest.getDocumentFilter() != null) {
                 filterDirectory(directory, updateRequest.getDocumentFilter());
             }
 
-            if (merge) {
-                updateRequest.getIndexingContext().merge(directory, null, allGroups, rootGroups);
-            } else {
-                updateRequest.getIndexingContext().replace(directory, allGroups, rootGroups);
+            return new UnpackedIndex(
+                    indexDir, directory, result.getTimestamp(), result.getAllGroups(), result.getRootGroups());
+        } catch (IOException | RuntimeException e) {
+            new UnpackedIndex(indexDir, directory, null, null, null).discard();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the task for each of the chunks, at most the given count of them concurrently, and returns the results in
+     * chunk order. If any of them fails, the results of the others are discarded.
+     */
+    private static <T> List<T> fetchChunks(
+            final int threads, final List<String> filenames, final ChunkTask<T> task, final Consumer<T> discard)
+            throws IOException {
+        final List<T> results = new ArrayList<>(filenames.size());
+        if (threads < 2 || filenames.size() < 2) {
+            try {
+                for (String filename : filenames) {
+                    results.add(task.apply(filename));
+                }
+            } catch (IOException | RuntimeException e) {
+                results.forEach(discard);
+                throw e;
             }
-            if (sideEffects != null && sideEffects.size() > 0) {
-                getLogger().info(IndexUpdateSideEffect.class.getName() + " extensions found: " + sideEffects.size());
-                for (IndexUpdateSideEffect sideeffect : sideEffects) {
-                    sideeffect.updateIndex(directory, updateRequest.getIndexingContext(), merge);
+            return results;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, filenames.size()));
+        final List<Future<T>> futures = new ArrayList<>(filenames.size());
+        boolean success = false;
+        try {
+            for (String filename : filenames) {
+                futures.add(executor.submit(() -> task.apply(filename)));
+            }
+            for (Future<T> future : futures) {
+                results.add(await(future));
+            }
+            success = true;
+            return results;
+        } finally {
+            executor.shutdownNow();
+            if (!success) {
+                discardAll(executor, futures, discard);
+            }
+        }
+    }
+
+    /**
+     * Runs the task for each of the chunks, at most the given count of them concurrently and ahead of the ones being
+     * consumed, and hands the results to the consumer in chunk order, in windows of at most the given size, discarding
+     * each window once consumed. Hence at most {@code threads + window} results exist at any time. If any of them
+     * fails, the results of the others are discarded.
+     */
+    private static <T> void forEachChunk(
+            final int threads,
+            final int window,
+            final List<String> filenames,
+            final ChunkTask<T> task,
+            final Consumer<T> discard,
+            final ChunkConsumer<List<T>> consumer)
+            throws IOException {
+        final int windowSize = Math.max(1, window);
+        if (threads < 2 || filenames.size() < 2) {
+            for (int from = 0; from < filenames.size(); from += windowSize) {
+                int to = Math.min(from + windowSize, filenames.size());
+                List<T> chunks = new ArrayList<>(to - from);
+                try {
+                    for (int i = from; i < to; i++) {
+                        chunks.add(task.apply(filenames.get(i)));
+                    }
+                    consumer.accept(chunks);
+                } finally {
+                    chunks.forEach(discard);
                 }
             }
+            return;
+        }
 
-            return timestamp;
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, filenames.size()));
+        final List<Future<T>> futures = new ArrayList<>(filenames.size());
+        boolean success = false;
+        try {
+            for (int from = 0; from < filenames.size(); from += windowSize) {
+                int to = Math.min(from + windowSize, filenames.size());
+                while (futures.size() < filenames.size() && futures.size() < to + threads) {
+                    String filename = filenames.get(futures.size());
+                    futures.add(executor.submit(() -> task.apply(filename)));
+                }
+                List<T> chunks = new ArrayList<>(to - from);
+                try {
+                    for (int i = from; i < to; i++) {
+                        chunks.add(await(futures.get(i)));
+                        futures.set(i, null);
+                    }
+                    consumer.accept(chunks);
+                } finally {
+                    chunks.forEach(discard);
+                }
+            }
+            success = true;
         } finally {
-            try {
-                FileUtils.deleteDirectory(indexDir);
-            } catch (IOException ex) {
-                // ignore
+            executor.shutdownNow();
+            if (!success) {
+                discardAll(executor, futures, discard);
+            }
+        }
+    }
+
+    private static <T> void discardAll(
+            final ExecutorService executor, final List<Future<T>> futures, final Consumer<T> discard) {
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Future<T> future : futures) {
+            if (future != null && future.isDone() && !future.isCancelled()) {
+                try {
+                    discard.accept(future.get());
+                } catch (ExecutionException e) {
+                    // failed, nothing to discard
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private static <T> T await(final Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching index chunks");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
             }
+            throw new IOException("Failed to fetch index chunk", e.getCause());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask<T> {
+        T apply(String filename) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ChunkConsumer<T> {
+        void accept(T chunk) throws IOException;
+    }
+
+    /**
+     * An index unpacked into a temporary directory, to be discarded once used.
+     */
+    private static final class UnpackedIndex {
+        private final File dir;
+
+        private final Directory directory;
+
+        private final Date timestamp;
+
+        private final Set<String> allGroups;
+
+        private final Set<String> rootGroups;
+
+        private UnpackedIndex(
+                File dir, Directory directory, Date timestamp, Set<String> allGroups, Set<String> rootGroups) {
+            this.dir = dir;
+            this.directory = directory;
+            this.timestamp = timestamp;
+            this.allGroups = allGroups;
+            this.rootGroups = rootGroups;
+        }
+
+        private void discard() {
+            IndexUtils.close(directory);
+            IndexUtils.delete(dir);
         }
     }
 
@@ -391,6 +740,12 @@ public class DefaultIndexUpdater implements IndexUpdater {
 
         public abstract void addIndexChunk(ResourceFetcher source, String filename) throws IOException;
 
+        public void addIndexChunks(ResourceFetcher source, List<String> filenames) throws IOException {
+            for (String filename : filenames) {
+                addIndexChunk(source, filename);
+            }
+        }
+
         public abstract Date setIndexFile(ResourceFetcher source, String string) throws IOException;
 
         public Properties setProperties(ResourceFetcher source) throws IOException {
@@ -432,6 +787,15 @@ public class DefaultIndexUpdater implements IndexUpdater {
             loadIndexDirectory(updateRequest, source, true, filename);
         }
 
+        @Override
+        public void addIndexChunks(ResourceFetcher source, List<String> filenames) throws IOException {
+            if (updateRequest.isApplyChunksDirectly() && (sideEffects == null || sideEffects.isEmpty())) {
+                applyIndexChunks(updateRequest, source, filenames);
+            } else {
+                loadIndexChunks(updateRequest, source, filenames);
+            }
+        }
+
         public Date setIndexFile(ResourceFetcher source, String filename) throws IOException {
             return loadIndexDirectory(updateRequest, source, false, filename);
         }
@@ -448,11 +812,14 @@ public class DefaultIndexUpdater implements IndexUpdater {
 
         private final IndexUpdateResult result;
 
+        private final int chunkThreads;
+
         private final ArrayList<String> newChunks = new ArrayList<>();
 
-        LocalCacheIndexAdaptor(File dir, IndexUpdateResult result) {
+        LocalCacheIndexAdaptor(File dir, IndexUpdateResult result, int chunkThreads) {
             super(dir);
             this.result = result;
+            this.chunkThreads = chunkThreads;
         }
 
         public Properties getProperties() {
@@ -482,9 +849,20 @@ public class DefaultIndexUpdater implements IndexUpdater {
         }
 
         public void addIndexChunk(ResourceFetcher source, String filename) throws IOException {
+            newChunks.add(downloadChunk(source, filename));
+        }
+
+        @Override
+        public void addIndexChunks(ResourceFetcher source, List<String> filenames) throws IOException {
+            // partially downloaded chunks are not listed, as with sequential downloads
+            newChunks.addAll(fetchChunks(
+                    chunkThreads, filenames, filename -> downloadChunk(source, filename), filename -> {}));
+        }
+
+        private String downloadChunk(ResourceFetcher source, String filename) throws IOException {
             File chunk = new File(dir, filename);
             FileUtils.copyStreamToFile(new RawInputStreamFacade(source.retrieve(filename)), chunk);
-            newChunks.add(filename);
+            return filename;
         }
 
         public Date setIndexFile(ResourceFetcher source, String filename) throws IOException {
@@ -568,9 +946,7 @@ public class DefaultIndexUpdater implements IndexUpdater {
 
                 // if we have some incremental files, merge them in
                 if (filenames != null) {
-                    for (String filename : filenames) {
-                        target.addIndexChunk(source, filename);
-                    }
+                    target.addIndexChunks(chunkSource(updateRequest, source, remoteProperties), filenames);
 
                     result.setTimestamp(updateTimestamp);
                     result.setSuccessful(true);
@@ -605,9 +981,7 @@ public class DefaultIndexUpdater implements IndexUpdater {
                 if (source instanceof LocalIndexCacheFetcher) {
                     // local cache has inverse organization compared to remote indexes,
                     // i.e. initial index file and delta chunks to apply on top of it
-                    for (String filename : ((LocalIndexCacheFetcher) source).getChunks()) {
-                        target.addIndexChunk(source, filename);
-                    }
+                    target.addIndexChunks(source, ((LocalIndexCacheFetcher) source).getChunks());
                 }
             } catch (IOException ex) {
                 // try to look for legacy index transfer format
@@ -628,6 +1002,19 @@ public class DefaultIndexUpdater implements IndexUpdater {
         return result;
     }
 
+    /**
+     * Returns the fetcher of incremental chunks, that goes through the shared chunk cache, if there is one.
+     */
+    private static ResourceFetcher chunkSource(
+            final IndexUpdateRequest updateRequest, final ResourceFetcher source, final Properties remoteProperties) {
+        SharedChunkCache cache = updateRequest.getSharedChunkCache();
+        String chainId = remoteProperties.getProperty(IndexingContext.INDEX_CHAIN_ID);
+        if (cache == null || chainId == null || source instanceof LocalIndexCacheFetcher) {
+            return source;
+        }
+        return cache.fetcher(source, chainId);
+    }
+
     /**
      * Cleans specified cache directory. If present, Locker.LOCK_FILE will not be deleted.
      */
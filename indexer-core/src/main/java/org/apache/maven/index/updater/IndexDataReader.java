@@ -19,8 +19,12 @@
 package org.apache.maven.index.updater;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
 import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
@@ -31,6 +35,7 @@ import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -38,11 +43,14 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.lucene.document.Document;
@@ -51,6 +59,7 @@ import org.apache.lucene.document.FieldType;
 import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.maven.index.ArtifactInfo;
@@ -70,6 +79,37 @@ import org.slf4j.LoggerFactory;
 public class IndexDataReader {
     private static final Logger LOGGER = LoggerFactory.getLogger(IndexDataReader.class);
 
+    /**
+     * Maximum number of records framed into one batch handed over between the stages of the MT reader.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Raw batch size (in bytes) after which a batch is handed over even if it is not full.
+     */
+    private static final int BATCH_BYTES = 1024 * 1024;
+
+    /**
+     * Capacity of the batch queues between stages, per thread.
+     */
+    private static final int BATCH_QUEUE_FACTOR = 4;
+
+    private static final int FIELD_TYPE_MASK =
+            IndexDataWriter.F_INDEXED | IndexDataWriter.F_TOKENIZED | IndexDataWriter.F_STORED;
+
+    /**
+     * Shared, frozen field types for all the possible flag combinations, indexed by flags.
+     */
+    private static final FieldType[] FIELD_TYPES = new FieldType[FIELD_TYPE_MASK + 1];
+
+    static {
+        for (int flags = 0; flags <= FIELD_TYPE_MASK; flags++) {
+            FIELD_TYPES[flags] = fieldType(flags);
+        }
+    }
+
+    private static final ThreadLocal<DecodeBuffers> BUFFERS = ThreadLocal.withInitial(DecodeBuffers::new);
+
     private final DataInputStream dis;
     private final Path tempStorage;
     private final DocumentFilter filter;
@@ -178,65 +218,127 @@ public class IndexDataReader {
 
         int n = 0;
 
-        final Document theEnd = new Document();
+        // identity markers signalling the end of the stream to the decoder and silo writer stages
+        final byte[] rawEnd = new byte[0];
+        final List<Document> docsEnd = new ArrayList<>(0);
 
         Set<String> rootGroups = ConcurrentHashMap.newKeySet();
         Set<String> allGroups = ConcurrentHashMap.newKeySet();
-        ArrayBlockingQueue<Document> queue = new ArrayBlockingQueue<>(10000);
+        BlockingQueue<byte[]> rawQueue = new ArrayBlockingQueue<>(threads * BATCH_QUEUE_FACTOR);
+        BlockingQueue<List<Document>> docsQueue = new ArrayBlockingQueue<>(threads * BATCH_QUEUE_FACTOR);
 
-        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        ExecutorService decoderService = Executors.newFixedThreadPool(threads);
+        ExecutorService writerService = Executors.newFixedThreadPool(threads);
         List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
         List<FSDirectory> siloDirectories = new ArrayList<>(threads);
         List<IndexWriter> siloWriters = new ArrayList<>(threads);
         AtomicBoolean stopEarly = new AtomicBoolean(false);
-        LOGGER.debug("Creating {} silo writer threads...", threads);
+        AtomicInteger activeDecoders = new AtomicInteger(threads);
+        Consumer<Throwable> onError = e -> {
+            errors.add(e);
+            if (stopEarly.compareAndSet(false, true)) {
+                rawQueue.clear(); // unblock producer
+                docsQueue.clear(); // unblock decoders
+                decoderService.shutdownNow(); // unblock decoders
+                writerService.shutdownNow(); // unblock silo writers
+            }
+        };
+
+        LOGGER.debug("Creating {} decoder threads...", threads);
         for (int i = 0; i < threads; i++) {
-            final int silo = i;
-            FSDirectory siloDirectory = tempDirectory("silo" + i);
-            siloDirectories.add(siloDirectory);
-            siloWriters.add(tempWriter(siloDirectory));
-            executorService.execute(() -> {
-                LOGGER.debug("Starting thread {}", Thread.currentThread().getName());
+            decoderService.execute(() -> {
+                LOGGER.debug("Starting decoder thread {}", Thread.currentThread().getName());
                 try {
                     while (true) {
+                        byte[] raw = rawQueue.take();
+                        if (raw == rawEnd) {
+                            break;
+                        }
+                        if (!offer(docsQueue, decodeBatch(raw), stopEarly)) {
+                            break;
+                        }
+                    }
+                } catch (Throwable e) {
+                    onError.accept(e);
+                } finally {
+                    if (activeDecoders.decrementAndGet() == 0) {
                         try {
-                            Document doc = queue.take();
-                            if (doc == theEnd) {
-                                break;
+                            for (int j = 0; j < threads; j++) {
+                                offer(docsQueue, docsEnd, stopEarly);
                             }
-                            addToIndex(doc, context, siloWriters.get(silo), rootGroups, allGroups);
                         } catch (Throwable e) {
-                            errors.add(e);
-                            if (stopEarly.compareAndSet(false, true)) {
-                                queue.clear(); // unblock producer
-                                executorService.shutdownNow(); // unblock consumers
-                            }
+                            onError.accept(e);
+                        }
+                    }
+                    LOGGER.debug("Done decoder thread {}", Thread.currentThread().getName());
+                }
+            });
+        }
+
+        LOGGER.debug("Creating {} silo writer threads...", threads);
+        for (int i = 0; i < threads; i++) {
+            FSDirectory siloDirectory = tempDirectory("silo" + i);
+            siloDirectories.add(siloDirectory);
+            IndexWriter siloWriter = tempWriter(siloDirectory);
+            siloWriters.add(siloWriter);
+            writerService.execute(() -> {
+                LOGGER.debug("Starting silo writer thread {}", Thread.currentThread().getName());
+                try {
+                    while (true) {
+                        List<Document> docs = docsQueue.take();
+                        if (docs == docsEnd) {
                             break;
                         }
+                        for (Document doc : docs) {
+                            addToIndex(doc, context, siloWriter, rootGroups, allGroups);
+                        }
                     }
+                } catch (Throwable e) {
+                    onError.accept(e);
                 } finally {
-                    LOGGER.debug("Done thread {}", Thread.currentThread().getName());
+                    LOGGER.debug("Done silo writer thread {}", Thread.currentThread().getName());
                 }
             });
         }
 
-        LOGGER.debug("Loading up documents into silos");
+        LOGGER.debug("Framing records into batches");
         try {
-            Document doc;
-            while (!stopEarly.get() && (doc = readDocument()) != null) {
-                queue.put(doc);
+            ByteArrayOutputStream batch = new ByteArrayOutputStream(BATCH_BYTES);
+            DataOutputStream batchOut = new DataOutputStream(batch);
+            byte[] buffer = new byte[8192];
+            int batched = 0;
+            while (!stopEarly.get() && copyRecord(batchOut, buffer)) {
                 n++;
+                if (++batched == BATCH_SIZE || batch.size() >= BATCH_BYTES) {
+                    offer(rawQueue, batch.toByteArray(), stopEarly);
+                    batch.reset();
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                offer(rawQueue, batch.toByteArray(), stopEarly);
             }
             LOGGER.debug("Signalling END");
             for (int i = 0; i < threads; i++) {
-                queue.put(theEnd);
+                offer(rawQueue, rawEnd, stopEarly);
             }
 
             LOGGER.debug("Shutting down threads");
-            executorService.shutdown();
-            executorService.awaitTermination(5L, TimeUnit.MINUTES);
         } catch (InterruptedException e) {
+            onError.accept(e);
             throw new IOException("Interrupted", e);
+        } catch (IOException e) {
+            onError.accept(e);
+        } catch (RuntimeException | Error e) {
+            onError.accept(e);
+            throw e;
+        } finally {
+            // also on failure, so no thread is left writing to the silo directories once this returns
+            try {
+                shutdownAndAwait(decoderService);
+            } finally {
+                shutdownAndAwait(writerService);
+            }
         }
 
         if (!errors.isEmpty()) {
@@ -289,6 +391,84 @@ public class IndexDataReader {
         return result;
     }
 
+    /**
+     * Puts the element into the queue, giving up once some stage of the pipeline failed.
+     */
+    private static <T> boolean offer(final BlockingQueue<T> queue, final T element, final AtomicBoolean stopEarly)
+            throws InterruptedException {
+        while (!stopEarly.get()) {
+            if (queue.offer(element, 100L, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Shuts down the pool and waits, bounded, for its threads to end. Pools of a failed load were already shut down
+     * with interruption, so this returns once their threads noticed it.
+     */
+    private static void shutdownAndAwait(final ExecutorService service) throws IOException {
+        service.shutdown();
+        try {
+            if (!service.awaitTermination(5L, TimeUnit.MINUTES)) {
+                throw new IOException("Index load threads did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            service.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+
+    /**
+     * Copies one raw record (as written by {@link IndexDataWriter#writeDocument(Document)}) from the input to the
+     * passed in output without decoding it. Returns {@code false} if there are no more records.
+     */
+    private boolean copyRecord(final DataOutput out, final byte[] buffer) throws IOException {
+        int fieldCount;
+        try {
+            fieldCount = dis.readInt();
+        } catch (EOFException ex) {
+            return false; // no more documents
+        }
+        out.writeInt(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            out.writeByte(dis.readUnsignedByte()); // flags
+            int nameLength = dis.readUnsignedShort();
+            out.writeShort(nameLength);
+            copyBytes(out, buffer, nameLength);
+            int valueLength = dis.readInt();
+            if (valueLength < 0) {
+                throw new IOException("Index data content is inappropriate (is junk?), negative field length!"
+                        + " See MINDEXER-28 for more information!");
+            }
+            out.writeInt(valueLength);
+            copyBytes(out, buffer, valueLength);
+        }
+        return true;
+    }
+
+    private void copyBytes(final DataOutput out, final byte[] buffer, final int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int chunk = Math.min(remaining, buffer.length);
+            dis.readFully(buffer, 0, chunk);
+            out.write(buffer, 0, chunk);
+            remaining -= chunk;
+        }
+    }
+
+    private static List<Document> decodeBatch(final byte[] raw) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw));
+        List<Document> docs = new ArrayList<>(BATCH_SIZE);
+        Document doc;
+        while ((doc = readDocument(in)) != null) {
+            docs.add(doc);
+        }
+        return docs;
+    }
+
     private FSDirectory tempDirectory(final String name) throws IOException {
         return factory.open(
                 Files.createTempDirectory(tempStorage, name + ".dir").toFile());
@@ -317,11 +497,66 @@ public class IndexDataReader {
         } else {
             // these two fields are automatically handled in code above
             if (doc.getField(ArtifactInfo.ALL_GROUPS) == null && doc.getField(ArtifactInfo.ROOT_GROUPS) == null) {
-                indexWriter.addDocument(doc);
+                indexWriter.addDocument(IndexUtils.indexLastModified(doc));
             }
         }
     }
 
+    /**
+     * Applies the index data as an incremental chunk directly to the index writer of the given context, without
+     * building an intermediate index: artifact documents replace the ones having the same UINFO, deletion markers
+     * delete them (and are kept, replacing earlier markers of the same artifact, to not lose the deletion history), in
+     * the order of the records, so applying a chunk again has no further effect. Records accepted by both the
+     * extraction filter of this reader and the given document filter are applied. The writer is not committed.
+     *
+     * @param documentFilter filter applied to the records to apply, may be {@code null}
+     * @since 7.1.7
+     */
+    public IndexDataReadResult applyIndex(
+            final IndexWriter w, final IndexingContext context, final DocumentFilter documentFilter)
+            throws IOException {
+        long timestamp = readHeader();
+
+        int n = 0;
+
+        Document doc;
+        Set<String> rootGroups = new HashSet<>();
+        Set<String> allGroups = new HashSet<>();
+
+        while ((doc = readDocument()) != null) {
+            n++;
+
+            ArtifactInfo ai = IndexUtils.constructArtifactInfo(doc, context);
+            if (ai != null) {
+                if (filter != null && !filter.accept(doc)) {
+                    continue;
+                }
+
+                Document document = IndexUtils.updateDocument(doc, context, false, ai);
+                if (documentFilter == null || documentFilter.accept(document)) {
+                    w.updateDocument(new Term(ArtifactInfo.UINFO, ai.getUinfo()), document);
+                    rootGroups.add(ai.getRootGroup());
+                    allGroups.add(ai.getGroupId());
+                }
+            } else {
+                // the descriptor and groups records are not applied, the context has its own
+                String deleted = doc.get(ArtifactInfo.DELETED);
+                if (deleted != null && (documentFilter == null || documentFilter.accept(doc))) {
+                    w.deleteDocuments(new Term(ArtifactInfo.UINFO, deleted));
+                    // replacing the marker of a previous (partial) application of the chunk
+                    w.updateDocument(IndexUtils.indexDeleted(doc), IndexUtils.indexLastModified(doc));
+                }
+            }
+        }
+
+        IndexDataReadResult result = new IndexDataReadResult();
+        result.setDocumentCount(n);
+        result.setTimestamp(timestamp == -1 ? null : new Date(timestamp));
+        result.setRootGroups(rootGroups);
+        result.setAllGroups(allGroups);
+        return result;
+    }
+
     public long readHeader() throws IOException {
         final byte hdrbyte = (byte) ((IndexDataWriter.VERSION << 24) >> 24);
 
@@ -334,9 +569,14 @@ public class IndexDataReader {
     }
 
     public Document readDocument() throws IOException {
+        return readDocument(dis);
+    }
+
+    private static Document readDocument(final DataInput in) throws IOException {
+        final DecodeBuffers buffers = BUFFERS.get();
         int fieldCount;
         try {
-            fieldCount = dis.readInt();
+            fieldCount = in.readInt();
         } catch (EOFException ex) {
             return null; // no more documents
         }
@@ -344,7 +584,7 @@ public class IndexDataReader {
         Document doc = new Document();
 
         for (int i = 0; i < fieldCount; i++) {
-            doc.add(readField());
+            doc.add(readField(in, buffers));
         }
 
         // Fix up UINFO field wrt MINDEXER-41
@@ -367,9 +607,18 @@ public class IndexDataReader {
         return doc;
     }
 
-    private Field readField() throws IOException {
-        int flags = dis.read();
+    private static Field readField(final DataInput in, final DecodeBuffers buffers) throws IOException {
+        int flags = in.readUnsignedByte();
+
+        FieldType fieldType = FIELD_TYPES[flags & FIELD_TYPE_MASK];
+
+        String name = buffers.readName(in);
+        String value = buffers.readValue(in);
 
+        return new Field(name, value, fieldType);
+    }
+
+    private static FieldType fieldType(final int flags) {
         FieldType fieldType = new FieldType();
         if ((flags & IndexDataWriter.F_INDEXED) > 0) {
             boolean tokenized = (flags & IndexDataWriter.F_TOKENIZED) > 0;
@@ -377,96 +626,158 @@ public class IndexDataReader {
         }
         fieldType.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS);
         fieldType.setStored((flags & IndexDataWriter.F_STORED) > 0);
+        fieldType.freeze();
+        return fieldType;
+    }
 
-        String name = dis.readUTF();
-        String value = readUTF(dis);
+    /**
+     * Per-thread scratch buffers used to decode field names and values, and a small cache of the already seen field
+     * names. The transfer format uses a small, fixed set of field names, so these are decoded only once per thread.
+     * Buffers grown for values larger than {@link #MAX_RETAINED_LENGTH} (like class names of big artifacts) are
+     * dropped right after decoding, so threads do not keep them.
+     */
+    private static final class DecodeBuffers {
+        private static final int MAX_CACHED_NAMES = 64;
 
-        return new Field(name, value, fieldType);
-    }
+        private static final int INITIAL_LENGTH = 1024;
 
-    private static String readUTF(DataInput in) throws IOException {
-        int utflen = in.readInt();
+        private static final int MAX_RETAINED_LENGTH = 64 * 1024;
 
-        byte[] bytearr;
-        char[] chararr;
+        private final byte[][] nameBytes = new byte[MAX_CACHED_NAMES][];
 
-        try {
-            bytearr = new byte[utflen];
-            chararr = new char[utflen];
-        } catch (OutOfMemoryError e) {
-            throw new IOException(
-                    "Index data content is inappropriate (is junk?), leads to OutOfMemoryError!"
-                            + " See MINDEXER-28 for more information!",
-                    e);
-        }
+        private final String[] names = new String[MAX_CACHED_NAMES];
 
-        int c, char2, char3;
-        int count = 0;
-        int chararrCount = 0;
+        private int nameCount;
 
-        in.readFully(bytearr, 0, utflen);
+        private byte[] bytes = new byte[INITIAL_LENGTH];
 
-        while (count < utflen) {
-            c = bytearr[count] & 0xff;
-            if (c > 127) {
-                break;
+        private char[] chars = new char[INITIAL_LENGTH];
+
+        /**
+         * Reads a name written by {@link java.io.DataOutput#writeUTF(String)}, returning cached instance if possible.
+         */
+        String readName(final DataInput in) throws IOException {
+            int len = in.readUnsignedShort();
+            ensureCapacity(len);
+            in.readFully(bytes, 0, len);
+            for (int i = 0; i < nameCount; i++) {
+                if (Arrays.equals(nameBytes[i], 0, nameBytes[i].length, bytes, 0, len)) {
+                    return names[i];
+                }
             }
-            count++;
-            chararr[chararrCount++] = (char) c;
-        }
-
-        while (count < utflen) {
-            c = bytearr[count] & 0xff;
-            switch (c >> 4) {
-                case 0:
-                case 1:
-                case 2:
-                case 3:
-                case 4:
-                case 5:
-                case 6:
-                case 7:
-                    /* 0xxxxxxx */
-                    count++;
-                    chararr[chararrCount++] = (char) c;
-                    break;
+            String name = decode(len);
+            if (nameCount < MAX_CACHED_NAMES) {
+                nameBytes[nameCount] = Arrays.copyOf(bytes, len);
+                names[nameCount] = name;
+                nameCount++;
+            }
+            return name;
+        }
 
-                case 12:
-                case 13:
-                    /* 110x xxxx 10xx xxxx */
-                    count += 2;
-                    if (count > utflen) {
-                        throw new UTFDataFormatException("malformed input: partial character at end");
-                    }
-                    char2 = bytearr[count - 1];
-                    if ((char2 & 0xC0) != 0x80) {
-                        throw new UTFDataFormatException("malformed input around byte " + count);
-                    }
-                    chararr[chararrCount++] = (char) (((c & 0x1F) << 6) | (char2 & 0x3F));
-                    break;
+        /**
+         * Reads a value written by {@code IndexDataWriter#writeUTF(String, DataOutput)}, that uses int length.
+         */
+        String readValue(final DataInput in) throws IOException {
+            int len = in.readInt();
+            ensureCapacity(len);
+            in.readFully(bytes, 0, len);
+            String value = decode(len);
+            if (bytes.length > MAX_RETAINED_LENGTH) {
+                bytes = new byte[INITIAL_LENGTH];
+                chars = new char[INITIAL_LENGTH];
+            }
+            return value;
+        }
 
-                case 14:
-                    /* 1110 xxxx 10xx xxxx 10xx xxxx */
-                    count += 3;
-                    if (count > utflen) {
-                        throw new UTFDataFormatException("malformed input: partial character at end");
-                    }
-                    char2 = bytearr[count - 2];
-                    char3 = bytearr[count - 1];
-                    if (((char2 & 0xC0) != 0x80) || ((char3 & 0xC0) != 0x80)) {
-                        throw new UTFDataFormatException("malformed input around byte " + (count - 1));
-                    }
-                    chararr[chararrCount++] = (char) (((c & 0x0F) << 12) | ((char2 & 0x3F) << 6) | ((char3 & 0x3F)));
+        private void ensureCapacity(final int len) throws IOException {
+            if (len < 0) {
+                throw new IOException("Index data content is inappropriate (is junk?), negative field length!"
+                        + " See MINDEXER-28 for more information!");
+            }
+            if (len > bytes.length) {
+                try {
+                    bytes = new byte[len];
+                    chars = new char[len];
+                } catch (OutOfMemoryError e) {
+                    throw new IOException(
+                            "Index data content is inappropriate (is junk?), leads to OutOfMemoryError!"
+                                    + " See MINDEXER-28 for more information!",
+                            e);
+                }
+            }
+        }
+
+        private String decode(final int utflen) throws IOException {
+            final byte[] bytearr = bytes;
+            final char[] chararr = chars;
+
+            int c, char2, char3;
+            int count = 0;
+            int chararrCount = 0;
+
+            while (count < utflen) {
+                c = bytearr[count] & 0xff;
+                if (c > 127) {
                     break;
+                }
+                count++;
+                chararr[chararrCount++] = (char) c;
+            }
+
+            while (count < utflen) {
+                c = bytearr[count] & 0xff;
+                switch (c >> 4) {
+                    case 0:
+                    case 1:
+                    case 2:
+                    case 3:
+                    case 4:
+                    case 5:
+                    case 6:
+                    case 7:
+                        /* 0xxxxxxx */
+                        count++;
+                        chararr[chararrCount++] = (char) c;
+                        break;
+
+                    case 12:
+                    case 13:
+                        /* 110x xxxx 10xx xxxx */
+                        count += 2;
+                        if (count > utflen) {
+                            throw new UTFDataFormatException("malformed input: partial character at end");
+                        }
+                        char2 = bytearr[count - 1];
+                        if ((char2 & 0xC0) != 0x80) {
+                            throw new UTFDataFormatException("malformed input around byte " + count);
+                        }
+                        chararr[chararrCount++] = (char) (((c & 0x1F) << 6) | (char2 & 0x3F));
+                        break;
+
+                    case 14:
+                        /* 1110 xxxx 10xx xxxx 10xx xxxx */
+                        count += 3;
+                        if (count > utflen) {
+                            throw new UTFDataFormatException("malformed input: partial character at end");
+                        }
+                        char2 = bytearr[count - 2];
+                        char3 = bytearr[count - 1];
+                        if (((char2 & 0xC0) != 0x80) || ((char3 & 0xC0) != 0x80)) {
+                            throw new UTFDataFormatException("malformed input around byte " + (count - 1));
+                        }
+                        chararr[chararrCount++] =
+                                (char) (((c & 0x0F) << 12) | ((char2 & 0x3F) << 6) | ((char3 & 0x3F)));
+                        break;
 
-                default:
-                    /* 10xx xxxx, 1111 xxxx */
-                    throw new UTFDataFormatException("malformed input around byte " + count);
+                    default:
+                        /* 10xx xxxx, 1111 xxxx */
+                        throw new UTFDataFormatException("malformed input around byte " + count);
+                }
             }
-        }
 
-        // The number of chars produced may be less than utflen
-        return new String(chararr, 0, chararrCount);
+            // The number of chars produced may be less than utflen
+            return new String(chararr, 0, chararrCount);
+        }
     }
 
     /**
@@ -35,7 +35,10 @@ import org.apache.lucene.index.IndexOptions;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexableField;
 import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.search.DocIdSetIterator;
 import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.IndexerField;
 import org.apache.maven.index.context.DefaultIndexingContext;
@@ -85,6 +88,24 @@ public class IndexDataWriter {
         return n;
     }
 
+    /**
+     * Writes the index data of the selected documents only, as incremental chunks are written.
+     *
+     * @param docs the document ids of the index reader to write, or {@code null} to write all documents
+     * @since 7.1.7
+     */
+    public int writeChunk(IndexingContext context, IndexReader indexReader, FixedBitSet docs) throws IOException {
+        writeHeader(context);
+
+        int n = writeDocuments(indexReader, docs);
+
+        writeGroupFields(context);
+
+        close();
+
+        return n;
+    }
+
     public void close() throws IOException {
         dos.flush();
 
@@ -95,13 +116,21 @@ public class IndexDataWriter {
     }
 
     public void writeHeader(IndexingContext context) throws IOException {
-        dos.writeByte(VERSION);
+        writeHeader(context, dos);
+    }
+
+    static void writeHeader(IndexingContext context, DataOutput out) throws IOException {
+        out.writeByte(VERSION);
 
         Date timestamp = context.getTimestamp();
-        dos.writeLong(timestamp == null ? -1 : timestamp.getTime());
+        out.writeLong(timestamp == null ? -1 : timestamp.getTime());
     }
 
     public void writeGroupFields(IndexingContext context) throws IOException {
+        writeGroupFields(context, dos);
+    }
+
+    static void writeGroupFields(IndexingContext context, DataOutput out) throws IOException {
         {
             List<IndexableField> allGroupsFields = new ArrayList<>(2);
             allGroupsFields.add(
@@ -110,7 +139,7 @@ public class IndexDataWriter {
                     ArtifactInfo.ALL_GROUPS_LIST,
                     ArtifactInfo.lst2str(context.getAllGroups()),
                     IndexerField.KEYWORD_STORED));
-            writeDocumentFields(allGroupsFields);
+            writeDocumentFields(allGroupsFields, out);
         }
 
         {
@@ -121,7 +150,7 @@ public class IndexDataWriter {
                     ArtifactInfo.ROOT_GROUPS_LIST,
                     ArtifactInfo.lst2str(context.getRootGroups()),
                     IndexerField.KEYWORD_STORED));
-            writeDocumentFields(rootGroupsFields);
+            writeDocumentFields(rootGroupsFields, out);
         }
     }
 
@@ -150,6 +179,38 @@ public class IndexDataWriter {
         return n;
     }
 
+    /**
+     * @param docs the document ids of the index reader to write, or {@code null} to write all documents
+     * @since 7.1.7
+     */
+    public int writeDocuments(IndexReader r, FixedBitSet docs) throws IOException {
+        int n = 0;
+        Bits liveDocs = MultiBits.getLiveDocs(r);
+        StoredFields storedFields = r.storedFields();
+
+        int i = nextDoc(docs, 0, r.maxDoc());
+        while (i != DocIdSetIterator.NO_MORE_DOCS) {
+            if (liveDocs == null || liveDocs.get(i)) {
+                if (writeDocument(storedFields.document(i))) {
+                    n++;
+                }
+            }
+            i = nextDoc(docs, i + 1, r.maxDoc());
+        }
+
+        return n;
+    }
+
+    /**
+     * Returns the next document id from the given one on, selected by the bitset (all when {@code null}).
+     */
+    static int nextDoc(FixedBitSet docs, int from, int maxDoc) {
+        if (docs == null) {
+            return from < maxDoc ? from : DocIdSetIterator.NO_MORE_DOCS;
+        }
+        return from < Math.min(docs.length(), maxDoc) ? docs.nextSetBit(from) : DocIdSetIterator.NO_MORE_DOCS;
+    }
+
     public boolean writeDocument(final Document document) throws IOException {
         List<IndexableField> fields = document.getFields();
 
@@ -175,14 +236,22 @@ public class IndexDataWriter {
     }
 
     public void writeDocumentFields(List<IndexableField> fields) throws IOException {
-        dos.writeInt(fields.size());
+        writeDocumentFields(fields, dos);
+    }
+
+    static void writeDocumentFields(List<IndexableField> fields, DataOutput out) throws IOException {
+        out.writeInt(fields.size());
 
         for (IndexableField field : fields) {
-            writeField(field);
+            writeField(field, out);
         }
     }
 
     public void writeField(IndexableField field) throws IOException {
+        writeField(field, dos);
+    }
+
+    static void writeField(IndexableField field, DataOutput out) throws IOException {
         int flags = (field.fieldType().indexOptions() != IndexOptions.NONE ? F_INDEXED : 0) //
                 + (field.fieldType().tokenized() ? F_TOKENIZED : 0) //
                 + (field.fieldType().stored() ? F_STORED : 0); //
@@ -191,9 +260,9 @@ public class IndexDataWriter {
         String name = field.name();
         String value = field.stringValue();
 
-        dos.write(flags);
-        dos.writeUTF(name);
-        writeUTF(value, dos);
+        out.write(flags);
+        out.writeUTF(name);
+        writeUTF(value, out);
     }
 
     private static void writeUTF(String str, DataOutput out) throws IOException {
@@ -57,6 +57,12 @@ public class IndexUpdateRequest {
 
     private int threads;
 
+    private int chunkThreads;
+
+    private boolean applyChunksDirectly;
+
+    private SharedChunkCache sharedChunkCache;
+
     public IndexUpdateRequest(final IndexingContext context, final ResourceFetcher resourceFetcher) {
         assert context != null : "Context to be updated cannot be null!";
         assert resourceFetcher != null : "ResourceFetcher has to be provided!";
@@ -66,6 +72,7 @@ public class IndexUpdateRequest {
         this.forceFullUpdate = false;
         this.incrementalOnly = false;
         this.threads = 1;
+        this.chunkThreads = 1;
     }
 
     public IndexingContext getIndexingContext() {
@@ -163,4 +170,60 @@ public class IndexUpdateRequest {
     public void setThreads(int threads) {
         this.threads = threads;
     }
+
+    /**
+     * @since 7.1.7
+     */
+    public int getChunkThreads() {
+        return chunkThreads;
+    }
+
+    /**
+     * Sets the count of incremental chunks fetched and unpacked concurrently, while catching up with several chunks.
+     * When greater than one, the {@link ResourceFetcher} has to support concurrent retrieval. Defaults to 1.
+     *
+     * @since 7.1.7
+     */
+    public void setChunkThreads(int chunkThreads) {
+        if (chunkThreads < 1) {
+            throw new IllegalArgumentException("Chunk threads must be greater than zero: " + chunkThreads);
+        }
+        this.chunkThreads = chunkThreads;
+    }
+
+    /**
+     * @since 7.1.7
+     */
+    public boolean isApplyChunksDirectly() {
+        return applyChunksDirectly;
+    }
+
+    /**
+     * Sets whether incremental chunks are applied as they are decoded directly to the index of the context, instead of
+     * being unpacked into a temporary index first and merged from there. Artifacts of a chunk then replace the ones
+     * already in the context. Not used when {@link IndexUpdateSideEffect}s are present, as those need the unpacked
+     * index. Defaults to {@code false}.
+     *
+     * @since 7.1.7
+     */
+    public void setApplyChunksDirectly(boolean applyChunksDirectly) {
+        this.applyChunksDirectly = applyChunksDirectly;
+    }
+
+    /**
+     * @since 7.1.7
+     */
+    public SharedChunkCache getSharedChunkCache() {
+        return sharedChunkCache;
+    }
+
+    /**
+     * Sets the cache of incremental chunks shared with the updates of other contexts, that is consulted before
+     * retrieving chunks with the {@link ResourceFetcher}. Defaults to {@code null}, no shared cache.
+     *
+     * @since 7.1.7
+     */
+    public void setSharedChunkCache(SharedChunkCache sharedChunkCache) {
+        this.sharedChunkCache = sharedChunkCache;
+    }
 }
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.updater;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.maven.index.context.DefaultIndexingContext;
+import org.apache.maven.index.context.IndexingContext;
+
+/**
+ * An index data writer writing the same transfer index format as {@link IndexDataWriter}, but reading, serializing and
+ * compressing ranges of documents concurrently. The output is one GZIP member made of independently deflated blocks
+ * (as pigz does), hence it is readable by any GZIP reader.
+ *
+ * @since 7.1.7
+ */
+public class ParallelIndexDataWriter {
+    /**
+     * The count of documents serialized and compressed as one block.
+     */
+    static final int BLOCK_DOCUMENTS = 4096;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    private final OutputStream os;
+
+    private final int threads;
+
+    private final int blockDocuments;
+
+    private final AtomicBoolean descriptorWritten = new AtomicBoolean();
+
+    private final CRC32 crc = new CRC32();
+
+    private long size;
+
+    public ParallelIndexDataWriter(OutputStream os, int threads) {
+        this(os, threads, BLOCK_DOCUMENTS);
+    }
+
+    ParallelIndexDataWriter(OutputStream os, int threads, int blockDocuments) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be greater than zero: " + threads);
+        }
+        this.os = os;
+        this.threads = threads;
+        this.blockDocuments = blockDocuments;
+    }
+
+    /**
+     * Writes the index data, as {@link IndexDataWriter#writeChunk(IndexingContext, IndexReader, FixedBitSet)} does.
+     *
+     * @param docs the document ids of the index reader to write, or {@code null} to write all documents
+     */
+    public int write(IndexingContext context, IndexReader indexReader, FixedBitSet docs) throws IOException {
+        final Bits liveDocs = MultiBits.getLiveDocs(indexReader);
+        final AtomicInteger n = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // blocks are written in order, at most a few per thread are pending
+            final ArrayDeque<Future<Block>> pending = new ArrayDeque<>();
+            final int maxPending = threads * 2;
+
+            os.write(GZIP_HEADER);
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            IndexDataWriter.writeHeader(context, new DataOutputStream(header));
+            writeBlock(Block.deflate(header.toByteArray()));
+
+            final int maxDoc = indexReader.maxDoc();
+            int from = IndexDataWriter.nextDoc(docs, 0, maxDoc);
+            while (from != DocIdSetIterator.NO_MORE_DOCS) {
+                // a block spans the document ids of the next blockDocuments selected documents
+                final int start = from;
+                int next = from;
+                for (int i = 0; i < blockDocuments && next != DocIdSetIterator.NO_MORE_DOCS; i++) {
+                    next = IndexDataWriter.nextDoc(docs, next + 1, maxDoc);
+                }
+                final int end = next == DocIdSetIterator.NO_MORE_DOCS ? maxDoc : next;
+                from = next;
+
+                pending.add(executor.submit(() -> {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    DataOutputStream out = new DataOutputStream(bytes);
+                    StoredFields storedFields = indexReader.storedFields();
+                    for (int doc = start; doc < end; doc = IndexDataWriter.nextDoc(docs, doc + 1, end)) {
+                        if (liveDocs == null || liveDocs.get(doc)) {
+                            if (writeDocument(storedFields.document(doc), out)) {
+                                n.incrementAndGet();
+                            }
+                        }
+                    }
+                    out.flush();
+                    return Block.deflate(bytes.toByteArray());
+                }));
+
+                if (pending.size() >= maxPending) {
+                    writeBlock(await(pending.poll()));
+                }
+            }
+
+            while (!pending.isEmpty()) {
+                writeBlock(await(pending.poll()));
+            }
+
+            ByteArrayOutputStream groups = new ByteArrayOutputStream();
+            IndexDataWriter.writeGroupFields(context, new DataOutputStream(groups));
+            writeBlock(Block.deflate(groups.toByteArray()));
+
+            finish();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return n.get();
+    }
+
+    private boolean writeDocument(final Document document, final DataOutputStream out) throws IOException {
+        List<IndexableField> fields = document.getFields();
+
+        List<IndexableField> storedFields = new ArrayList<>(fields.size());
+
+        for (IndexableField field : fields) {
+            if (DefaultIndexingContext.FLD_DESCRIPTOR.equals(field.name())) {
+                if (!descriptorWritten.compareAndSet(false, true)) {
+                    return false;
+                }
+            }
+
+            if (field.fieldType().stored()) {
+                storedFields.add(field);
+            }
+        }
+
+        IndexDataWriter.writeDocumentFields(storedFields, out);
+
+        return true;
+    }
+
+    private void writeBlock(final Block block) throws IOException {
+        crc.update(block.data, 0, block.data.length);
+        size += block.data.length;
+        os.write(block.deflated);
+    }
+
+    private void finish() throws IOException {
+        // the last, empty block
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.finish();
+            byte[] buffer = new byte[64];
+            while (!deflater.finished()) {
+                int len = deflater.deflate(buffer);
+                os.write(buffer, 0, len);
+            }
+        } finally {
+            deflater.end();
+        }
+
+        writeInt((int) crc.getValue());
+        writeInt((int) size);
+        os.flush();
+    }
+
+    private void writeInt(final int i) throws IOException {
+        // little endian, as GZIP trailer is
+        os.write(i & 0xff);
+        os.write((i >> 8) & 0xff);
+        os.write((i >> 16) & 0xff);
+        os.write((i >> 24) & 0xff);
+    }
+
+    private static Block await(final Future<Block> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing index data");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to write index data", e.getCause());
+        }
+    }
+
+    /**
+     * Uncompressed data and its deflated form, ending on a byte boundary (sync flush), so blocks can be concatenated.
+     */
+    private static final class Block {
+        private final byte[] data;
+
+        private final byte[] deflated;
+
+        private Block(final byte[] data, final byte[] deflated) {
+            this.data = data;
+            this.deflated = deflated;
+        }
+
+        private static Block deflate(final byte[] data) {
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try {
+                deflater.setInput(data);
+                ByteArrayOutputStream deflated = new ByteArrayOutputStream(data.length / 4 + 64);
+                byte[] buffer = new byte[64 * 1024];
+                int len;
+                do {
+                    len = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    deflated.write(buffer, 0, len);
+                } while (len == buffer.length);
+                return new Block(data, deflated.toByteArray());
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+}
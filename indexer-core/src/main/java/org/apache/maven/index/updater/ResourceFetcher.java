@@ -42,6 +42,7 @@ public interface ResourceFetcher {
      * Retrieves resource as InputStream
      *
      * @param name a name of resource to retrieve
+     * @throws FileNotFoundException if the resource does not exist
      */
     InputStream retrieve(String name) throws IOException, FileNotFoundException;
 }
@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.updater;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.fs.Lock;
+import org.apache.maven.index.fs.Locker;
+import org.apache.maven.index.packer.DigesterUtils;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.io.RawInputStreamFacade;
+
+/**
+ * Size bounded cache of incremental index chunks, that may be shared by the updates of several contexts proxying
+ * overlapping indexes, so each chunk is downloaded and stored once. Chunks are keyed by the chain id of the index and
+ * the chunk number, as a chunk of a chain never changes (an index published anew starts a new chain). Downloaded chunks
+ * are checked against the SHA-1 published next to them, where there is one, and appear in the cache atomically, once
+ * verified. Their SHA-1 and size are recorded next to them, so cached chunks are served after a size check only,
+ * without reaching the source at all. Least recently used chunks are evicted once the cache grows over its maximum
+ * size. Changes of the cache directory are serialized within this instance, and across processes using the
+ * {@link Locker}, if given.
+ *
+ * @since 7.1.7
+ */
+public class SharedChunkCache {
+    private static final Pattern CHUNK_NAME =
+            Pattern.compile(Pattern.quote(IndexingContext.INDEX_FILE_PREFIX) + "\\.(\\d+)\\.gz");
+
+    private static final Pattern SHA1 = Pattern.compile("[0-9a-fA-F]{40}");
+
+    private static final String CHUNK_EXTENSION = ".gz";
+
+    private static final String LENGTH_EXTENSION = ".length";
+
+    private static final String SHA1_EXTENSION = ".sha1";
+
+    private final File directory;
+
+    private final long maxSize;
+
+    private final Locker locker;
+
+    public SharedChunkCache(File directory, long maxSize, Locker locker) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be greater than zero: " + maxSize);
+        }
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.locker = locker;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns a fetcher that serves the chunks of the given index chain out of this cache, retrieving and storing the
+     * missing ones from the source fetcher. Other resources are retrieved from the source fetcher.
+     */
+    public ResourceFetcher fetcher(final ResourceFetcher source, final String chainId) {
+        return new ResourceFetcher() {
+            @Override
+            public void connect(String id, String url) throws IOException {
+                source.connect(id, url);
+            }
+
+            @Override
+            public void disconnect() throws IOException {
+                source.disconnect();
+            }
+
+            @Override
+            public InputStream retrieve(String name) throws IOException {
+                return SharedChunkCache.this.retrieve(source, chainId, name);
+            }
+        };
+    }
+
+    InputStream retrieve(ResourceFetcher source, String chainId, String name) throws IOException {
+        Matcher matcher = CHUNK_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return source.retrieve(name);
+        }
+
+        String key = chainId.replaceAll("[^A-Za-z0-9._-]", "_") + "-" + matcher.group(1);
+        InputStream cached = open(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        String publishedSha1 = retrievePublishedSha1(source, name);
+
+        directory.mkdirs();
+        File temp = File.createTempFile(key, ".tmp", directory);
+        try {
+            MessageDigest digest = newSha1Digest();
+            FileUtils.copyStreamToFile(
+                    new RawInputStreamFacade(new DigestInputStream(source.retrieve(name), digest)), temp);
+            String sha1 = new String(DigesterUtils.encodeHex(digest.digest()));
+            if (publishedSha1 != null && !publishedSha1.equals(sha1)) {
+                throw new IOException("SHA-1 of " + name + " does not match the published one");
+            }
+            return store(key, temp, sha1);
+        } finally {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Opens the cached chunk and marks it as recently used, or returns {@code null} if not cached, or its size does not
+     * match the recorded one. As chunks are verified before they are stored, and are moved into the cache atomically,
+     * this neither locks nor reads the chunk.
+     */
+    private InputStream open(String key) {
+        File chunk = new File(directory, key + CHUNK_EXTENSION);
+        long length = readLength(key);
+        if (length < 0 || !chunk.isFile() || chunk.length() != length || readSha1(key) == null) {
+            return null;
+        }
+        InputStream result;
+        try {
+            result = new FileInputStream(chunk);
+        } catch (FileNotFoundException e) {
+            return null; // evicted meanwhile
+        }
+        chunk.setLastModified(System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * Moves the downloaded chunk into the cache (unless a concurrent update stored it meanwhile), evicts the least
+     * recently used chunks over the max size, and opens the cached chunk.
+     */
+    private InputStream store(String key, File temp, String sha1) throws IOException {
+        synchronized (this) {
+            Lock lock = lock();
+            try {
+                File chunk = new File(directory, key + CHUNK_EXTENSION);
+                if (!chunk.isFile() || chunk.length() != readLength(key) || !sha1.equals(readSha1(key))) {
+                    FileUtils.fileWrite(new File(directory, key + SHA1_EXTENSION).getAbsolutePath(), sha1);
+                    FileUtils.fileWrite(
+                            new File(directory, key + LENGTH_EXTENSION).getAbsolutePath(),
+                            Long.toString(temp.length()));
+                    Files.move(temp.toPath(), chunk.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                }
+                chunk.setLastModified(System.currentTimeMillis());
+                InputStream result = new FileInputStream(chunk);
+                evict(chunk);
+                return result;
+            } finally {
+                release(lock);
+            }
+        }
+    }
+
+    /**
+     * Deletes least recently used chunks, until the cache fits in the max size. The given chunk is kept, as it is
+     * being used. Chunks still open are deleted where the file system allows it, and otherwise kept until next time.
+     */
+    private void evict(File keep) {
+        File[] chunks = directory.listFiles((dir, name) -> name.endsWith(CHUNK_EXTENSION));
+        if (chunks == null) {
+            return;
+        }
+        long size = 0L;
+        for (File chunk : chunks) {
+            size += chunk.length();
+        }
+        Arrays.sort(chunks, Comparator.comparingLong(File::lastModified));
+        for (File chunk : chunks) {
+            if (size <= maxSize) {
+                break;
+            }
+            if (!chunk.equals(keep)) {
+                long length = chunk.length();
+                if (delete(chunk)) {
+                    size -= length;
+                }
+            }
+        }
+    }
+
+    private boolean delete(File chunk) {
+        String name = chunk.getName();
+        String key = name.substring(0, name.length() - CHUNK_EXTENSION.length());
+        new File(directory, key + LENGTH_EXTENSION).delete();
+        new File(directory, key + SHA1_EXTENSION).delete();
+        return chunk.delete();
+    }
+
+    /**
+     * Returns the recorded size of the cached chunk, or -1 if there is none.
+     */
+    private long readLength(String key) {
+        try {
+            return Long.parseLong(FileUtils.fileRead(new File(directory, key + LENGTH_EXTENSION)).trim());
+        } catch (IOException | NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Returns the recorded (verified) SHA-1 of the cached chunk, or {@code null} if there is none.
+     */
+    private String readSha1(String key) {
+        try {
+            String sha1 = FileUtils.fileRead(new File(directory, key + SHA1_EXTENSION)).trim();
+            return SHA1.matcher(sha1).matches() ? sha1 : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the (lower case) SHA-1 published next to the chunk, or {@code null} if there is none, that is if the
+     * source reports it missing with a {@link FileNotFoundException}. Other failures are not mistaken for a missing
+     * SHA-1, as the chunk would then be cached unverified.
+     */
+    private static String retrievePublishedSha1(ResourceFetcher source, String name) throws IOException {
+        InputStream is;
+        try {
+            is = source.retrieve(name + SHA1_EXTENSION);
+        } catch (FileNotFoundException e) {
+            return null; // not published
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.US_ASCII))) {
+            String line = reader.readLine();
+            // some tools append the file name to the digest
+            String sha1 = line == null || line.trim().length() < 40 ? null : line.trim().substring(0, 40);
+            return sha1 != null && SHA1.matcher(sha1).matches() ? sha1.toLowerCase(Locale.ENGLISH) : null;
+        }
+    }
+
+    private static MessageDigest newSha1Digest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException("Digest algorithm SHA-1 is not available", e);
+        }
+    }
+
+    private Lock lock() throws IOException {
+        if (locker == null) {
+            return null;
+        }
+        directory.mkdirs();
+        return locker.lock(directory);
+    }
+
+    private static void release(Lock lock) {
+        if (lock != null) {
+            lock.release();
+        }
+    }
+}
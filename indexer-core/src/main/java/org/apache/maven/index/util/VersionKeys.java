@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Byte comparable encoding of versions, ordered as {@code GenericVersionScheme} orders them, to compare versions
+ * without parsing them. Only versions of dot separated numbers, optionally with a {@code -SNAPSHOT} suffix (like
+ * {@code 1.2.3} or {@code 2.0-SNAPSHOT}), have a key, comparisons involving any other version must parse them.
+ * <p>
+ * A key is the sequence of the version's items, after dropping the trailing zeros the scheme ignores (but the first
+ * item), terminated by an end marker. Numbers are encoded as their length and digits, without leading zeros, so they
+ * sort numerically. Markers are ordered {@code SNAPSHOT < end < number}, as snapshots sort before the release, and
+ * longer versions after shorter ones.
+ *
+ * @since 7.1.7
+ */
+public final class VersionKeys {
+    private static final byte SNAPSHOT = 0x01;
+
+    private static final byte END = 0x02;
+
+    private static final byte NUMBER = 0x03;
+
+    private static final String SNAPSHOT_SUFFIX = "-SNAPSHOT";
+
+    private static final int MAX_DIGITS = 0xFF;
+
+    private VersionKeys() {
+        // no instances
+    }
+
+    /**
+     * Returns the key of the version, or {@code null} if the version has none.
+     */
+    public static byte[] encode(final String version) {
+        if (version == null || version.isEmpty()) {
+            return null;
+        }
+
+        final boolean snapshot = version.endsWith(SNAPSHOT_SUFFIX);
+        final int length = snapshot ? version.length() - SNAPSHOT_SUFFIX.length() : version.length();
+
+        // the start (inclusive) of number digits without leading zeros, and end (exclusive) of each number
+        int[] starts = new int[8];
+        int[] ends = new int[8];
+        int count = 0;
+
+        int start = 0;
+        while (true) {
+            int end = start;
+            while (end < length && version.charAt(end) >= '0' && version.charAt(end) <= '9') {
+                end++;
+            }
+            if (end == start || (end < length && version.charAt(end) != '.')) {
+                // empty number, or not a dot separated number
+                return null;
+            }
+            int digits = start;
+            while (digits < end - 1 && version.charAt(digits) == '0') {
+                digits++;
+            }
+            if (end - digits > MAX_DIGITS) {
+                return null;
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = digits;
+            ends[count] = end;
+            count++;
+
+            if (end == length) {
+                break;
+            }
+            start = end + 1;
+        }
+
+        // trailing zeros are padding, but the first item is kept
+        while (count > 1 && ends[count - 1] - starts[count - 1] == 1 && version.charAt(starts[count - 1]) == '0') {
+            count--;
+        }
+
+        ByteArrayOutputStream key = new ByteArrayOutputStream(length + 2 * count + 2);
+        for (int i = 0; i < count; i++) {
+            key.write(NUMBER);
+            key.write(ends[i] - starts[i]);
+            for (int c = starts[i]; c < ends[i]; c++) {
+                key.write(version.charAt(c));
+            }
+        }
+        if (snapshot) {
+            key.write(SNAPSHOT);
+        }
+        key.write(END);
+        return key.toByteArray();
+    }
+
+    /**
+     * Compares two keys, with the result having the sign of comparing the versions they were encoded from.
+     */
+    public static int compare(final byte[] key1, final byte[] key2) {
+        return Arrays.compareUnsigned(key1, key2);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.jar.Manifest;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.maven.index.context.DefaultIndexingContext;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.JarFileContentsIndexCreator;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+import org.apache.maven.index.creator.OsgiArtifactIndexCreator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ArtifactArchiveTest {
+    private static final File JAR = new File("src/test/nexus-4149/repo3/org/slf4j/slf4j-api/1.4.2/slf4j-api-1.4.2.jar");
+
+    private static final File POM = new File("src/test/nexus-4149/repo3/org/slf4j/slf4j-api/1.4.2/slf4j-api-1.4.2.pom");
+
+    @Test
+    public void testEntriesAndManifestAreCached() throws Exception {
+        try (ArtifactArchive archive = new ArtifactArchive(JAR)) {
+            assertTrue(archive.isZip());
+            assertEquals(28, archive.getEntryNames().size());
+            assertTrue(archive.hasEntry("META-INF/maven/org.slf4j/slf4j-api/pom.properties"));
+            assertFalse(archive.hasEntry("META-INF/maven/plugin.xml"));
+
+            byte[] properties = archive.getEntry("META-INF/maven/org.slf4j/slf4j-api/pom.properties");
+            assertNotNull(properties);
+            assertSame(properties, archive.getEntry("META-INF/maven/org.slf4j/slf4j-api/pom.properties"));
+            assertNull(archive.getEntryInputStream("META-INF/maven/plugin.xml"));
+
+            Manifest manifest = archive.getManifest();
+            assertNotNull(manifest);
+            assertSame(manifest, archive.getManifest());
+        }
+    }
+
+    @Test
+    public void testDigestsComputedInOnePass() throws Exception {
+        try (CountingArtifactArchive archive = new CountingArtifactArchive(JAR)) {
+            archive.requireDigest("SHA-1");
+            archive.requireDigest("SHA-256");
+
+            assertEquals("61fce919969d134a4fa2ba4fd5bf151ea63fce13", archive.getDigest("SHA-1"));
+            assertEquals(64, archive.getDigest("SHA-256").length());
+            // only the registered digests are computed
+            assertEquals(
+                    new HashSet<>(Arrays.asList("SHA-1", "SHA-256")),
+                    archive.getComputedDigests().keySet());
+            assertEquals(1, archive.digestPasses);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ArtifactArchive(JAR).requireDigest("NO-SUCH"));
+    }
+
+    @Test
+    public void testNotZip() throws Exception {
+        try (ArtifactArchive archive = new ArtifactArchive(POM)) {
+            assertFalse(archive.isZip());
+            assertThrows(ZipException.class, archive::getEntryNames);
+            assertThrows(ZipException.class, () -> archive.getEntry(ArtifactArchive.MANIFEST_ENTRY));
+            assertEquals(64, archive.getDigest("SHA-256").length());
+        }
+    }
+
+    @Test
+    public void testSharedWhileCreatingDocument() throws Exception {
+        ArtifactContext ac = new ArtifactContext(null, JAR, null, new ArtifactInfo(), null);
+        ArtifactArchive archive = ac.getArchive();
+        try (InputStream is = archive.getEntryInputStream(ArtifactArchive.MANIFEST_ENTRY)) {
+            assertNotNull(is);
+        }
+        ac.releaseArchive();
+        // released, but cached contents are kept and the file is reopened on demand
+        assertSame(archive, ac.getArchive());
+        assertTrue(archive.hasEntry("META-INF/maven/org.slf4j/slf4j-api/pom.properties"));
+        ac.releaseArchive();
+    }
+
+    @Test
+    public void testOpenedOncePerArtifact() throws Exception {
+        IndexingContext context = new DefaultIndexingContext(
+                "test",
+                "test",
+                null,
+                new ByteBuffersDirectory(),
+                null,
+                null,
+                Arrays.asList(
+                        new MinimalArtifactInfoIndexCreator(),
+                        new JarFileContentsIndexCreator(),
+                        new OsgiArtifactIndexCreator()),
+                true);
+        try {
+            ArtifactInfo ai = new ArtifactInfo("test", "org.slf4j", "slf4j-api", "1.4.2", null, "jar");
+            ArtifactContext ac = new ArtifactContext(null, JAR, null, ai, null) {
+                @Override
+                protected ArtifactArchive createArchive(final File artifact) {
+                    return new CountingArtifactArchive(artifact);
+                }
+            };
+            CountingArtifactArchive archive = (CountingArtifactArchive) ac.getArchive();
+            // as the scanner asks for it
+            archive.requireDigest("SHA-1");
+
+            ac.createDocument(context);
+
+            assertNotNull(ai.getClassNames());
+            assertEquals("slf4j.api", ai.getBundleSymbolicName());
+            assertEquals(64, ai.getSha256().length());
+            assertTrue(archive.getComputedDigests().containsKey("SHA-1"));
+            assertEquals(1, archive.opens);
+            assertEquals(1, archive.digestPasses);
+        } finally {
+            context.close(true);
+        }
+    }
+
+    private static final class CountingArtifactArchive extends ArtifactArchive {
+        private int opens;
+
+        private int digestPasses;
+
+        CountingArtifactArchive(final File file) {
+            super(file);
+        }
+
+        @Override
+        protected ZipFile openZipFile(final File file) throws IOException {
+            opens++;
+            return super.openZipFile(file);
+        }
+
+        @Override
+        protected FileChannel openChannel(final File file) throws IOException {
+            digestPasses++;
+            return super.openChannel(file);
+        }
+    }
+}
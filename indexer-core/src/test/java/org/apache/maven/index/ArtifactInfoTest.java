@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.aether.util.version.GenericVersionScheme;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+public class ArtifactInfoTest {
+    /**
+     * Sets every instance field to a value differing from its default, so a field added later and not copied fails
+     * here, instead of cached responses being handed out incomplete.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCopyCopiesEveryField() throws Exception {
+        ArtifactInfo original = new ArtifactInfo();
+        ArtifactInfo defaults = new ArtifactInfo();
+        List<Field> fields = new ArrayList<>();
+        for (Field field : ArtifactInfo.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            field.setAccessible(true);
+            fields.add(field);
+
+            Class<?> type = field.getType();
+            if (Map.class.isAssignableFrom(type)) {
+                ((Map<String, String>) field.get(original)).put(field.getName(), field.getName());
+            } else if (List.class.isAssignableFrom(type) && Modifier.isFinal(field.getModifiers())) {
+                ((List<Object>) field.get(original)).add(null);
+            } else if (Modifier.isFinal(field.getModifiers())) {
+                continue; // set by the constructor
+            } else if (type == String.class) {
+                field.set(original, field.getName());
+            } else if (type == long.class) {
+                field.setLong(original, 42L);
+            } else if (type == float.class) {
+                field.setFloat(original, 0.5f);
+            } else if (type == byte[].class) {
+                field.set(original, new byte[] {1});
+            } else if (type == ArtifactAvailability.class) {
+                field.set(original, ArtifactAvailability.PRESENT);
+            } else if (type == List.class) {
+                field.set(original, new ArrayList<>(Collections.singletonList(null)));
+            } else if (type == org.eclipse.aether.version.Version.class) {
+                field.set(original, new GenericVersionScheme().parseVersion("1.0"));
+            } else {
+                fail("No test value for field " + field.getName() + " of " + type);
+            }
+            assertFalse(
+                    Objects.deepEquals(field.get(defaults), field.get(original)),
+                    "Test value of field " + field.getName() + " is its default");
+        }
+        assertTrue(fields.size() > 40);
+
+        ArtifactInfo copy = original.copy();
+
+        for (Field field : fields) {
+            Object value = field.get(original);
+            Object copied = field.get(copy);
+            assertTrue(Objects.deepEquals(value, copied), "Field " + field.getName() + " is not copied");
+            if (value instanceof Map || value instanceof List) {
+                assertNotSame(value, copied, "Field " + field.getName() + " is shared with the copy");
+            } else if (Modifier.isFinal(field.getModifiers())) {
+                assertSame(value, copied, field.getName());
+            }
+        }
+        assertEquals(original.getUinfo(), copy.getUinfo());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.maven.index.artifact.Gav;
+import org.apache.maven.index.context.DefaultIndexingContext;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DefaultIndexerEngineTest {
+    private final DefaultIndexerEngine indexerEngine = new DefaultIndexerEngine();
+
+    private IndexingContext context;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        context = new DefaultIndexingContext(
+                "test",
+                "test",
+                null,
+                new ByteBuffersDirectory(),
+                null,
+                null,
+                Collections.singletonList(new MinimalArtifactInfoIndexCreator()),
+                true);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        context.close(true);
+    }
+
+    @Test
+    public void testBatchUpdate() throws Exception {
+        indexerEngine.update(context, Arrays.asList(artifact("a", "A"), artifact("b", "B")));
+        context.commit();
+        final int size = context.getSize();
+        assertEquals("A", getName("a"));
+        assertEquals("B", getName("b"));
+
+        // unchanged artifacts are not written
+        indexerEngine.update(context, Arrays.asList(artifact("a", "A"), artifact("b", "B")));
+        assertFalse(context.getIndexWriter().hasUncommittedChanges());
+
+        // changed and new artifacts are
+        indexerEngine.update(context, Arrays.asList(artifact("a", "A"), artifact("b", "B2"), artifact("c", "C")));
+        assertTrue(context.getIndexWriter().hasUncommittedChanges());
+        assertEquals(size + 1, context.getSize());
+        assertEquals("A", getName("a"));
+        assertEquals("B2", getName("b"));
+        assertEquals("C", getName("c"));
+        assertTrue(context.getAllGroups().contains("org.example"));
+    }
+
+    @Test
+    public void testSingleUpdate() throws Exception {
+        indexerEngine.update(context, artifact("a", "A"));
+        context.commit();
+
+        indexerEngine.update(context, artifact("a", "A"));
+        assertFalse(context.getIndexWriter().hasUncommittedChanges());
+
+        indexerEngine.update(context, artifact("a", "A2"));
+        assertEquals("A2", getName("a"));
+    }
+
+    private static ArtifactContext artifact(String artifactId, String name) {
+        ArtifactInfo ai = new ArtifactInfo("test", "org.example", artifactId, "1.0", null, "jar");
+        ai.setName(name);
+        return new ArtifactContext(null, null, null, ai, new Gav("org.example", artifactId, "1.0"));
+    }
+
+    private String getName(String artifactId) throws Exception {
+        String uinfo = new ArtifactInfo("test", "org.example", artifactId, "1.0", null, "jar").getUinfo();
+        IndexSearcher searcher = context.acquireIndexSearcher();
+        try {
+            TopDocs topDocs = searcher.search(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo)), 2);
+            assertEquals(1, topDocs.totalHits.value);
+            return searcher.storedFields().document(topDocs.scoreDocs[0].doc).get(ArtifactInfo.NAME);
+        } finally {
+            context.releaseIndexSearcher(searcher);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class DefaultScannerListenerTest extends AbstractNexusIndexerTest {
+    private static final String SLF4J_API_1_4_1 = "org.slf4j|slf4j-api|1.4.1|NA|jar";
+
+    private static final String SLF4J_API_1_4_1_SOURCES = "org.slf4j|slf4j-api|1.4.1|sources|jar";
+
+    private static final String SLF4J_API_1_4_2 = "org.slf4j|slf4j-api|1.4.2|NA|jar";
+
+    private File repo;
+
+    @Override
+    protected void prepareNexusIndexer(NexusIndexer nexusIndexer) throws Exception {
+        repo = Files.createTempDirectory("scanner-listener").toFile();
+        FileUtils.copyDirectoryStructure(new File(getBasedir(), "src/test/nexus-4149/repo3"), repo);
+
+        context = nexusIndexer.addIndexingContext("test-listener", "test", repo, indexDir, null, null, MIN_CREATORS);
+    }
+
+    @Override
+    protected void unprepareNexusIndexer(NexusIndexer nexusIndexer) throws Exception {
+        super.unprepareNexusIndexer(nexusIndexer);
+        FileUtils.deleteDirectory(repo);
+    }
+
+    private ScanningResult scan(boolean update, int threads) throws Exception {
+        ScanningRequest request = new ScanningRequest(
+                context, new DefaultScannerListener(context, lookup(IndexerEngine.class), update, null));
+        request.setThreads(threads);
+        ScanningResult result = lookup(Scanner.class).scan(request);
+        assertFalse(result.hasExceptions(), result.getExceptions().toString());
+        return result;
+    }
+
+    private int count(String uinfo) throws Exception {
+        IndexSearcher searcher = context.acquireIndexSearcher();
+        try {
+            return searcher.count(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo)));
+        } finally {
+            context.releaseIndexSearcher(searcher);
+        }
+    }
+
+    @Test
+    public void testUpdateScanSkipsIndexedAndRemovesDeleted() throws Exception {
+        ScanningResult first = scan(false, 1);
+        int indexed = first.getTotalFiles();
+        assertEquals(1, count(SLF4J_API_1_4_1));
+
+        // nothing changed: all artifacts are indexed already
+        ScanningResult second = scan(true, 4);
+        assertEquals(0, second.getTotalFiles());
+        assertEquals(0, second.getDeletedFiles());
+
+        FileUtils.deleteDirectory(new File(repo, "org/slf4j/slf4j-api/1.4.1"));
+        ScanningResult third = scan(true, 1);
+        assertEquals(0, third.getTotalFiles());
+        assertEquals(2, third.getDeletedFiles());
+        assertEquals(0, count(SLF4J_API_1_4_1));
+        assertEquals(0, count(SLF4J_API_1_4_1_SOURCES));
+        assertEquals(1, count(SLF4J_API_1_4_2));
+        assertEquals(indexed - 2, scan(false, 1).getTotalFiles());
+    }
+
+    @Test
+    public void testRediscoveredArtifactsAreProcessedOnce() throws Exception {
+        int indexed = scan(false, 1).getTotalFiles();
+
+        DefaultScannerListener listener = new DefaultScannerListener(context, lookup(IndexerEngine.class), true, null);
+        ScanningResult result = new ScanningResult(new ScanningRequest(context, listener));
+        listener.scanningStarted(context);
+        for (int i = 0; i < 2; i++) {
+            // indexed when scanning started, and new
+            listener.artifactDiscovered(artifactContext("slf4j-api", "1.4.1"));
+            listener.artifactDiscovered(artifactContext("demo", "1.0"));
+        }
+        listener.scanningFinished(context, result);
+
+        assertFalse(result.hasExceptions(), result.getExceptions().toString());
+        assertEquals(1, result.getTotalFiles());
+        assertEquals(indexed - 1, result.getDeletedFiles());
+        assertEquals(1, count(SLF4J_API_1_4_1));
+        assertEquals(1, count("org.slf4j|demo|1.0|NA|jar"));
+    }
+
+    private static ArtifactContext artifactContext(String artifactId, String version) {
+        ArtifactInfo ai = new ArtifactInfo("test", "org.slf4j", artifactId, version, null, "jar");
+        return new ArtifactContext(null, null, null, ai, ai.calculateGav());
+    }
+}
@@ -20,27 +20,48 @@ package org.apache.maven.index;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.store.Directory;
 import org.apache.maven.index.context.DefaultIndexingContext;
 import org.apache.maven.index.context.ExistingLuceneIndexMismatchException;
 import org.apache.maven.index.context.IndexCreator;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.JarFileContentsIndexCreator;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+import org.apache.maven.index.search.grouping.GAGrouping;
 import org.apache.maven.index.util.IndexCreatorSorter;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DefaultSearchEngineTest extends AbstractNexusIndexerTest {
 
     private static class CountingIndexingContext extends DefaultIndexingContext {
         public int count;
 
+        public long acquireDelay;
+
         public CountingIndexingContext(
                 String id,
                 String repositoryId,
@@ -63,6 +84,13 @@ public class DefaultSearchEngineTest extends AbstractNexusIndexerTest {
         }
 
         public IndexSearcher acquireIndexSearcher() throws IOException {
+            if (acquireDelay > 0L) {
+                try {
+                    Thread.sleep(acquireDelay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
             try {
                 return super.acquireIndexSearcher();
             } finally {
@@ -125,4 +153,292 @@ public class DefaultSearchEngineTest extends AbstractNexusIndexerTest {
 
         assertEquals(0, ((CountingIndexingContext) context).count);
     }
+
+    @Test
+    public void testConcurrentSearch() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "qdox", SearchType.SCORED);
+        List<IndexingContext> contexts = Arrays.asList(context, context, context);
+
+        FlatSearchResponse sequential = searchEngine.forceSearchFlatPaged(new FlatSearchRequest(q), contexts);
+        GroupedSearchResponse sequentialGrouped = searchEngine.forceSearchGrouped(
+                new GroupedSearchRequest(q, new GAGrouping()), contexts);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        SearchEngine concurrentEngine = new DefaultSearchEngine(executor);
+        try {
+            FlatSearchResponse concurrent = concurrentEngine.forceSearchFlatPaged(new FlatSearchRequest(q), contexts);
+            GroupedSearchResponse concurrentGrouped = concurrentEngine.forceSearchGrouped(
+                    new GroupedSearchRequest(q, new GAGrouping()), contexts);
+
+            assertTrue(sequential.getTotalHitsCount() > 0);
+            assertEquals(sequential.getTotalHitsCount(), concurrent.getTotalHitsCount());
+            assertEquals(sequential.getResults(), concurrent.getResults());
+            assertEquals(sequentialGrouped.getTotalHitsCount(), concurrentGrouped.getTotalHitsCount());
+            assertEquals(
+                    sequentialGrouped.getResults().keySet(),
+                    concurrentGrouped.getResults().keySet());
+            assertTrue(concurrent.getTimedOutContexts().isEmpty());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, ((CountingIndexingContext) context).count);
+    }
+
+    @Test
+    public void testPublicSearchesGoThroughExtensionPoints() throws Exception {
+        List<String> calls = new ArrayList<>();
+        DefaultSearchEngine engine = new DefaultSearchEngine() {
+            @Override
+            protected int searchFlat(
+                    FlatSearchRequest req,
+                    Collection<ArtifactInfo> result,
+                    List<IndexingContext> participatingContexts,
+                    Query query,
+                    SearchState state)
+                    throws IOException {
+                calls.add("flat");
+                return super.searchFlat(req, result, participatingContexts, query, state);
+            }
+
+            @Override
+            protected int searchGrouped(
+                    GroupedSearchRequest req,
+                    Map<String, ArtifactInfoGroup> result,
+                    Grouping grouping,
+                    List<IndexingContext> participatingContexts,
+                    Query query,
+                    SearchState state)
+                    throws IOException {
+                calls.add("grouped");
+                return super.searchGrouped(req, result, grouping, participatingContexts, query, state);
+            }
+        };
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "qdox", SearchType.SCORED);
+
+        assertTrue(engine.forceSearchFlatPaged(new FlatSearchRequest(q), Collections.singletonList(context))
+                        .getTotalHitsCount()
+                > 0);
+        engine.forceSearchGrouped(new GroupedSearchRequest(q, new GAGrouping()), Collections.singletonList(context));
+        // the baseline overloads delegate as well
+        engine.searchFlat(new FlatSearchRequest(q), new ArrayList<>(), Collections.singletonList(context), q);
+        engine.searchGrouped(
+                new GroupedSearchRequest(q, new GAGrouping()),
+                new TreeMap<>(),
+                new GAGrouping(),
+                Collections.singletonList(context),
+                q);
+
+        assertEquals(Arrays.asList("flat", "grouped", "flat", "grouped"), calls);
+    }
+
+    @Test
+    public void testSearchTimeout() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "qdox", SearchType.SCORED);
+        FlatSearchRequest request = new FlatSearchRequest(q);
+        request.setTimeout(10);
+
+        // an executor that never gets to run the searches
+        SearchEngine concurrentEngine = new DefaultSearchEngine(command -> {});
+        FlatSearchResponse response = concurrentEngine.forceSearchFlatPaged(request, Arrays.asList(context, context));
+
+        assertEquals(0, response.getTotalHitsCount());
+        assertTrue(response.getResults().isEmpty());
+        assertEquals(Arrays.asList(context.getId(), context.getId()), response.getTimedOutContexts());
+    }
+
+    @Test
+    public void testSearchTimeoutWithinContext() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "qdox", SearchType.SCORED);
+        FlatSearchRequest request = new FlatSearchRequest(q);
+        request.setTimeout(10);
+
+        // searched on the calling thread, the context is past the deadline once its searcher is acquired
+        ((CountingIndexingContext) context).acquireDelay = 50L;
+        try {
+            FlatSearchResponse response = searchEngine.forceSearchFlatPaged(request, Arrays.asList(context));
+
+            assertEquals(0, response.getTotalHitsCount());
+            assertTrue(response.getResults().isEmpty());
+            assertEquals(Collections.singletonList(context.getId()), response.getTimedOutContexts());
+        } finally {
+            ((CountingIndexingContext) context).acquireDelay = 0L;
+        }
+
+        assertEquals(0, ((CountingIndexingContext) context).count);
+    }
+
+    @Test
+    public void testFiltersRunOnCallingThread() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "qdox", SearchType.SCORED);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        FlatSearchRequest request = new FlatSearchRequest(q);
+        request.setArtifactInfoFilter((ctx, ai) -> {
+            threads.add(Thread.currentThread());
+            return true;
+        });
+        request.setArtifactInfoPostprocessor((ctx, ai) -> threads.add(Thread.currentThread()));
+        GroupedSearchRequest collapsed = new GroupedSearchRequest(q, new GAGrouping());
+        collapsed.setCollapsed(true);
+        collapsed.setArtifactInfoPostprocessor((ctx, ai) -> threads.add(Thread.currentThread()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        SearchEngine concurrentEngine = new DefaultSearchEngine(executor);
+        try {
+            List<IndexingContext> contexts = Arrays.asList(context, context, context);
+            assertTrue(concurrentEngine.forceSearchFlatPaged(request, contexts).getTotalHitsCount() > 0);
+            assertTrue(concurrentEngine.forceSearchGrouped(collapsed, contexts).getTotalHitsCount() > 0);
+
+            assertEquals(Collections.singleton(Thread.currentThread()), threads);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCollapsedGroupsMergedAcrossContexts() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "org", SearchType.SCORED);
+        GroupedSearchRequest request = new GroupedSearchRequest(q, new GAGrouping());
+        request.setCollapsed(true);
+
+        GroupedSearchResponse single = searchEngine.forceSearchGrouped(request, Arrays.asList(context));
+        GroupedSearchResponse merged = searchEngine.forceSearchGrouped(request, Arrays.asList(context, context));
+        GroupedSearchResponse full = searchEngine.forceSearchGrouped(
+                new GroupedSearchRequest(q, new GAGrouping()), Arrays.asList(context, context));
+
+        assertFalse(single.getResults().isEmpty());
+        assertEquals(single.getTotalHitsCount(), merged.getTotalHitsCount());
+        assertEquals(full.getTotalHitsCount(), merged.getTotalHitsCount());
+        assertEquals(single.getResults().keySet(), merged.getResults().keySet());
+        for (Map.Entry<String, ArtifactInfoGroup> entry : merged.getResults().entrySet()) {
+            ArtifactInfoGroup group = entry.getValue();
+            assertEquals(single.getResults().get(entry.getKey()).getCount(), group.getCount(), entry.getKey());
+            assertEquals(full.getResults().get(entry.getKey()).getCount(), group.getCount(), entry.getKey());
+            assertEquals(1, group.getArtifactInfos().size());
+        }
+
+        assertEquals(0, ((CountingIndexingContext) context).count);
+    }
+
+    @Test
+    public void testResultCache() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "qdox", SearchType.SCORED);
+        FlatSearchRequest request = new FlatSearchRequest(q);
+
+        SearchResultCache cache = new SearchResultCache(1000);
+        ((DefaultSearchEngine) searchEngine).setResultCache(cache);
+        try {
+            FlatSearchResponse first = searchEngine.forceSearchFlatPaged(request, Arrays.asList(context));
+            assertEquals(0, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+            assertTrue(first.getResults().size() > 1);
+
+            FlatSearchResponse second = searchEngine.forceSearchFlatPaged(request, Arrays.asList(context));
+            assertEquals(1, cache.getHitCount());
+            assertEquals(1, cache.getMissCount());
+            assertEquals(first.getTotalHitsCount(), second.getTotalHitsCount());
+            assertEquals(uinfos(new ArrayList<>(first.getResults())), uinfos(new ArrayList<>(second.getResults())));
+
+            // responses hold copies of the cached results, so callers may modify them
+            second.getResults().iterator().next().getAttributes().put("modified", "true");
+            FlatSearchResponse unmodified = searchEngine.forceSearchFlatPaged(request, Arrays.asList(context));
+            assertEquals(2, cache.getHitCount());
+            assertTrue(unmodified.getResults().stream().noneMatch(ai -> ai.getAttributes().containsKey("modified")));
+
+            // a change of the index is searched with a new reader, closing the one the response was cached for
+            String deleted = first.getResults().iterator().next().getUinfo();
+            context.getIndexWriter().deleteDocuments(new Term(ArtifactInfo.UINFO, deleted));
+            context.commit();
+
+            FlatSearchResponse third = searchEngine.forceSearchFlatPaged(request, Arrays.asList(context));
+            assertEquals(2, cache.getHitCount());
+            assertEquals(2, cache.getMissCount());
+            assertEquals(first.getResults().size() - 1, third.getResults().size());
+            assertEquals(1, cache.size());
+
+            cache.clear();
+            searchEngine.forceSearchFlatPaged(request, Arrays.asList(context));
+            assertEquals(3, cache.getMissCount());
+
+            // the projection is copied into the key, a later change of it does not change cached keys
+            Set<String> projection = new HashSet<>(Collections.singleton(MinimalArtifactInfoIndexCreator.ID));
+            FlatSearchRequest projected = new FlatSearchRequest(q);
+            projected.setProjection(projection);
+            searchEngine.forceSearchFlatPaged(projected, Arrays.asList(context));
+            projection.add(JarFileContentsIndexCreator.ID);
+            searchEngine.forceSearchFlatPaged(projected, Arrays.asList(context));
+            assertEquals(5, cache.getMissCount());
+            projection.remove(JarFileContentsIndexCreator.ID);
+            searchEngine.forceSearchFlatPaged(projected, Arrays.asList(context));
+            assertEquals(3, cache.getHitCount());
+
+            assertEquals(0, ((CountingIndexingContext) context).count);
+        } finally {
+            ((DefaultSearchEngine) searchEngine).setResultCache(null);
+        }
+    }
+
+    @Test
+    public void testUnboundedIteratorSearch() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "org", SearchType.SCORED);
+
+        // with count set the top hits are kept by a priority queue
+        IteratorSearchRequest bounded = new IteratorSearchRequest(q);
+        bounded.setCount(100000);
+        List<ArtifactInfo> top = toList(searchEngine.forceSearchIteratorPaged(bounded, Arrays.asList(context)));
+        assertTrue(top.size() > 5);
+
+        // without count all hits are collected, in the same order
+        IteratorSearchResponse collected =
+                searchEngine.forceSearchIteratorPaged(new IteratorSearchRequest(q), Arrays.asList(context));
+        List<ArtifactInfo> all = toList(collected);
+        assertEquals(top.size(), collected.getTotalHitsCount());
+        assertEquals(uinfos(top), uinfos(all));
+        for (int i = 0; i < top.size(); i++) {
+            assertEquals(top.get(i).getLuceneScore(), all.get(i).getLuceneScore(), 0f);
+        }
+
+        // or streamed in index order, unscored
+        IteratorSearchRequest streamedRequest = new IteratorSearchRequest(q);
+        streamedRequest.setStreamed(true);
+        IteratorSearchResponse streamed =
+                searchEngine.forceSearchIteratorPaged(streamedRequest, Arrays.asList(context));
+        List<String> unordered = uinfos(toList(streamed));
+        assertEquals(top.size(), streamed.getTotalHitsCount());
+        assertEquals(new TreeSet<>(uinfos(top)), new TreeSet<>(unordered));
+
+        // the total is counted upfront when asked before iterating, and cannot be once closed
+        try (IteratorSearchResponse early =
+                searchEngine.forceSearchIteratorPaged(streamedRequest, Arrays.asList(context))) {
+            assertEquals(top.size(), early.getTotalHitsCount());
+            assertEquals(unordered, uinfos(toList(early)));
+        }
+        IteratorSearchResponse closed = searchEngine.forceSearchIteratorPaged(streamedRequest, Arrays.asList(context));
+        closed.close();
+        assertThrows(IllegalStateException.class, closed::getTotalHitsCount);
+
+        // paging applies to streamed hits too
+        streamedRequest.setStart(2);
+        List<String> page =
+                uinfos(toList(searchEngine.forceSearchIteratorPaged(streamedRequest, Arrays.asList(context))));
+        assertEquals(unordered.subList(2, unordered.size()), page);
+
+        assertEquals(0, ((CountingIndexingContext) context).count);
+    }
+
+    private static List<ArtifactInfo> toList(IteratorSearchResponse response) {
+        List<ArtifactInfo> result = new ArrayList<>();
+        for (ArtifactInfo ai : response) {
+            result.add(ai);
+        }
+        return result;
+    }
+
+    private static List<String> uinfos(List<ArtifactInfo> artifactInfos) {
+        List<String> result = new ArrayList<>();
+        for (ArtifactInfo ai : artifactInfos) {
+            result.add(ai.getUinfo());
+        }
+        return result;
+    }
 }
@@ -22,6 +22,7 @@ import java.io.File;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -38,6 +39,7 @@ import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
 import org.apache.maven.index.packer.IndexPacker;
 import org.apache.maven.index.packer.IndexPackingRequest;
 import org.apache.maven.index.search.grouping.GAGrouping;
@@ -54,6 +56,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class FullIndexNexusIndexerTest extends DefaultIndexNexusIndexerTest {
@@ -460,6 +464,148 @@ public class FullIndexNexusIndexerTest extends DefaultIndexNexusIndexerTest {
         assertNull(ai.getClassNames());
     }
 
+    @Test
+    public void testArtifactViews() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "org", SearchType.SCORED);
+
+        List<ArtifactInfo> expected = new ArrayList<>();
+        try (IteratorSearchResponse response = nexusIndexer.searchIterator(new IteratorSearchRequest(q))) {
+            for (ArtifactInfo ai : response) {
+                expected.add(ai);
+            }
+        }
+        assertFalse(expected.isEmpty());
+
+        try (IteratorSearchResponse response = nexusIndexer.searchIterator(new IteratorSearchRequest(q))) {
+            int i = 0;
+            ArtifactView previous = null;
+            for (ArtifactView view : response.views()) {
+                ArtifactInfo ai = expected.get(i++);
+                assertEquals(ai.getUinfo(), view.getUinfo());
+                assertEquals(ai.getGroupId(), view.getGroupId());
+                assertEquals(ai.getArtifactId(), view.getArtifactId());
+                assertEquals(ai.getVersion(), view.getVersion());
+                assertEquals(ai.getClassifier(), view.getClassifier());
+                assertEquals(ai.getFileExtension(), view.getFileExtension());
+                assertEquals(ai.getPackaging(), view.getPackaging());
+                assertEquals(ai.getLastModified(), view.getLastModified());
+                assertEquals(ai.getSize(), view.getSize());
+                assertEquals(ai.getName(), view.getName());
+                assertEquals(ai.getDescription(), view.getDescription());
+                assertEquals(ai.getSha1(), view.getSha1());
+                assertEquals(ai.getRepository(), view.getRepository());
+                assertEquals(ai.getContext(), view.getContext());
+                assertEquals(ai.getLuceneScore(), view.getLuceneScore(), 0f);
+
+                ArtifactInfo full = view.toArtifactInfo();
+                assertEquals(ai.getUinfo(), full.getUinfo());
+                assertEquals(ai.getClassNames(), full.getClassNames());
+
+                if (previous != null && i > 2) {
+                    // the view is reused
+                    assertSame(previous, view);
+                }
+                previous = view;
+            }
+            assertEquals(expected.size(), i);
+
+            // the iteration ended and released the searcher, the last view can not be loaded anymore
+            assertThrows(IllegalStateException.class, previous::toArtifactInfo);
+        }
+    }
+
+    @Test
+    public void testCollapsedGrouping() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "org", SearchType.SCORED);
+
+        GroupedSearchResponse full = nexusIndexer.searchGrouped(new GroupedSearchRequest(q, new GAGrouping()));
+
+        GroupedSearchRequest request = new GroupedSearchRequest(q, new GAGrouping());
+        request.setCollapsed(true);
+        GroupedSearchResponse collapsed = nexusIndexer.searchGrouped(request);
+
+        assertFalse(full.getResults().isEmpty());
+        assertEquals(full.getTotalHitsCount(), collapsed.getTotalHitsCount());
+        assertEquals(full.getResults().keySet(), collapsed.getResults().keySet());
+
+        for (Map.Entry<String, ArtifactInfoGroup> entry : full.getResults().entrySet()) {
+            ArtifactInfoGroup fullGroup = entry.getValue();
+            ArtifactInfoGroup collapsedGroup = collapsed.getResults().get(entry.getKey());
+
+            assertEquals(fullGroup.getArtifactInfos().size(), fullGroup.getCount());
+            assertEquals(fullGroup.getCount(), collapsedGroup.getCount(), entry.getKey());
+            assertEquals(1, collapsedGroup.getArtifactInfos().size());
+
+            ArtifactInfo expected = fullGroup.getArtifactInfos().iterator().next();
+            ArtifactInfo actual = collapsedGroup.getArtifactInfos().iterator().next();
+            assertEquals(expected.getUinfo(), actual.getUinfo());
+            assertEquals(expected.getPackaging(), actual.getPackaging());
+            assertEquals(expected.getSha1(), actual.getSha1());
+            assertEquals(expected.getClassNames(), actual.getClassNames());
+            assertEquals(expected.getRepository(), actual.getRepository());
+        }
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "qdox", SearchType.SCORED);
+
+        FlatSearchResponse full = nexusIndexer.searchFlat(new FlatSearchRequest(q));
+        assertTrue(full.getResults().stream().anyMatch(ai -> ai.getClassNames() != null));
+
+        FlatSearchRequest projected = new FlatSearchRequest(q);
+        projected.setProjection(Collections.singleton(MinimalArtifactInfoIndexCreator.ID));
+        FlatSearchResponse minimal = nexusIndexer.searchFlat(projected);
+
+        assertEquals(full.getTotalHitsCount(), minimal.getTotalHitsCount());
+        assertEquals(full.getResults().size(), minimal.getResults().size());
+
+        Iterator<ArtifactInfo> fi = full.getResults().iterator();
+        Iterator<ArtifactInfo> mi = minimal.getResults().iterator();
+        while (fi.hasNext()) {
+            ArtifactInfo f = fi.next();
+            ArtifactInfo m = mi.next();
+            assertEquals(f.getUinfo(), m.getUinfo());
+            assertEquals(f.getPackaging(), m.getPackaging());
+            assertEquals(f.getLastModified(), m.getLastModified());
+            assertEquals(f.getSha1(), m.getSha1());
+            assertNull(m.getClassNames());
+        }
+
+        IteratorSearchRequest iteratorRequest = new IteratorSearchRequest(q);
+        iteratorRequest.setProjection(Collections.singleton(MinimalArtifactInfoIndexCreator.ID));
+        try (IteratorSearchResponse response = nexusIndexer.searchIterator(iteratorRequest)) {
+            int count = 0;
+            for (ArtifactInfo ai : response) {
+                assertEquals("qdox", ai.getGroupId());
+                assertNull(ai.getClassNames());
+                count++;
+            }
+            assertEquals(full.getTotalHitsCount(), count);
+        }
+    }
+
+    @Test
+    public void testProjectionWithoutMinimalCreator() throws Exception {
+        Query q = nexusIndexer.constructQuery(MAVEN.GROUP_ID, "qdox", SearchType.SCORED);
+        FlatSearchResponse full = nexusIndexer.searchFlat(new FlatSearchRequest(q));
+
+        FlatSearchRequest request = new FlatSearchRequest(q);
+        assertThrows(IllegalArgumentException.class, () -> request.setProjection(Collections.emptySet()));
+
+        // the minimal creator is always selected, even if no creator of the context is
+        request.setProjection(Collections.singleton("unknown"));
+        FlatSearchResponse projected = nexusIndexer.searchFlat(request);
+
+        assertTrue(full.getTotalHitsCount() > 0);
+        assertEquals(full.getTotalHitsCount(), projected.getTotalHitsCount());
+        assertEquals(full.getResults().size(), projected.getResults().size());
+        for (ArtifactInfo ai : projected.getResults()) {
+            assertEquals("qdox", ai.getGroupId());
+            assertNull(ai.getClassNames());
+        }
+    }
+
     // ==
 
     protected IteratorSearchRequest createHighlightedRequest(Field field, String text, SearchType type)
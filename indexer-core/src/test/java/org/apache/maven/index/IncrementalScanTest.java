@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
+import org.apache.maven.index.context.IndexingContext;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IncrementalScanTest extends AbstractNexusIndexerTest {
+    private static final String SLF4J_API_1_4_1 = "org.slf4j|slf4j-api|1.4.1|NA|jar";
+
+    private static final String SLF4J_API_1_4_2 = "org.slf4j|slf4j-api|1.4.2|NA|jar";
+
+    private File repo;
+
+    @Override
+    protected void prepareNexusIndexer(NexusIndexer nexusIndexer) throws Exception {
+        repo = Files.createTempDirectory("incremental-scan").toFile();
+        FileUtils.copyDirectoryStructure(new File(getBasedir(), "src/test/nexus-4149/repo3"), repo);
+
+        context = nexusIndexer.addIndexingContext(
+                "test-incremental", "test", repo, indexDir, null, null, MIN_CREATORS);
+    }
+
+    @Override
+    protected void unprepareNexusIndexer(NexusIndexer nexusIndexer) throws Exception {
+        super.unprepareNexusIndexer(nexusIndexer);
+        FileUtils.deleteDirectory(repo);
+    }
+
+    private ScanningResult scan() throws Exception {
+        return scan(new DefaultScannerListener(context, lookup(IndexerEngine.class), true, null));
+    }
+
+    private ScanningResult scan(ArtifactScanningListener listener) throws Exception {
+        ScanningRequest request = new ScanningRequest(context, listener);
+        request.setIncremental(true);
+        ScanningResult result = lookup(Scanner.class).scan(request);
+        assertFalse(result.hasExceptions(), result.getExceptions().toString());
+        return result;
+    }
+
+    private int count(String uinfo) throws Exception {
+        IndexSearcher searcher = context.acquireIndexSearcher();
+        try {
+            return searcher.count(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo)));
+        } finally {
+            context.releaseIndexSearcher(searcher);
+        }
+    }
+
+    @Test
+    public void testRescanSkipsUnchangedDirectories() throws Exception {
+        assertNull(ScanManifest.read(indexDir));
+
+        // no manifest yet: full scan, that writes the manifest
+        ScanningResult first = scan();
+        assertTrue(first.getTotalFiles() > 0);
+        ScanManifest manifest = ScanManifest.read(indexDir);
+        assertNotNull(manifest);
+        assertTrue(manifest.isValid(context));
+        assertNotNull(manifest.get("/org/slf4j/slf4j-api/1.4.1"));
+        assertEquals(1, count(SLF4J_API_1_4_1));
+
+        // nothing changed: nothing discovered
+        ScanningResult second = scan();
+        assertEquals(0, second.getTotalFiles());
+        assertEquals(0, second.getDeletedFiles());
+        assertEquals(1, count(SLF4J_API_1_4_1));
+        assertEquals(1, count(SLF4J_API_1_4_2));
+
+        // a removed version directory: its artifacts are removed, the rest is untouched
+        FileUtils.deleteDirectory(new File(repo, "org/slf4j/slf4j-api/1.4.1"));
+        ScanningResult third = scan();
+        assertEquals(0, third.getTotalFiles());
+        assertTrue(third.getDeletedFiles() > 0);
+        assertEquals(0, count(SLF4J_API_1_4_1));
+        assertEquals(1, count(SLF4J_API_1_4_2));
+        assertNull(ScanManifest.read(indexDir).get("/org/slf4j/slf4j-api/1.4.1"));
+    }
+
+    @Test
+    public void testIndexChangesKeepManifest() throws Exception {
+        scan();
+        Date scanned = context.getTimestamp();
+
+        // a deployment: a new version directory, added to the index right away
+        File deployed = new File(repo, "org/slf4j/slf4j-api/1.4.0");
+        deployed.mkdirs();
+        File[] files = new File(repo, "org/slf4j/slf4j-api/1.4.1").listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            FileUtils.copyFile(file, new File(deployed, file.getName().replace("1.4.1", "1.4.0")));
+        }
+        ArtifactContext ac = lookup(ArtifactContextProducer.class)
+                .getArtifactContext(context, new File(deployed, "slf4j-api-1.4.0.jar"));
+        nexusIndexer.addArtifactToIndex(ac, context);
+        context.updateTimestamp(true, new Date(scanned.getTime() + 1000L));
+        assertTrue(ScanManifest.read(indexDir).isValid(context));
+
+        // only the deployed directory is visited
+        RecordingScannerListener listener = new RecordingScannerListener();
+        scan(listener);
+        assertTrue(listener.incremental);
+        assertEquals(Collections.singleton("1.4.0"), listener.versions);
+        assertEquals(1, count("org.slf4j|slf4j-api|1.4.0|NA|jar"));
+        assertEquals(1, count(SLF4J_API_1_4_1));
+    }
+
+    @Test
+    public void testReplacedIndexInvalidatesManifest() throws Exception {
+        scan();
+        ScanManifest manifest = ScanManifest.read(indexDir);
+        assertTrue(manifest.isValid(context));
+
+        context.purge();
+        assertFalse(manifest.isValid(context));
+
+        // full update scan, that writes a new manifest
+        RecordingScannerListener listener = new RecordingScannerListener();
+        scan(listener);
+        assertFalse(listener.incremental);
+        assertTrue(listener.versions.contains("1.4.1"));
+        assertTrue(ScanManifest.read(indexDir).isValid(context));
+        assertEquals(1, count(SLF4J_API_1_4_1));
+    }
+
+    private class RecordingScannerListener extends DefaultScannerListener {
+        private final Set<String> versions = new HashSet<>();
+
+        private boolean incremental;
+
+        RecordingScannerListener() throws Exception {
+            super(context, lookup(IndexerEngine.class), true, null);
+        }
+
+        @Override
+        public void incrementalScanningStarted(IndexingContext ctx) {
+            incremental = true;
+            super.incrementalScanningStarted(ctx);
+        }
+
+        @Override
+        public void artifactDiscovered(ArtifactContext ac) {
+            versions.add(ac.getArtifactInfo().getVersion());
+            super.artifactDiscovered(ac);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.File;
+
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.maven.index.context.IndexingContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelScanTest extends AbstractNexusIndexerTest {
+    protected File repo = new File(getBasedir(), "src/test/repo");
+
+    private ScanningResult parallelResult;
+
+    @Override
+    protected void prepareNexusIndexer(NexusIndexer nexusIndexer) throws Exception {
+        context = nexusIndexer.addIndexingContext("test-parallel", "test", repo, indexDir, null, null, MIN_CREATORS);
+
+        parallelResult = scan(context, 4);
+    }
+
+    private ScanningResult scan(IndexingContext ctx, int threads) throws Exception {
+        ScanningRequest request =
+                new ScanningRequest(ctx, new DefaultScannerListener(ctx, lookup(IndexerEngine.class), false, null));
+        request.setThreads(threads);
+        ScanningResult result = lookup(Scanner.class).scan(request);
+        ctx.commit();
+        return result;
+    }
+
+    @Test
+    public void testSameAsSequential() throws Exception {
+        IndexingContext sequential = nexusIndexer.addIndexingContext(
+                "test-sequential", "test", repo, new ByteBuffersDirectory(), null, null, MIN_CREATORS);
+        try {
+            ScanningResult sequentialResult = scan(sequential, 1);
+
+            assertFalse(parallelResult.hasExceptions(), parallelResult.getExceptions().toString());
+            assertTrue(parallelResult.getTotalFiles() > 0);
+            assertEquals(sequentialResult.getTotalFiles(), parallelResult.getTotalFiles());
+            assertEquals(sequential.getSize(), context.getSize());
+            assertEquals(sequential.getAllGroups(), context.getAllGroups());
+            assertEquals(sequential.getRootGroups(), context.getRootGroups());
+        } finally {
+            nexusIndexer.removeIndexingContext(sequential, true);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.maven.index.context.IndexingContext;
+import org.codehaus.plexus.util.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScanDigestTest extends AbstractNexusIndexerTest {
+    private static final String SLF4J_API_1_4_2_SHA1 = "61fce919969d134a4fa2ba4fd5bf151ea63fce13";
+
+    private File repo;
+
+    private File digestCacheFile;
+
+    @Override
+    protected void prepareNexusIndexer(NexusIndexer nexusIndexer) throws Exception {
+        File workDir = Files.createTempDirectory("scan-digest").toFile();
+        workDir.deleteOnExit();
+        repo = new File(workDir, "repo");
+        digestCacheFile = new File(workDir, "index.digests");
+
+        // a repository without checksum files
+        FileUtils.copyDirectoryStructure(new File(getBasedir(), "src/test/nexus-4149/repo3"), repo);
+        for (File sha1 : FileUtils.getFiles(repo, "**/*.sha1", null)) {
+            assertTrue(sha1.delete());
+        }
+
+        context = nexusIndexer.addIndexingContext("test-digest", "test", repo, indexDir, null, null, MIN_CREATORS);
+    }
+
+    @Override
+    protected void unprepareNexusIndexer(NexusIndexer nexusIndexer) throws Exception {
+        super.unprepareNexusIndexer(nexusIndexer);
+        FileUtils.deleteDirectory(repo.getParentFile());
+    }
+
+    private ScanningResult scan(IndexingContext ctx, Collection<String> digestAlgorithms) throws Exception {
+        ScanningRequest request =
+                new ScanningRequest(ctx, new DefaultScannerListener(ctx, lookup(IndexerEngine.class), false, null));
+        request.setDigestAlgorithms(digestAlgorithms);
+        request.setDigestCacheFile(digestCacheFile);
+        ScanningResult result = lookup(Scanner.class).scan(request);
+        ctx.commit();
+        return result;
+    }
+
+    @Test
+    public void testNoDigestsByDefault() throws Exception {
+        ScanningResult result = scan(context, null);
+
+        assertFalse(result.hasExceptions(), result.getExceptions().toString());
+        assertTrue(nexusIndexer.identify(MAVEN.SHA1, SLF4J_API_1_4_2_SHA1).isEmpty());
+        assertFalse(digestCacheFile.exists());
+    }
+
+    @Test
+    public void testDigestsComputedAndCached() throws Exception {
+        ScanningResult result = scan(context, Arrays.asList("SHA-1", "SHA-256"));
+
+        assertFalse(result.hasExceptions(), result.getExceptions().toString());
+        Collection<ArtifactInfo> ais = nexusIndexer.identify(MAVEN.SHA1, SLF4J_API_1_4_2_SHA1);
+        assertEquals(1, ais.size());
+        assertEquals("slf4j-api", ais.iterator().next().getArtifactId());
+
+        assertTrue(digestCacheFile.isFile());
+        ArtifactDigestCache digestCache = new ArtifactDigestCache(digestCacheFile);
+        digestCache.load();
+        assertTrue(digestCache.size() > 0);
+        File jar = new File(repo, "org/slf4j/slf4j-api/1.4.2/slf4j-api-1.4.2.jar");
+        assertNotNull(digestCache.get(jar, Arrays.asList("SHA-1", "SHA-256")));
+        assertEquals(SLF4J_API_1_4_2_SHA1, digestCache.get(jar, Arrays.asList("SHA-1")).get("SHA-1"));
+
+        // a changed file is not served from the cache
+        assertTrue(jar.setLastModified(jar.lastModified() - 60_000L));
+        assertNull(digestCache.get(jar, Arrays.asList("SHA-1")));
+    }
+}
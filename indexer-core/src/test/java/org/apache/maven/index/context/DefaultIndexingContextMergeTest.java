@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.context;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
+import org.apache.maven.index.ArtifactContext;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.DefaultIndexerEngine;
+import org.apache.maven.index.artifact.Gav;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Merges directories into a context having artifacts of {@code org.example}, the target ones last modified at
+ * {@link #TARGET} and the incoming ones at {@link #INCOMING}, so it shows which one was kept.
+ */
+public class DefaultIndexingContextMergeTest {
+    private static final long TARGET = 1000L;
+
+    private static final long INCOMING = 2000L;
+
+    private final DefaultIndexerEngine indexerEngine = new DefaultIndexerEngine();
+
+    private IndexingContext context;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        context = new DefaultIndexingContext(
+                "test",
+                "test",
+                null,
+                new ByteBuffersDirectory(),
+                null,
+                null,
+                Collections.singletonList(new MinimalArtifactInfoIndexCreator()),
+                true);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        context.close(true);
+    }
+
+    @Test
+    public void testMergePresentAbsentAndDeletedUinfos() throws Exception {
+        for (String version : new String[] {"1", "3", "4", "5", "7"}) {
+            indexerEngine.index(context, artifactContext("demo", version, TARGET));
+        }
+        indexerEngine.remove(context, artifactContext("demo", "4", TARGET));
+        context.commit();
+
+        // absent before, between and after the target ones, present, and deleted in the target
+        List<Document> incoming = new ArrayList<>();
+        for (String version : new String[] {"0", "3", "4", "6", "7", "9"}) {
+            incoming.add(document("demo", version));
+        }
+        context.merge(directory(incoming));
+
+        Map<String, List<Long>> expected = new TreeMap<>();
+        expected.put("0", Collections.singletonList(INCOMING));
+        expected.put("1", Collections.singletonList(TARGET));
+        expected.put("3", Collections.singletonList(TARGET));
+        expected.put("4", Collections.singletonList(INCOMING));
+        expected.put("5", Collections.singletonList(TARGET));
+        expected.put("6", Collections.singletonList(INCOMING));
+        expected.put("7", Collections.singletonList(TARGET));
+        expected.put("9", Collections.singletonList(INCOMING));
+        assertEquals(expected, artifacts("demo"));
+    }
+
+    @Test
+    public void testMergeDeletedAndReAddedUinfo() throws Exception {
+        indexerEngine.index(context, artifactContext("demo", "1", TARGET));
+        indexerEngine.index(context, artifactContext("demo", "2", TARGET));
+        indexerEngine.index(context, artifactContext("other", "500", TARGET));
+        context.commit();
+
+        // enough deletions before the re-add to flush a batch of them, and some pending when it comes
+        List<Document> incoming = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            incoming.add(marker("other", Integer.toString(i)));
+        }
+        incoming.add(marker("demo", "1"));
+        incoming.add(document("demo", "1"));
+        incoming.add(marker("demo", "2"));
+        context.merge(directory(incoming));
+
+        assertEquals(Collections.singletonMap("1", Collections.singletonList(INCOMING)), artifacts("demo"));
+        assertEquals(Collections.emptyMap(), artifacts("other"));
+    }
+
+    private Directory directory(List<Document> documents) throws IOException {
+        Directory directory = new ByteBuffersDirectory();
+        try (IndexWriter w = new IndexWriter(directory, new IndexWriterConfig(new NexusAnalyzer()))) {
+            for (Document document : documents) {
+                w.addDocument(document);
+            }
+        }
+        return directory;
+    }
+
+    private Document document(String artifactId, String version) {
+        return artifactContext(artifactId, version, INCOMING).createDocument(context);
+    }
+
+    private static Document marker(String artifactId, String version) {
+        Document marker = new Document();
+        marker.add(new StoredField(
+                ArtifactInfo.DELETED,
+                new ArtifactInfo("test", "org.example", artifactId, version, null, "jar").getUinfo()));
+        IndexUtils.addLastModified(marker, INCOMING);
+        return marker;
+    }
+
+    private static ArtifactContext artifactContext(String artifactId, String version, long lastModified) {
+        ArtifactInfo ai = new ArtifactInfo("test", "org.example", artifactId, version, null, "jar");
+        ai.setLastModified(lastModified);
+        return new ArtifactContext(null, null, null, ai, new Gav("org.example", artifactId, version));
+    }
+
+    /**
+     * Returns the last modified of the live artifacts of the artifactId, by version.
+     */
+    private Map<String, List<Long>> artifacts(String artifactId) throws IOException {
+        Map<String, List<Long>> result = new TreeMap<>();
+        IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try {
+            IndexReader reader = indexSearcher.getIndexReader();
+            Bits liveDocs = MultiBits.getLiveDocs(reader);
+            for (int i = 0; i < reader.maxDoc(); i++) {
+                if (liveDocs != null && !liveDocs.get(i)) {
+                    continue;
+                }
+                ArtifactInfo ai = IndexUtils.constructArtifactInfo(reader.storedFields().document(i), context);
+                if (ai != null && artifactId.equals(ai.getArtifactId())) {
+                    result.computeIfAbsent(ai.getVersion(), v -> new ArrayList<>()).add(ai.getLastModified());
+                }
+            }
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+        return result;
+    }
+}
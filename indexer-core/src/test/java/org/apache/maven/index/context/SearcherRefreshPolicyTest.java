@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.context;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.IndexerField;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SearcherRefreshPolicyTest {
+    @Test
+    public void testBackgroundRefreshWaitForGeneration() throws Exception {
+        final DefaultIndexingContext context = new DefaultIndexingContext(
+                "test", "test", null, new ByteBuffersDirectory(), null, null, Collections.emptyList(), true);
+        try {
+            context.setSearcherRefreshPolicy(SearcherRefreshPolicy.background(Duration.ofMinutes(1), Duration.ZERO));
+            assertEquals(true, context.getSearcherRefreshPolicy().isBackground());
+
+            final int size = context.getSize();
+
+            Document doc = new Document();
+            doc.add(new Field(ArtifactInfo.UINFO, "g|a|1.0|NA|jar", IndexerField.KEYWORD_STORED));
+            long generation = context.getIndexWriter().addDocument(doc);
+
+            context.waitForGeneration(generation);
+
+            final IndexSearcher searcher = context.acquireIndexSearcher();
+            try {
+                assertEquals(size + 1, searcher.getIndexReader().numDocs());
+            } finally {
+                context.releaseIndexSearcher(searcher);
+            }
+
+            context.setSearcherRefreshPolicy(SearcherRefreshPolicy.ON_ACQUIRE);
+            assertEquals(false, context.getSearcherRefreshPolicy().isBackground());
+        } finally {
+            context.close(true);
+        }
+    }
+
+    @Test
+    public void testBackgroundRefreshReadsOwnWrites() throws Exception {
+        final DefaultIndexingContext context = new DefaultIndexingContext(
+                "test", "test", null, new ByteBuffersDirectory(), null, null, Collections.emptyList(), true);
+        try {
+            context.setSearcherRefreshPolicy(SearcherRefreshPolicy.background(Duration.ofMinutes(1), Duration.ZERO));
+
+            final int size = context.getSize();
+
+            Document doc = new Document();
+            doc.add(new Field(ArtifactInfo.UINFO, "g|a|1.0|NA|jar", IndexerField.KEYWORD_STORED));
+            context.getIndexWriter().addDocument(doc);
+
+            // not waiting for the background refresh, that is a minute away
+            assertEquals(size + 1, context.getSize());
+
+            doc = new Document();
+            doc.add(new Field(ArtifactInfo.UINFO, "g|b|1.0|NA|jar", IndexerField.KEYWORD_STORED));
+            context.getIndexWriter().addDocument(doc);
+
+            IndexUtils.waitForOwnWrites(context);
+            final IndexSearcher searcher = context.acquireIndexSearcher();
+            try {
+                assertEquals(size + 2, searcher.getIndexReader().numDocs());
+            } finally {
+                context.releaseIndexSearcher(searcher);
+            }
+        } finally {
+            context.close(true);
+        }
+    }
+
+    @Test
+    public void testInvalidBackgroundPolicy() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> SearcherRefreshPolicy.background(Duration.ofSeconds(1), Duration.ofSeconds(2)));
+    }
+}
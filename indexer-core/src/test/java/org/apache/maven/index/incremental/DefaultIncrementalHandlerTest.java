@@ -22,11 +22,20 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.List;
 import java.util.Properties;
+import java.util.TimeZone;
 
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.util.FixedBitSet;
 import org.apache.maven.index.AbstractIndexCreatorHelper;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.IndexerField;
 import org.apache.maven.index.NexusIndexer;
 import org.apache.maven.index.context.IndexingContext;
 import org.apache.maven.index.packer.IndexPackingRequest;
@@ -122,6 +131,41 @@ public class DefaultIncrementalHandlerTest extends AbstractIndexCreatorHelper {
         }
     }
 
+    @Test
+    public void testUpdateIncludesDocumentsWithStoredLastModifiedOnly() throws Exception {
+        Properties properties = new Properties();
+
+        properties.setProperty(IndexingContext.INDEX_TIMESTAMP, "19991112182432.432 -0600");
+
+        FileUtils.copyDirectoryStructure(new File(getBasedir(), "src/test/repo/ch"), new File(repoDir, "ch"));
+
+        indexer.scan(context);
+
+        // as documents written by earlier versions are, without the last modified point
+        Document legacy = new Document();
+        legacy.add(new Field(ArtifactInfo.UINFO, "legacy|legacy|1.0|NA|jar", IndexerField.KEYWORD_STORED));
+        legacy.add(new StoredField(ArtifactInfo.LAST_MODIFIED, Long.toString(System.currentTimeMillis())));
+        context.getIndexWriter().addDocument(legacy);
+        context.commit();
+
+        final IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try {
+            IndexPackingRequest request = new IndexPackingRequest(context, indexSearcher.getIndexReader(), indexDir);
+            FixedBitSet updates = handler.getIncrementalUpdateDocs(request, properties);
+
+            assertEquals(2, updates.cardinality());
+
+            SimpleDateFormat df = new SimpleDateFormat(IndexingContext.INDEX_TIME_FORMAT);
+            df.setTimeZone(TimeZone.getTimeZone("GMT"));
+            properties = new Properties();
+            properties.setProperty(IndexingContext.INDEX_TIMESTAMP, df.format(new Date()));
+
+            assertEquals(0, handler.getIncrementalUpdateDocs(request, properties).cardinality());
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+    }
+
     @Test
     public void testRemoteUpdatesInvalidProperties() throws Exception {
         // just a dummy fetcher, it's not used here anyway
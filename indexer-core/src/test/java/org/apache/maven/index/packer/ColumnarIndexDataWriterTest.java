@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.packer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.maven.index.ArtifactContext;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.DefaultIndexerEngine;
+import org.apache.maven.index.artifact.Gav;
+import org.apache.maven.index.context.DefaultIndexingContext;
+import org.apache.maven.index.context.IndexUtils;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+import org.apache.maven.index.reader.ColumnarIndexReader;
+import org.apache.maven.index.reader.Record;
+import org.apache.maven.index.reader.Record.Type;
+import org.apache.maven.index.updater.IndexDataReader;
+import org.apache.maven.index.updater.IndexDataWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes the columnar index of {@code org.example:demo} versions {@code 1.0.0} to {@code 1.129.0} (every tenth with
+ * sources too, SHA-1 being the digest of the coordinates), {@code org.example:prerelease} versions indexed out of
+ * order and {@code org.sonatype.nexus:nexus:1.3.0-SNAPSHOT} without SHA-1, and reads it back with
+ * {@link ColumnarIndexReader}.
+ */
+public class ColumnarIndexDataWriterTest {
+    private static final long TIMESTAMP = 1243533418015L;
+
+    private static final long LAST_MODIFIED = 1243533415343L;
+
+    private static final List<String> PRERELEASE_VERSIONS =
+            Arrays.asList("1.0-alpha-2", "1.0-beta-1", "1.0-SNAPSHOT", "1.0");
+
+    private final DefaultIndexerEngine indexerEngine = new DefaultIndexerEngine();
+
+    private IndexingContext context;
+
+    private Path columnarFile;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        context = new DefaultIndexingContext(
+                "test",
+                "test",
+                null,
+                new ByteBuffersDirectory(),
+                null,
+                null,
+                Collections.singletonList(new MinimalArtifactInfoIndexCreator()),
+                true);
+
+        for (int i = 0; i < 130; i++) {
+            String version = "1." + i + ".0";
+            long lastModified = LAST_MODIFIED + i * 1000L;
+            index("org.example", "demo", version, null, "jar", lastModified, "org.example:demo:" + version);
+            if (i % 10 == 0) {
+                index(
+                        "org.example",
+                        "demo",
+                        version,
+                        "sources",
+                        "jar",
+                        lastModified,
+                        "org.example:demo:sources:" + version);
+            }
+        }
+        // indexed out of order
+        for (int i = PRERELEASE_VERSIONS.size() - 1; i >= 0; i--) {
+            index("org.example", "prerelease", PRERELEASE_VERSIONS.get(i), null, "jar", LAST_MODIFIED, null);
+        }
+        index("org.sonatype.nexus", "nexus", "1.3.0-SNAPSHOT", null, "pom", LAST_MODIFIED, null);
+        context.updateTimestamp(true, new Date(TIMESTAMP));
+        context.commit();
+
+        columnarFile = Files.createTempFile("nexus-maven-repository-index", ColumnarIndexDataWriter.FILE_EXTENSION);
+        IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try (OutputStream os = Files.newOutputStream(columnarFile)) {
+            assertEquals(148, new ColumnarIndexDataWriter(os).write(context, indexSearcher.getIndexReader()));
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        context.close(true);
+        Files.deleteIfExists(columnarFile);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        ByteArrayOutputStream transfer = new ByteArrayOutputStream();
+        IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try {
+            new IndexDataWriter(transfer).writeChunk(context, indexSearcher.getIndexReader(), null);
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+
+        try (ColumnarIndexReader reader = new ColumnarIndexReader(columnarFile)) {
+            IndexDataReader dataReader = new IndexDataReader(new ByteArrayInputStream(transfer.toByteArray()));
+            assertEquals(TIMESTAMP, dataReader.readHeader());
+            assertEquals(TIMESTAMP, reader.getTimestamp().getTime());
+
+            int artifacts = 0;
+            Document doc;
+            while ((doc = dataReader.readDocument()) != null) {
+                ArtifactInfo expected = IndexUtils.constructArtifactInfo(doc, context);
+                if (expected == null) {
+                    continue; // descriptor and groups
+                }
+                artifacts++;
+
+                Record actual = null;
+                for (Record record : reader.find(expected.getGroupId(), expected.getArtifactId())) {
+                    if (expected.getUinfo().equals(uinfo(record))) {
+                        assertNull(actual, expected.getUinfo());
+                        actual = record;
+                    }
+                }
+                assertNotNull(actual, expected.getUinfo());
+                assertEquals(Type.ARTIFACT_ADD, actual.getType());
+                assertEquals(expected.getLastModified(), actual.getLong(Record.FILE_MODIFIED));
+
+                if (expected.getSha1() != null) {
+                    Record bySha1 = reader.findBySha1(expected.getSha1());
+                    assertNotNull(bySha1, expected.getUinfo());
+                    assertEquals(expected.getUinfo(), uinfo(bySha1));
+                    assertEquals(expected.getSha1(), bySha1.getString(Record.SHA1));
+                    assertEquals(expected.getLastModified(), bySha1.getLong(Record.FILE_MODIFIED));
+                }
+            }
+            assertEquals(148, artifacts);
+            assertEquals(artifacts, reader.size());
+        }
+    }
+
+    @Test
+    public void testFind() throws Exception {
+        try (ColumnarIndexReader reader = new ColumnarIndexReader(columnarFile)) {
+            List<Record> demo = reader.find("org.example", "demo");
+            assertEquals(143, demo.size());
+            for (Record record : demo) {
+                assertEquals("org.example", record.getString(Record.GROUP_ID));
+                assertEquals("demo", record.getString(Record.ARTIFACT_ID));
+                int minor = Integer.parseInt(record.getString(Record.VERSION).split("\\.")[1]);
+                assertEquals(LAST_MODIFIED + minor * 1000L, record.getLong(Record.FILE_MODIFIED));
+                assertEquals("jar", record.getString(Record.FILE_EXTENSION));
+            }
+
+            List<Record> nexus = reader.find("org.sonatype.nexus", "nexus");
+            assertEquals(1, nexus.size());
+            assertEquals("1.3.0-SNAPSHOT", nexus.get(0).getString(Record.VERSION));
+            assertEquals("pom", nexus.get(0).getString(Record.FILE_EXTENSION));
+            assertNull(nexus.get(0).getString(Record.CLASSIFIER));
+
+            assertTrue(reader.find("org.example", "missing").isEmpty());
+            assertTrue(reader.find("org.missing", "demo").isEmpty());
+        }
+    }
+
+    @Test
+    public void testVersionOrder() throws Exception {
+        try (ColumnarIndexReader reader = new ColumnarIndexReader(columnarFile)) {
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < 130; i++) {
+                expected.add("1." + i + ".0");
+                if (i % 10 == 0) {
+                    expected.add("1." + i + ".0:sources");
+                }
+            }
+            List<String> actual = new ArrayList<>();
+            for (Record record : reader.find("org.example", "demo")) {
+                String classifier = record.getString(Record.CLASSIFIER);
+                actual.add(record.getString(Record.VERSION) + (classifier == null ? "" : ":" + classifier));
+            }
+            assertEquals(expected, actual);
+
+            actual.clear();
+            for (Record record : reader.find("org.example", "prerelease")) {
+                actual.add(record.getString(Record.VERSION));
+            }
+            assertEquals(PRERELEASE_VERSIONS, actual);
+        }
+    }
+
+    @Test
+    public void testFindBySha1() throws Exception {
+        try (ColumnarIndexReader reader = new ColumnarIndexReader(columnarFile)) {
+            for (int i = 0; i < 130; i++) {
+                String version = "1." + i + ".0";
+                String sha1 = sha1("org.example:demo:" + version);
+                assertTrue(reader.containsSha1(sha1));
+                Record record = reader.findBySha1(sha1);
+                assertEquals(version, record.getString(Record.VERSION));
+                assertNull(record.getString(Record.CLASSIFIER));
+                assertEquals(sha1, record.getString(Record.SHA1));
+            }
+
+            Record sources = reader.findBySha1(sha1("org.example:demo:sources:1.120.0"));
+            assertEquals("1.120.0", sources.getString(Record.VERSION));
+            assertEquals("sources", sources.getString(Record.CLASSIFIER));
+
+            assertFalse(reader.containsSha1(sha1("org.sonatype.nexus:nexus:1.3.0-SNAPSHOT")));
+            assertNull(reader.findBySha1("not-a-sha1"));
+        }
+    }
+
+    @Test
+    public void testRowsSpooledToTempDirectory() throws Exception {
+        Path tempDirectory = Files.createTempDirectory("columnar");
+        try {
+            ByteArrayOutputStream columnar = new ByteArrayOutputStream();
+            IndexSearcher indexSearcher = context.acquireIndexSearcher();
+            try {
+                assertEquals(
+                        148,
+                        new ColumnarIndexDataWriter(columnar, tempDirectory)
+                                .write(context, indexSearcher.getIndexReader()));
+            } finally {
+                context.releaseIndexSearcher(indexSearcher);
+            }
+            assertArrayEquals(Files.readAllBytes(columnarFile), columnar.toByteArray());
+            try (Stream<Path> spooled = Files.list(tempDirectory)) {
+                assertEquals(0, spooled.count());
+            }
+        } finally {
+            Files.deleteIfExists(tempDirectory);
+        }
+    }
+
+    private void index(
+            String groupId,
+            String artifactId,
+            String version,
+            String classifier,
+            String extension,
+            long lastModified,
+            String coordinates)
+            throws Exception {
+        ArtifactInfo ai = new ArtifactInfo("test", groupId, artifactId, version, classifier, extension);
+        ai.setLastModified(lastModified);
+        if (coordinates != null) {
+            ai.setSha1(sha1(coordinates));
+        }
+        indexerEngine.index(
+                context, new ArtifactContext(null, null, null, ai, new Gav(groupId, artifactId, version)));
+    }
+
+    private static String uinfo(Record record) {
+        return new ArtifactInfo(
+                        null,
+                        record.getString(Record.GROUP_ID),
+                        record.getString(Record.ARTIFACT_ID),
+                        record.getString(Record.VERSION),
+                        record.getString(Record.CLASSIFIER),
+                        record.getString(Record.FILE_EXTENSION))
+                .getUinfo();
+    }
+
+    private static String sha1(final String value) throws NoSuchAlgorithmException {
+        StringBuilder result = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-1").digest(value.getBytes(StandardCharsets.UTF_8))) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+}
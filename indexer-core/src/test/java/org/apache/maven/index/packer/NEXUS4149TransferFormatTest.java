@@ -19,6 +19,7 @@
 package org.apache.maven.index.packer;
 
 import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -41,6 +42,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class NEXUS4149TransferFormatTest extends AbstractNexusIndexerTest {
     protected File reposBase = new File(getBasedir(), "src/test/nexus-4149");
@@ -183,6 +185,38 @@ public class NEXUS4149TransferFormatTest extends AbstractNexusIndexerTest {
         }
     }
 
+    @Test
+    public void testColumnarFile() throws Exception {
+        File packTargetDir = new File(getBasedir(), "target/nexus-4149/packed-columnar");
+
+        IndexPacker packer = lookup(IndexPacker.class);
+
+        final IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try {
+            IndexPackingRequest request =
+                    new IndexPackingRequest(context, indexSearcher.getIndexReader(), packTargetDir);
+            request.setCreateIncrementalChunks(false);
+            request.setFormats(Arrays.asList(IndexFormat.FORMAT_V1, IndexFormat.FORMAT_COLUMNAR));
+
+            packer.packIndex(request);
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+
+        File columnarFile = new File(packTargetDir, "nexus-maven-repository-index.columnar");
+        assertTrue(new File(packTargetDir, "nexus-maven-repository-index.columnar.sha1").isFile());
+
+        try (DataInputStream dis =
+                new DataInputStream(new BufferedInputStream(new FileInputStream(columnarFile)))) {
+            assertEquals(ColumnarIndexDataWriter.MAGIC, dis.readInt());
+            assertEquals(ColumnarIndexDataWriter.VERSION, dis.readInt());
+            dis.readLong(); // timestamp
+            // repo1 has 1 artifact, repo2 has 1 artifact and repo3 has 10 artifact
+            assertEquals(12, dis.readInt());
+            assertEquals(ColumnarIndexDataWriter.BLOCK_SIZE, dis.readInt());
+        }
+    }
+
     protected void checkListOfStringDoesNotContainEmptyString(List<String> lst) {
         if (lst != null) {
             for (String str : lst) {
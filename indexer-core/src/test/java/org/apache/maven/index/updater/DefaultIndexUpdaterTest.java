@@ -26,6 +26,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Properties;
@@ -55,6 +56,7 @@ import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -516,6 +518,132 @@ public class DefaultIndexUpdaterTest extends AbstractIndexUpdaterTest {
         assertIndexUpdateSucceeded(updateResult);
     }
 
+    @Test
+    public void testIncrementalIndexUpdateSequentialChunks() throws Exception {
+        assertIncrementalIndexUpdate(1, false);
+    }
+
+    @Test
+    public void testIncrementalIndexUpdateConcurrentChunks() throws Exception {
+        assertIncrementalIndexUpdate(3, false);
+    }
+
+    @Test
+    public void testIncrementalIndexUpdateAppliedDirectly() throws Exception {
+        assertIncrementalIndexUpdate(1, true);
+    }
+
+    @Test
+    public void testIncrementalIndexUpdateConcurrentChunksAppliedDirectly() throws Exception {
+        assertIncrementalIndexUpdate(3, true);
+    }
+
+    private void assertIncrementalIndexUpdate(int chunkThreads, boolean applyChunksDirectly) throws Exception {
+        File remoteDir = new File(testBasedir, "remote");
+        File localIndexDir = new File(testBasedir, "local-index");
+
+        indexer.addArtifactToIndex(
+                createArtifactContext(repositoryId, "commons-lang", "commons-lang", "2.2", null), context);
+        packIndex(remoteDir, context);
+
+        IndexingContext localContext = indexer.addIndexingContext(
+                repositoryId + "local", repositoryId, null, localIndexDir, repositoryUrl, null, MIN_CREATORS);
+        try {
+            IndexUpdateRequest updateRequest =
+                    new IndexUpdateRequest(localContext, new DefaultIndexUpdater.FileFetcher(remoteDir));
+            assertTrue(updater.fetchAndUpdateIndex(updateRequest).isFullUpdate());
+
+            // three chunks, the last one adding back what the second one deleted
+            indexer.addArtifactToIndex(
+                    createArtifactContext(repositoryId, "commons-lang", "commons-lang", "2.3", null), context);
+            packIndex(remoteDir, context);
+
+            indexer.deleteArtifactFromIndex(
+                    createArtifactContext(repositoryId, "commons-lang", "commons-lang", "2.2", null), context);
+            indexer.addArtifactToIndex(
+                    createArtifactContext(repositoryId, "commons-lang", "commons-lang", "2.4", null), context);
+            packIndex(remoteDir, context);
+
+            indexer.addArtifactToIndex(
+                    createArtifactContext(repositoryId, "commons-lang", "commons-lang", "2.2", null), context);
+            packIndex(remoteDir, context);
+
+            updateRequest = new IndexUpdateRequest(localContext, new DefaultIndexUpdater.FileFetcher(remoteDir));
+            updateRequest.setChunkThreads(chunkThreads);
+            updateRequest.setApplyChunksDirectly(applyChunksDirectly);
+            File indexTempDir = new File(testBasedir, "index-temp");
+            updateRequest.setIndexTempDir(indexTempDir);
+            IndexUpdateResult updateResult = updater.fetchAndUpdateIndex(updateRequest);
+
+            assertIndexUpdateSucceeded(updateResult);
+            assertFalse(updateResult.isFullUpdate());
+            // every chunk is deleted once merged
+            String[] leftovers = indexTempDir.list();
+            assertTrue(leftovers == null || leftovers.length == 0, Arrays.toString(leftovers));
+
+            Query q = new TermQuery(new Term(ArtifactInfo.GROUP_ID, "commons-lang"));
+            FlatSearchResponse response = indexer.searchFlat(new FlatSearchRequest(q, localContext));
+            assertEquals(3, response.getTotalHits(), response.getResults().toString());
+        } finally {
+            indexer.removeIndexingContext(localContext, true);
+        }
+    }
+
+    @Test
+    public void testFailedChunkRollsBackAppliedChunks() throws Exception {
+        File remoteDir = new File(testBasedir, "remote");
+        File localIndexDir = new File(testBasedir, "local-index");
+
+        indexer.addArtifactToIndex(
+                createArtifactContext(repositoryId, "commons-lang", "commons-lang", "2.2", null), context);
+        packIndex(remoteDir, context);
+
+        IndexingContext localContext = indexer.addIndexingContext(
+                repositoryId + "local", repositoryId, null, localIndexDir, repositoryUrl, null, MIN_CREATORS);
+        try {
+            IndexUpdateRequest updateRequest =
+                    new IndexUpdateRequest(localContext, new DefaultIndexUpdater.FileFetcher(remoteDir));
+            assertTrue(updater.fetchAndUpdateIndex(updateRequest).isFullUpdate());
+
+            indexer.addArtifactToIndex(
+                    createArtifactContext(repositoryId, "commons-lang", "commons-lang", "2.3", null), context);
+            packIndex(remoteDir, context);
+            indexer.addArtifactToIndex(
+                    createArtifactContext(repositoryId, "commons-lang", "commons-lang", "2.4", null), context);
+            packIndex(remoteDir, context);
+
+            // the second chunk fails, once the first one is applied
+            updateRequest = new IndexUpdateRequest(localContext, new DefaultIndexUpdater.FileFetcher(remoteDir) {
+                private int chunks;
+
+                @Override
+                public InputStream retrieve(String name) throws IOException {
+                    if (name.endsWith(".gz") && ++chunks == 2) {
+                        throw new IOException("Failed to retrieve " + name);
+                    }
+                    return super.retrieve(name);
+                }
+            });
+            updateRequest.setApplyChunksDirectly(true);
+            IndexUpdateRequest failingRequest = updateRequest;
+            assertThrows(IOException.class, () -> updater.fetchAndUpdateIndex(failingRequest));
+
+            Query q = new TermQuery(new Term(ArtifactInfo.GROUP_ID, "commons-lang"));
+            assertEquals(1, indexer.searchFlat(new FlatSearchRequest(q, localContext)).getTotalHits());
+            // not even committed by an unrelated commit
+            localContext.commit();
+            assertEquals(1, indexer.searchFlat(new FlatSearchRequest(q, localContext)).getTotalHits());
+
+            // applied again next time
+            updateRequest = new IndexUpdateRequest(localContext, new DefaultIndexUpdater.FileFetcher(remoteDir));
+            updateRequest.setApplyChunksDirectly(true);
+            assertIndexUpdateSucceeded(updater.fetchAndUpdateIndex(updateRequest));
+            assertEquals(3, indexer.searchFlat(new FlatSearchRequest(q, localContext)).getTotalHits());
+        } finally {
+            indexer.removeIndexingContext(localContext, true);
+        }
+    }
+
     @Test
     public void testIncrementalIndexUpdateNoCounter() throws Exception {
         Mockery mockery = new Mockery();
@@ -20,29 +20,48 @@ package org.apache.maven.index.updater;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.Term;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.store.ByteBuffersDirectory;
 import org.apache.lucene.store.Directory;
+import org.apache.lucene.util.Bits;
 import org.apache.maven.index.AbstractRepoNexusIndexerTest;
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.NexusIndexer;
 import org.apache.maven.index.context.IndexUtils;
+import org.apache.maven.index.context.NexusAnalyzer;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
 
 /**
  * @author Eugene Kuleshov
@@ -140,6 +159,251 @@ public class IndexDataTest extends AbstractRepoNexusIndexerTest {
         assertEquals(r1map.size(), r2map.size());
     }
 
+    @Test
+    public void testDataMultiThreaded() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        IndexDataWriter dw = new IndexDataWriter(bos);
+        final IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try {
+            dw.write(context, indexSearcher.getIndexReader(), null);
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+
+        Directory mtDir = new ByteBuffersDirectory();
+
+        DefaultIndexUpdater.unpackIndexData(new ByteArrayInputStream(bos.toByteArray()), 4, mtDir, context);
+
+        Map<String, ArtifactInfo> r1map = readIndex(DirectoryReader.open(newDir));
+
+        Map<String, ArtifactInfo> r2map = readIndex(DirectoryReader.open(mtDir));
+
+        assertEquals(r1map.keySet(), r2map.keySet());
+    }
+
+    @Test
+    public void testParallelWriter() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        int n;
+        final IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try {
+            // small blocks, so documents are spread over many independently compressed blocks
+            ParallelIndexDataWriter dw = new ParallelIndexDataWriter(bos, 4, 3);
+            n = dw.write(context, indexSearcher.getIndexReader(), null);
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+
+        // a plain GZIP reader verifies the trailer checksum and size
+        try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            byte[] buffer = new byte[8192];
+            while (is.read(buffer) != -1) {
+                // drain
+            }
+        }
+
+        Directory parallelDir = new ByteBuffersDirectory();
+
+        IndexDataReader.IndexDataReadResult result = DefaultIndexUpdater.unpackIndexData(
+                new ByteArrayInputStream(bos.toByteArray()), 1, parallelDir, context);
+
+        assertEquals(context.getTimestamp(), result.getTimestamp());
+        // plus the all groups and root groups documents
+        assertEquals(n + 2, result.getDocumentCount());
+
+        Map<String, ArtifactInfo> r1map = readIndex(DirectoryReader.open(newDir));
+
+        Map<String, ArtifactInfo> r2map = readIndex(DirectoryReader.open(parallelDir));
+
+        assertEquals(r1map.keySet(), r2map.keySet());
+    }
+
+    @Test
+    public void testDecodedFieldsShareNamesAndTypes() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+
+        IndexDataWriter dw = new IndexDataWriter(bos);
+        final IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try {
+            dw.write(context, indexSearcher.getIndexReader(), null);
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+
+        IndexDataReader reader = new IndexDataReader(new ByteArrayInputStream(bos.toByteArray()));
+        reader.readHeader();
+
+        IndexableField first = null;
+        Document doc;
+        while ((doc = reader.readDocument()) != null) {
+            IndexableField uinfo = doc.getField(ArtifactInfo.UINFO);
+            if (uinfo == null) {
+                continue;
+            }
+            if (first == null) {
+                first = uinfo;
+            } else {
+                assertSame(first.name(), uinfo.name());
+                assertSame(first.fieldType(), uinfo.fieldType());
+                return;
+            }
+        }
+        fail("Expected at least two artifact documents");
+    }
+
+    @Test
+    public void testDecodedFieldsRoundTrip() throws Exception {
+        StringBuilder classNames = new StringBuilder();
+        while (classNames.length() < 200 * 1024) {
+            classNames.append("/org/example/Cl\u00e4ss\u4e2d").append(classNames.length()).append('\n');
+        }
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        IndexDataWriter dw = new IndexDataWriter(bos);
+        dw.writeHeader(context);
+        dw.writeDocumentFields(Arrays.asList(
+                new StringField(ArtifactInfo.UINFO, "g|a|1.0|NA|jar", Field.Store.YES),
+                new StoredField(ArtifactInfo.NAMES, classNames.toString())));
+        // decoded after the buffers grown for the large value are dropped
+        dw.writeDocumentFields(Arrays.asList(
+                new StringField(ArtifactInfo.UINFO, "g|b|1.0|NA|jar", Field.Store.YES),
+                new StoredField(ArtifactInfo.NAME, "N\u00e4me \u4e2d")));
+        dw.close();
+
+        IndexDataReader reader = new IndexDataReader(new ByteArrayInputStream(bos.toByteArray()));
+        reader.readHeader();
+
+        Document large = reader.readDocument();
+        assertEquals("g|a|1.0|NA|jar", large.get(ArtifactInfo.UINFO));
+        assertEquals(classNames.toString(), large.get(ArtifactInfo.NAMES));
+
+        Document small = reader.readDocument();
+        assertEquals("g|b|1.0|NA|jar", small.get(ArtifactInfo.UINFO));
+        assertEquals("N\u00e4me \u4e2d", small.get(ArtifactInfo.NAME));
+
+        assertNull(reader.readDocument());
+    }
+
+    @Test
+    public void testNegativeFieldLength() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(new GZIPOutputStream(bos))) {
+            dos.writeByte(IndexDataWriter.VERSION);
+            dos.writeLong(-1);
+            dos.writeInt(1);
+            dos.writeByte(IndexDataWriter.F_STORED);
+            dos.writeUTF(ArtifactInfo.UINFO);
+            dos.writeInt(-42);
+        }
+
+        IndexDataReader reader = new IndexDataReader(new ByteArrayInputStream(bos.toByteArray()));
+        reader.readHeader();
+
+        IOException e = assertThrows(IOException.class, reader::readDocument);
+        assertTrue(e.getMessage().contains("MINDEXER-28"), e.getMessage());
+    }
+
+    @Test
+    public void testApplyChunkTwice() throws Exception {
+        Document artifact = null;
+        String deleted = null;
+        final IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try {
+            IndexReader r = indexSearcher.getIndexReader();
+            for (int i = 0; i < r.maxDoc() && deleted == null; i++) {
+                Document document = r.storedFields().document(i);
+                if (document.get(ArtifactInfo.UINFO) != null) {
+                    if (artifact == null) {
+                        artifact = document;
+                    } else {
+                        deleted = document.get(ArtifactInfo.UINFO);
+                    }
+                }
+            }
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+        assertNotNull(deleted);
+
+        Document marker = new Document();
+        marker.add(new StoredField(ArtifactInfo.DELETED, deleted));
+        marker.add(new StoredField(ArtifactInfo.LAST_MODIFIED, Long.toString(System.currentTimeMillis())));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        IndexDataWriter dw = new IndexDataWriter(bos);
+        dw.writeHeader(context);
+        dw.writeDocument(artifact);
+        dw.writeDocument(marker);
+        dw.close();
+
+        byte[] chunk = bos.toByteArray();
+        new IndexDataReader(new ByteArrayInputStream(chunk)).applyIndex(context.getIndexWriter(), context, null);
+        context.commit();
+        final int size = context.getSize();
+
+        // as after a failure, the chunk is applied again
+        new IndexDataReader(new ByteArrayInputStream(chunk)).applyIndex(context.getIndexWriter(), context, null);
+        context.commit();
+        assertEquals(size, context.getSize());
+
+        final IndexSearcher searcher = context.acquireIndexSearcher();
+        try {
+            assertEquals(1, searcher.count(new TermQuery(new Term(ArtifactInfo.DELETED_KEY, deleted))));
+            assertEquals(0, searcher.count(new TermQuery(new Term(ArtifactInfo.UINFO, deleted))));
+            String uinfo = artifact.get(ArtifactInfo.UINFO);
+            assertEquals(1, searcher.count(new TermQuery(new Term(ArtifactInfo.UINFO, uinfo))));
+        } finally {
+            context.releaseIndexSearcher(searcher);
+        }
+    }
+
+    @Test
+    public void testMergeChunkTwice() throws Exception {
+        String deleted = null;
+        final IndexSearcher indexSearcher = context.acquireIndexSearcher();
+        try {
+            IndexReader r = indexSearcher.getIndexReader();
+            for (int i = 0; i < r.maxDoc() && deleted == null; i++) {
+                deleted = r.storedFields().document(i).get(ArtifactInfo.UINFO);
+            }
+        } finally {
+            context.releaseIndexSearcher(indexSearcher);
+        }
+        assertNotNull(deleted);
+
+        Document marker = new Document();
+        marker.add(new StoredField(ArtifactInfo.DELETED, deleted));
+        marker.add(new StoredField(ArtifactInfo.LAST_MODIFIED, Long.toString(System.currentTimeMillis())));
+
+        Directory chunk = new ByteBuffersDirectory();
+        try (IndexWriter w = new IndexWriter(chunk, new IndexWriterConfig(new NexusAnalyzer()))) {
+            w.addDocument(marker);
+        }
+
+        context.merge(chunk);
+        // merges keep the history of deletions, as the markers come in
+        context.merge(chunk);
+
+        final IndexSearcher searcher = context.acquireIndexSearcher();
+        try {
+            IndexReader r = searcher.getIndexReader();
+            Bits liveDocs = MultiBits.getLiveDocs(r);
+            int markers = 0;
+            for (int i = 0; i < r.maxDoc(); i++) {
+                if ((liveDocs == null || liveDocs.get(i))
+                        && deleted.equals(r.storedFields().document(i).get(ArtifactInfo.DELETED))) {
+                    markers++;
+                }
+            }
+            assertEquals(2, markers);
+            assertEquals(0, searcher.count(new TermQuery(new Term(ArtifactInfo.UINFO, deleted))));
+        } finally {
+            context.releaseIndexSearcher(searcher);
+        }
+    }
+
     private Map<String, ArtifactInfo> readIndex(IndexReader r1) throws CorruptIndexException, IOException {
         Map<String, ArtifactInfo> map = new HashMap<>();
 
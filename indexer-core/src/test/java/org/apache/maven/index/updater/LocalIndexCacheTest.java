@@ -373,4 +373,58 @@ public class LocalIndexCacheTest extends AbstractIndexUpdaterTest {
         assertEquals(0, fetcher.getRetrievedResources().size());
         assertGroupCount(1, "commons-lang", testContext);
     }
+
+    @Test
+    public void testSharedChunkCache() throws Exception {
+        indexer.addArtifactToIndex(
+                createArtifactContext(repositoryId, "commons-lang", "commons-lang", "2.2", null), context);
+        packIndex(remoteRepo, context);
+
+        File sharedCacheDir = new File("target/localcache/shared").getCanonicalFile();
+        FileUtils.deleteDirectory(sharedCacheDir);
+        SharedChunkCache sharedCache = new SharedChunkCache(sharedCacheDir, 1024 * 1024, null);
+
+        File[] cacheDirs = {new File(localCacheDir, "a"), new File(localCacheDir, "b")};
+        IndexingContext testContext = getNewTempContext();
+
+        // initial index download of both caches (expected: full index download)
+        for (File cacheDir : cacheDirs) {
+            TrackingFetcher fetcher = new TrackingFetcher(remoteRepo);
+            IndexUpdateRequest updateRequest = new IndexUpdateRequest(testContext, fetcher);
+            updateRequest.setLocalIndexCacheDir(cacheDir);
+            updateRequest.setCacheOnly(true);
+            updateRequest.setSharedChunkCache(sharedCache);
+            updater.fetchAndUpdateIndex(updateRequest);
+            assertTrue(fetcher.getRetrievedResources().contains("nexus-maven-repository-index.gz"));
+        }
+
+        // incremental remote update
+        indexer.addArtifactToIndex(
+                createArtifactContext(repositoryId, "commons-lang", "commons-lang", "2.3", null), context);
+        packIndex(remoteRepo, context);
+
+        // update both caches (expected: the chunk is downloaded only once)
+        int chunkDownloads = 0;
+        for (File cacheDir : cacheDirs) {
+            TrackingFetcher fetcher = new TrackingFetcher(remoteRepo);
+            IndexUpdateRequest updateRequest = new IndexUpdateRequest(testContext, fetcher);
+            updateRequest.setLocalIndexCacheDir(cacheDir);
+            updateRequest.setCacheOnly(true);
+            updateRequest.setSharedChunkCache(sharedCache);
+            updater.fetchAndUpdateIndex(updateRequest);
+            if (fetcher.getRetrievedResources().contains("nexus-maven-repository-index.1.gz")) {
+                chunkDownloads++;
+            }
+            assertTrue(new File(cacheDir, "nexus-maven-repository-index.1.gz").exists());
+        }
+        assertEquals(1, chunkDownloads);
+        assertEquals(1, sharedCacheDir.listFiles((dir, name) -> name.endsWith(".gz")).length);
+
+        // the index built from second cache contains the chunk
+        IndexUpdateRequest updateRequest = new IndexUpdateRequest(testContext, new TrackingFetcher(remoteRepo));
+        updateRequest.setLocalIndexCacheDir(cacheDirs[1]);
+        updateRequest.setOffline(true);
+        updater.fetchAndUpdateIndex(updateRequest);
+        assertGroupCount(2, "commons-lang", testContext);
+    }
 }
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.updater;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.index.packer.DigesterUtils;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SharedChunkCacheTest {
+    private static final String CHAIN_ID = "chain";
+
+    private final Map<String, byte[]> resources = new HashMap<>();
+
+    private final List<String> retrieved = new ArrayList<>();
+
+    private final ResourceFetcher source = new ResourceFetcher() {
+        @Override
+        public void connect(String id, String url) {
+            // nothing to do
+        }
+
+        @Override
+        public void disconnect() {
+            // nothing to do
+        }
+
+        @Override
+        public InputStream retrieve(String name) throws IOException {
+            retrieved.add(name);
+            byte[] content = resources.get(name);
+            if (content == null) {
+                throw new FileNotFoundException(name);
+            }
+            return new ByteArrayInputStream(content);
+        }
+    };
+
+    private File directory;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("shared-chunk-cache").toFile();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testCachedChunkIsServedLocally() throws Exception {
+        SharedChunkCache cache = new SharedChunkCache(directory, 1024, null);
+        publish(1, true);
+
+        assertArrayEquals(resources.get(chunkName(1)), retrieve(cache, 1));
+        assertEquals(Arrays.asList(chunkName(1) + ".sha1", chunkName(1)), retrieved);
+
+        // not even its SHA-1 is retrieved again
+        retrieved.clear();
+        assertArrayEquals(resources.get(chunkName(1)), retrieve(cache, 1));
+        assertEquals(Collections.emptyList(), retrieved);
+    }
+
+    @Test
+    public void testVerifiedSha1IsRecorded() throws Exception {
+        SharedChunkCache cache = new SharedChunkCache(directory, 1024, null);
+        publish(1, true);
+        publish(2, false);
+
+        retrieve(cache, 1);
+        retrieve(cache, 2);
+
+        String expected = DigesterUtils.getSha1Digest(new ByteArrayInputStream(resources.get(chunkName(2))));
+        assertEquals(new String(resources.get(chunkName(1) + ".sha1"), StandardCharsets.US_ASCII), cachedSha1(1));
+        assertEquals(expected, cachedSha1(2));
+    }
+
+    @Test
+    public void testUnpublishedSha1() throws Exception {
+        SharedChunkCache cache = new SharedChunkCache(directory, 1024, null);
+        publish(1, false);
+
+        assertArrayEquals(resources.get(chunkName(1)), retrieve(cache, 1));
+
+        retrieved.clear();
+        assertArrayEquals(resources.get(chunkName(1)), retrieve(cache, 1));
+        assertEquals(Collections.emptyList(), retrieved);
+    }
+
+    @Test
+    public void testChangedChunkIsDownloadedAgain() throws Exception {
+        SharedChunkCache cache = new SharedChunkCache(directory, 1024, null);
+        publish(1, true);
+        retrieve(cache, 1);
+
+        // the cached chunk no longer matches the recorded size
+        Files.write(cachedChunk(1).toPath(), "corrupt".getBytes(StandardCharsets.UTF_8));
+
+        retrieved.clear();
+        assertArrayEquals(resources.get(chunkName(1)), retrieve(cache, 1));
+        assertTrue(retrieved.contains(chunkName(1)));
+        assertArrayEquals(resources.get(chunkName(1)), Files.readAllBytes(cachedChunk(1).toPath()));
+    }
+
+    @Test
+    public void testPublishedSha1Mismatch() throws Exception {
+        SharedChunkCache cache = new SharedChunkCache(directory, 1024, null);
+        publish(1, true);
+        resources.put(chunkName(1) + ".sha1", DigesterUtils.getSha1Digest("other").getBytes(StandardCharsets.US_ASCII));
+
+        assertThrows(IOException.class, () -> retrieve(cache, 1));
+        assertEquals(0, directory.list((dir, name) -> name.endsWith(".gz")).length);
+    }
+
+    @Test
+    public void testSha1RetrievalFailure() throws Exception {
+        SharedChunkCache cache = new SharedChunkCache(directory, 1024, null);
+        publish(1, true);
+        ResourceFetcher failing = new ResourceFetcher() {
+            @Override
+            public void connect(String id, String url) {
+                // nothing to do
+            }
+
+            @Override
+            public void disconnect() {
+                // nothing to do
+            }
+
+            @Override
+            public InputStream retrieve(String name) throws IOException {
+                if (name.endsWith(".sha1")) {
+                    throw new IOException("Unexpected response");
+                }
+                return source.retrieve(name);
+            }
+        };
+
+        // only a missing SHA-1 counts as not published, the chunk is not cached unverified
+        assertThrows(IOException.class, () -> cache.retrieve(failing, CHAIN_ID, chunkName(1)));
+        assertFalse(cachedChunk(1).exists());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() throws Exception {
+        // fits two chunks of 100 bytes
+        SharedChunkCache cache = new SharedChunkCache(directory, 250, null);
+        publish(1, true);
+        publish(2, true);
+        publish(3, true);
+
+        retrieve(cache, 1);
+        retrieve(cache, 2);
+        long now = System.currentTimeMillis();
+        cachedChunk(1).setLastModified(now - 20000L);
+        cachedChunk(2).setLastModified(now - 10000L);
+
+        // using chunk 1 makes chunk 2 the least recently used
+        retrieve(cache, 1);
+        retrieve(cache, 3);
+
+        assertTrue(cachedChunk(1).exists());
+        File evicted = cachedChunk(2);
+        assertFalse(evicted.exists());
+        assertFalse(new File(directory, evicted.getName().replace(".gz", ".length")).exists());
+        assertFalse(new File(directory, evicted.getName().replace(".gz", ".sha1")).exists());
+        assertTrue(cachedChunk(3).exists());
+    }
+
+    private void publish(int chunk, boolean sha1) {
+        byte[] content = new byte[100];
+        Arrays.fill(content, (byte) chunk);
+        resources.put(chunkName(chunk), content);
+        if (sha1) {
+            resources.put(
+                    chunkName(chunk) + ".sha1",
+                    DigesterUtils.getSha1Digest(new ByteArrayInputStream(content))
+                            .getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    private byte[] retrieve(SharedChunkCache cache, int chunk) throws IOException {
+        try (InputStream is = cache.retrieve(source, CHAIN_ID, chunkName(chunk))) {
+            return IOUtil.toByteArray(is);
+        }
+    }
+
+    private File cachedChunk(int chunk) {
+        return new File(directory, CHAIN_ID + "-" + chunk + ".gz");
+    }
+
+    private String cachedSha1(int chunk) throws IOException {
+        return FileUtils.fileRead(new File(directory, CHAIN_ID + "-" + chunk + ".sha1"));
+    }
+
+    private static String chunkName(int chunk) {
+        return "nexus-maven-repository-index." + chunk + ".gz";
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.util;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.aether.util.version.GenericVersionScheme;
+import org.eclipse.aether.version.VersionScheme;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class VersionKeysTest {
+    private static final List<String> VERSIONS = Arrays.asList(
+            "0",
+            "00",
+            "0.0",
+            "0.1",
+            "0-SNAPSHOT",
+            "0.0.1-SNAPSHOT",
+            "1",
+            "1.0",
+            "1.0.0",
+            "01.00",
+            "1-SNAPSHOT",
+            "1.0-SNAPSHOT",
+            "1.0.1",
+            "1.0.0.1",
+            "1.0.1-SNAPSHOT",
+            "1.1",
+            "1.2",
+            "1.10",
+            "1.9.9",
+            "1.10-SNAPSHOT",
+            "2",
+            "2.0.0-SNAPSHOT",
+            "10",
+            "99999999999",
+            "100000000000.1",
+            "100000000000.1-SNAPSHOT");
+
+    @Test
+    public void orderedAsGenericVersionScheme() throws Exception {
+        VersionScheme scheme = new GenericVersionScheme();
+        for (String v1 : VERSIONS) {
+            byte[] k1 = VersionKeys.encode(v1);
+            assertNotNull(k1, v1);
+            for (String v2 : VERSIONS) {
+                byte[] k2 = VersionKeys.encode(v2);
+                int expected = Integer.signum(scheme.parseVersion(v1).compareTo(scheme.parseVersion(v2)));
+                assertEquals(expected, Integer.signum(VersionKeys.compare(k1, k2)), v1 + " <> " + v2);
+            }
+        }
+    }
+
+    @Test
+    public void noKey() {
+        for (String version : Arrays.asList(
+                null, "", ".", "1.", ".1", "1..2", "1-2", "1.0-alpha-1", "1.0-snapshot", "1.0-20090101.123456-1")) {
+            assertNull(VersionKeys.encode(version), version);
+        }
+    }
+}
@@ -361,6 +361,8 @@ public class BasicUsageExample {
                 HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
                 if (response.statusCode() == HttpURLConnection.HTTP_OK) {
                     return response.body();
+                } else if (response.statusCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+                    throw new FileNotFoundException(name);
                 } else {
                     throw new IOException("Unexpected response: " + response);
                 }
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.reader;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * {@link Spliterator} over a sequential source of raw records, that splits off fixed size batches of decoded records.
+ * The decoding stays sequential, while the split off batches may be processed (ie. expanded) by the fork-join pool.
+ * Unlike {@link Spliterators#spliteratorUnknownSize(Iterator, int)}, batches do not grow, keeping the count of decoded
+ * but not yet processed records bounded.
+ *
+ * @since 7.1.7
+ */
+final class BatchSpliterator implements Spliterator<Map<String, String>> {
+    static final int BATCH_SIZE = 1024;
+
+    private final Iterator<Map<String, String>> records;
+
+    private final int characteristics;
+
+    BatchSpliterator(final Iterator<Map<String, String>> records, final boolean ordered) {
+        this.records = records;
+        this.characteristics = ordered ? Spliterator.NONNULL | Spliterator.ORDERED : Spliterator.NONNULL;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Map<String, String>> action) {
+        if (records.hasNext()) {
+            action.accept(records.next());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(final Consumer<? super Map<String, String>> action) {
+        records.forEachRemaining(action);
+    }
+
+    @Override
+    public Spliterator<Map<String, String>> trySplit() {
+        if (!records.hasNext()) {
+            return null;
+        }
+        Object[] batch = new Object[BATCH_SIZE];
+        int size = 0;
+        while (size < BATCH_SIZE && records.hasNext()) {
+            batch[size++] = records.next();
+        }
+        return Spliterators.spliterator(batch, 0, size, characteristics);
+    }
+
+    @Override
+    public long estimateSize() {
+        return Long.MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return characteristics;
+    }
+}
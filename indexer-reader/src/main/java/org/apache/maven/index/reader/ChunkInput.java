@@ -0,0 +1,469 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.reader;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Buffered decoder of the inflated chunk content. It reads the transport format primitives directly out of a reusable
+ * byte buffer, that is filled either from a stream, or by inflating a memory mapped local file.
+ *
+ * @since 7.1.7
+ */
+final class ChunkInput implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int MAX_CACHED_NAMES = 256;
+
+    /**
+     * Source of inflated chunk bytes.
+     */
+    interface Source extends Closeable {
+        /**
+         * Reads at least one byte into passed in array, or returns {@code -1} if source is depleted.
+         */
+        int read(byte[] bytes, int off, int len) throws IOException;
+    }
+
+    private final Source source;
+
+    private byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private byte[][] nameBytes = new byte[16][];
+
+    private String[] names = new String[16];
+
+    private int nameCount;
+
+    private char[] nameChars = new char[64];
+
+    ChunkInput(final Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Creates input reading the GZIP compressed stream.
+     */
+    static ChunkInput stream(final InputStream inputStream) throws IOException {
+        return new ChunkInput(new StreamSource(new GZIPInputStream(inputStream, BUFFER_SIZE)));
+    }
+
+    /**
+     * Creates input reading the GZIP compressed local file, that is memory mapped and inflated without any stream in
+     * between.
+     */
+    static ChunkInput mapped(final Path path) throws IOException {
+        return new ChunkInput(new MappedGzipSource(path));
+    }
+
+    /**
+     * Returns {@code true} if there is more input available, {@code false} if source is depleted.
+     */
+    boolean hasMore() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        position = 0;
+        limit = 0;
+        int read = source.read(buffer, 0, buffer.length);
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    int readByte() throws IOException {
+        require(1);
+        return buffer[position++] & 0xff;
+    }
+
+    int readUnsignedShort() throws IOException {
+        require(2);
+        int result = ((buffer[position] & 0xff) << 8) | (buffer[position + 1] & 0xff);
+        position += 2;
+        return result;
+    }
+
+    int readInt() throws IOException {
+        require(4);
+        int result = ((buffer[position] & 0xff) << 24)
+                | ((buffer[position + 1] & 0xff) << 16)
+                | ((buffer[position + 2] & 0xff) << 8)
+                | (buffer[position + 3] & 0xff);
+        position += 4;
+        return result;
+    }
+
+    long readLong() throws IOException {
+        return ((long) readInt() << 32) | (readInt() & 0xffffffffL);
+    }
+
+    /**
+     * Reads a field name written by {@link java.io.DataOutput#writeUTF(String)}. As records use a small set of names,
+     * these are decoded once and then served from cache.
+     */
+    String readName() throws IOException {
+        int utflen = readUnsignedShort();
+        require(utflen);
+        for (int i = 0; i < nameCount; i++) {
+            byte[] candidate = nameBytes[i];
+            if (Arrays.equals(candidate, 0, candidate.length, buffer, position, position + utflen)) {
+                position += utflen;
+                return names[i];
+            }
+        }
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + utflen);
+        if (nameChars.length < utflen) {
+            nameChars = new char[utflen];
+        }
+        String name = new String(nameChars, 0, decodeUTF(utflen, nameChars, 0));
+        if (nameCount < MAX_CACHED_NAMES) {
+            if (nameCount == names.length) {
+                nameBytes = Arrays.copyOf(nameBytes, nameCount * 2);
+                names = Arrays.copyOf(names, nameCount * 2);
+            }
+            nameBytes[nameCount] = bytes;
+            names[nameCount++] = name;
+        }
+        return name;
+    }
+
+    /**
+     * Decodes {@code utflen} bytes of modified UTF-8 into passed in array that must have at least {@code utflen}
+     * capacity after {@code off}, and returns the count of decoded chars.
+     */
+    int decodeUTF(final int utflen, final char[] chars, final int off) throws IOException {
+        require(utflen);
+        final byte[] bytes = buffer;
+        final int start = position;
+        final int end = start + utflen;
+        int count = start;
+        int charCount = off;
+        int c, char2, char3;
+
+        while (count < end) {
+            c = bytes[count] & 0xff;
+            if (c > 127) {
+                break;
+            }
+            count++;
+            chars[charCount++] = (char) c;
+        }
+
+        while (count < end) {
+            c = bytes[count] & 0xff;
+            switch (c >> 4) {
+                case 0:
+                case 1:
+                case 2:
+                case 3:
+                case 4:
+                case 5:
+                case 6:
+                case 7:
+                    /* 0xxxxxxx */
+                    count++;
+                    chars[charCount++] = (char) c;
+                    break;
+
+                case 12:
+                case 13:
+                    /* 110x xxxx 10xx xxxx */
+                    count += 2;
+                    if (count > end) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    char2 = bytes[count - 1];
+                    if ((char2 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + (count - start));
+                    }
+                    chars[charCount++] = (char) (((c & 0x1F) << 6) | (char2 & 0x3F));
+                    break;
+
+                case 14:
+                    /* 1110 xxxx 10xx xxxx 10xx xxxx */
+                    count += 3;
+                    if (count > end) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    char2 = bytes[count - 2];
+                    char3 = bytes[count - 1];
+                    if (((char2 & 0xC0) != 0x80) || ((char3 & 0xC0) != 0x80)) {
+                        throw new UTFDataFormatException("malformed input around byte " + (count - start - 1));
+                    }
+                    chars[charCount++] = (char) (((c & 0x0F) << 12) | ((char2 & 0x3F) << 6) | (char3 & 0x3F));
+                    break;
+
+                default:
+                    /* 10xx xxxx, 1111 xxxx */
+                    throw new UTFDataFormatException("malformed input around byte " + (count - start));
+            }
+        }
+
+        position = end;
+        // The number of chars produced may be less than utflen
+        return charCount - off;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * Makes sure that at least {@code count} bytes are buffered, growing the buffer for values larger than it.
+     */
+    private void require(final int count) throws IOException {
+        if (limit - position >= count) {
+            return;
+        }
+        if (count < 0) {
+            throw new IOException("Index data content is corrupt");
+        }
+        if (position > 0 || count > buffer.length) {
+            byte[] target = buffer;
+            if (count > buffer.length) {
+                try {
+                    target = new byte[Math.max(count, buffer.length * 2)];
+                } catch (OutOfMemoryError e) {
+                    throw new IOException("Index data content is corrupt", e);
+                }
+            }
+            System.arraycopy(buffer, position, target, 0, limit - position);
+            limit -= position;
+            position = 0;
+            buffer = target;
+        }
+        while (limit < count) {
+            int read = source.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            limit += read;
+        }
+    }
+
+    /**
+     * {@link Source} backed by a stream of inflated bytes.
+     */
+    private static final class StreamSource implements Source {
+        private final InputStream inputStream;
+
+        private StreamSource(final InputStream inputStream) {
+            this.inputStream = inputStream;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int off, final int len) throws IOException {
+            return inputStream.read(bytes, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
+
+    /**
+     * {@link Source} that memory maps a GZIP file (in regions, to support files over 2GB) and feeds the mapped buffers
+     * directly to an {@link Inflater}, verifying the GZIP trailers on the fly.
+     */
+    private static final class MappedGzipSource implements Source {
+        private static final long REGION_SIZE = 1L << 30;
+
+        private static final int FHCRC = 2;
+
+        private static final int FEXTRA = 4;
+
+        private static final int FNAME = 8;
+
+        private static final int FCOMMENT = 16;
+
+        private final FileChannel channel;
+
+        private final long size;
+
+        private final Inflater inflater = new Inflater(true);
+
+        private final CRC32 crc = new CRC32();
+
+        private long regionStart;
+
+        private MappedByteBuffer region;
+
+        private long memberSize;
+
+        private boolean depleted;
+
+        private MappedGzipSource(final Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                this.size = channel.size();
+                map(0L);
+                readHeader();
+            } catch (IOException | RuntimeException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int off, final int len) throws IOException {
+            while (!depleted) {
+                int inflated;
+                try {
+                    inflated = inflater.inflate(bytes, off, len);
+                } catch (DataFormatException e) {
+                    String message = e.getMessage();
+                    throw new ZipException(message != null ? message : "Invalid ZLIB data format");
+                }
+                if (inflated > 0) {
+                    crc.update(bytes, off, inflated);
+                    memberSize += inflated;
+                    return inflated;
+                }
+                if (inflater.finished()) {
+                    readTrailer();
+                    depleted = !nextMember();
+                } else if (inflater.needsDictionary()) {
+                    throw new ZipException("ZLIB dictionary missing");
+                } else if (inflater.needsInput()) {
+                    if (!nextRegion()) {
+                        throw new EOFException("Unexpected end of ZLIB input stream");
+                    }
+                    inflater.setInput(region);
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            channel.close();
+        }
+
+        private void map(final long start) throws IOException {
+            regionStart = start;
+            region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, size - start));
+        }
+
+        private boolean nextRegion() throws IOException {
+            long next = regionStart + region.limit();
+            if (next >= size) {
+                return false;
+            }
+            map(next);
+            return true;
+        }
+
+        private int readUnsignedByte() throws IOException {
+            if (!region.hasRemaining() && !nextRegion()) {
+                throw new EOFException();
+            }
+            return region.get() & 0xff;
+        }
+
+        private int readUnsignedShortLE() throws IOException {
+            return readUnsignedByte() | (readUnsignedByte() << 8);
+        }
+
+        private long readUnsignedIntLE() throws IOException {
+            return ((long) readUnsignedShortLE()) | ((long) readUnsignedShortLE() << 16);
+        }
+
+        private void skipBytes(final int count) throws IOException {
+            for (int i = 0; i < count; i++) {
+                readUnsignedByte();
+            }
+        }
+
+        private void readHeader() throws IOException {
+            if (readUnsignedShortLE() != GZIPInputStream.GZIP_MAGIC) {
+                throw new ZipException("Not in GZIP format");
+            }
+            if (readUnsignedByte() != 8) {
+                throw new ZipException("Unsupported compression method");
+            }
+            int flags = readUnsignedByte();
+            skipBytes(6); // MTIME, XFL, OS
+            if ((flags & FEXTRA) == FEXTRA) {
+                skipBytes(readUnsignedShortLE());
+            }
+            if ((flags & FNAME) == FNAME) {
+                while (readUnsignedByte() != 0) {
+                    // skip file name
+                }
+            }
+            if ((flags & FCOMMENT) == FCOMMENT) {
+                while (readUnsignedByte() != 0) {
+                    // skip comment
+                }
+            }
+            if ((flags & FHCRC) == FHCRC) {
+                skipBytes(2);
+            }
+            inflater.reset();
+            inflater.setInput(region);
+            crc.reset();
+            memberSize = 0L;
+        }
+
+        private void readTrailer() throws IOException {
+            if (readUnsignedIntLE() != crc.getValue() || readUnsignedIntLE() != (memberSize & 0xffffffffL)) {
+                throw new ZipException("Corrupt GZIP trailer");
+            }
+        }
+
+        /**
+         * Starts inflating the next concatenated GZIP member, if any. Like {@link GZIPInputStream}, trailing bytes
+         * that are not a GZIP member are ignored.
+         */
+        private boolean nextMember() throws IOException {
+            if (size - (regionStart + region.position()) < 10) {
+                return false;
+            }
+            try {
+                readHeader();
+                return true;
+            } catch (ZipException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -19,18 +19,16 @@
 package org.apache.maven.index.reader;
 
 import java.io.Closeable;
-import java.io.DataInput;
-import java.io.DataInputStream;
-import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UTFDataFormatException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.zip.GZIPInputStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Maven Index published binary chunk reader, it reads raw Maven Indexer records from the transport binary format.
@@ -42,17 +40,36 @@ import java.util.zip.GZIPInputStream;
 public class ChunkReader implements Closeable, Iterable<Map<String, String>> {
     private final String chunkName;
 
-    private final DataInputStream dataInputStream;
+    private final ChunkInput input;
 
     private final int version;
 
     private final Date timestamp;
 
     public ChunkReader(final String chunkName, final InputStream inputStream) throws IOException {
+        this(chunkName, ChunkInput.stream(inputStream));
+    }
+
+    /**
+     * Creates a reader of a local chunk file, that is memory mapped and inflated directly, without any stream in
+     * between.
+     *
+     * @since 7.1.7
+     */
+    public ChunkReader(final String chunkName, final Path path) throws IOException {
+        this(chunkName, ChunkInput.mapped(path));
+    }
+
+    private ChunkReader(final String chunkName, final ChunkInput input) throws IOException {
         this.chunkName = chunkName.trim();
-        this.dataInputStream = new DataInputStream(new GZIPInputStream(inputStream, 2 * 1024));
-        this.version = ((int) dataInputStream.readByte()) & 0xff;
-        this.timestamp = new Date(dataInputStream.readLong());
+        this.input = input;
+        try {
+            this.version = input.readByte();
+            this.timestamp = new Date(input.readLong());
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
     }
 
     /**
@@ -76,36 +93,75 @@ public class ChunkReader implements Closeable, Iterable<Map<String, String>> {
         return timestamp;
     }
 
+    /**
+     * Returns a {@link RecordCursor} over the records of this chunk, that does not allocate per record.
+     *
+     * @since 7.1.7
+     */
+    public RecordCursor cursor() {
+        return new RecordCursor(input);
+    }
+
     /**
      * Returns the {@link Record} iterator.
      */
     @Override
     public Iterator<Map<String, String>> iterator() {
         try {
-            return new IndexIterator(dataInputStream);
+            return new IndexIterator(cursor());
         } catch (IOException e) {
             throw new RuntimeException("error", e);
         }
     }
 
+    /**
+     * Returns the ordered stream of expanded {@link Record}s of this chunk, see {@link #stream(boolean, boolean)}.
+     *
+     * @since 7.1.7
+     */
+    public Stream<Record> stream(final boolean parallel) {
+        return stream(parallel, true);
+    }
+
+    /**
+     * Returns the stream of expanded {@link Record}s of this chunk. Records are always decoded sequentially, in
+     * batches, while parallel streams fan the expansion of batches out to the fork-join pool. Unordered streams do not
+     * preserve the order of records in the chunk, sparing parallel pipelines from buffering. Closing the stream closes
+     * this reader.
+     *
+     * @since 7.1.7
+     */
+    public Stream<Record> stream(final boolean parallel, final boolean ordered) {
+        return StreamSupport.stream(new BatchSpliterator(iterator(), ordered), parallel)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .map(new RecordExpander());
+    }
+
     /**
      * Closes this reader and it's underlying input.
      */
     @Override
     public void close() throws IOException {
-        dataInputStream.close();
+        input.close();
     }
 
     /**
-     * Low memory footprint index iterator that incrementally parses the underlying stream.
+     * Low memory footprint index iterator that incrementally parses the underlying stream, copying records of the
+     * {@link RecordCursor} into maps.
      */
     private static class IndexIterator implements Iterator<Map<String, String>> {
-        private final DataInputStream dataInputStream;
+        private final RecordCursor cursor;
 
         private Map<String, String> nextRecord;
 
-        private IndexIterator(final DataInputStream dataInputStream) throws IOException {
-            this.dataInputStream = dataInputStream;
+        private IndexIterator(final RecordCursor cursor) throws IOException {
+            this.cursor = cursor;
             this.nextRecord = nextRecord();
         }
 
@@ -131,117 +187,10 @@ public class ChunkReader implements Closeable, Iterable<Map<String, String>> {
 
         private Map<String, String> nextRecord() {
             try {
-                return readRecord(dataInputStream);
+                return cursor.next() ? cursor.toMap() : null;
             } catch (IOException e) {
                 throw new RuntimeException("read error", e);
             }
         }
     }
-
-    /**
-     * Reads and returns next record from the underlying stream, or {@code null} if no more records.
-     */
-    private static Map<String, String> readRecord(final DataInput dataInput) throws IOException {
-        int fieldCount;
-        try {
-            fieldCount = dataInput.readInt();
-        } catch (EOFException ex) {
-            return null; // no more documents
-        }
-
-        Map<String, String> recordMap = new HashMap<>();
-        for (int i = 0; i < fieldCount; i++) {
-            readField(recordMap, dataInput);
-        }
-        return recordMap;
-    }
-
-    private static void readField(final Map<String, String> record, final DataInput dataInput) throws IOException {
-        dataInput.readByte(); // flags: neglect them
-        String name = dataInput.readUTF();
-        String value = readUTF(dataInput);
-        record.put(name, value);
-    }
-
-    private static String readUTF(final DataInput dataInput) throws IOException {
-        int utflen = dataInput.readInt();
-
-        byte[] bytearr;
-        char[] chararr;
-
-        try {
-            bytearr = new byte[utflen];
-            chararr = new char[utflen];
-        } catch (OutOfMemoryError e) {
-            throw new IOException("Index data content is corrupt", e);
-        }
-
-        int c, char2, char3;
-        int count = 0;
-        int chararrCount = 0;
-
-        dataInput.readFully(bytearr, 0, utflen);
-
-        while (count < utflen) {
-            c = bytearr[count] & 0xff;
-            if (c > 127) {
-                break;
-            }
-            count++;
-            chararr[chararrCount++] = (char) c;
-        }
-
-        while (count < utflen) {
-            c = bytearr[count] & 0xff;
-            switch (c >> 4) {
-                case 0:
-                case 1:
-                case 2:
-                case 3:
-                case 4:
-                case 5:
-                case 6:
-                case 7:
-                    /* 0xxxxxxx */
-                    count++;
-                    chararr[chararrCount++] = (char) c;
-                    break;
-
-                case 12:
-                case 13:
-                    /* 110x xxxx 10xx xxxx */
-                    count += 2;
-                    if (count > utflen) {
-                        throw new UTFDataFormatException("malformed input: partial character at end");
-                    }
-                    char2 = bytearr[count - 1];
-                    if ((char2 & 0xC0) != 0x80) {
-                        throw new UTFDataFormatException("malformed input around byte " + count);
-                    }
-                    chararr[chararrCount++] = (char) (((c & 0x1F) << 6) | (char2 & 0x3F));
-                    break;
-
-                case 14:
-                    /* 1110 xxxx 10xx xxxx 10xx xxxx */
-                    count += 3;
-                    if (count > utflen) {
-                        throw new UTFDataFormatException("malformed input: partial character at end");
-                    }
-                    char2 = bytearr[count - 2];
-                    char3 = bytearr[count - 1];
-                    if (((char2 & 0xC0) != 0x80) || ((char3 & 0xC0) != 0x80)) {
-                        throw new UTFDataFormatException("malformed input around byte " + (count - 1));
-                    }
-                    chararr[chararrCount++] = (char) (((c & 0x0F) << 12) | ((char2 & 0x3F) << 6) | (char3 & 0x3F));
-                    break;
-
-                default:
-                    /* 10xx xxxx, 1111 xxxx */
-                    throw new UTFDataFormatException("malformed input around byte " + count);
-            }
-        }
-
-        // The number of chars produced may be less than utflen
-        return new String(chararr, 0, chararrCount);
-    }
 }
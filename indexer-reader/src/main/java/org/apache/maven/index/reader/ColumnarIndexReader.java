@@ -0,0 +1,434 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.maven.index.reader.Record.Type;
+
+/**
+ * Reader of the columnar index side-car ({@code nexus-maven-repository-index.columnar}), a compact, sorted format
+ * published next to the transfer format by {@code org.apache.maven.index.packer.ColumnarIndexDataWriter}, that
+ * documents the layout. The file is memory mapped (in segments, as it may exceed the size of a single mapping), and
+ * lookups are binary searches over it, without parsing the whole index. Returned {@link Record}s are of
+ * {@link Type#ARTIFACT_ADD} type, and carry coordinates and file modified timestamp (and SHA-1, when looked up by it).
+ * Instances are thread safe, and MUST BE closed once done with them.
+ *
+ * @since 7.1.7
+ */
+public class ColumnarIndexReader implements Closeable {
+    private static final int MAGIC = 0x4D494458; // MIDX
+
+    private static final int VERSION = 1;
+
+    private static final int SHA1_LENGTH = 20;
+
+    private static final int SHA1_ENTRY_LENGTH = SHA1_LENGTH + 4;
+
+    private static final int SEGMENT_SHIFT = 30;
+
+    private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final ByteBuffer[] segments;
+
+    private final Date timestamp;
+
+    private final int rows;
+
+    private final int blockSize;
+
+    private final int groups;
+
+    private final int sha1s;
+
+    private final StringTable groupTable;
+
+    private final long groupFirstArtifacts;
+
+    private final StringTable artifactTable;
+
+    private final long artifactFirstRows;
+
+    private final StringTable tokenTable;
+
+    private final long blocks;
+
+    private final long rowData;
+
+    private final long sha1Data;
+
+    public ColumnarIndexReader(final Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+            this.segments = new ByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                long position = (long) i << SEGMENT_SHIFT;
+                segments[i] =
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, size - position));
+            }
+            if (size < 88 || intAt(0) != MAGIC) {
+                throw new IOException("Not a columnar index: " + path);
+            }
+            if (intAt(4) != VERSION) {
+                throw new IOException("Unsupported columnar index version: " + intAt(4));
+            }
+            this.timestamp = new Date(longAt(8));
+            this.rows = intAt(16);
+            this.blockSize = intAt(20);
+            this.groups = intAt(24);
+            int artifacts = intAt(28);
+            int tokens = intAt(32);
+            this.sha1s = intAt(36);
+            this.groupTable = new StringTable(offset(40), groups);
+            this.groupFirstArtifacts = groupTable.end();
+            this.artifactTable = new StringTable(offset(48), artifacts);
+            this.artifactFirstRows = artifactTable.end();
+            this.tokenTable = new StringTable(offset(56), tokens);
+            this.blocks = offset(64);
+            this.rowData = offset(72);
+            this.sha1Data = offset(80);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the timestamp of the index this columnar index was written from.
+     */
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the count of artifacts in this index.
+     */
+    public int size() {
+        return rows;
+    }
+
+    /**
+     * Returns all the artifacts (all versions, classifiers and extensions) of given groupId and artifactId, sorted by
+     * version order, or empty list if none.
+     */
+    public List<Record> find(final String groupId, final String artifactId) {
+        int group = groupTable.search(0, groups, utf8(groupId));
+        if (group < 0) {
+            return Collections.emptyList();
+        }
+        int artifact = artifactTable.search(
+                intAt(groupFirstArtifacts, group), intAt(groupFirstArtifacts, group + 1), utf8(artifactId));
+        if (artifact < 0) {
+            return Collections.emptyList();
+        }
+        int firstRow = intAt(artifactFirstRows, artifact);
+        int endRow = intAt(artifactFirstRows, artifact + 1);
+        List<Record> result = new ArrayList<>(endRow - firstRow);
+        RowDecoder decoder = new RowDecoder(firstRow);
+        for (int row = firstRow; row < endRow; row++) {
+            result.add(decoder.next(groupId, artifactId));
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code true} if an artifact with given SHA-1 (hex encoded) exists in this index.
+     */
+    public boolean containsSha1(final String sha1) {
+        return searchSha1(sha1) >= 0;
+    }
+
+    /**
+     * Returns the artifact with given SHA-1 (hex encoded), or {@code null} if none.
+     */
+    public Record findBySha1(final String sha1) {
+        int entry = searchSha1(sha1);
+        if (entry < 0) {
+            return null;
+        }
+        int row = intAt(sha1Data + (long) entry * SHA1_ENTRY_LENGTH + SHA1_LENGTH);
+        int artifact = floorIndex(artifactFirstRows, artifactTable.count, row);
+        int group = floorIndex(groupFirstArtifacts, groups, artifact);
+        Record record = new RowDecoder(row).next(groupTable.get(group), artifactTable.get(artifact));
+        record.put(Record.SHA1, sha1.toLowerCase());
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long offset(final long headerPosition) throws IOException {
+        long offset = longAt(headerPosition);
+        if (offset < 0 || offset > size) {
+            throw new IOException("Columnar index content is corrupt");
+        }
+        return offset;
+    }
+
+    private byte byteAt(final long position) {
+        return segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & SEGMENT_MASK));
+    }
+
+    private int intAt(final long position) {
+        int offset = (int) (position & SEGMENT_MASK);
+        if (offset <= SEGMENT_SIZE - 4) {
+            return segments[(int) (position >>> SEGMENT_SHIFT)].getInt(offset);
+        }
+        int result = 0;
+        for (int i = 0; i < 4; i++) {
+            result = (result << 8) | (byteAt(position + i) & 0xFF);
+        }
+        return result;
+    }
+
+    private long longAt(final long position) {
+        return ((long) intAt(position) << 32) | (intAt(position + 4) & 0xFFFFFFFFL);
+    }
+
+    private int intAt(final long position, final int index) {
+        return intAt(position + index * 4L);
+    }
+
+    /**
+     * Returns the largest index in {@code [0, count)} of the int array at position whose value is lower or equal to
+     * the key.
+     */
+    private int floorIndex(final long position, final int count, final int key) {
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (intAt(position, mid) <= key) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private int searchSha1(final String sha1) {
+        byte[] key = parseSha1(sha1);
+        if (key == null) {
+            return -1;
+        }
+        int low = 0;
+        int high = sha1s - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(sha1Data + (long) mid * SHA1_ENTRY_LENGTH, SHA1_LENGTH, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares bytes at position with the key, in unsigned byte order.
+     */
+    private int compare(final long position, final int length, final byte[] key) {
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(byteAt(position + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private void read(final long position, final byte[] bytes, final int off, final int len) {
+        int done = 0;
+        while (done < len) {
+            long current = position + done;
+            ByteBuffer view = segments[(int) (current >>> SEGMENT_SHIFT)].duplicate();
+            view.position((int) (current & SEGMENT_MASK));
+            int chunk = Math.min(len - done, view.remaining());
+            view.get(bytes, off + done, chunk);
+            done += chunk;
+        }
+    }
+
+    private static byte[] utf8(final String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] parseSha1(final String sha1) {
+        if (sha1 == null || sha1.length() != SHA1_LENGTH * 2) {
+            return null;
+        }
+        byte[] result = new byte[SHA1_LENGTH];
+        for (int i = 0; i < SHA1_LENGTH; i++) {
+            int hi = Character.digit(sha1.charAt(i * 2), 16);
+            int lo = Character.digit(sha1.charAt(i * 2 + 1), 16);
+            if (hi < 0 || lo < 0) {
+                return null;
+            }
+            result[i] = (byte) ((hi << 4) | lo);
+        }
+        return result;
+    }
+
+    /**
+     * Table of UTF-8 strings: {@code int[count + 1]} offsets followed by the string bytes. Only sorted tables are
+     * searched.
+     */
+    private final class StringTable {
+        private final long position;
+
+        private final int count;
+
+        private final long data;
+
+        private StringTable(final long position, final int count) {
+            this.position = position;
+            this.count = count;
+            this.data = position + (count + 1) * 4L;
+        }
+
+        private long end() {
+            return data + intAt(position, count);
+        }
+
+        private String get(final int index) {
+            int start = intAt(position, index);
+            byte[] bytes = new byte[intAt(position, index + 1) - start];
+            read(data + start, bytes, 0, bytes.length);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int search(final int from, final int to, final byte[] key) {
+            int low = from;
+            int high = to - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int start = intAt(position, mid);
+                int cmp = compare(data + start, intAt(position, mid + 1) - start, key);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Decoder of the delta encoded rows, that starts at the block of a row and skips to it.
+     */
+    private final class RowDecoder {
+        private int row;
+
+        private long position;
+
+        private byte[] version = new byte[64];
+
+        private int versionLength;
+
+        private long lastModified;
+
+        private int classifier;
+
+        private int extension;
+
+        private RowDecoder(final int row) {
+            this.row = (row / blockSize) * blockSize;
+            this.position = rowData + longAt(blocks + (row / blockSize) * 8L);
+            while (this.row < row) {
+                decode();
+            }
+        }
+
+        private Record next(final String groupId, final String artifactId) {
+            decode();
+            Record record = new Record(Type.ARTIFACT_ADD, new HashMap<>());
+            record.put(Record.GROUP_ID, groupId);
+            record.put(Record.ARTIFACT_ID, artifactId);
+            record.put(Record.VERSION, new String(version, 0, versionLength, StandardCharsets.UTF_8));
+            if (classifier > 0) {
+                record.put(Record.CLASSIFIER, tokenTable.get(classifier - 1));
+            }
+            if (extension > 0) {
+                record.put(Record.FILE_EXTENSION, tokenTable.get(extension - 1));
+            }
+            record.put(Record.FILE_MODIFIED, lastModified);
+            return record;
+        }
+
+        private void decode() {
+            if (row % blockSize == 0) {
+                lastModified = 0L; // blocks are encoded independently
+            }
+            row++;
+            int shared = (int) readVarLong();
+            int suffix = (int) readVarLong();
+            versionLength = shared + suffix;
+            if (version.length < versionLength) {
+                version = Arrays.copyOf(version, Math.max(versionLength, version.length * 2));
+            }
+            read(position, version, shared, suffix);
+            position += suffix;
+            classifier = (int) readVarLong();
+            extension = (int) readVarLong();
+            long delta = readVarLong();
+            lastModified += (delta >>> 1) ^ -(delta & 1);
+        }
+
+        private long readVarLong() {
+            long result = 0L;
+            int shift = 0;
+            byte b;
+            do {
+                b = byteAt(position++);
+                result |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return result;
+        }
+    }
+}
@@ -21,14 +21,19 @@ package org.apache.maven.index.reader;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.maven.index.reader.ResourceHandler.Resource;
 
@@ -168,6 +173,32 @@ public class IndexReader implements Iterable<ChunkReader>, Closeable {
         return new ChunkReaderIterator(remote, chunkNames.iterator());
     }
 
+    /**
+     * Returns the sequential and ordered stream of expanded {@link Record}s of all the chunks, see
+     * {@link #records(boolean, boolean)}. Parallel expansion is opt-in, as it fans out to the common fork-join pool.
+     *
+     * @since 7.1.7
+     */
+    public Stream<Record> records() {
+        return records(false, true);
+    }
+
+    /**
+     * Returns the stream of expanded {@link Record}s of all the chunks, in chunk sequence. Records are always decoded
+     * sequentially, in batches, while parallel streams fan the expansion of batches out to the fork-join pool. The
+     * chunks are opened and closed as the stream is being consumed, hence the stream should be either consumed fully,
+     * or closed if aborting. Unordered streams do not preserve the order of records, which for incremental updates
+     * means removals and additions of same artifact may be reported in any order.
+     *
+     * @since 7.1.7
+     */
+    public Stream<Record> records(final boolean parallel, final boolean ordered) {
+        RecordIterator recordIterator = new RecordIterator(iterator());
+        return StreamSupport.stream(new BatchSpliterator(recordIterator, ordered), parallel)
+                .onClose(recordIterator::close)
+                .map(new RecordExpander());
+    }
+
     /**
      * Stores the remote index properties into local index properties, preparing local {@link WritableResourceHandler}
      * for future incremental updates.
@@ -251,6 +282,10 @@ public class IndexReader implements Iterable<ChunkReader>, Closeable {
             String chunkName = chunkNamesIterator.next();
             try {
                 Resource currentResource = resourceHandler.locate(chunkName);
+                Path path = currentResource.path();
+                if (path != null) {
+                    return new ChunkReader(chunkName, path);
+                }
                 return new ChunkReader(chunkName, currentResource.read());
             } catch (IOException e) {
                 throw new UncheckedIOException("IO problem while opening chunk readers", e);
@@ -262,4 +297,54 @@ public class IndexReader implements Iterable<ChunkReader>, Closeable {
             throw new UnsupportedOperationException("remove");
         }
     }
+
+    /**
+     * Internal iterator implementation that iterates raw records of all the chunks, closing the depleted
+     * {@link ChunkReader}s.
+     */
+    private static class RecordIterator implements Iterator<Map<String, String>> {
+        private final Iterator<ChunkReader> chunkReaders;
+
+        private ChunkReader currentChunkReader;
+
+        private Iterator<Map<String, String>> currentRecords = Collections.emptyIterator();
+
+        private RecordIterator(final Iterator<ChunkReader> chunkReaders) {
+            this.chunkReaders = chunkReaders;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!currentRecords.hasNext()) {
+                close();
+                if (!chunkReaders.hasNext()) {
+                    return false;
+                }
+                currentChunkReader = chunkReaders.next();
+                currentRecords = currentChunkReader.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("chunks depleted");
+            }
+            return currentRecords.next();
+        }
+
+        private void close() {
+            if (currentChunkReader != null) {
+                try {
+                    currentChunkReader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("IO problem while closing chunk reader", e);
+                } finally {
+                    currentChunkReader = null;
+                    currentRecords = Collections.emptyIterator();
+                }
+            }
+        }
+    }
 }
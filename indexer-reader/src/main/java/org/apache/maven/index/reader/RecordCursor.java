@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.index.reader;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Forward only cursor over the raw records of a chunk. Unlike the {@link Map} records returned by
+ * {@link ChunkReader#iterator()}, the cursor does not allocate per record: field names are shared instances, and
+ * values are exposed as {@link CharSequence} views over a reused buffer, that are valid only until the next call of
+ * {@link #next()}. Callers should copy (ie. {@link CharSequence#toString()}) only the values they need to retain.
+ *
+ * @since 7.1.7
+ */
+public final class RecordCursor {
+    private final ChunkInput input;
+
+    private int size;
+
+    private String[] names = new String[16];
+
+    private int[] offsets = new int[16];
+
+    private int[] lengths = new int[16];
+
+    private Value[] values = new Value[16];
+
+    private char[] chars = new char[1024];
+
+    RecordCursor(final ChunkInput input) {
+        this.input = input;
+    }
+
+    /**
+     * Moves the cursor to the next record, returns {@code false} if there are no more records.
+     */
+    public boolean next() throws IOException {
+        size = 0;
+        if (!input.hasMore()) {
+            return false; // no more documents
+        }
+        int fieldCount = input.readInt();
+        if (fieldCount < 0) {
+            throw new IOException("Index data content is corrupt");
+        }
+        if (fieldCount > names.length) {
+            int length = Math.max(fieldCount, names.length * 2);
+            names = Arrays.copyOf(names, length);
+            offsets = Arrays.copyOf(offsets, length);
+            lengths = Arrays.copyOf(lengths, length);
+            values = Arrays.copyOf(values, length);
+        }
+        int used = 0;
+        for (int i = 0; i < fieldCount; i++) {
+            input.readByte(); // flags: neglect them
+            names[i] = input.readName();
+            int utflen = input.readInt();
+            if (utflen < 0) {
+                throw new IOException("Index data content is corrupt");
+            }
+            if (chars.length - used < utflen) {
+                try {
+                    chars = Arrays.copyOf(chars, Math.max(used + utflen, chars.length * 2));
+                } catch (OutOfMemoryError e) {
+                    throw new IOException("Index data content is corrupt", e);
+                }
+            }
+            offsets[i] = used;
+            lengths[i] = input.decodeUTF(utflen, chars, used);
+            used += lengths[i];
+        }
+        size = fieldCount;
+        return true;
+    }
+
+    /**
+     * Returns the count of fields of current record.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the name of field at given index of current record.
+     */
+    public String name(final int index) {
+        checkIndex(index);
+        return names[index];
+    }
+
+    /**
+     * Returns the value of field at given index of current record, as a view valid until next call of {@link #next()}.
+     */
+    public CharSequence value(final int index) {
+        checkIndex(index);
+        Value value = values[index];
+        if (value == null) {
+            value = new Value(index);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the value of field with given name of current record, as a view valid until next call of
+     * {@link #next()}, or {@code null} if current record has no such field.
+     */
+    public CharSequence value(final String name) {
+        // last one wins, as with maps
+        for (int i = size - 1; i >= 0; i--) {
+            if (names[i].equals(name)) {
+                return value(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies current record into a new {@link Map}.
+     */
+    public Map<String, String> toMap() {
+        Map<String, String> recordMap = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            recordMap.put(names[i], new String(chars, offsets[i], lengths[i]));
+        }
+        return recordMap;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("field index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    /**
+     * Flyweight view of a field value in the shared char buffer.
+     */
+    private final class Value implements CharSequence {
+        private final int index;
+
+        private Value(final int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int length() {
+            return lengths[index];
+        }
+
+        @Override
+        public char charAt(final int charIndex) {
+            if (charIndex < 0 || charIndex >= lengths[index]) {
+                throw new IndexOutOfBoundsException("char index " + charIndex);
+            }
+            return chars[offsets[index] + charIndex];
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            if (start < 0 || end > lengths[index] || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end);
+            }
+            return new String(chars, offsets[index] + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, offsets[index], lengths[index]);
+        }
+    }
+}
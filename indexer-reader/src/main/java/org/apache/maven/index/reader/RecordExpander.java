@@ -18,6 +18,7 @@
  */
 package org.apache.maven.index.reader;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
@@ -26,7 +27,6 @@ import org.apache.maven.index.reader.Record.EntryKey;
 import org.apache.maven.index.reader.Record.Type;
 
 import static org.apache.maven.index.reader.Utils.FIELD_SEPARATOR;
-import static org.apache.maven.index.reader.Utils.FS_PATTERN;
 import static org.apache.maven.index.reader.Utils.INFO;
 import static org.apache.maven.index.reader.Utils.NOT_AVAILABLE;
 import static org.apache.maven.index.reader.Utils.UINFO;
@@ -56,7 +56,7 @@ public class RecordExpander implements Function<Map<String, String>, Record> {
             final String uinfo = recordMap.get(UINFO);
             final String info = recordMap.get(INFO);
             if (uinfo != null && !(info == null || info.isBlank())) {
-                final String[] splitInfo = FS_PATTERN.split(info);
+                final String[] splitInfo = split(info);
                 if (splitInfo.length > 6) {
                     final String extension = splitInfo[6];
                     if (uinfo.endsWith(FIELD_SEPARATOR + NOT_AVAILABLE)) {
@@ -70,7 +70,7 @@ public class RecordExpander implements Function<Map<String, String>, Record> {
 
     private static Record expandDescriptor(final Map<String, String> raw) {
         final Record result = new Record(Type.DESCRIPTOR, new HashMap<>());
-        String[] r = FS_PATTERN.split(raw.get("IDXINFO"));
+        String[] r = split(raw.get("IDXINFO"));
         result.put(Record.REPOSITORY_ID, r[1]);
         return result;
     }
@@ -106,7 +106,7 @@ public class RecordExpander implements Function<Map<String, String>, Record> {
         expandUinfo(raw.get(UINFO), result);
         final String info = raw.get(INFO);
         if (info != null) {
-            String[] r = FS_PATTERN.split(info);
+            String[] r = split(info);
             result.put(Record.PACKAGING, renvl(r[0]));
             result.put(Record.FILE_MODIFIED, Long.valueOf(r[1]));
             result.put(Record.FILE_SIZE, Long.valueOf(r[2]));
@@ -164,7 +164,7 @@ public class RecordExpander implements Function<Map<String, String>, Record> {
      */
     private static void expandUinfo(final String uinfo, final Record result) {
         if (uinfo != null) {
-            String[] r = FS_PATTERN.split(uinfo);
+            String[] r = split(uinfo);
             result.put(Record.GROUP_ID, r[0]);
             result.put(Record.ARTIFACT_ID, r[1]);
             result.put(Record.VERSION, r[2]);
@@ -209,7 +209,40 @@ public class RecordExpander implements Function<Map<String, String>, Record> {
             final Map<String, String> source, final String sourceName, final Record target, final EntryKey targetName) {
         String value = source.get(sourceName);
         if (value != null && !value.isBlank()) {
-            target.put(targetName, FS_PATTERN.split(value));
+            target.put(targetName, split(value));
         }
     }
+
+    /**
+     * Splits the synthetic field value on {@link Utils#FIELD_SEPARATOR}, with same result as
+     * {@link Utils#FS_PATTERN} (trailing empty strings are dropped), but without going through the regular expression
+     * engine.
+     */
+    static String[] split(final String value) {
+        final char separator = FIELD_SEPARATOR.charAt(0);
+        int count = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == separator) {
+                count++;
+            }
+        }
+        if (count == 1) {
+            return new String[] {value};
+        }
+        final String[] result = new String[count];
+        int start = 0;
+        int index = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == separator) {
+                result[index++] = value.substring(start, i);
+                start = i + 1;
+            }
+        }
+        result[index] = value.substring(start);
+        int length = count;
+        while (length > 0 && result[length - 1].isEmpty()) {
+            length--;
+        }
+        return length == count ? result : Arrays.copyOf(result, length);
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.maven.index.reader;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 /**
  * Maven Index resource abstraction, that should be handled as a resource (is {@link Closeable}. That means, that
@@ -40,6 +41,16 @@ public interface ResourceHandler extends Closeable {
          */
         InputStream read() throws IOException;
 
+        /**
+         * Returns the local file backing this resource, if there is one and it exists, {@code null} otherwise. Readers
+         * may use it to map the content into memory instead of streaming it through {@link #read()}.
+         *
+         * @since 7.1.7
+         */
+        default Path path() throws IOException {
+            return null;
+        }
+
         /**
          * Default close method is no-op, override if implementation requires.
          */
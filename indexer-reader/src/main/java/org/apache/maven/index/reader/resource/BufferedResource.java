@@ -21,6 +21,7 @@ package org.apache.maven.index.reader.resource;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
 
 import org.apache.maven.index.reader.ResourceHandler.Resource;
 
@@ -46,6 +47,11 @@ public class BufferedResource implements Resource {
         return new BufferedInputStream(in);
     }
 
+    @Override
+    public Path path() throws IOException {
+        return resource.path();
+    }
+
     @Override
     public void close() throws IOException {
         resource.close();
@@ -54,6 +54,11 @@ public class PathWritableResource implements WritableResource {
         }
     }
 
+    @Override
+    public Path path() {
+        return Files.isRegularFile(path) ? path : null;
+    }
+
     @Override
     public void close() throws IOException {}
 }
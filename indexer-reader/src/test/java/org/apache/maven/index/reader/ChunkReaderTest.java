@@ -18,16 +18,22 @@
  */
 package org.apache.maven.index.reader;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.apache.maven.index.reader.Record.Type;
 import org.junit.jupiter.api.Test;
 
+import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.IsEqual.equalTo;
@@ -78,4 +84,51 @@ public class ChunkReaderTest extends TestSupport {
             assertThat(recordTypes.get(Type.ARTIFACT_REMOVE), nullValue());
         }
     }
+
+    @Test
+    public void mappedCursor() throws IOException {
+        final List<Map<String, String>> expected = new ArrayList<>();
+        try (DirectoryResourceHandler handler = testResourceHandler("simple")) {
+            try (ChunkReader chunkReader = new ChunkReader(
+                    "full", handler.locate("nexus-maven-repository-index.gz").read())) {
+                chunkReader.forEach(expected::add);
+            }
+
+            final List<Map<String, String>> actual = new ArrayList<>();
+            try (ChunkReader chunkReader = new ChunkReader(
+                    "full", handler.getRootDirectory().resolve("nexus-maven-repository-index.gz"))) {
+                assertThat(chunkReader.getVersion(), equalTo(1));
+                RecordCursor cursor = chunkReader.cursor();
+                while (cursor.next()) {
+                    Map<String, String> record = new HashMap<>();
+                    for (int i = 0; i < cursor.size(); i++) {
+                        record.put(cursor.name(i), cursor.value(i).toString());
+                    }
+                    assertThat(record, equalTo(cursor.toMap()));
+                    actual.add(record);
+                }
+            }
+            assertThat(actual, equalTo(expected));
+        }
+    }
+
+    @Test
+    public void streamClosesReader() throws IOException {
+        final AtomicBoolean closed = new AtomicBoolean();
+        try (WritableResourceHandler handler = testResourceHandler("simple")) {
+            ChunkReader chunkReader = new ChunkReader(
+                    "full", new FilterInputStream(handler.locate("nexus-maven-repository-index.gz").read()) {
+                        @Override
+                        public void close() throws IOException {
+                            closed.set(true);
+                            super.close();
+                        }
+                    });
+            try (Stream<Record> records = chunkReader.stream(false, true)) {
+                assertThat(records.limit(1).count(), equalTo(1L));
+                assertThat(closed.get(), is(false));
+            }
+        }
+        assertThat(closed.get(), is(true));
+    }
 }
@@ -25,6 +25,8 @@ import java.nio.file.Path;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.apache.maven.index.reader.Record.Type;
@@ -180,4 +182,24 @@ public class IndexReaderTest extends TestSupport {
             }
         }
     }
+
+    @Test
+    public void records() throws IOException {
+        final List<Type> expected;
+        try (IndexReader indexReader = new IndexReader(null, testResourceHandler("simple"))) {
+            expected = indexReader.records().map(Record::getType).collect(Collectors.toList());
+        }
+        assertThat(expected.size(), equalTo(5));
+
+        try (IndexReader indexReader = new IndexReader(null, testResourceHandler("simple"))) {
+            assertThat(
+                    indexReader.records(true, true).map(Record::getType).collect(Collectors.toList()),
+                    equalTo(expected));
+        }
+
+        try (IndexReader indexReader = new IndexReader(null, testResourceHandler("simple"));
+                Stream<Record> records = indexReader.records(true, false)) {
+            assertThat(records.count(), equalTo(5L));
+        }
+    }
 }
@@ -91,4 +91,14 @@ public class TransformTest extends TestSupport {
         result.put(Record.HAS_SIGNATURE, Boolean.FALSE);
         return result;
     }
+
+    @Test
+    public void split() {
+        for (String value : Arrays.asList("", "a", "a|b", "|a", "a|", "a||b|NA||", "|||", "org.foo|foo|1.0|NA|jar")) {
+            assertThat(
+                    value,
+                    Arrays.asList(RecordExpander.split(value)),
+                    equalTo(Arrays.asList(Utils.FS_PATTERN.split(value))));
+        }
+    }
 }
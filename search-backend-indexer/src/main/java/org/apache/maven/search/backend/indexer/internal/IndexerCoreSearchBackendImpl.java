@@ -129,6 +129,8 @@ public class IndexerCoreSearchBackendImpl extends SearchBackendSupport implement
         } else {
             GroupedSearchRequest groupedSearchRequest =
                     new GroupedSearchRequest(query, new GAGrouping(), indexingContext);
+            // only the top artifact and the count of each group is used
+            groupedSearchRequest.setCollapsed(true);
 
             try (GroupedSearchResponse groupedSearchResponse = indexer.searchGrouped(groupedSearchRequest)) {
                 totalHitsCount = groupedSearchResponse.getResults().size();
@@ -138,7 +140,7 @@ public class IndexerCoreSearchBackendImpl extends SearchBackendSupport implement
                         .forEach(aig -> {
                             ArtifactInfo ai = aig.getArtifactInfos().iterator().next();
                             artifactInfos.add(ai);
-                            page.add(convert(ai, aig.getArtifactInfos().size()));
+                            page.add(convert(ai, aig.getCount()));
                         });
             }
             return new IndexerCoreSearchResponseImpl(searchRequest, totalHitsCount, page, query, artifactInfos);